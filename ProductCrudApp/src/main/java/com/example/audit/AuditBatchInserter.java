@@ -0,0 +1,81 @@
+package com.example.audit;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Writes audit records to audit_logs with one JDBC batch per call, either in its own local
+ * transaction or on a connection the caller supplies.
+ */
+public class AuditBatchInserter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_logs (id, actor, action, entity_type, entity_id, payload, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final DataSource dataSource;
+    private final AuditIdAllocator idAllocator;
+
+    public AuditBatchInserter(DataSource dataSource, AuditIdAllocator idAllocator) {
+        this.dataSource = dataSource;
+        this.idAllocator = idAllocator;
+    }
+
+    /** For callers that only write on their own connection ({@link #insert(Connection, List)}) */
+    public AuditBatchInserter(AuditIdAllocator idAllocator) {
+        this(null, idAllocator);
+    }
+
+    public void insert(List<AuditRecord> records) throws SQLException {
+        if (records.isEmpty()) return;
+
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                insert(connection, records);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * Same single batch on a connection owned by the caller, which decides when to commit
+     * (e.g. the JTA connection of the transaction the audited change is part of).
+     */
+    public void insert(Connection connection, List<AuditRecord> records) throws SQLException {
+        if (records.isEmpty()) return;
+
+        try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL)) {
+            for (AuditRecord record : records) {
+                ps.setLong(1, idAllocator.nextId(connection));
+                ps.setString(2, record.getActor());
+                ps.setString(3, record.getAction());
+                ps.setString(4, record.getEntityType());
+                if (record.getEntityId() != null) {
+                    ps.setLong(5, record.getEntityId());
+                } else {
+                    ps.setNull(5, Types.BIGINT); // e.g. listings, which have no single entity
+                }
+                if (record.getPayload() != null) {
+                    ps.setString(6, record.getPayload());
+                } else {
+                    ps.setNull(6, Types.VARCHAR);
+                }
+                ps.setTimestamp(7, Timestamp.valueOf(record.getCreatedAt()));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+}
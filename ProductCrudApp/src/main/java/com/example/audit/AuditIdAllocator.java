@@ -0,0 +1,48 @@
+package com.example.audit;
+
+import com.example.entities.AuditLog;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Hands out audit_logs ids from blocks reserved with a single nextval() call.
+ * The sequence increments by {@link AuditLog#ID_ALLOCATION_SIZE}; a returned value N
+ * reserves ids N - size + 1 .. N, the same convention the JPA provider uses for the entity.
+ */
+public class AuditIdAllocator {
+
+    private static final String NEXTVAL_SQL = "SELECT nextval('" + AuditLog.ID_SEQUENCE + "')";
+
+    private final int blockSize;
+    private long next;
+    private long last = -1;
+
+    public AuditIdAllocator() {
+        this(AuditLog.ID_ALLOCATION_SIZE);
+    }
+
+    AuditIdAllocator(int blockSize) {
+        this.blockSize = blockSize;
+    }
+
+    /** Next free id; only hits the database when the current block is used up */
+    public synchronized long nextId(Connection connection) throws SQLException {
+        if (next > last) {
+            long high = fetchNextValue(connection);
+            next = high - blockSize + 1;
+            last = high;
+        }
+        return next++;
+    }
+
+    protected long fetchNextValue(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(NEXTVAL_SQL);
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.audit;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable audit entry waiting to be written to the audit_logs table.
+ * Mirrors {@link com.example.entities.AuditLog} without being a managed entity,
+ * so it can be handed safely to the background writer thread.
+ */
+public final class AuditRecord {
+
+    private final String actor;
+    private final String action;
+    private final String entityType;
+    private final Long entityId;
+    private final String payload;
+    private final LocalDateTime createdAt;
+
+    public AuditRecord(String actor, String action, String entityType,
+                       Long entityId, String payload, LocalDateTime createdAt) {
+        this.actor = actor;
+        this.action = action;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    public String getActor() {
+        return actor;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
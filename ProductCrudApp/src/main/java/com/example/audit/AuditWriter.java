@@ -0,0 +1,222 @@
+package com.example.audit;
+
+import com.example.audit.journal.AuditJournalReplayer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Takes audit writes off the request path.
+ * Records go into a bounded in-memory queue; a single drain thread groups them into
+ * batches (up to batch-size records, or whatever arrived within linger-ms) and writes
+ * each batch with one JDBC round trip through {@link AuditBatchInserter}.
+ * With the SPILL policy, overflow and batches the database keeps rejecting go to the
+ * on-disk journal ({@link AuditJournalReplayer}) instead of piling up on the heap.
+ */
+@ApplicationScoped
+public class AuditWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditWriter.class);
+
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MS = 500;
+
+    @Resource(lookup = "jdbc/postgres")
+    private DataSource dataSource;
+
+    @Resource
+    private ManagedThreadFactory threadFactory;
+
+    @Inject
+    private AuditJournalReplayer journal;
+
+    @Inject
+    @ConfigProperty(name = "audit.writer.queue-capacity", defaultValue = "10000")
+    private int queueCapacity;
+
+    @Inject
+    @ConfigProperty(name = "audit.writer.batch-size", defaultValue = "100")
+    private int batchSize;
+
+    @Inject
+    @ConfigProperty(name = "audit.writer.linger-ms", defaultValue = "50")
+    private long lingerMs;
+
+    @Inject
+    @ConfigProperty(name = "audit.writer.backpressure", defaultValue = "SPILL")
+    private BackpressurePolicy backpressure;
+
+    @Inject
+    @ConfigProperty(name = "audit.writer.block-timeout-ms", defaultValue = "250")
+    private long blockTimeoutMs;
+
+    private BlockingQueue<AuditRecord> queue;
+    private AuditBatchInserter inserter;
+    private Thread worker;
+    private volatile boolean running;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        inserter = new AuditBatchInserter(dataSource, new AuditIdAllocator());
+
+        running = true;
+        worker = threadFactory.newThread(this::drainLoop);
+        worker.setName("audit-writer");
+        worker.start();
+
+        log.info("AUDIT_WRITER_STARTED capacity={} batchSize={} lingerMs={} backpressure={}",
+                queueCapacity, batchSize, lingerMs, backpressure);
+    }
+
+    /** Instantiates the writer (and its drain thread) when the application starts */
+    void onStartup(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        // nothing to do: observing the event is enough to create the bean
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Whatever the worker did not get to
+        List<AuditRecord> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            write(remaining.subList(from, Math.min(remaining.size(), from + batchSize)));
+        }
+    }
+
+    // -------------------------
+    // Producer side
+    // -------------------------
+    /**
+     * Queue a record for writing. Never throws; when the queue is full the
+     * configured {@link BackpressurePolicy} decides between waiting, spilling to disk and dropping.
+     */
+    public void submit(AuditRecord record) {
+        boolean accepted = queue.offer(record);
+
+        if (!accepted && backpressure == BackpressurePolicy.BLOCK) {
+            try {
+                accepted = queue.offer(record, blockTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (accepted) {
+            enqueued.increment();
+        } else if (backpressure == BackpressurePolicy.SPILL && journal.spill(record)) {
+            spilled.increment();
+        } else {
+            dropped.increment();
+            log.warn("AUDIT_DROPPED action={} entityType={} entityId={}",
+                    record.getAction(), record.getEntityType(), record.getEntityId());
+        }
+    }
+
+    // -------------------------
+    // Drain worker
+    // -------------------------
+    private void drainLoop() {
+        List<AuditRecord> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditRecord first = queue.poll(lingerMs, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+
+                // Fill the batch until it is full or the linger time is over
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) break;
+
+                    AuditRecord next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+
+                write(batch);
+            } catch (InterruptedException e) {
+                if (!running) break;
+            } catch (RuntimeException e) {
+                // this is the only drain thread: losing one batch is better than losing the loop
+                failed.add(batch.size());
+                log.error("AUDIT_DRAIN_FAILED size={}", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<AuditRecord> batch) {
+        for (int attempt = 1; attempt <= MAX_WRITE_ATTEMPTS; attempt++) {
+            try {
+                inserter.insert(batch);
+                written.add(batch.size());
+                batches.increment();
+                return;
+            } catch (SQLException | RuntimeException e) {
+                log.error("AUDIT_BATCH_FAILED size={} attempt={}", batch.size(), attempt, e);
+                if (attempt < MAX_WRITE_ATTEMPTS && !sleepQuietly(RETRY_DELAY_MS * attempt)) break;
+            }
+        }
+        // Database still unavailable: keep the records on disk for the replayer
+        if (backpressure == BackpressurePolicy.SPILL && journal.spill(batch)) {
+            spilled.add(batch.size());
+            return;
+        }
+        failed.add(batch.size());
+    }
+
+    private static boolean sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // -------------------------
+    // Stats
+    // -------------------------
+    public AuditWriterStats stats() {
+        return new AuditWriterStats(queue.size(), queueCapacity,
+                enqueued.sum(), written.sum(), dropped.sum(), spilled.sum(), failed.sum(), batches.sum());
+    }
+}
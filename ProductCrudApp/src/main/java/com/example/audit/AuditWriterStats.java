@@ -0,0 +1,41 @@
+package com.example.audit;
+
+/**
+ * Point-in-time counters of the {@link AuditWriter}.
+ */
+public class AuditWriterStats {
+
+    private final int queueDepth;
+    private final int queueCapacity;
+    private final long enqueued;
+    private final long written;
+    private final long dropped;
+    private final long spilled;
+    private final long failed;
+    private final long batches;
+
+    public AuditWriterStats(int queueDepth, int queueCapacity, long enqueued,
+                            long written, long dropped, long spilled, long failed, long batches) {
+        this.queueDepth = queueDepth;
+        this.queueCapacity = queueCapacity;
+        this.enqueued = enqueued;
+        this.written = written;
+        this.dropped = dropped;
+        this.spilled = spilled;
+        this.failed = failed;
+        this.batches = batches;
+    }
+
+    public int getQueueDepth() { return queueDepth; }
+    public int getQueueCapacity() { return queueCapacity; }
+    public long getEnqueued() { return enqueued; }
+    public long getWritten() { return written; }
+    public long getDropped() { return dropped; }
+    public long getSpilled() { return spilled; }
+    public long getFailed() { return failed; }
+    public long getBatches() { return batches; }
+
+    public double getAverageBatchSize() {
+        return (batches == 0) ? 0.0 : (double) written / batches;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.audit;
+
+/**
+ * What {@link AuditWriter} does when its in-memory queue is full.
+ */
+public enum BackpressurePolicy {
+    /** Wait up to the configured block timeout for space, then drop */
+    BLOCK,
+    /** Drop the record immediately and count it */
+    DROP,
+    /** Append the record to the on-disk audit journal; it is replayed into the table later */
+    SPILL
+}
@@ -0,0 +1,356 @@
+package com.example.audit.journal;
+
+import com.example.audit.AuditRecord;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, segmented audit journal backed by memory-mapped files.
+ *
+ * Each record is stored as [int length][int CRC32C][length bytes] (see {@link AuditRecordCodec}).
+ * A zero length marks the end of the written data in a segment. Segments are fixed-size files
+ * named after the logical offset of their first byte, so an offset is simply
+ * segment base + position and stays valid across restarts.
+ *
+ * The consumer acknowledges progress with {@link #commit(long)}; the committed offset is kept in a
+ * checkpoint file and segments that lie entirely before it are deleted.
+ */
+public class AuditJournal implements Closeable {
+
+    static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT_FILE = "replayer.offset";
+
+    private final Path directory;
+    private final int segmentBytes;
+
+    // base offset -> segment, oldest first
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final List<Path> pendingDeletes = new ArrayList<>();
+
+    private Segment head;
+    private long committedOffset;
+    private long corruptRecords;
+
+    private AuditJournal(Path directory, int segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+
+    // -------------------------
+    // Open / recover
+    // -------------------------
+    /**
+     * Opens (or creates) the journal in {@code directory}, restoring the committed offset
+     * and the write position of the newest segment.
+     */
+    public static AuditJournal open(Path directory, int segmentBytes) throws IOException {
+        if (segmentBytes <= HEADER_BYTES) throw new IllegalArgumentException("segmentBytes too small");
+        Files.createDirectories(directory);
+
+        AuditJournal journal = new AuditJournal(directory, segmentBytes);
+        journal.recover();
+        return journal;
+    }
+
+    private void recover() throws IOException {
+        committedOffset = readCheckpoint();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (!name.endsWith(SEGMENT_SUFFIX)) continue;
+
+                long base = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                if (base + segmentBytes <= committedOffset) {
+                    Files.deleteIfExists(file); // fully replayed before the last shutdown
+                } else {
+                    segments.put(base, Segment.map(file, base, segmentBytes));
+                }
+            }
+        }
+
+        if (segments.isEmpty()) {
+            head = createSegment(committedOffset);
+        } else {
+            head = segments.lastEntry().getValue();
+            head.position = scanEnd(head);
+        }
+    }
+
+    /** First position in the segment that does not hold a complete, valid record */
+    private int scanEnd(Segment segment) {
+        int position = 0;
+        while (true) {
+            int length = validRecordLength(segment.buffer, position);
+            if (length <= 0) return position;
+            position += HEADER_BYTES + length;
+        }
+    }
+
+    // -------------------------
+    // Append
+    // -------------------------
+    /**
+     * Appends a record and returns the offset just past it.
+     * Rolls to a new segment when the current one is full.
+     */
+    public synchronized long append(AuditRecord record) throws IOException {
+        byte[] body = AuditRecordCodec.encode(record);
+        int needed = HEADER_BYTES + body.length;
+        if (needed > segmentBytes) {
+            throw new IllegalArgumentException("Audit record of " + body.length + " bytes exceeds segment size");
+        }
+
+        if (head.position + needed > segmentBytes) {
+            head = createSegment(head.base + segmentBytes);
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+
+        // body and CRC first, length last: a reader never sees a length for a half-written record
+        MappedByteBuffer buffer = head.buffer;
+        int position = head.position;
+        buffer.put(position + HEADER_BYTES, body);
+        buffer.putInt(position + Integer.BYTES, (int) crc.getValue());
+        buffer.putInt(position, body.length);
+
+        head.position = position + needed;
+        return head.base + head.position;
+    }
+
+    /** Flush written pages of the active segment to the storage device */
+    public synchronized void force() {
+        head.buffer.force();
+    }
+
+    // -------------------------
+    // Read
+    // -------------------------
+    /**
+     * Reads up to {@code maxRecords} records starting at {@code fromOffset}.
+     * Corrupt records in sealed segments are skipped (and counted) by moving to the next segment.
+     */
+    public synchronized ReadResult read(long fromOffset, int maxRecords) {
+        List<AuditRecord> records = new ArrayList<>();
+        long offset = Math.max(fromOffset, firstOffset());
+
+        while (records.size() < maxRecords) {
+            Map.Entry<Long, Segment> entry = segments.floorEntry(offset);
+            if (entry == null) break;
+
+            Segment segment = entry.getValue();
+            int position = (int) (offset - segment.base);
+            boolean isHead = (segment == head);
+
+            if (isHead && position >= head.position) break; // caught up with the writer
+
+            int length = (position + HEADER_BYTES <= segmentBytes)
+                    ? validRecordLength(segment.buffer, position)
+                    : 0;
+
+            if (length > 0) {
+                ByteBuffer body = segment.buffer.duplicate();
+                body.position(position + HEADER_BYTES).limit(position + HEADER_BYTES + length);
+                records.add(AuditRecordCodec.decode(body.slice()));
+                offset += HEADER_BYTES + length;
+                continue;
+            }
+
+            if (isHead) break;
+            if (length < 0) corruptRecords++;
+
+            // End of data (or corruption) in a sealed segment: continue with the next one
+            Long next = segments.higherKey(segment.base);
+            if (next == null) break;
+            offset = next;
+        }
+
+        return new ReadResult(records, offset);
+    }
+
+    /**
+     * Length of the record at {@code position}, 0 at the end of the data,
+     * or -1 when the header or CRC does not check out.
+     */
+    private int validRecordLength(MappedByteBuffer buffer, int position) {
+        if (position + HEADER_BYTES > segmentBytes) return 0;
+
+        int length = buffer.getInt(position);
+        if (length == 0) return 0;
+        if (length < 0 || position + HEADER_BYTES + length > segmentBytes) return -1;
+
+        byte[] body = new byte[length];
+        buffer.get(position + HEADER_BYTES, body);
+
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        return ((int) crc.getValue() == buffer.getInt(position + Integer.BYTES)) ? length : -1;
+    }
+
+    // -------------------------
+    // Commit
+    // -------------------------
+    /**
+     * Records that everything before {@code offset} has been written to the database,
+     * then releases segments that are no longer needed.
+     */
+    public synchronized void commit(long offset) throws IOException {
+        if (offset <= committedOffset) return;
+        committedOffset = offset;
+        writeCheckpoint(offset);
+
+        Iterator<Map.Entry<Long, Segment>> it = segments.entrySet().iterator();
+        while (it.hasNext()) {
+            Segment segment = it.next().getValue();
+            if (segment == head || segment.base + segmentBytes > offset) break;
+            segment.close();
+            pendingDeletes.add(segment.file);
+            it.remove();
+        }
+        deletePending();
+    }
+
+    private void deletePending() {
+        // A mapped file cannot be deleted on every platform until it is unmapped; retry on the next commit
+        pendingDeletes.removeIf(file -> {
+            try {
+                Files.deleteIfExists(file);
+                return true;
+            } catch (IOException e) {
+                return false;
+            }
+        });
+    }
+
+    // -------------------------
+    // Offsets / stats
+    // -------------------------
+    public synchronized long committedOffset() {
+        return committedOffset;
+    }
+
+    public synchronized long writeOffset() {
+        return head.base + head.position;
+    }
+
+    /** Bytes appended but not yet committed */
+    public synchronized long pendingBytes() {
+        return Math.max(0, writeOffset() - committedOffset);
+    }
+
+    public synchronized long corruptRecords() {
+        return corruptRecords;
+    }
+
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    private long firstOffset() {
+        return segments.isEmpty() ? 0 : segments.firstKey();
+    }
+
+    @Override
+    public synchronized void close() {
+        for (Segment segment : segments.values()) {
+            segment.buffer.force();
+            segment.close();
+        }
+        segments.clear();
+    }
+
+    // -------------------------
+    // Files
+    // -------------------------
+    private Segment createSegment(long base) throws IOException {
+        Path file = directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+        Segment segment = Segment.map(file, base, segmentBytes);
+        segments.put(base, segment);
+        return segment;
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) return 0;
+        String value = Files.readString(file, StandardCharsets.US_ASCII).trim();
+        return value.isEmpty() ? 0 : Long.parseLong(value);
+    }
+
+    private void writeCheckpoint(long offset) throws IOException {
+        Path tmp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.writeString(tmp, Long.toString(offset), StandardCharsets.US_ASCII);
+        Files.move(tmp, directory.resolve(CHECKPOINT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static final class Segment {
+        final Path file;
+        final long base;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        int position;
+
+        private Segment(Path file, long base, FileChannel channel, MappedByteBuffer buffer) {
+            this.file = file;
+            this.base = base;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment map(Path file, long base, int size) throws IOException {
+            FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            return new Segment(file, base, channel, buffer);
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // mapping stays valid until collected; nothing else to release
+            }
+        }
+    }
+
+    /**
+     * Records read in one call, plus the offset to continue (and eventually commit) from.
+     */
+    public static final class ReadResult {
+        private final List<AuditRecord> records;
+        private final long nextOffset;
+
+        ReadResult(List<AuditRecord> records, long nextOffset) {
+            this.records = records;
+            this.nextOffset = nextOffset;
+        }
+
+        public List<AuditRecord> getRecords() {
+            return records;
+        }
+
+        public long getNextOffset() {
+            return nextOffset;
+        }
+
+        public boolean isEmpty() {
+            return records.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.audit.journal;
+
+import com.example.audit.AuditBatchInserter;
+import com.example.audit.AuditIdAllocator;
+import com.example.audit.AuditRecord;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Owns the on-disk {@link AuditJournal} and drains it into audit_logs.
+ * Records land here when the in-memory audit queue is full or the database keeps failing;
+ * a background thread replays them in batches and commits the journal offset only after
+ * the batch is in the table, so a restart resumes exactly where the last commit left off.
+ */
+@ApplicationScoped
+public class AuditJournalReplayer {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditJournalReplayer.class);
+
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    @Resource(lookup = "jdbc/postgres")
+    private DataSource dataSource;
+
+    @Resource
+    private ManagedThreadFactory threadFactory;
+
+    @Inject
+    @ConfigProperty(name = "audit.journal.dir", defaultValue = "audit-journal")
+    private String directory;
+
+    @Inject
+    @ConfigProperty(name = "audit.journal.segment-bytes", defaultValue = "67108864")
+    private int segmentBytes;
+
+    @Inject
+    @ConfigProperty(name = "audit.journal.replay-batch-size", defaultValue = "100")
+    private int replayBatchSize;
+
+    @Inject
+    @ConfigProperty(name = "audit.journal.poll-ms", defaultValue = "1000")
+    private long pollMs;
+
+    private AuditJournal journal;
+    private AuditBatchInserter inserter;
+    private Thread worker;
+    private volatile boolean running;
+
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder replayFailures = new LongAdder();
+
+    @PostConstruct
+    void start() {
+        try {
+            journal = AuditJournal.open(Paths.get(directory), segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open audit journal in " + directory, e);
+        }
+        inserter = new AuditBatchInserter(dataSource, new AuditIdAllocator());
+
+        running = true;
+        worker = threadFactory.newThread(this::replayLoop);
+        worker.setName("audit-journal-replayer");
+        worker.start();
+
+        log.info("AUDIT_JOURNAL_OPENED dir={} committedOffset={} pendingBytes={}",
+                directory, journal.committedOffset(), journal.pendingBytes());
+    }
+
+    /** Starts replaying leftovers from the previous run as soon as the application is up */
+    void onStartup(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        // nothing to do: observing the event is enough to create the bean
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        journal.close();
+    }
+
+    // -------------------------
+    // Spill (producer side)
+    // -------------------------
+    /**
+     * Append records to the journal. Returns false if they could not be persisted.
+     */
+    public boolean spill(List<AuditRecord> records) {
+        try {
+            for (AuditRecord record : records) {
+                journal.append(record);
+            }
+            spilled.add(records.size());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.error("AUDIT_SPILL_FAILED size={}", records.size(), e);
+            return false;
+        }
+    }
+
+    public boolean spill(AuditRecord record) {
+        return spill(List.of(record));
+    }
+
+    // -------------------------
+    // Replay worker
+    // -------------------------
+    private void replayLoop() {
+        long backoffMs = pollMs;
+        while (running) {
+            try {
+                boolean wroteBatch = replayOnce();
+                backoffMs = pollMs;
+                if (wroteBatch) continue; // more may be waiting, go again straight away
+            } catch (SQLException | IOException e) {
+                replayFailures.increment();
+                log.warn("AUDIT_REPLAY_FAILED retryInMs={}", backoffMs, e);
+                backoffMs = Math.min(MAX_BACKOFF_MS, backoffMs * 2);
+            }
+
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                if (!running) break;
+            }
+        }
+    }
+
+    /** Replays one batch; returns true if anything was written */
+    boolean replayOnce() throws SQLException, IOException {
+        AuditJournal.ReadResult result = journal.read(journal.committedOffset(), replayBatchSize);
+        if (result.isEmpty()) {
+            // Nothing to insert, but skipped/empty segment tails still move the offset forward
+            journal.commit(result.getNextOffset());
+            return false;
+        }
+
+        inserter.insert(result.getRecords());
+        journal.commit(result.getNextOffset());
+        replayed.add(result.getRecords().size());
+        return true;
+    }
+
+    // -------------------------
+    // Stats
+    // -------------------------
+    public AuditJournalStats stats() {
+        return new AuditJournalStats(spilled.sum(), replayed.sum(), replayFailures.sum(),
+                journal.corruptRecords(), journal.pendingBytes(), journal.segmentCount());
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.audit.journal;
+
+/**
+ * Point-in-time counters of the {@link AuditJournalReplayer}.
+ */
+public class AuditJournalStats {
+
+    private final long spilled;
+    private final long replayed;
+    private final long replayFailures;
+    private final long corruptSkipped;
+    private final long pendingBytes;
+    private final int segments;
+
+    public AuditJournalStats(long spilled, long replayed, long replayFailures,
+                             long corruptSkipped, long pendingBytes, int segments) {
+        this.spilled = spilled;
+        this.replayed = replayed;
+        this.replayFailures = replayFailures;
+        this.corruptSkipped = corruptSkipped;
+        this.pendingBytes = pendingBytes;
+        this.segments = segments;
+    }
+
+    public long getSpilled() { return spilled; }
+    public long getReplayed() { return replayed; }
+    public long getReplayFailures() { return replayFailures; }
+    public long getCorruptSkipped() { return corruptSkipped; }
+    public long getPendingBytes() { return pendingBytes; }
+    public int getSegments() { return segments; }
+}
@@ -0,0 +1,86 @@
+package com.example.audit.journal;
+
+import com.example.audit.AuditRecord;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary layout of an {@link AuditRecord} inside the journal.
+ * Strings are an int byte length (-1 for null) followed by UTF-8 bytes;
+ * entityId is a presence byte plus a long; createdAt is UTC epoch seconds plus nanos.
+ */
+final class AuditRecordCodec {
+
+    private AuditRecordCodec() {}
+
+    static byte[] encode(AuditRecord record) {
+        byte[] actor = utf8(record.getActor());
+        byte[] action = utf8(record.getAction());
+        byte[] entityType = utf8(record.getEntityType());
+        byte[] payload = utf8(record.getPayload());
+
+        int size = stringSize(actor) + stringSize(action) + stringSize(entityType) + stringSize(payload)
+                + 1 + Long.BYTES      // entityId
+                + Long.BYTES + Integer.BYTES; // createdAt
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        putString(buffer, actor);
+        putString(buffer, action);
+        putString(buffer, entityType);
+        if (record.getEntityId() != null) {
+            buffer.put((byte) 1).putLong(record.getEntityId());
+        } else {
+            buffer.put((byte) 0).putLong(0L);
+        }
+        putString(buffer, payload);
+        buffer.putLong(record.getCreatedAt().toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(record.getCreatedAt().getNano());
+        return buffer.array();
+    }
+
+    static AuditRecord decode(ByteBuffer buffer) {
+        String actor = getString(buffer);
+        String action = getString(buffer);
+        String entityType = getString(buffer);
+        boolean hasEntityId = buffer.get() == 1;
+        long entityId = buffer.getLong();
+        String payload = getString(buffer);
+        long epochSecond = buffer.getLong();
+        int nanos = buffer.getInt();
+
+        return new AuditRecord(actor, action, entityType,
+                hasEntityId ? entityId : null,
+                payload,
+                LocalDateTime.ofEpochSecond(epochSecond, nanos, ZoneOffset.UTC));
+    }
+
+    // -------------------------
+    // Helpers
+    // -------------------------
+    private static byte[] utf8(String value) {
+        return (value == null) ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int stringSize(byte[] bytes) {
+        return Integer.BYTES + ((bytes == null) ? 0 : bytes.length);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(bytes.length).put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
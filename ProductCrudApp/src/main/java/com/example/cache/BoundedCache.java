@@ -0,0 +1,274 @@
+package com.example.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Size-bounded, thread-safe LRU cache with optional per-entry expiry.
+ * Keys are spread over independently locked segments so concurrent readers rarely contend;
+ * each segment evicts its own least recently used entry once it is full.
+ * A value loaded through {@link #getOrLoad} is only stored if its segment saw no invalidation
+ * while the loader ran, so a slow load can never re-insert data that was invalidated meanwhile.
+ */
+public class BoundedCache<K, V> {
+
+    /** Expiry value for entries that never expire on their own */
+    public static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    private final String name;
+    private final int maxSize;
+    private final Segment<K, V>[] segments;
+    private final int segmentMask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public BoundedCache(String name, int maxSize) {
+        if (maxSize <= 0) throw new IllegalArgumentException("maxSize must be > 0");
+        this.name = name;
+        this.maxSize = maxSize;
+
+        // power of two, at most 16, never more segments than entries
+        int count = 1;
+        while (count < 16 && count * 2 <= maxSize) count <<= 1;
+
+        this.segments = new Segment[count];
+        this.segmentMask = count - 1;
+        int perSegment = (maxSize + count - 1) / count;
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(perSegment);
+        }
+    }
+
+    // -------------------------
+    // Reads
+    // -------------------------
+    public V get(K key) {
+        return get(key, System.currentTimeMillis());
+    }
+
+    /** Returns the cached value, or null when absent or expired at {@code nowMillis} */
+    public V get(K key, long nowMillis) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            Entry<V> entry = segment.map.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (entry.expiresAtMillis <= nowMillis) {
+                segment.map.remove(key);
+                expirations.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the cached value or loads, caches and returns it.
+     * The loader runs outside the segment lock; a null result is not cached.
+     */
+    public V getOrLoad(K key, Function<? super K, ? extends V> loader) {
+        return getOrLoad(key, loader, 0);
+    }
+
+    /** Same as {@link #getOrLoad(Object, Function)}; a loaded value expires after {@code ttlMillis} (0 = never) */
+    public V getOrLoad(K key, Function<? super K, ? extends V> loader, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        V cached = get(key, now);
+        if (cached != null) return cached;
+
+        Segment<K, V> segment = segmentFor(key);
+        long generation = segment.generation;
+
+        long start = System.nanoTime();
+        V loaded = loader.apply(key);
+        loadNanos.add(System.nanoTime() - start);
+        loads.increment();
+
+        if (loaded != null) {
+            long expiresAt = (ttlMillis > 0) ? now + ttlMillis : NO_EXPIRY;
+            segment.lock.lock();
+            try {
+                if (segment.generation == generation) {
+                    store(segment, key, loaded, expiresAt);
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Bulk variant of {@link #getOrLoad}: cached values for {@code keys}, with all misses fetched
+     * in one {@code loader} call. Keys the loader does not return are absent from the result.
+     */
+    public Map<K, V> getAllOrLoad(Collection<K> keys, Function<? super List<K>, Map<K, V>> loader, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        Map<K, V> result = new HashMap<>();
+        List<K> missing = new ArrayList<>();
+        Map<K, Long> generations = new HashMap<>();
+
+        for (K key : keys) {
+            V cached = get(key, now);
+            if (cached != null) {
+                result.put(key, cached);
+            } else if (!generations.containsKey(key)) {
+                missing.add(key);
+                generations.put(key, segmentFor(key).generation);
+            }
+        }
+        if (missing.isEmpty()) return result;
+
+        long start = System.nanoTime();
+        Map<K, V> loaded = loader.apply(missing);
+        loadNanos.add(System.nanoTime() - start);
+        loads.increment();
+
+        long expiresAt = (ttlMillis > 0) ? now + ttlMillis : NO_EXPIRY;
+        for (Map.Entry<K, V> entry : loaded.entrySet()) {
+            if (entry.getValue() == null) continue;
+            result.put(entry.getKey(), entry.getValue());
+
+            Segment<K, V> segment = segmentFor(entry.getKey());
+            segment.lock.lock();
+            try {
+                Long generation = generations.get(entry.getKey());
+                if (generation != null && segment.generation == generation) {
+                    store(segment, entry.getKey(), entry.getValue(), expiresAt);
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return result;
+    }
+
+    // -------------------------
+    // Writes
+    // -------------------------
+    public void put(K key, V value) {
+        put(key, value, NO_EXPIRY);
+    }
+
+    public void put(K key, V value, long expiresAtMillis) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            store(segment, key, value, expiresAtMillis);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    // caller holds segment.lock
+    private void store(Segment<K, V> segment, K key, V value, long expiresAtMillis) {
+        segment.map.put(key, new Entry<>(value, expiresAtMillis));
+        if (segment.map.size() > segment.capacity) {
+            Iterator<K> eldest = segment.map.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    public void invalidate(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            segment.map.remove(key);
+            segment.generation++;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.map.clear();
+                segment.generation++;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    // -------------------------
+    // Stats
+    // -------------------------
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.map.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(name, size(), maxSize,
+                hits.sum(), misses.sum(), evictions.sum(), expirations.sum(),
+                loads.sum(), loadNanos.sum());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & segmentMask];
+    }
+
+    // -------------------------
+    // Internals
+    // -------------------------
+    private static final class Segment<K, V> {
+        final ReentrantLock lock = new ReentrantLock();
+        final int capacity;
+        final Map<K, Entry<V>> map;
+        volatile long generation; // bumped (under lock) on every invalidation
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+            this.map = new LinkedHashMap<>(16, 0.75f, true); // access order = LRU
+        }
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAtMillis;
+
+        Entry(V value, long expiresAtMillis) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.cache;
+
+/**
+ * Point-in-time counters of a {@link BoundedCache}.
+ */
+public class CacheStats {
+
+    private final String name;
+    private final int size;
+    private final int maxSize;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+    private final long loads;
+    private final long totalLoadNanos;
+
+    public CacheStats(String name, int size, int maxSize, long hits, long misses,
+                      long evictions, long expirations, long loads, long totalLoadNanos) {
+        this.name = name;
+        this.size = size;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.loads = loads;
+        this.totalLoadNanos = totalLoadNanos;
+    }
+
+    public String getName() { return name; }
+    public int getSize() { return size; }
+    public int getMaxSize() { return maxSize; }
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public long getEvictions() { return evictions; }
+    public long getExpirations() { return expirations; }
+    public long getLoads() { return loads; }
+    public long getTotalLoadNanos() { return totalLoadNanos; }
+
+    public double getHitRatio() {
+        long requests = hits + misses;
+        return (requests == 0) ? 0.0 : (double) hits / requests;
+    }
+
+    public double getAverageLoadMillis() {
+        return (loads == 0) ? 0.0 : totalLoadNanos / 1_000_000.0 / loads;
+    }
+}
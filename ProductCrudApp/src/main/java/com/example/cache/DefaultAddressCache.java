@@ -0,0 +1,71 @@
+package com.example.cache;
+
+import com.example.events.CustomerAddressChangedEvent;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Result cache for the default-shipping-address lookup done at every checkout: customer id to address id.
+ * Only the id is kept; the address itself comes from the JPA shared cache. Customers without a
+ * default address are not cached. Invalidated like {@link ProductCache}, on a
+ * {@link CustomerAddressChangedEvent} both during and after the writing transaction.
+ */
+@ApplicationScoped
+public class DefaultAddressCache {
+
+    @Inject
+    @ConfigProperty(name = "address.cache.max-entries", defaultValue = "10000")
+    private int maxEntries;
+
+    @Inject
+    @ConfigProperty(name = "address.cache.ttl-seconds", defaultValue = "300")
+    private long ttlSeconds;
+
+    private BoundedCache<Long, Long> cache;
+
+    public DefaultAddressCache() {}
+
+    /** Standalone use outside CDI (tests, benchmarks) */
+    public DefaultAddressCache(int maxEntries, long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlSeconds = ttlSeconds;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        cache = new BoundedCache<>("defaultShippingAddresses", maxEntries);
+    }
+
+    /** Cached address id, or the loader's result (cached unless null) */
+    public Long get(Long customerId, Function<Long, Long> loader) {
+        return cache.getOrLoad(customerId, loader, TimeUnit.SECONDS.toMillis(ttlSeconds));
+    }
+
+    // -------------------------
+    // Invalidation
+    // -------------------------
+    void onAddressChanged(@Observes(during = TransactionPhase.IN_PROGRESS) CustomerAddressChangedEvent event) {
+        invalidate(event.getCustomerId());
+    }
+
+    void afterAddressChanged(@Observes(during = TransactionPhase.AFTER_COMPLETION) CustomerAddressChangedEvent event) {
+        invalidate(event.getCustomerId());
+    }
+
+    public void invalidate(Long customerId) {
+        cache.invalidate(customerId);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
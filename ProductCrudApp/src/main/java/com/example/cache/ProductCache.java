@@ -0,0 +1,118 @@
+package com.example.cache;
+
+import com.example.dto.ProductResponse;
+import com.example.entities.Product;
+import com.example.events.ProductChangedEvent;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnit;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through cache of product snapshots keyed by product id.
+ * Cached {@link ProductResponse} instances are shared between requests and must be treated as read-only.
+ * Entries are dropped when a {@link ProductChangedEvent} is fired: once while the writing
+ * transaction is still running and again after it completes, so no reader keeps a pre-commit copy.
+ * The TTL is only a safety net for writes that bypass the services (manual SQL, other nodes).
+ *
+ * Snapshots are loaded through the JPA shared cache, which EclipseLink updates in its own
+ * after-completion callback, in no fixed order with this one. After a change the shared-cache
+ * copies are therefore evicted here too, so a reload cannot pick up the pre-commit entity.
+ */
+@ApplicationScoped
+public class ProductCache {
+
+    @Inject
+    @ConfigProperty(name = "product.cache.max-entries", defaultValue = "10000")
+    private int maxEntries;
+
+    @Inject
+    @ConfigProperty(name = "product.cache.ttl-seconds", defaultValue = "600")
+    private long ttlSeconds;
+
+    @PersistenceUnit(unitName = "ProductPU")
+    private EntityManagerFactory emf;
+
+    private BoundedCache<Long, ProductResponse> cache;
+
+    public ProductCache() {}
+
+    /** Standalone use outside CDI (tests, benchmarks) */
+    public ProductCache(int maxEntries, long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlSeconds = ttlSeconds;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        cache = new BoundedCache<>("products", maxEntries);
+    }
+
+    // -------------------------
+    // Reads
+    // -------------------------
+    /** Cached snapshot, or the loader's result (cached unless null) */
+    public ProductResponse get(Long id, Function<Long, ProductResponse> loader) {
+        return cache.getOrLoad(id, loader, TimeUnit.SECONDS.toMillis(ttlSeconds));
+    }
+
+    /**
+     * Snapshots for all ids, in the given order. Misses are fetched with a single call to
+     * {@code loader} (e.g. one IN-query); ids the loader does not return are left out.
+     */
+    public List<ProductResponse> getAll(List<Long> ids, Function<Collection<Long>, List<ProductResponse>> loader) {
+        Map<Long, ProductResponse> found = cache.getAllOrLoad(ids,
+                missing -> loader.apply(missing).stream()
+                        .collect(Collectors.toMap(ProductResponse::getId, Function.identity())),
+                TimeUnit.SECONDS.toMillis(ttlSeconds));
+
+        List<ProductResponse> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ProductResponse response = found.get(id);
+            if (response != null) result.add(response);
+        }
+        return result;
+    }
+
+    // -------------------------
+    // Invalidation
+    // -------------------------
+    void onProductChanged(@Observes(during = TransactionPhase.IN_PROGRESS) ProductChangedEvent event) {
+        invalidate(event.getProductIds());
+    }
+
+    void afterProductChanged(@Observes(during = TransactionPhase.AFTER_COMPLETION) ProductChangedEvent event) {
+        if (emf != null) {
+            event.getProductIds().forEach(id -> emf.getCache().evict(Product.class, id));
+        }
+        invalidate(event.getProductIds());
+    }
+
+    public void invalidate(Collection<Long> ids) {
+        for (Long id : ids) {
+            cache.invalidate(id);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.cache;
+
+import com.example.dto.APIResponse;
+import com.example.dto.ProductResponse;
+import com.example.events.ProductChangedEvent;
+import com.example.rest.JsonBytes;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Whole GET /api/products/{id} bodies, serialized once to UTF-8 and written out by JsonBytesWriter,
+ * for the most recently requested products. A hit costs no DTO, no envelope and no JSON-B run.
+ * Entries carry the product's ETag and are dropped on a {@link ProductChangedEvent} during and after
+ * the writing transaction, after {@link ProductCache} (the snapshot they are built from) has dropped its copy.
+ */
+@ApplicationScoped
+public class ProductJsonCache {
+
+    // the same defaults as the JAX-RS JSON-B provider, so the bytes match what it would write
+    private static final Jsonb JSONB = JsonbBuilder.create();
+
+    @Inject
+    @ConfigProperty(name = "product.json-cache.max-entries", defaultValue = "2000")
+    private int maxEntries;
+
+    @Inject
+    @ConfigProperty(name = "product.json-cache.ttl-seconds", defaultValue = "600")
+    private long ttlSeconds;
+
+    private BoundedCache<Long, Entry> cache;
+
+    /** A serialized response and the ETag of the product in it */
+    public record Entry(String tag, JsonBytes body) {}
+
+    public ProductJsonCache() {}
+
+    /** Standalone use outside CDI (tests, benchmarks) */
+    public ProductJsonCache(int maxEntries, long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlSeconds = ttlSeconds;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        cache = new BoundedCache<>("productJson", maxEntries);
+    }
+
+    /** Cached body, or the loader's response serialized (and cached); null when the loader returns null */
+    public Entry get(Long id, Function<Long, APIResponse<ProductResponse>> loader) {
+        return cache.getOrLoad(id, key -> {
+            APIResponse<ProductResponse> response = loader.apply(key);
+            return (response != null) ? new Entry(ValidatorCache.tagOf(response.getData()), serialize(response)) : null;
+        }, TimeUnit.SECONDS.toMillis(ttlSeconds));
+    }
+
+    public static JsonBytes serialize(Object response) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        JSONB.toJson(response, out);
+        return new JsonBytes(out.toByteArray());
+    }
+
+    // -------------------------
+    // Invalidation
+    // -------------------------
+    void onProductChanged(@Observes(during = TransactionPhase.IN_PROGRESS) ProductChangedEvent event) {
+        invalidate(event);
+    }
+
+    void afterProductChanged(@Observes(during = TransactionPhase.AFTER_COMPLETION)
+                             @Priority(ValidatorCache.AFTER_PRODUCT_CACHE) ProductChangedEvent event) {
+        invalidate(event);
+    }
+
+    private void invalidate(ProductChangedEvent event) {
+        event.getProductIds().forEach(cache::invalidate);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.cache;
+
+import com.example.catalog.ProductCatalog;
+import com.example.dto.OrderResponse;
+import com.example.dto.ProductResponse;
+import com.example.events.OrderChangedEvent;
+import com.example.events.ProductChangedEvent;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.interceptor.Interceptor;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Current ETags of the resources clients poll, so a conditional GET (If-None-Match) can be answered
+ * with 304 Not Modified without reading the database:
+ * <ul>
+ *   <li>a product: its version and updatedAt;</li>
+ *   <li>an order: its version, kept with the owning customer for the access check;</li>
+ *   <li>product listings: a generation counter bumped by every ProductChangedEvent, plus the
+ *       in-memory catalog's snapshot generation (listings trail writes until it publishes).</li>
+ * </ul>
+ * Entries are dropped like {@link ProductCache} does, during and after the writing transaction. The
+ * after-completion observers run after ProductCache's, so a tag cached afterwards is never built from
+ * a product snapshot that is about to be dropped. The TTL bounds the damage of writes made outside
+ * the application; listing tags roll over once per TTL for the same reason.
+ */
+@ApplicationScoped
+public class ValidatorCache {
+
+    /** After ProductCache's after-completion observer (default priority); shared with ProductJsonCache */
+    static final int AFTER_PRODUCT_CACHE = Interceptor.Priority.APPLICATION + 1000;
+
+    @Inject
+    @ConfigProperty(name = "etag.cache.max-entries", defaultValue = "10000")
+    private int maxEntries;
+
+    @Inject
+    @ConfigProperty(name = "etag.cache.ttl-seconds", defaultValue = "600")
+    private long ttlSeconds;
+
+    @Inject
+    private ProductCatalog productCatalog;
+
+    private BoundedCache<Long, String> products;
+    private BoundedCache<Long, OrderValidator> orders;
+    private final AtomicLong listingGeneration = new AtomicLong();
+
+    /** The tag of one order and the customer allowed to see it */
+    public record OrderValidator(String tag, Long customerId) {}
+
+    public ValidatorCache() {}
+
+    /** Standalone use outside CDI (tests, benchmarks) */
+    public ValidatorCache(ProductCatalog productCatalog, int maxEntries, long ttlSeconds) {
+        this.productCatalog = productCatalog;
+        this.maxEntries = maxEntries;
+        this.ttlSeconds = ttlSeconds;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        products = new BoundedCache<>("productValidators", maxEntries);
+        orders = new BoundedCache<>("orderValidators", maxEntries);
+    }
+
+    // -------------------------
+    // Tags (strong ETag values)
+    // -------------------------
+    public static String tagOf(ProductResponse product) {
+        long updatedAt = (product.getUpdatedAt() != null)
+                ? TimeUnit.SECONDS.toMicros(product.getUpdatedAt().toEpochSecond(ZoneOffset.UTC))
+                        + TimeUnit.NANOSECONDS.toMicros(product.getUpdatedAt().getNano())
+                : 0;
+        return "p" + product.getId() + "-" + product.getVersion() + "-" + updatedAt;
+    }
+
+    public static String tagOf(OrderResponse order) {
+        return "o" + order.getId() + "-" + order.getVersion();
+    }
+
+    /** Tag of every product listing right now; read it before reading the listing itself */
+    public String listingTag() {
+        long catalogGeneration = (productCatalog != null) ? productCatalog.generation() : 0;
+        long window = System.currentTimeMillis() / TimeUnit.SECONDS.toMillis(ttlSeconds);
+        return "l" + listingGeneration.get() + "-" + catalogGeneration + "-" + window;
+    }
+
+    // -------------------------
+    // Products
+    // -------------------------
+    /** The product's current tag, or null when not known (then load it with {@link #loadProduct}) */
+    public String productTag(Long id) {
+        return products.get(id);
+    }
+
+    /** The loader's product, its tag cached unless the product changed meanwhile */
+    public ProductResponse loadProduct(Long id, Function<Long, ProductResponse> loader) {
+        AtomicReference<ProductResponse> loaded = new AtomicReference<>();
+        products.getOrLoad(id, key -> {
+            ProductResponse product = loader.apply(key);
+            loaded.set(product);
+            return (product != null) ? tagOf(product) : null;
+        }, TimeUnit.SECONDS.toMillis(ttlSeconds));
+        // another request cached the tag first; the body is still needed
+        return (loaded.get() != null) ? loaded.get() : loader.apply(id);
+    }
+
+    // -------------------------
+    // Orders
+    // -------------------------
+    /** The order's current tag and owner, or null when not known (then load it with {@link #loadOrder}) */
+    public OrderValidator orderValidator(Long id) {
+        return orders.get(id);
+    }
+
+    /** The loader's order, its tag cached unless the order changed meanwhile */
+    public OrderResponse loadOrder(Long id, Function<Long, OrderResponse> loader) {
+        AtomicReference<OrderResponse> loaded = new AtomicReference<>();
+        orders.getOrLoad(id, key -> {
+            OrderResponse order = loader.apply(key);
+            loaded.set(order);
+            return (order != null) ? new OrderValidator(tagOf(order), order.getCustomerId()) : null;
+        }, TimeUnit.SECONDS.toMillis(ttlSeconds));
+        return (loaded.get() != null) ? loaded.get() : loader.apply(id);
+    }
+
+    // -------------------------
+    // Invalidation
+    // -------------------------
+    void onProductChanged(@Observes(during = TransactionPhase.IN_PROGRESS) ProductChangedEvent event) {
+        invalidateProducts(event);
+    }
+
+    void afterProductChanged(@Observes(during = TransactionPhase.AFTER_COMPLETION)
+                             @Priority(AFTER_PRODUCT_CACHE) ProductChangedEvent event) {
+        invalidateProducts(event);
+    }
+
+    void onOrderChanged(@Observes(during = TransactionPhase.IN_PROGRESS) OrderChangedEvent event) {
+        orders.invalidate(event.getOrderId());
+    }
+
+    void afterOrderChanged(@Observes(during = TransactionPhase.AFTER_COMPLETION) OrderChangedEvent event) {
+        orders.invalidate(event.getOrderId());
+    }
+
+    private void invalidateProducts(ProductChangedEvent event) {
+        listingGeneration.incrementAndGet();
+        event.getProductIds().forEach(products::invalidate);
+    }
+
+    public CacheStats productStats() {
+        return products.stats();
+    }
+
+    public CacheStats orderStats() {
+        return orders.stats();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.carts;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.LocalDateTime;
+
+/**
+ * Figures for both expiry paths: per-run numbers of the periodic sweep (kept across the pooled
+ * EJB instances that run it) and running totals of the timing wheel.
+ */
+@ApplicationScoped
+public class CartExpiryMetrics {
+
+    private long runs;
+    private long totalExpired;
+    private LocalDateTime lastRunAt;
+    private int lastExpired;
+    private int lastChunks;
+    private long lastDurationMillis;
+
+    private long wheelExpired;
+    private long wheelBatches;
+
+    public synchronized void recordRun(LocalDateTime startedAt, int expired, int chunks, long durationMillis) {
+        runs++;
+        totalExpired += expired;
+        lastRunAt = startedAt;
+        lastExpired = expired;
+        lastChunks = chunks;
+        lastDurationMillis = durationMillis;
+    }
+
+    public synchronized void recordWheelFlush(int expired, int batches) {
+        wheelExpired += expired;
+        wheelBatches += batches;
+    }
+
+    public synchronized CartExpiryStats stats(int scheduledCarts) {
+        return new CartExpiryStats(runs, totalExpired, lastRunAt, lastExpired, lastChunks, lastDurationMillis,
+                scheduledCarts, wheelExpired, wheelBatches);
+    }
+}
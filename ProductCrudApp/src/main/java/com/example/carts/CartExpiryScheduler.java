@@ -0,0 +1,186 @@
+package com.example.carts;
+
+import com.example.dao.CartDAO;
+import com.example.entities.Cart;
+import com.example.entities.CartStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expires carts as their deadlines pass instead of polling the cart table.
+ *
+ * CartService registers every active cart it hands out in a {@link CartExpiryWheel}. A background
+ * thread advances the wheel once per tick and expires whatever has come due in small batches, each
+ * in its own transaction. On startup the wheel is rebuilt from the NEW carts in the database, so
+ * a restart or failover loses nothing; the periodic sweep in CartService stays as a safety net for
+ * carts only another node has seen.
+ */
+@ApplicationScoped
+public class CartExpiryScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(CartExpiryScheduler.class);
+
+    private static final long RETRY_DELAY_MS = 30_000;
+
+    @Inject
+    private CartDAO cartDAO;
+
+    @Inject
+    private CartExpiryService cartExpiryService;
+
+    @Inject
+    private CartExpiryMetrics metrics;
+
+    @Resource
+    private ManagedThreadFactory threadFactory;
+
+    @Inject
+    @ConfigProperty(name = "carts.expiry.wheel.tick-ms", defaultValue = "1000")
+    private long tickMs;
+
+    @Inject
+    @ConfigProperty(name = "carts.expiry.chunk-size", defaultValue = "500")
+    private int batchSize;
+
+    @Inject
+    @ConfigProperty(name = "carts.expiry.wheel.rebuild-page-size", defaultValue = "10000")
+    private int rebuildPageSize;
+
+    private CartExpiryWheel wheel;
+    private Thread worker;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        wheel = new CartExpiryWheel(tickMs, System.currentTimeMillis());
+
+        running = true;
+        worker = threadFactory.newThread(this::run);
+        worker.setName("cart-expiry-wheel");
+        worker.start();
+    }
+
+    /** Rebuilds the wheel as soon as the application is up */
+    void onStartup(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        // nothing to do: observing the event is enough to create the bean
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // -------------------------
+    // Registration (request threads)
+    // -------------------------
+    /** Schedule or reschedule a cart at its current expiresAt; non-NEW carts are dropped */
+    public void register(Cart cart) {
+        if (cart.getId() == null || cart.getExpiresAt() == null) return;
+
+        if (cart.getStatus() == CartStatus.NEW) {
+            wheel.schedule(cart.getId(), toMillis(cart.getExpiresAt()));
+        } else {
+            wheel.cancel(cart.getId());
+        }
+    }
+
+    public CartExpiryStats stats() {
+        return metrics.stats(wheel.size());
+    }
+
+    // -------------------------
+    // Worker
+    // -------------------------
+    private void run() {
+        rebuild();
+
+        while (running) {
+            try {
+                flushDue(System.currentTimeMillis());
+                Thread.sleep(tickMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("CART_EXPIRY_FLUSH_FAILED", e);
+            }
+        }
+    }
+
+    private void rebuild() {
+        long start = System.nanoTime();
+        int loaded = 0;
+        LocalDateTime cursor = LocalDateTime.of(1970, 1, 1, 0, 0);
+        try {
+            List<Object[]> page;
+            do {
+                page = cartDAO.findActiveExpiries(cursor, rebuildPageSize);
+                LocalDateTime previous = cursor;
+                for (Object[] row : page) {
+                    cursor = (LocalDateTime) row[1];
+                    wheel.schedule((Long) row[0], toMillis(cursor));
+                }
+                loaded += page.size();
+                if (page.size() == rebuildPageSize && cursor.equals(previous)) {
+                    // a whole page on one timestamp: step past it; the sweep catches any cut-off ties
+                    cursor = cursor.plusNanos(1000);
+                }
+            } while (running && page.size() == rebuildPageSize);
+
+            log.info("CART_EXPIRY_WHEEL_REBUILT carts={} durationMs={}",
+                    wheel.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            // carts not loaded here are still caught by the periodic sweep
+            log.error("CART_EXPIRY_WHEEL_REBUILD_FAILED loaded={}", loaded, e);
+        }
+    }
+
+    /** Expire everything due at {@code nowMillis}, one batch per transaction */
+    void flushDue(long nowMillis) {
+        int expired = 0;
+        int batches = 0;
+        List<Long> due;
+        while (running && !(due = wheel.pollDue(nowMillis, batchSize)).isEmpty()) {
+            try {
+                expired += cartExpiryService.expireCarts(due).size();
+                batches++;
+            } catch (RuntimeException e) {
+                // put them back and try again later rather than lose them
+                for (Long cartId : due) {
+                    wheel.schedule(cartId, nowMillis + RETRY_DELAY_MS);
+                }
+                log.warn("CART_EXPIRY_BATCH_FAILED size={} retryInMs={}", due.size(), RETRY_DELAY_MS, e);
+                break;
+            }
+        }
+        if (batches > 0) {
+            metrics.recordWheelFlush(expired, batches);
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
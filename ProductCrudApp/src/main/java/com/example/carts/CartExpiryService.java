@@ -0,0 +1,61 @@
+package com.example.carts;
+
+import com.example.audit.AuditRecord;
+import com.example.dao.AuditLogDAO;
+import com.example.dao.CartDAO;
+
+import jakarta.ejb.Stateless;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.inject.Inject;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One batch of cart expiry, for both the periodic sweep and the timing wheel. Each call is its own
+ * transaction, so a long backlog of expired carts is worked off in short transactions that hold
+ * few row locks and commit as they go.
+ */
+@Stateless
+public class CartExpiryService {
+
+    @Inject
+    private CartDAO cartDAO;
+
+    @Inject
+    private AuditLogDAO auditLogDAO;
+
+    /**
+     * Expire up to {@code chunkSize} carts that expired before {@code cutoff} and write their
+     * EXPIRE_CART audit rows in the same transaction.
+     *
+     * @return ids of the carts expired by this chunk
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public List<Long> expireChunk(LocalDateTime cutoff, int chunkSize) {
+        return audit(cartDAO.expireChunk(cutoff, chunkSize));
+    }
+
+    /**
+     * Expire carts handed out by the {@link CartExpiryWheel}. Ids that are no longer NEW or whose
+     * expiresAt has moved past now are left alone.
+     *
+     * @return ids of the carts actually expired
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public List<Long> expireCarts(List<Long> cartIds) {
+        return audit(cartDAO.expireByIds(cartIds, LocalDateTime.now()));
+    }
+
+    private List<Long> audit(List<Long> expiredIds) {
+        LocalDateTime now = LocalDateTime.now();
+        List<AuditRecord> records = new ArrayList<>(expiredIds.size());
+        for (Long id : expiredIds) {
+            records.add(new AuditRecord("system", "EXPIRE_CART", "Cart", id, "{}", now));
+        }
+        auditLogDAO.insertBatch(records);
+        return expiredIds;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.carts;
+
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot of cart expiry: the periodic sweep and the timing wheel (exposed at GET /api/admin/cart-expiry).
+ */
+public class CartExpiryStats {
+
+    private final long runs;
+    private final long totalExpired;
+    private final LocalDateTime lastRunAt;
+    private final int lastExpired;
+    private final int lastChunks;
+    private final long lastDurationMillis;
+    private final int scheduledCarts;
+    private final long wheelExpired;
+    private final long wheelBatches;
+
+    public CartExpiryStats(long runs, long totalExpired, LocalDateTime lastRunAt,
+                           int lastExpired, int lastChunks, long lastDurationMillis,
+                           int scheduledCarts, long wheelExpired, long wheelBatches) {
+        this.runs = runs;
+        this.totalExpired = totalExpired;
+        this.lastRunAt = lastRunAt;
+        this.lastExpired = lastExpired;
+        this.lastChunks = lastChunks;
+        this.lastDurationMillis = lastDurationMillis;
+        this.scheduledCarts = scheduledCarts;
+        this.wheelExpired = wheelExpired;
+        this.wheelBatches = wheelBatches;
+    }
+
+    // -------------------------
+    // Periodic sweep
+    // -------------------------
+    /** Completed sweeps since startup */
+    public long getRuns() { return runs; }
+
+    /** Carts expired by all sweeps since startup */
+    public long getTotalExpired() { return totalExpired; }
+
+    /** Start of the most recent sweep (null before the first one) */
+    public LocalDateTime getLastRunAt() { return lastRunAt; }
+
+    public int getLastExpired() { return lastExpired; }
+
+    /** Transactions (chunks) the most recent sweep committed */
+    public int getLastChunks() { return lastChunks; }
+
+    public long getLastDurationMillis() { return lastDurationMillis; }
+
+    // -------------------------
+    // Timing wheel
+    // -------------------------
+    /** Carts currently waiting in the wheel on this node */
+    public int getScheduledCarts() { return scheduledCarts; }
+
+    /** Carts expired by the wheel since startup */
+    public long getWheelExpired() { return wheelExpired; }
+
+    /** Transactions the wheel used to expire them */
+    public long getWheelBatches() { return wheelBatches; }
+}
@@ -0,0 +1,171 @@
+package com.example.carts;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel of cart expiry deadlines (Varghese and Lauck, as in the Linux timer wheel).
+ *
+ * Four levels of 64 slots; a level-0 slot spans one tick, each higher level 64 times the one below,
+ * so with one-second ticks the wheel covers ~194 days. Scheduling is O(1). When the clock enters a
+ * new slot of a higher level, that slot's entries are cascaded down, and level-0 entries become due
+ * exactly on their tick. Rescheduling or cancelling only updates the deadline map; the old slot
+ * entry goes stale and is dropped when its slot is reached.
+ *
+ * All methods are synchronized; callers only do O(1) work or drain a bounded batch under the lock.
+ */
+public class CartExpiryWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    // deadlines further out than this are parked in the top level and re-placed when cascaded
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final Slot[][] levels = new Slot[LEVELS][SLOTS];
+
+    // authoritative deadline (in ticks) per scheduled cart; slot entries that disagree are stale
+    private final Map<Long, Long> deadlines = new HashMap<>();
+
+    private final Slot due = new Slot();
+    private long currentTick;
+
+    public CartExpiryWheel(long tickMillis, long nowMillis) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("tickMillis must be > 0");
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(nowMillis, tickMillis);
+    }
+
+    /** Schedule a cart, or move it if it is already scheduled */
+    public synchronized void schedule(long cartId, long deadlineMillis) {
+        // rounded up: a cart is never reported before its deadline
+        long tick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        Long previous = deadlines.put(cartId, tick);
+        if (previous != null && previous == tick) return;
+        place(cartId, tick);
+    }
+
+    /** @return true if the cart was scheduled */
+    public synchronized boolean cancel(long cartId) {
+        return deadlines.remove(cartId) != null;
+    }
+
+    /**
+     * Advance the clock to {@code nowMillis} and hand out up to {@code max} carts whose deadline has
+     * passed. Handed-out carts are no longer scheduled. Carts beyond {@code max} stay due for the next call.
+     */
+    public synchronized List<Long> pollDue(long nowMillis, int max) {
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < target) {
+            currentTick++;
+            tick();
+        }
+
+        List<Long> batch = new ArrayList<>(Math.min(max, due.size));
+        while (batch.size() < max && due.read < due.size) {
+            long cartId = due.ids[due.read];
+            long tick = due.ticks[due.read];
+            due.read++;
+            if (isCurrent(cartId, tick)) {
+                deadlines.remove(cartId);
+                batch.add(cartId);
+            }
+        }
+        if (due.read == due.size) due.clear();
+        return batch;
+    }
+
+    /** Scheduled carts, including due ones not yet handed out */
+    public synchronized int size() {
+        return deadlines.size();
+    }
+
+    // -------------------------
+    // Internals
+    // -------------------------
+    private void tick() {
+        // entering a new slot of level n (n >= 1) when the low n*SLOT_BITS bits wrap to zero
+        for (int level = 1; level < LEVELS; level++) {
+            if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) break;
+            cascade(level, (int) ((currentTick >>> (SLOT_BITS * level)) & MASK));
+        }
+
+        int index = (int) (currentTick & MASK);
+        Slot slot = levels[0][index];
+        if (slot == null) return;
+        levels[0][index] = null;
+        for (int i = 0; i < slot.size; i++) {
+            if (isCurrent(slot.ids[i], slot.ticks[i])) due.add(slot.ids[i], slot.ticks[i]);
+        }
+    }
+
+    private void cascade(int level, int index) {
+        Slot slot = levels[level][index];
+        if (slot == null) return;
+        levels[level][index] = null;
+        for (int i = 0; i < slot.size; i++) {
+            if (isCurrent(slot.ids[i], slot.ticks[i])) place(slot.ids[i], slot.ticks[i]);
+        }
+    }
+
+    private void place(long cartId, long tick) {
+        long delta = tick - currentTick;
+        if (delta <= 0) {
+            due.add(cartId, tick);
+            return;
+        }
+
+        long slotTick = (delta > MAX_DELTA) ? currentTick + MAX_DELTA : tick;
+        long slotDelta = slotTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && slotDelta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+
+        int index = (int) ((slotTick >>> (SLOT_BITS * level)) & MASK);
+        Slot slot = levels[level][index];
+        if (slot == null) {
+            slot = new Slot();
+            levels[level][index] = slot;
+        }
+        slot.add(cartId, tick);
+    }
+
+    private boolean isCurrent(long cartId, long tick) {
+        Long scheduled = deadlines.get(cartId);
+        return scheduled != null && scheduled == tick;
+    }
+
+    /** Growable list of (cart id, deadline tick) pairs in two primitive arrays */
+    private static final class Slot {
+        long[] ids = new long[8];
+        long[] ticks = new long[8];
+        int size;
+        int read;
+
+        void add(long cartId, long tick) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                ticks = Arrays.copyOf(ticks, size * 2);
+            }
+            ids[size] = cartId;
+            ticks[size] = tick;
+            size++;
+        }
+
+        void clear() {
+            if (ids.length > 1024) {
+                ids = new long[8];
+                ticks = new long[8];
+            }
+            size = 0;
+            read = 0;
+        }
+    }
+}
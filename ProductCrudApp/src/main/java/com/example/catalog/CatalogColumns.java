@@ -0,0 +1,454 @@
+package com.example.catalog;
+
+import com.example.dto.KeysetCursor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable, columnar copy of the catalog for filtered listings: one primitive array per filtered
+ * column, rows kept in listing order (createdAt DESC, id DESC). A page is therefore the first matches
+ * from some row onwards, and nothing is sorted per query.
+ *
+ * Filters are evaluated {@link #CHUNK} rows at a time into a bitset, with branch-free comparisons over
+ * the price and stock arrays. The lower-cased names are kept end to end in one string, so the name
+ * filter (a substring, as LOWER(name) LIKE '%name%') is a String.indexOf scan over a chunk's names
+ * rather than one contains() per row. Counting can spread the chunks over the common pool, and the
+ * per-chunk counts then let a deep page start scanning at the right chunk.
+ *
+ * Prices are held in minor units (cents); a price with finer precision is rounded half up.
+ * Changes produce a new instance through {@link #apply} and {@link #withStock}; columns that did not
+ * change are shared with the previous instance.
+ */
+public final class CatalogColumns {
+
+    /** Rows evaluated per bitset (64 words) */
+    static final int CHUNK = 4096;
+
+    private static final Comparator<CatalogRow> LISTING_ORDER = Comparator
+            .comparing(CatalogRow::createdAt, Comparator.reverseOrder())
+            .thenComparing(CatalogRow::id, Comparator.reverseOrder());
+
+    /** Ends every name in {@link #names} */
+    private static final char NAME_END = '\n';
+
+    private static final CatalogColumns EMPTY = new CatalogColumns(
+            new long[0], new long[0], new int[0], new long[0], "", new int[] {0}, new long[0], new int[0]);
+
+    private final long[] ids;
+    private final long[] prices;     // minor units
+    private final int[] stock;
+    private final long[] createdAt;  // epoch microseconds, as stored (no time zone)
+
+    // every lower-cased name followed by NAME_END, in row order; row r's name starts at nameStart[r]
+    private final String names;
+    private final int[] nameStart;   // one more than there are rows: the last entry is names.length()
+
+    // id -> row, for apply(): every id in ascending order, and the row holding it
+    private final long[] sortedIds;
+    private final int[] rowOfSorted;
+
+    /** Listing filters in the columns' units; absent bounds are the widest values */
+    public record Filter(String name, long minPrice, long maxPrice, boolean inStock) {
+
+        public static Filter of(String nameFilter, BigDecimal minPrice, BigDecimal maxPrice, Boolean inStock) {
+            return new Filter(
+                    (nameFilter == null || nameFilter.isEmpty()) ? null : nameFilter.toLowerCase(Locale.ROOT),
+                    // a bound between two cents admits the same cents as the exact bound
+                    (minPrice == null) ? Long.MIN_VALUE : minorUnits(minPrice, RoundingMode.CEILING),
+                    (maxPrice == null) ? Long.MAX_VALUE : minorUnits(maxPrice, RoundingMode.FLOOR),
+                    Boolean.TRUE.equals(inStock));
+        }
+
+        boolean matchesAll() {
+            return name == null && minPrice == Long.MIN_VALUE && maxPrice == Long.MAX_VALUE && !inStock;
+        }
+    }
+
+    /** Product ids of one page, in listing order, and the number of matches overall (-1: not counted) */
+    public record Page(List<Long> ids, long total) {}
+
+    private CatalogColumns(long[] ids, long[] prices, int[] stock, long[] createdAt, String names, int[] nameStart,
+                           long[] sortedIds, int[] rowOfSorted) {
+        this.ids = ids;
+        this.prices = prices;
+        this.stock = stock;
+        this.createdAt = createdAt;
+        this.names = names;
+        this.nameStart = nameStart;
+        this.sortedIds = sortedIds;
+        this.rowOfSorted = rowOfSorted;
+    }
+
+    public static CatalogColumns empty() {
+        return EMPTY;
+    }
+
+    public static CatalogColumns build(Collection<CatalogRow> rows) {
+        CatalogRow[] sorted = rows.toArray(new CatalogRow[0]);
+        Arrays.sort(sorted, LISTING_ORDER);
+
+        int size = sorted.length;
+        long[] ids = new long[size];
+        long[] prices = new long[size];
+        int[] stock = new int[size];
+        long[] createdAt = new long[size];
+        Names names = new Names(size, size * 32);
+        for (int row = 0; row < size; row++) {
+            set(sorted[row], row, ids, prices, stock, createdAt);
+            names.add(sorted[row].name());
+        }
+        return indexed(ids, prices, stock, createdAt, names);
+    }
+
+    private static CatalogColumns indexed(long[] ids, long[] prices, int[] stock, long[] createdAt, Names names) {
+        long[] sortedIds = ids.clone();
+        Arrays.sort(sortedIds);
+        int[] rowOfSorted = new int[ids.length];
+        for (int row = 0; row < ids.length; row++) {
+            rowOfSorted[Arrays.binarySearch(sortedIds, ids[row])] = row;
+        }
+        return new CatalogColumns(ids, prices, stock, createdAt, names.text.toString(), names.start,
+                sortedIds, rowOfSorted);
+    }
+
+    private static void set(CatalogRow source, int row, long[] ids, long[] prices, int[] stock, long[] createdAt) {
+        ids[row] = source.id();
+        prices[row] = minorUnits(source.price(), RoundingMode.HALF_UP);
+        stock[row] = source.stock();
+        createdAt[row] = micros(source.createdAt());
+    }
+
+    /** Builder for the names string and its start offsets */
+    private static final class Names {
+        private final StringBuilder text;
+        private final int[] start;
+        private int rows;
+
+        Names(int rows, int capacity) {
+            this.text = new StringBuilder(capacity);
+            this.start = new int[rows + 1];
+        }
+
+        void add(String name) {
+            text.append(name.toLowerCase(Locale.ROOT)).append(NAME_END);
+            start[++rows] = text.length();
+        }
+
+        /** Appends a name as it is stored (already lower case) */
+        void copy(String names, int from, int to) {
+            text.append(names, from, to);
+            start[++rows] = text.length();
+        }
+    }
+
+    // -------------------------
+    // Queries
+    // -------------------------
+    /**
+     * Up to {@code limit} ids of matching products, skipping the first {@code skip} matches from
+     * row {@code from} on ({@link #startAfter} for a cursor, 0 otherwise). With {@code count}, the total
+     * is the number of matches in the whole snapshot, as countProducts would report it.
+     */
+    public Page select(Filter filter, int from, long skip, int limit, boolean count, boolean parallel) {
+        if (!count) {
+            return new Page(scan(filter, from, skip, limit), -1);
+        }
+        if (filter.matchesAll()) {
+            return new Page(scan(filter, from, skip, limit), ids.length);
+        }
+
+        int[] counts = chunkCounts(filter, parallel);
+        long total = 0;
+        for (int matches : counts) {
+            total += matches;
+        }
+
+        // rank (among all matches) of the first one wanted: whole chunks before from, then the rest of its chunk
+        int chunk = from / CHUNK;
+        long target = skip;
+        for (int c = 0; c < chunk; c++) {
+            target += counts[c];
+        }
+        if (from % CHUNK != 0) {
+            target += mark(filter, chunk * CHUNK, from, new long[CHUNK / 64]);
+        }
+
+        // then start scanning at the chunk that holds it
+        long seen = 0;
+        int c = 0;
+        while (c < counts.length && seen + counts[c] <= target) {
+            seen += counts[c++];
+        }
+        return new Page(scan(filter, c * CHUNK, target - seen, limit), total);
+    }
+
+    /** First row that comes after the cursor in listing order (the row count when none does) */
+    public int startAfter(KeysetCursor after) {
+        long afterCreatedAt = micros(after.getCreatedAt());
+        long afterId = after.getId();
+
+        int low = 0;
+        int high = ids.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (precedes(afterCreatedAt, afterId, createdAt[mid], ids[mid])) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private List<Long> scan(Filter filter, int from, long skip, int limit) {
+        List<Long> page = new ArrayList<>(Math.max(0, Math.min(limit, 100)));
+        if (limit <= 0) return page;
+
+        if (filter.matchesAll()) {
+            for (long row = from + skip; row < ids.length && page.size() < limit; row++) {
+                page.add(ids[(int) row]);
+            }
+            return page;
+        }
+
+        long[] bits = new long[CHUNK / 64];
+        for (int start = from; start < ids.length && page.size() < limit; start += CHUNK) {
+            int matches = mark(filter, start, Math.min(start + CHUNK, ids.length), bits);
+            if (matches <= skip) {
+                skip -= matches;
+                continue;
+            }
+            for (int w = 0; w < bits.length && page.size() < limit; w++) {
+                long word = bits[w];
+                while (word != 0 && page.size() < limit) {
+                    int row = start + (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    if (skip > 0) {
+                        skip--;
+                    } else {
+                        page.add(ids[row]);
+                    }
+                }
+            }
+        }
+        return page;
+    }
+
+    private int[] chunkCounts(Filter filter, boolean parallel) {
+        int[] counts = new int[(ids.length + CHUNK - 1) / CHUNK];
+        IntStream chunks = IntStream.range(0, counts.length);
+        (parallel ? chunks.parallel() : chunks).forEach(c ->
+                counts[c] = mark(filter, c * CHUNK, Math.min((c + 1) * CHUNK, ids.length), new long[CHUNK / 64]));
+        return counts;
+    }
+
+    /** Sets bit (row - from) for every matching row in [from, to), at most CHUNK rows; returns the matches */
+    private int mark(Filter filter, int from, int to, long[] bits) {
+        long minPrice = filter.minPrice();
+        long maxPrice = filter.maxPrice();
+        int minStock = filter.inStock() ? 1 : Integer.MIN_VALUE;
+
+        for (int w = 0, base = from; w < bits.length; w++, base += 64) {
+            // one word per 64 rows, built in a register; non-short-circuit &: one branch-free test per row
+            long word = 0;
+            for (int row = base, end = Math.min(base + 64, to); row < end; row++) {
+                long price = prices[row];
+                boolean match = price >= minPrice & price <= maxPrice & stock[row] >= minStock;
+                word |= (match ? 1L : 0L) << (row - base);
+            }
+            bits[w] = word;
+        }
+
+        if (filter.name() != null) {
+            keepNamesContaining(filter.name(), from, to, bits);
+        }
+
+        int matches = 0;
+        for (long word : bits) {
+            matches += Long.bitCount(word);
+        }
+        return matches;
+    }
+
+    /** Clears the bits of rows in [from, to) whose name does not contain {@code part} */
+    private void keepNamesContaining(String part, int from, int to, long[] bits) {
+        long[] named = new long[bits.length];
+        int end = nameStart[to];
+        int at = names.indexOf(part, nameStart[from]);
+        while (at >= 0 && at < end) {
+            int found = Arrays.binarySearch(nameStart, from, to + 1, at);
+            int row = (found >= 0) ? found : -found - 2;
+            if (at + part.length() < nameStart[row + 1]) {
+                // within the name (not across its end): one hit is enough, go on with the next name
+                named[(row - from) >>> 6] |= 1L << (row - from);
+                at = names.indexOf(part, nameStart[row + 1]);
+            } else {
+                at = names.indexOf(part, at + 1);
+            }
+        }
+        for (int w = 0; w < bits.length; w++) {
+            bits[w] &= named[w];
+        }
+    }
+
+    // -------------------------
+    // Changes (copy on write)
+    // -------------------------
+    /**
+     * A copy with {@code changed} products (current state; new ones included) and without {@code removed}
+     * ones. Changes in place only copy the columns they touch; new, deleted or re-dated products mean
+     * rows move, so every column is rewritten (one merge pass, plus re-sorting the id lookup).
+     */
+    public CatalogColumns apply(Collection<CatalogRow> changed, Collection<Long> removed) {
+        boolean rowsMove = false;
+        for (Long id : removed) {
+            rowsMove |= rowOf(id) >= 0;
+        }
+        for (CatalogRow product : changed) {
+            int row = rowOf(product.id());
+            rowsMove |= row < 0 || createdAt[row] != micros(product.createdAt());
+        }
+        return rowsMove ? merge(changed, removed) : update(changed);
+    }
+
+    /** A copy with new stock levels (id -> stock); ids not in the snapshot are ignored */
+    public CatalogColumns withStock(Map<Long, Integer> levels) {
+        int[] newStock = stock;
+        for (Map.Entry<Long, Integer> level : levels.entrySet()) {
+            int row = rowOf(level.getKey());
+            if (row < 0 || newStock[row] == level.getValue()) continue;
+            if (newStock == stock) newStock = stock.clone();
+            newStock[row] = level.getValue();
+        }
+        return (newStock == stock) ? this
+                : new CatalogColumns(ids, prices, newStock, createdAt, names, nameStart, sortedIds, rowOfSorted);
+    }
+
+    private CatalogColumns update(Collection<CatalogRow> changed) {
+        long[] newPrices = prices;
+        int[] newStock = stock;
+        Map<Integer, String> renamed = new HashMap<>();
+        for (CatalogRow product : changed) {
+            int row = rowOf(product.id());
+            long price = minorUnits(product.price(), RoundingMode.HALF_UP);
+            if (newPrices[row] != price) {
+                if (newPrices == prices) newPrices = prices.clone();
+                newPrices[row] = price;
+            }
+            if (newStock[row] != product.stock()) {
+                if (newStock == stock) newStock = stock.clone();
+                newStock[row] = product.stock();
+            }
+            String name = product.name().toLowerCase(Locale.ROOT);
+            if (!names.regionMatches(nameStart[row], name, 0, name.length())
+                    || nameStart[row] + name.length() + 1 != nameStart[row + 1]) {
+                renamed.put(row, name);
+            }
+        }
+        if (renamed.isEmpty()) {
+            return new CatalogColumns(ids, newPrices, newStock, createdAt, names, nameStart, sortedIds, rowOfSorted);
+        }
+
+        Names newNames = new Names(ids.length, names.length() + 64 * renamed.size());
+        for (int row = 0; row < ids.length; row++) {
+            String name = renamed.get(row);
+            if (name != null) {
+                newNames.add(name);
+            } else {
+                newNames.copy(names, nameStart[row], nameStart[row + 1]);
+            }
+        }
+        return new CatalogColumns(ids, newPrices, newStock, createdAt, newNames.text.toString(), newNames.start,
+                sortedIds, rowOfSorted);
+    }
+
+    private CatalogColumns merge(Collection<CatalogRow> changed, Collection<Long> removed) {
+        BitSet dropped = new BitSet(ids.length);
+        for (Long id : removed) {
+            int row = rowOf(id);
+            if (row >= 0) dropped.set(row);
+        }
+        for (CatalogRow product : changed) {
+            int row = rowOf(product.id());
+            if (row >= 0) dropped.set(row);
+        }
+        CatalogRow[] inserts = changed.toArray(new CatalogRow[0]);
+        Arrays.sort(inserts, LISTING_ORDER);
+
+        int size = ids.length - dropped.cardinality() + inserts.length;
+        long[] newIds = new long[size];
+        long[] newPrices = new long[size];
+        int[] newStock = new int[size];
+        long[] newCreatedAt = new long[size];
+        Names newNames = new Names(size, names.length() + 64 * inserts.length);
+
+        int old = dropped.nextClearBit(0);
+        int next = 0;
+        for (int row = 0; row < size; row++) {
+            boolean insert = old >= ids.length || (next < inserts.length
+                    && precedes(micros(inserts[next].createdAt()), inserts[next].id(), createdAt[old], ids[old]));
+            if (insert) {
+                set(inserts[next], row, newIds, newPrices, newStock, newCreatedAt);
+                newNames.add(inserts[next++].name());
+            } else {
+                newIds[row] = ids[old];
+                newPrices[row] = prices[old];
+                newStock[row] = stock[old];
+                newCreatedAt[row] = createdAt[old];
+                newNames.copy(names, nameStart[old], nameStart[old + 1]);
+                old = dropped.nextClearBit(old + 1);
+            }
+        }
+        return indexed(newIds, newPrices, newStock, newCreatedAt, newNames);
+    }
+
+    private int rowOf(long id) {
+        int position = Arrays.binarySearch(sortedIds, id);
+        return (position >= 0) ? rowOfSorted[position] : -1;
+    }
+
+    // -------------------------
+    // Sizes
+    // -------------------------
+    public int size() {
+        return ids.length;
+    }
+
+    /** Heap taken by the columns, names counted at one byte per character (Latin-1) */
+    public long estimatedBytes() {
+        // id, price, stock, createdAt, name start, and the id lookup (sorted id + row)
+        return (long) ids.length * (8 + 8 + 4 + 8 + 4 + 8 + 4) + names.length();
+    }
+
+    // -------------------------
+    // Units
+    // -------------------------
+    static long minorUnits(BigDecimal amount, RoundingMode rounding) {
+        BigDecimal cents = amount.movePointRight(2).setScale(0, rounding);
+        if (cents.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) > 0) return Long.MAX_VALUE;
+        if (cents.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) < 0) return Long.MIN_VALUE;
+        return cents.longValue();
+    }
+
+    static long micros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    /** Whether row (createdAtA, idA) comes before row (createdAtB, idB) in listing order */
+    private static boolean precedes(long createdAtA, long idA, long createdAtB, long idB) {
+        return createdAtA > createdAtB || (createdAtA == createdAtB && idA > idB);
+    }
+}
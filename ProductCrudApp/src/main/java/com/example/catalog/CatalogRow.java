@@ -0,0 +1,10 @@
+package com.example.catalog;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * The product columns the listing filters and orders on, as read by ProductDAO for {@link CatalogColumns}.
+ */
+public record CatalogRow(long id, String name, BigDecimal price, int stock, LocalDateTime createdAt) {
+}
@@ -0,0 +1,60 @@
+package com.example.catalog;
+
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot of the in-memory catalog used for product listings (exposed at GET /api/admin/catalog).
+ */
+public class CatalogStats {
+
+    private final boolean enabled;
+    private final boolean ready;
+    private final int products;
+    private final long estimatedBytes;
+    private final int pendingChanges;
+    private final long updates;
+    private final long lastUpdateMicros;
+    private final long rebuilds;
+    private final LocalDateTime lastRebuildAt;
+    private final long lastRebuildMillis;
+
+    public CatalogStats(boolean enabled, boolean ready, int products, long estimatedBytes, int pendingChanges,
+                        long updates, long lastUpdateMicros, long rebuilds, LocalDateTime lastRebuildAt,
+                        long lastRebuildMillis) {
+        this.enabled = enabled;
+        this.ready = ready;
+        this.products = products;
+        this.estimatedBytes = estimatedBytes;
+        this.pendingChanges = pendingChanges;
+        this.updates = updates;
+        this.lastUpdateMicros = lastUpdateMicros;
+        this.rebuilds = rebuilds;
+        this.lastRebuildAt = lastRebuildAt;
+        this.lastRebuildMillis = lastRebuildMillis;
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    /** Whether listings are answered from memory (enabled, and the first build is done) */
+    public boolean isReady() { return ready; }
+
+    public int getProducts() { return products; }
+
+    /** Column arrays only, without the product names */
+    public long getEstimatedBytes() { return estimatedBytes; }
+
+    /** Products changed since the last published snapshot */
+    public int getPendingChanges() { return pendingChanges; }
+
+    /** Snapshots published for a batch of changes */
+    public long getUpdates() { return updates; }
+
+    /** Time to read the last batch of changes and publish its snapshot */
+    public long getLastUpdateMicros() { return lastUpdateMicros; }
+
+    public long getRebuilds() { return rebuilds; }
+
+    public LocalDateTime getLastRebuildAt() { return lastRebuildAt; }
+
+    public long getLastRebuildMillis() { return lastRebuildMillis; }
+}
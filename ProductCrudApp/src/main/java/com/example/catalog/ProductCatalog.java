@@ -0,0 +1,256 @@
+package com.example.catalog;
+
+import com.example.dao.ProductDAO;
+import com.example.dto.KeysetCursor;
+import com.example.events.ProductChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtered product listings (GET /api/products without ?q=) answered from a {@link CatalogColumns} snapshot.
+ *
+ * A background thread builds the snapshot from ProductDAO at startup; until then {@link #select} returns
+ * null and ProductService queries the database as before. Products changed through ProductService and
+ * OrderService (ProductChangedEvent, after commit) are collected for products.catalog.apply-delay-ms,
+ * re-read together and published as one new snapshot (a volatile write), so listings trail writes by
+ * about that delay. Stock reservations only re-read and copy the stock column. A full rebuild every
+ * products.catalog.rebuild-interval-minutes picks up changes made outside the application.
+ */
+@ApplicationScoped
+public class ProductCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCatalog.class);
+
+    @Inject
+    private ProductDAO productDAO;
+
+    @Resource
+    private ManagedThreadFactory threadFactory;
+
+    @Inject
+    @ConfigProperty(name = "products.catalog.enabled", defaultValue = "true")
+    private boolean enabled;
+
+    @Inject
+    @ConfigProperty(name = "products.catalog.apply-delay-ms", defaultValue = "200")
+    private long applyDelayMs;
+
+    @Inject
+    @ConfigProperty(name = "products.catalog.rebuild-interval-minutes", defaultValue = "60")
+    private long rebuildIntervalMinutes;
+
+    @Inject
+    @ConfigProperty(name = "products.catalog.rebuild-page-size", defaultValue = "10000")
+    private int rebuildPageSize;
+
+    @Inject
+    @ConfigProperty(name = "products.catalog.parallel-threshold", defaultValue = "250000")
+    private int parallelThreshold;
+
+    /** Null until the first build */
+    private volatile CatalogColumns columns;
+
+    /** Bumped after each snapshot is published */
+    private volatile long generation;
+
+    /** Product id -> whether only its stock changed */
+    private final Map<Long, Boolean> pending = new ConcurrentHashMap<>();
+
+    private final Semaphore changesQueued = new Semaphore(0);
+    private Thread worker;
+    private volatile boolean running;
+
+    private volatile long updates;
+    private volatile long lastUpdateMicros;
+    private volatile long rebuilds;
+    private volatile LocalDateTime lastRebuildAt;
+    private volatile long lastRebuildMillis;
+
+    public ProductCatalog() {}
+
+    /** Standalone use outside CDI (tests, benchmarks); build with {@link #rebuild()} */
+    public ProductCatalog(ProductDAO productDAO, int rebuildPageSize, int parallelThreshold) {
+        this.productDAO = productDAO;
+        this.enabled = true;
+        this.rebuildPageSize = rebuildPageSize;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) return;
+        running = true;
+        worker = threadFactory.newThread(this::run);
+        worker.setName("product-catalog");
+        worker.start();
+    }
+
+    /** Builds the snapshot as soon as the application is up */
+    void onStartup(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        // nothing to do: observing the event is enough to create the bean
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // -------------------------
+    // Query (request threads)
+    // -------------------------
+    /**
+     * One listing page, in (createdAt DESC, id DESC) order: the page after {@code after}, or the one at
+     * {@code offset} when there is no cursor. The total is counted only when asked for.
+     * Returns null while there is no snapshot (disabled, or still building).
+     */
+    public CatalogColumns.Page select(String nameFilter, BigDecimal minPrice, BigDecimal maxPrice, Boolean inStock,
+                                      KeysetCursor after, int offset, int limit, boolean count) {
+        CatalogColumns current = columns;
+        if (current == null) return null;
+
+        CatalogColumns.Filter filter = CatalogColumns.Filter.of(nameFilter, minPrice, maxPrice, inStock);
+        int from = (after != null) ? current.startAfter(after) : 0;
+        long skip = (after != null) ? 0 : offset;
+        return current.select(filter, from, skip, limit, count, current.size() >= parallelThreshold);
+    }
+
+    /** Changes whenever listings may have changed: part of their ETag */
+    public long generation() {
+        return generation;
+    }
+
+    public CatalogStats stats() {
+        CatalogColumns current = columns;
+        return new CatalogStats(enabled, current != null,
+                (current != null) ? current.size() : 0, (current != null) ? current.estimatedBytes() : 0,
+                pending.size(), updates, lastUpdateMicros, rebuilds, lastRebuildAt, lastRebuildMillis);
+    }
+
+    // -------------------------
+    // Changes
+    // -------------------------
+    void onProductChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) ProductChangedEvent event) {
+        if (!enabled) return;
+        for (Long id : event.getProductIds()) {
+            pending.merge(id, event.isStockReservation(), Boolean::logicalAnd);
+        }
+        changesQueued.release();
+    }
+
+    /** Re-reads the changed products and publishes one snapshot with all of them (the worker's job) */
+    public void applyChanges() {
+        CatalogColumns current = columns;
+        if (current == null || pending.isEmpty()) return;
+        long start = System.nanoTime();
+
+        // removed before reading: a change committed after this point is queued again and read next time
+        Map<Long, Boolean> batch = new HashMap<>(pending);
+        batch.forEach(pending::remove);
+
+        List<Long> stockOnly = new ArrayList<>();
+        Set<Long> changed = new HashSet<>();
+        batch.forEach((id, onlyStock) -> (onlyStock ? stockOnly : changed).add(id));
+
+        try {
+            CatalogColumns next = current;
+            if (!changed.isEmpty()) {
+                List<CatalogRow> rows = productDAO.findCatalogRows(changed);
+                Set<Long> removed = new HashSet<>(changed);
+                rows.forEach(row -> removed.remove(row.id()));
+                next = next.apply(rows, removed);
+            }
+            if (!stockOnly.isEmpty()) {
+                next = next.withStock(productDAO.findStockLevels(stockOnly));
+            }
+            columns = next;
+            generation++;
+        } catch (RuntimeException e) {
+            batch.forEach((id, onlyStock) -> pending.merge(id, onlyStock, Boolean::logicalAnd));
+            throw e;
+        }
+
+        lastUpdateMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        updates++;
+    }
+
+    // -------------------------
+    // Rebuild (worker)
+    // -------------------------
+    private void run() {
+        long nextRebuild = System.nanoTime();
+        while (running) {
+            try {
+                if (System.nanoTime() - nextRebuild >= 0) {
+                    // set first: a failing build is retried at the next interval, not in a loop
+                    nextRebuild = System.nanoTime() + TimeUnit.MINUTES.toNanos(rebuildIntervalMinutes);
+                    rebuild();
+                    applyChanges();
+                }
+                if (changesQueued.tryAcquire(nextRebuild - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    // let a burst of writes land in one snapshot
+                    TimeUnit.MILLISECONDS.sleep(applyDelayMs);
+                    changesQueued.drainPermits();
+                    applyChanges();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("PRODUCT_CATALOG_UPDATE_FAILED pendingChanges={}", pending.size(), e);
+            }
+        }
+    }
+
+    /** Reads every product's listing columns and publishes a fresh snapshot (the worker's job; public for benchmarks) */
+    public void rebuild() {
+        long start = System.nanoTime();
+
+        List<CatalogRow> rows = new ArrayList<>();
+        List<CatalogRow> page;
+        long afterId = 0;
+        do {
+            page = productDAO.findCatalogRowsAfter(afterId, rebuildPageSize);
+            rows.addAll(page);
+            if (!page.isEmpty()) afterId = page.get(page.size() - 1).id();
+        } while (page.size() == rebuildPageSize);
+
+        // changes queued meanwhile stay pending; re-applying one that is already in is harmless
+        columns = CatalogColumns.build(rows);
+        generation++;
+
+        lastRebuildMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        lastRebuildAt = LocalDateTime.now();
+        rebuilds++;
+        log.info("PRODUCT_CATALOG_REBUILT products={} durationMs={}", rows.size(), lastRebuildMillis);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.concurrency;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.OptimisticLockException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Retry loop and counters behind {@link RetryOnConflict}. Usable directly where an
+ * interceptor does not fit (tests, batch jobs driving their own transactions).
+ */
+@ApplicationScoped
+public class ConflictRetrier {
+
+    // EclipseLink's native exception, which may surface unwrapped from a commit
+    private static final String ECLIPSELINK_OPTIMISTIC_LOCK =
+            "org.eclipse.persistence.exceptions.OptimisticLockException";
+
+    private static final long MAX_BACKOFF_MILLIS = 1000;
+
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder recovered = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    public <T> T call(Callable<T> action, int maxAttempts, long backoffMillis) throws Exception {
+        int attempt = 1;
+        for (;;) {
+            try {
+                T result = action.call();
+                if (attempt > 1) recovered.increment();
+                return result;
+            } catch (Exception e) {
+                if (!isConflict(e)) throw e;
+                conflicts.increment();
+
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw new OptimisticConflictException(
+                            "The resource was modified concurrently; reload and try again", e);
+                }
+
+                sleep(backoff(attempt, backoffMillis));
+                retries.increment();
+                attempt++;
+            }
+        }
+    }
+
+    /**
+     * True when an optimistic-lock failure is anywhere in the cause chain. Containers wrap it
+     * (EJBException, EJBTransactionRolledbackException, RollbackException, ...).
+     */
+    public static boolean isConflict(Throwable t) {
+        for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockException
+                    || ECLIPSELINK_OPTIMISTIC_LOCK.equals(cause.getClass().getName())) {
+                return true;
+            }
+            if (cause.getCause() == cause) break;
+        }
+        return false;
+    }
+
+    public ConflictStats stats() {
+        return new ConflictStats(conflicts.sum(), retries.sum(), recovered.sum(), exhausted.sum());
+    }
+
+    // -------------------------
+    // Backoff
+    // -------------------------
+    /** Full jitter: uniform in [0, base * 2^(attempt-1)], so racing writers spread out */
+    static long backoff(int attempt, long baseMillis) {
+        long ceiling = Math.min(MAX_BACKOFF_MILLIS, baseMillis << Math.min(attempt - 1, 20));
+        return (ceiling <= 0) ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static void sleep(long millis) throws InterruptedException {
+        if (millis > 0) Thread.sleep(millis);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.concurrency;
+
+/**
+ * Snapshot of optimistic-lock conflict handling (exposed at GET /api/admin/conflicts).
+ */
+public class ConflictStats {
+
+    private final long conflicts;
+    private final long retries;
+    private final long recovered;
+    private final long exhausted;
+
+    public ConflictStats(long conflicts, long retries, long recovered, long exhausted) {
+        this.conflicts = conflicts;
+        this.retries = retries;
+        this.recovered = recovered;
+        this.exhausted = exhausted;
+    }
+
+    /** Attempts that failed with an optimistic-lock exception */
+    public long getConflicts() { return conflicts; }
+
+    /** Attempts re-run after a conflict */
+    public long getRetries() { return retries; }
+
+    /** Calls that succeeded after at least one conflict */
+    public long getRecovered() { return recovered; }
+
+    /** Calls that gave up after maxAttempts conflicts (409 to the client) */
+    public long getExhausted() { return exhausted; }
+}
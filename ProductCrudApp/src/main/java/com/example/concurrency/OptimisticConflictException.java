@@ -0,0 +1,13 @@
+package com.example.concurrency;
+
+/**
+ * Someone else kept changing the same row and every retry lost the race.
+ * Surfaces as 409 Conflict; the client should reload and try again.
+ */
+public class OptimisticConflictException extends IllegalStateException {
+	private static final long serialVersionUID = 1L;
+
+    public OptimisticConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.concurrency;
+
+import jakarta.enterprise.util.Nonbinding;
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Re-run the method when it fails with an optimistic-lock conflict.
+ *
+ * Only for calls that are safe to repeat and that sit OUTSIDE the transaction, e.g. a resource
+ * method delegating to a @Stateless service: each attempt must get a fresh transaction and
+ * re-read the current state. Inside an active transaction the interceptor never retries.
+ */
+@InterceptorBinding
+@Retention(RUNTIME)
+@Target({METHOD, TYPE})
+public @interface RetryOnConflict {
+
+    /** Total attempts, including the first one */
+    @Nonbinding
+    int maxAttempts() default 4;
+
+    /** Backoff before the first retry; doubles each time, with full jitter */
+    @Nonbinding
+    long backoffMillis() default 20;
+}
@@ -0,0 +1,38 @@
+package com.example.concurrency;
+
+import jakarta.annotation.Priority;
+import jakarta.annotation.Resource;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+@RetryOnConflict
+@Interceptor
+@Priority(Interceptor.Priority.APPLICATION)
+public class RetryOnConflictInterceptor {
+
+    @Inject
+    private ConflictRetrier retrier;
+
+    @Resource
+    private TransactionSynchronizationRegistry txRegistry;
+
+    @AroundInvoke
+    public Object retry(InvocationContext ctx) throws Exception {
+        // A retry inside someone else's transaction would reuse a rollback-only transaction
+        if (txRegistry != null && txRegistry.getTransactionKey() != null) {
+            return ctx.proceed();
+        }
+
+        RetryOnConflict config = ctx.getMethod().getAnnotation(RetryOnConflict.class);
+        if (config == null) {
+            config = ctx.getMethod().getDeclaringClass().getAnnotation(RetryOnConflict.class);
+        }
+        int maxAttempts = (config != null) ? config.maxAttempts() : 4;
+        long backoffMillis = (config != null) ? config.backoffMillis() : 20;
+
+        return retrier.call(ctx::proceed, maxAttempts, backoffMillis);
+    }
+}
@@ -6,7 +6,10 @@ import java.util.Set;
 import org.eclipse.microprofile.auth.LoginConfig;
 
 import com.example.exception.ConstraintViolationExceptionMapper;
+import com.example.mappers.OptimisticConflictExceptionMapper;
 import com.example.resources.*;
+import com.example.rest.JsonBytesWriter;
+import com.example.rest.RequestContextFilter;
 
 import jakarta.annotation.security.DeclareRoles;
 import jakarta.ws.rs.ApplicationPath;
@@ -28,6 +31,11 @@ public class ApplicationConfig extends Application {
         classes.add(PaymentResource.class);
         classes.add(ShippingResource.class);
         classes.add(AuditResource.class);
+        classes.add(AdminResource.class);
+        classes.add(OptimisticConflictExceptionMapper.class); // retries exhausted -> 409
+        classes.add(MetricsResource.class); // Prometheus scrape endpoint
+        classes.add(RequestContextFilter.class); // request ids, REQUEST_START/END, route latency
+        classes.add(JsonBytesWriter.class); // pre-serialized product responses (ProductJsonCache)
         
         return classes;
     }
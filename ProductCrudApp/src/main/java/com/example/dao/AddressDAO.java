@@ -1,9 +1,11 @@
 package com.example.dao;
 
+import com.example.cache.DefaultAddressCache;
 import com.example.entities.Address;
 import com.example.entities.AddressType;
 import com.example.entities.Customer;
 import jakarta.ejb.Stateless;
+import jakarta.inject.Inject;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,6 +13,9 @@ import java.util.Optional;
 @Stateless
 public class AddressDAO extends BaseDAO<Address> {
 
+    @Inject
+    protected DefaultAddressCache defaultAddressCache;
+
     public AddressDAO() {
         super(Address.class);
     }
@@ -23,19 +28,27 @@ public class AddressDAO extends BaseDAO<Address> {
                 .getResultList();
     }
 
-    /** Find the default *shipping* address for a specific customer */
+    /**
+     * Find the default *shipping* address for a specific customer.
+     * The id comes from {@link DefaultAddressCache} and the address from the shared cache,
+     * so a repeat lookup usually reads nothing from the database.
+     */
     public Optional<Address> findDefaultShippingByCustomer(Customer customer) {
+        Long addressId = defaultAddressCache.get(customer.getId(), this::findDefaultShippingId);
+        return (addressId != null) ? Optional.ofNullable(em.find(Address.class, addressId)) : Optional.empty();
+    }
+
+    private Long findDefaultShippingId(Long customerId) {
         return em.createQuery(
-                "SELECT a FROM Address a " +
-                "WHERE a.customer = :customer " +
+                "SELECT a.id FROM Address a " +
+                "WHERE a.customer.id = :customerId " +
                 "AND a.isDefault = true " +
-                "AND a.type = :type", Address.class)
-            .setParameter("customer", customer)
+                "AND a.type = :type", Long.class)
+            .setParameter("customerId", customerId)
             .setParameter("type", AddressType.SHIPPING)
             .setMaxResults(1)
             .getResultStream()
-            .findFirst();
+            .findFirst()
+            .orElse(null);
     }
 }
-
-
@@ -1,8 +1,15 @@
 package com.example.dao;
 
+import com.example.audit.AuditBatchInserter;
+import com.example.audit.AuditIdAllocator;
+import com.example.audit.AuditRecord;
 import com.example.entities.AuditLog;
 import jakarta.ejb.Stateless;
+import jakarta.persistence.PersistenceException;
 import jakarta.persistence.TypedQuery;
+
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.List;
 
 @Stateless
@@ -12,6 +19,21 @@ public class AuditLogDAO extends BaseDAO<AuditLog> {
         super(AuditLog.class);
     }
 
+    private final AuditBatchInserter batchInserter = new AuditBatchInserter(new AuditIdAllocator());
+
+    // -------------------------
+    // Insert many records in the current transaction (one JDBC batch)
+    // -------------------------
+    public void insertBatch(List<AuditRecord> records) {
+        try {
+            // owned by the transaction; must not be closed here
+            Connection connection = em.unwrap(Connection.class);
+            batchInserter.insert(connection, records);
+        } catch (SQLException e) {
+            throw new PersistenceException("Audit batch insert failed", e);
+        }
+    }
+
     // -------------------------
     // Find logs for a specific entity
     // -------------------------
@@ -1,18 +1,31 @@
 package com.example.dao;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import com.example.metrics.DaoMonitored;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.PersistenceContext;
 
 /**
  * BaseDAO provides generic CRUD operations for entities.
  * Safe for container-managed EntityManagers.
+ * Every DAO call is timed per method (@DaoMonitored, see GET /api/admin/dao).
  */
+@DaoMonitored
 public abstract class BaseDAO<T> {
 
     @PersistenceContext(unitName = "ProductPU")
     protected EntityManager em; // container-managed
 
+    /**
+     * Max ids bound into one IN list. EclipseLink binds one parameter per id and the PostgreSQL
+     * driver rejects statements with more than 32767 of them; longer lists go as several queries.
+     */
+    protected static final int IN_LIST_CHUNK = 1000;
+
     private final Class<T> entityClass;
 
     protected BaseDAO(Class<T> entityClass) {
@@ -64,6 +77,57 @@ public abstract class BaseDAO<T> {
     public void flush() {
         getEntityManager().flush();
     }
-}
 
+    // -------------------------
+    // Unit of work
+    // -------------------------
+    /**
+     * Persist and make sure the generated id is set. Only IDENTITY keys need the INSERT to run
+     * right away; sequence-keyed entities get their id at persist and are written at commit.
+     */
+    public void saveForId(T entity) {
+        em.persist(entity);
+        if (em.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity) == null) {
+            em.flush();
+        }
+    }
+
+    /**
+     * Unit-of-work mode for the rest of the current transaction: queries stop flushing pending
+     * changes first, so every write reaches the database at commit in one ordered JDBC batch.
+     * Only for write paths whose later queries do not need to see those writes.
+     */
+    public void deferFlushToCommit() {
+        em.setFlushMode(FlushModeType.COMMIT);
+    }
+
+    /**
+     * Bump the @Version of a managed entity at commit although none of its own columns changed,
+     * for writes to child rows (e.g. a payment) that still change what the parent looks like.
+     */
+    public void incrementVersion(T entity) {
+        em.lock(entity, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+    }
+
+    /** {@code ids} split into lists of at most {@link #IN_LIST_CHUNK}, for IN queries */
+    protected static <K> List<List<K>> inListChunks(Collection<K> ids) {
+        List<K> all = new ArrayList<>(ids);
+        List<List<K>> chunks = new ArrayList<>((all.size() + IN_LIST_CHUNK - 1) / IN_LIST_CHUNK);
+        for (int from = 0; from < all.size(); from += IN_LIST_CHUNK) {
+            chunks.add(all.subList(from, Math.min(from + IN_LIST_CHUNK, all.size())));
+        }
+        return chunks;
+    }
 
+    // -------------------------
+    // Shared cache
+    // -------------------------
+    /**
+     * Drop the second-level (shared) cache copy of one entity, so the next find reads the row.
+     * Only needed where a change bypasses the managed entity (native SQL, or the non-owning side
+     * of a relationship); changes to managed entities are merged into the cache at commit.
+     */
+    public void evictFromSharedCache(Object id) {
+        em.getEntityManagerFactory().getCache().evict(entityClass, id);
+    }
+}
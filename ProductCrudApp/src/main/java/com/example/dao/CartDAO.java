@@ -3,9 +3,12 @@ package com.example.dao;
 import com.example.entities.Cart;
 import com.example.entities.CartStatus;
 import jakarta.ejb.Stateless;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 @Stateless
@@ -32,26 +35,79 @@ public class CartDAO extends BaseDAO<Cart> {
     }
 
     /**
-     * Find all carts by status that expired before given time.
+     * Expire up to {@code limit} NEW carts whose expiresAt is before {@code cutoff} with a single
+     * statement and return their ids. Rows locked by a concurrent edit or another expiry run are
+     * skipped rather than waited for; the next chunk or run picks them up.
+     * The version bump makes a client still holding the cart fail its write instead of reviving it.
      */
-    public List<Cart> findByStatusAndExpiresBefore(CartStatus status, LocalDateTime time) {
-        TypedQuery<Cart> query = em.createQuery(
-            "SELECT c FROM Cart c WHERE c.status = :status AND c.expiresAt < :time",
-            Cart.class
-        );
-        query.setParameter("status", status);
-        query.setParameter("time", time);
+    public List<Long> expireChunk(LocalDateTime cutoff, int limit) {
+        @SuppressWarnings("unchecked")
+        List<Number> rows = em.createNativeQuery(
+                "UPDATE cart SET status = 'EXPIRED', updatedAt = ?1, version = version + 1 " +
+                "WHERE id IN (SELECT id FROM cart WHERE status = 'NEW' AND expiresAt < ?2 " +
+                "ORDER BY id LIMIT ?3 FOR UPDATE SKIP LOCKED) " +
+                "RETURNING id")
+                .setParameter(1, LocalDateTime.now())
+                .setParameter(2, cutoff)
+                .setParameter(3, limit)
+                .getResultList();
+        return evictExpired(rows);
+    }
+
+    /**
+     * Expire the given carts, but only those still NEW and past {@code cutoff}: another node may have
+     * checked one out or the deadline may have moved since it was scheduled. Returns the ids expired.
+     */
+    public List<Long> expireByIds(Collection<Long> cartIds, LocalDateTime cutoff) {
+        if (cartIds.isEmpty()) return List.of();
 
-        return query.getResultList();
+        StringBuilder sql = new StringBuilder(
+                "UPDATE cart SET status = 'EXPIRED', updatedAt = ?1, version = version + 1 " +
+                "WHERE id IN (SELECT id FROM cart WHERE status = 'NEW' AND expiresAt <= ?2 AND id IN (");
+        int position = 3;
+        for (int i = 0; i < cartIds.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?").append(position + i);
+        }
+        sql.append(") FOR UPDATE SKIP LOCKED) RETURNING id");
+
+        Query query = em.createNativeQuery(sql.toString())
+                .setParameter(1, LocalDateTime.now())
+                .setParameter(2, cutoff);
+        for (Long id : cartIds) {
+            query.setParameter(position++, id);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Number> rows = query.getResultList();
+        return evictExpired(rows);
     }
 
     /**
-     * Bulk update helper (merge all entities in a list).
+     * One page of (id, expiresAt) for NEW carts expiring at or after {@code notBefore}, soonest first.
+     * Used to rebuild the in-memory expiry schedule after a restart. Pages overlap on the boundary
+     * timestamp; callers must tolerate seeing a cart twice.
      */
-    public void updateAll(List<Cart> carts) {
-        for (Cart cart : carts) {
-            em.merge(cart);
+    public List<Object[]> findActiveExpiries(LocalDateTime notBefore, int limit) {
+        // ORDER BY follows idx_cart_status_expires_at column for column (status is constant),
+        // so each page is an index range read with no sort
+        return em.createQuery(
+                "SELECT c.id, c.expiresAt FROM Cart c WHERE c.status = :status AND c.expiresAt >= :notBefore " +
+                "ORDER BY c.status, c.expiresAt",
+                Object[].class)
+                .setParameter("status", CartStatus.NEW)
+                .setParameter("notBefore", notBefore)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // the statements bypass EclipseLink, so drop its shared-cache copies of the expired carts
+    private List<Long> evictExpired(List<Number> rows) {
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Number row : rows) {
+            Long id = row.longValue();
+            ids.add(id);
+            em.getEntityManagerFactory().getCache().evict(Cart.class, id);
         }
+        return ids;
     }
 }
-
@@ -2,6 +2,7 @@ package com.example.dao;
 
 import com.example.entities.Customer;
 import com.example.entities.Order;
+import com.example.entities.OrderStatus;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.TypedQuery;
 
@@ -20,22 +21,40 @@ public class OrderDAO extends BaseDAO<Order> {
                  .getResultList();
     }
 
-    // Your existing paginated + filtered version
-    public List<Order> findAll(int page, int size, String statusFilter) {
-        String jpql = "SELECT o FROM Order o";
-        if (statusFilter != null && !statusFilter.isEmpty()) {
-            jpql += " WHERE o.status = :status";
-        }
+    /**
+     * One order with everything OrderResponse needs, in a single SELECT: customer, cart, items and
+     * their products are joined in. Payments and status history are not mapped on Order and come
+     * from PaymentDAO/OrderStatusHistoryDAO.findByOrderIds. Returns null if there is no such order.
+     */
+    public Order findByIdWithDetails(Long id) {
+        List<Order> result = em.createQuery("SELECT o FROM Order o WHERE o.id = :id", Order.class)
+                .setParameter("id", id)
+                .setHint("eclipselink.left-join-fetch", "o.customer")
+                .setHint("eclipselink.left-join-fetch", "o.cart")
+                .setHint("eclipselink.left-join-fetch", "o.cart.customer")
+                .setHint("eclipselink.left-join-fetch", "o.items")
+                .setHint("eclipselink.left-join-fetch", "o.items.product")
+                .getResultList();
+        return result.isEmpty() ? null : result.get(0);
+    }
 
-        TypedQuery<Order> query = em.createQuery(jpql, Order.class);
+    /**
+     * One page of orders, newest first, optionally filtered by status, in three SELECTs whatever the
+     * page size: the orders with customer and cart joined in, then items and products batch-loaded
+     * for the whole page. Collections are not join-fetched here, as that would make the row limit
+     * count order lines instead of orders.
+     */
+    public List<Order> findPageWithDetails(int offset, int limit, OrderStatus status) {
+        String jpql = (status == null)
+                ? "SELECT o FROM Order o ORDER BY o.id DESC"
+                : "SELECT o FROM Order o WHERE o.status = :status ORDER BY o.id DESC";
 
-        if (statusFilter != null && !statusFilter.isEmpty()) {
-            query.setParameter("status", statusFilter);
+        TypedQuery<Order> query = withDetails(em.createQuery(jpql, Order.class))
+                .setFirstResult(offset)
+                .setMaxResults(limit);
+        if (status != null) {
+            query.setParameter("status", status);
         }
-
-        query.setFirstResult(page * size);
-        query.setMaxResults(size);
-
         return query.getResultList();
     }
 
@@ -62,4 +81,48 @@ public class OrderDAO extends BaseDAO<Order> {
                 .setParameter("customer", customer)
                 .getResultList();
     }
-}
\ No newline at end of file
+
+    /**
+     * One page of a customer's orders, newest first (served by idx_order_customer_order_date).
+     * Loaded like {@link #findPageWithDetails}.
+     */
+    public List<Order> findByCustomerId(Long customerId, int offset, int limit) {
+        return withDetails(em.createQuery(
+                "SELECT o FROM Order o WHERE o.customer.id = :customerId ORDER BY o.orderDate DESC, o.id DESC",
+                Order.class))
+                .setParameter("customerId", customerId)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Next chunk of all orders in id order, starting after {@code afterId} (null for the first chunk).
+     * Used by the streaming export: each chunk is a short keyset query, so no OFFSET and no open cursor.
+     */
+    public List<Order> findAfterId(Long afterId, int limit) {
+        String jpql = (afterId == null)
+                ? "SELECT o FROM Order o ORDER BY o.id"
+                : "SELECT o FROM Order o WHERE o.id > :afterId ORDER BY o.id";
+
+        TypedQuery<Order> query = withDetails(em.createQuery(jpql, Order.class))
+                .setHint("eclipselink.jdbc.fetch-size", limit)
+                .setMaxResults(limit);
+
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+        }
+        return query.getResultList();
+    }
+
+    // Eager to-one associations joined in; items and products batch-loaded with one IN query each
+    private static TypedQuery<Order> withDetails(TypedQuery<Order> query) {
+        return query
+                .setHint("eclipselink.left-join-fetch", "o.customer")
+                .setHint("eclipselink.left-join-fetch", "o.cart")
+                .setHint("eclipselink.left-join-fetch", "o.cart.customer")
+                .setHint("eclipselink.batch.type", "IN")
+                .setHint("eclipselink.batch", "o.items")
+                .setHint("eclipselink.batch", "o.items.product");
+    }
+}
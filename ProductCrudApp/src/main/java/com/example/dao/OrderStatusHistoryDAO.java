@@ -4,7 +4,11 @@ import com.example.entities.Order;
 import com.example.entities.OrderStatusHistory;
 
 import jakarta.ejb.Stateless;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Stateless
 public class OrderStatusHistoryDAO extends BaseDAO<OrderStatusHistory> {
@@ -28,4 +32,27 @@ public class OrderStatusHistoryDAO extends BaseDAO<OrderStatusHistory> {
             .setParameter("orderId", orderId)
             .getResultList();
     }
-}
\ No newline at end of file
+
+    /**
+     * Status history of several orders, one query per {@value #IN_LIST_CHUNK} ids, grouped by order id
+     * (oldest first within each order).
+     */
+    public Map<Long, List<OrderStatusHistory>> findByOrderIds(Collection<Long> orderIds) {
+        Map<Long, List<OrderStatusHistory>> byOrder = new HashMap<>();
+        if (orderIds.isEmpty()) return byOrder;
+
+        // all rows of one order come from the same chunk, so the order within each list holds
+        for (List<Long> chunk : inListChunks(orderIds)) {
+            List<Object[]> rows = em.createQuery(
+                    "SELECT h.order.id, h FROM OrderStatusHistory h WHERE h.order.id IN :orderIds ORDER BY h.changedAt ASC",
+                    Object[].class)
+                .setParameter("orderIds", chunk)
+                .getResultList();
+
+            for (Object[] row : rows) {
+                byOrder.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((OrderStatusHistory) row[1]);
+            }
+        }
+        return byOrder;
+    }
+}
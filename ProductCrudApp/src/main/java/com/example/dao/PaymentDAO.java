@@ -4,7 +4,11 @@ import com.example.entities.Order;
 import com.example.entities.Payment;
 
 import jakarta.ejb.Stateless;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Stateless
 public class PaymentDAO extends BaseDAO<Payment> {
@@ -45,4 +49,27 @@ public class PaymentDAO extends BaseDAO<Payment> {
             .setParameter("customerId", customerId)
             .getResultList();
     }
-}
\ No newline at end of file
+
+    /**
+     * Payments of several orders, one query per {@value #IN_LIST_CHUNK} ids, grouped by order id
+     * (newest first within each order). Orders without payments are absent from the map.
+     */
+    public Map<Long, List<Payment>> findByOrderIds(Collection<Long> orderIds) {
+        Map<Long, List<Payment>> byOrder = new HashMap<>();
+        if (orderIds.isEmpty()) return byOrder;
+
+        // all rows of one order come from the same chunk, so the order within each list holds
+        for (List<Long> chunk : inListChunks(orderIds)) {
+            List<Object[]> rows = em.createQuery(
+                    "SELECT p.order.id, p FROM Payment p WHERE p.order.id IN :orderIds ORDER BY p.createdAt DESC",
+                    Object[].class)
+                .setParameter("orderIds", chunk)
+                .getResultList();
+
+            for (Object[] row : rows) {
+                byOrder.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Payment) row[1]);
+            }
+        }
+        return byOrder;
+    }
+}
@@ -1,70 +1,281 @@
 package com.example.dao;
 
+import com.example.catalog.CatalogRow;
+import com.example.dto.KeysetCursor;
+import com.example.dto.ProductSuggestion;
 import com.example.entities.Product;
+import com.example.inventory.StockUpdateBatch;
+import com.example.search.ProductSearchQuery;
 import jakarta.ejb.Stateless;
+import jakarta.inject.Inject;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
 
 import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
 
 @Stateless
 public class ProductDAO extends BaseDAO<Product> {
 
+    @Inject
+    protected ProductSearchQuery searchQuery;
+
     // EJB requires a no-arg constructor
     public ProductDAO() {
         super(Product.class);
     }
 
     /**
-     * Find products with pagination and optional filters.
+     * Ids of one page of products (offset pagination) with optional filters.
+     * Only ids are selected; the rows themselves come from the product cache or {@link #findByIds}.
      */
-    public List<Product> findProducts(int offset, int limit, String nameFilter,
-                                      BigDecimal minPrice, BigDecimal maxPrice, Boolean inStock) {
+    public List<Long> findProductIds(int offset, int limit, String nameFilter,
+                                     BigDecimal minPrice, BigDecimal maxPrice, Boolean inStock) {
 
-        StringBuilder jpql = new StringBuilder("SELECT p FROM Product p WHERE 1=1");
+        StringBuilder jpql = new StringBuilder("SELECT p.id FROM Product p WHERE 1=1");
+        appendFilters(jpql, nameFilter, minPrice, maxPrice, inStock);
 
-        if (nameFilter != null && !nameFilter.isEmpty()) {
-            jpql.append(" AND LOWER(p.name) LIKE :name");
-        }
-        if (minPrice != null) {
-            jpql.append(" AND p.price >= :minPrice");
-        }
-        if (maxPrice != null) {
-            jpql.append(" AND p.price <= :maxPrice");
-        }
-        if (Boolean.TRUE.equals(inStock)) {
-            jpql.append(" AND p.stock > 0");
-        }
+        // id breaks ties between rows created in the same instant, so pages never overlap
+        jpql.append(" ORDER BY p.createdAt DESC, p.id DESC");
 
-        jpql.append(" ORDER BY p.createdAt DESC");
+        TypedQuery<Long> query = getEntityManager().createQuery(jpql.toString(), Long.class);
+        bindFilters(query, nameFilter, minPrice, maxPrice);
 
-        TypedQuery<Product> query = getEntityManager().createQuery(jpql.toString(), Product.class);
+        query.setFirstResult(offset);
+        query.setMaxResults(limit);
 
-        if (nameFilter != null && !nameFilter.isEmpty()) {
-            query.setParameter("name", "%" + nameFilter.toLowerCase() + "%");
-        }
-        if (minPrice != null) {
-            query.setParameter("minPrice", minPrice);
+        return query.getResultList();
+    }
+
+    /**
+     * Keyset variant of {@link #findProductIds}: the {@code limit} product ids that come
+     * right after {@code after} in (createdAt DESC, id DESC) order, or the first page when
+     * {@code after} is null. Cost no longer grows with the page depth.
+     */
+    public List<Long> findProductIdsAfter(KeysetCursor after, int limit, String nameFilter,
+                                          BigDecimal minPrice, BigDecimal maxPrice, Boolean inStock) {
+
+        StringBuilder jpql = new StringBuilder("SELECT p.id FROM Product p WHERE 1=1");
+        appendFilters(jpql, nameFilter, minPrice, maxPrice, inStock);
+
+        if (after != null) {
+            // (createdAt, id) < (:createdAt, :id); the leading <= gives the index a range bound
+            jpql.append(" AND p.createdAt <= :afterCreatedAt")
+                .append(" AND (p.createdAt < :afterCreatedAt OR (p.createdAt = :afterCreatedAt AND p.id < :afterId))");
         }
-        if (maxPrice != null) {
-            query.setParameter("maxPrice", maxPrice);
+
+        jpql.append(" ORDER BY p.createdAt DESC, p.id DESC");
+
+        TypedQuery<Long> query = getEntityManager().createQuery(jpql.toString(), Long.class);
+        bindFilters(query, nameFilter, minPrice, maxPrice);
+
+        if (after != null) {
+            query.setParameter("afterCreatedAt", after.getCreatedAt());
+            query.setParameter("afterId", after.getId());
         }
 
-        query.setFirstResult(offset);
         query.setMaxResults(limit);
 
         return query.getResultList();
     }
 
+    /**
+     * Creation time of one product (its keyset position), or null when it no longer exists.
+     */
+    public LocalDateTime findCreatedAt(Long id) {
+        List<LocalDateTime> createdAt = getEntityManager()
+                .createQuery("SELECT p.createdAt FROM Product p WHERE p.id = :id", LocalDateTime.class)
+                .setParameter("id", id)
+                .getResultList();
+        return createdAt.isEmpty() ? null : createdAt.get(0);
+    }
+
+    /**
+     * Products for the given ids in one query (order not guaranteed; missing ids are skipped).
+     */
+    public List<Product> findByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) return List.of();
+        return getEntityManager()
+                .createQuery("SELECT p FROM Product p WHERE p.id IN :ids", Product.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
     /**
      * Count products with optional filters (for pagination metadata)
      */
     public long countProducts(String nameFilter, BigDecimal minPrice, BigDecimal maxPrice, Boolean inStock) {
 
         StringBuilder jpql = new StringBuilder("SELECT COUNT(p) FROM Product p WHERE 1=1");
+        appendFilters(jpql, nameFilter, minPrice, maxPrice, inStock);
 
+        TypedQuery<Long> query = getEntityManager().createQuery(jpql.toString(), Long.class);
+        bindFilters(query, nameFilter, minPrice, maxPrice);
+
+        return query.getSingleResult();
+    }
+
+    /**
+     * Planner's row estimate for the whole products table (maintained by ANALYZE/autovacuum).
+     * Returns -1 when the table has not been analyzed yet.
+     */
+    public long estimateProductCount() {
+        Query query = getEntityManager().createNativeQuery(
+                "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = CAST('products' AS regclass)");
+        Number estimate = (Number) query.getSingleResult();
+        return (estimate != null) ? estimate.longValue() : -1;
+    }
+
+    // -------------------------
+    // Ranked search (pg_trgm)
+    // -------------------------
+    /**
+     * Ids of one page of products whose name matches {@code terms}, best match first (see {@link ProductSearchQuery}).
+     * Runs on the transaction's connection, which also carries the similarity threshold.
+     */
+    public List<Long> searchProductIds(String terms, int offset, int limit,
+                                       BigDecimal minPrice, BigDecimal maxPrice, Boolean inStock) {
+        try {
+            return searchQuery.findIds(em.unwrap(Connection.class), terms, minPrice, maxPrice, inStock, offset, limit);
+        } catch (SQLException e) {
+            throw new PersistenceException("Product search failed", e);
+        }
+    }
+
+    /** Number of products matching {@code terms}, capped at {@link #maxSearchResults()} */
+    public long countSearchResults(String terms, BigDecimal minPrice, BigDecimal maxPrice, Boolean inStock) {
+        try {
+            return searchQuery.count(em.unwrap(Connection.class), terms, minPrice, maxPrice, inStock);
+        } catch (SQLException e) {
+            throw new PersistenceException("Product search failed", e);
+        }
+    }
+
+    public int maxSearchResults() {
+        return searchQuery.getMaxCandidates();
+    }
+
+    // -------------------------
+    // Autocomplete index
+    // -------------------------
+    /** Id, name and code of the {@code limit} products after {@code afterId}, in id order (index rebuilds) */
+    public List<ProductSuggestion> findSuggestionsAfter(long afterId, int limit) {
+        return toSuggestions(em.createQuery(
+                "SELECT p.id, p.name, p.productCode FROM Product p WHERE p.id > :afterId ORDER BY p.id", Object[].class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .getResultList());
+    }
+
+    /** Id, name and code of the given products; missing ids are skipped */
+    public List<ProductSuggestion> findSuggestions(Collection<Long> ids) {
+        if (ids.isEmpty()) return List.of();
+        return toSuggestions(em.createQuery(
+                "SELECT p.id, p.name, p.productCode FROM Product p WHERE p.id IN :ids", Object[].class)
+                .setParameter("ids", ids)
+                .getResultList());
+    }
+
+    private static List<ProductSuggestion> toSuggestions(List<Object[]> rows) {
+        List<ProductSuggestion> suggestions = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            suggestions.add(new ProductSuggestion((Long) row[0], (String) row[1], (String) row[2]));
+        }
+        return suggestions;
+    }
+
+    // -------------------------
+    // In-memory catalog
+    // -------------------------
+    /** Listing columns of the {@code limit} products after {@code afterId}, in id order (catalog rebuilds) */
+    public List<CatalogRow> findCatalogRowsAfter(long afterId, int limit) {
+        return toCatalogRows(em.createQuery(
+                "SELECT p.id, p.name, p.price, p.stock, p.createdAt FROM Product p WHERE p.id > :afterId ORDER BY p.id",
+                Object[].class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .getResultList());
+    }
+
+    /** Listing columns of the given products; missing ids are skipped */
+    public List<CatalogRow> findCatalogRows(Collection<Long> ids) {
+        if (ids.isEmpty()) return List.of();
+        return toCatalogRows(em.createQuery(
+                "SELECT p.id, p.name, p.price, p.stock, p.createdAt FROM Product p WHERE p.id IN :ids", Object[].class)
+                .setParameter("ids", ids)
+                .getResultList());
+    }
+
+    private static List<CatalogRow> toCatalogRows(List<Object[]> rows) {
+        List<CatalogRow> catalogRows = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            catalogRows.add(new CatalogRow((Long) row[0], (String) row[1], (BigDecimal) row[2],
+                    (Integer) row[3], (LocalDateTime) row[4]));
+        }
+        return catalogRows;
+    }
+
+    // -------------------------
+    // Stock
+    // -------------------------
+    /**
+     * Atomically take stock for every product (id -> quantity) in one JDBC batch on the
+     * transaction's connection. Rows without enough stock are left untouched and their ids returned;
+     * the caller must then roll back so the other lines are undone too.
+     */
+    public List<Long> decrementStock(SortedMap<Long, Integer> quantities) {
+        try {
+            // owned by the transaction; must not be closed here
+            Connection connection = em.unwrap(Connection.class);
+            return StockUpdateBatch.decrement(connection, quantities);
+        } catch (SQLException e) {
+            throw new PersistenceException("Stock update failed", e);
+        } finally {
+            evictStock(quantities.keySet());
+        }
+    }
+
+    /** Current stock per product id, read from the database (not the shared cache) */
+    public Map<Long, Integer> findStockLevels(Collection<Long> ids) {
+        Map<Long, Integer> levels = new HashMap<>();
+        if (ids.isEmpty()) return levels;
+
+        List<Object[]> rows = em.createQuery("SELECT p.id, p.stock FROM Product p WHERE p.id IN :ids", Object[].class)
+                .setParameter("ids", ids)
+                .getResultList();
+        for (Object[] row : rows) {
+            levels.put((Long) row[0], (Integer) row[1]);
+        }
+        return levels;
+    }
+
+    /**
+     * Native updates bypass EclipseLink, so drop its shared-cache copies of these products.
+     * Instances already managed in this transaction keep the old stock value, which is harmless:
+     * only changed attributes are written back, and stock is never set on them.
+     */
+    private void evictStock(Collection<Long> ids) {
+        ids.forEach(this::evictFromSharedCache);
+    }
+
+    // -------------------------
+    // Shared filter clauses
+    // -------------------------
+    private static void appendFilters(StringBuilder jpql, String nameFilter,
+                                      BigDecimal minPrice, BigDecimal maxPrice, Boolean inStock) {
         if (nameFilter != null && !nameFilter.isEmpty()) {
-            jpql.append(" AND LOWER(p.name) LIKE :name");
+            // a plain substring, as in the in-memory catalog (CatalogColumns.Filter): wildcards are escaped
+            jpql.append(" AND LOWER(p.name) LIKE :name ESCAPE '\\'");
         }
         if (minPrice != null) {
             jpql.append(" AND p.price >= :minPrice");
@@ -75,11 +286,11 @@ public class ProductDAO extends BaseDAO<Product> {
         if (Boolean.TRUE.equals(inStock)) {
             jpql.append(" AND p.stock > 0");
         }
+    }
 
-        TypedQuery<Long> query = getEntityManager().createQuery(jpql.toString(), Long.class);
-
+    private static void bindFilters(Query query, String nameFilter, BigDecimal minPrice, BigDecimal maxPrice) {
         if (nameFilter != null && !nameFilter.isEmpty()) {
-            query.setParameter("name", "%" + nameFilter.toLowerCase() + "%");
+            query.setParameter("name", "%" + likeEscape(nameFilter.toLowerCase(Locale.ROOT)) + "%");
         }
         if (minPrice != null) {
             query.setParameter("minPrice", minPrice);
@@ -87,7 +298,16 @@ public class ProductDAO extends BaseDAO<Product> {
         if (maxPrice != null) {
             query.setParameter("maxPrice", maxPrice);
         }
+    }
 
-        return query.getSingleResult();
+    /** {@code text} as a literal LIKE pattern: %, _ and the escape character itself are escaped */
+    static String likeEscape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '%' || c == '_' || c == '\\') escaped.append('\\');
+            escaped.append(c);
+        }
+        return escaped.toString();
     }
-}
\ No newline at end of file
+}
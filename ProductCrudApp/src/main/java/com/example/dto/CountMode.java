@@ -0,0 +1,23 @@
+package com.example.dto;
+
+/**
+ * How a paged listing computes its total ("count" query parameter).
+ */
+public enum CountMode {
+    /** Run a COUNT over the filtered rows */
+    EXACT,
+    /** Use the planner's row estimate when no filter is applied; otherwise same as EXACT */
+    ESTIMATE,
+    /** Skip the total; totalItems/totalPages are left out of the response */
+    NONE;
+
+    /** Parse the query parameter; case-insensitive, null/blank means "use the default" */
+    public static CountMode fromString(String value) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("count must be one of exact, estimate, none");
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque position in a list ordered by (createdAt DESC, id DESC).
+ * Clients get it as "nextCursor" and send it back as the "after" query parameter;
+ * the next page then starts strictly after this row instead of skipping OFFSET rows.
+ */
+public final class KeysetCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public KeysetCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    // -------------------------
+    // Token encoding
+    // -------------------------
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse a token produced by {@link #encode()}.
+     * Returns null for a null/blank token (first page); throws IllegalArgumentException if it is malformed.
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf(SEPARATOR);
+            if (split < 0) throw new IllegalArgumentException("Invalid cursor");
+
+            return new KeysetCursor(
+                    LocalDateTime.parse(raw.substring(0, split)),
+                    Long.valueOf(raw.substring(split + 1)));
+        } catch (DateTimeParseException e) {
+            // NumberFormatException and Base64 errors are already IllegalArgumentExceptions
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetCursor{createdAt=" + createdAt + ", id=" + id + "}";
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.dto;
 
 import com.example.entities.OrderStatus;
+import jakarta.json.bind.annotation.JsonbTransient;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -20,6 +21,10 @@ public class OrderResponse {
     private List<OrderStatusHistoryDTO> history;
     private ShippingDTO shipment; 
 
+    // not part of the body; the ETag of GET /api/orders/{orderId}
+    @JsonbTransient
+    private Long version;
+
     // --- Full constructor (updated) ---
     public OrderResponse(Long id, Long customerId, OrderStatus status, LocalDateTime orderDate,
                          BigDecimal subtotal, BigDecimal vatTotal, BigDecimal total,
@@ -79,4 +84,8 @@ public class OrderResponse {
 
     public ShippingDTO getShipment() { return shipment; } 
     public void setShipment(ShippingDTO shipment) { this.shipment = shipment; } 
+
+    @JsonbTransient
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
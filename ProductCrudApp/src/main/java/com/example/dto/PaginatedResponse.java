@@ -5,10 +5,12 @@ import java.util.List;
 public class PaginatedResponse<T> {
 
     private List<T> items;
-    private long totalItems;
-    private int totalPages;
-    private int currentPage;
+    private Long totalItems;      // null when the count was skipped
+    private Integer totalPages;
+    private Boolean totalEstimated; // true when totalItems is a planner estimate
+    private Integer currentPage;  // null in cursor mode
     private int pageSize;
+    private String nextCursor;    // pass back as "after" for the next page; null on the last page
 
     public PaginatedResponse() {}
 
@@ -20,6 +22,19 @@ public class PaginatedResponse<T> {
         this.totalPages = (int) Math.ceil((double) totalItems / pageSize);
     }
 
+    /** Cursor page: no page number, total filled in separately via {@link #setTotal(long, boolean)} */
+    public PaginatedResponse(List<T> items, int pageSize, String nextCursor) {
+        this.items = items;
+        this.pageSize = pageSize;
+        this.nextCursor = nextCursor;
+    }
+
+    public void setTotal(long totalItems, boolean estimated) {
+        this.totalItems = totalItems;
+        this.totalPages = (int) Math.ceil((double) totalItems / pageSize);
+        this.totalEstimated = estimated ? Boolean.TRUE : null;
+    }
+
     public List<T> getItems() { 
     	return items; 
     }
@@ -28,26 +43,34 @@ public class PaginatedResponse<T> {
     	this.items = items; 
     }
 
-    public long getTotalItems() {
+    public Long getTotalItems() {
     	return totalItems; 
     }
     
-    public void setTotalItems(long totalItems) { 
+    public void setTotalItems(Long totalItems) { 
     	this.totalItems = totalItems; 
     }
 
-    public int getTotalPages() { 
+    public Integer getTotalPages() { 
     	return totalPages; 
     }
     
-    public void setTotalPages(int totalPages) { 
+    public void setTotalPages(Integer totalPages) { 
     	this.totalPages = totalPages;
     }
 
-    public int getCurrentPage() { 
+    public Boolean getTotalEstimated() {
+    	return totalEstimated;
+    }
+
+    public void setTotalEstimated(Boolean totalEstimated) {
+    	this.totalEstimated = totalEstimated;
+    }
+
+    public Integer getCurrentPage() { 
     	return currentPage; 
     }
-    public void setCurrentPage(int currentPage) { 
+    public void setCurrentPage(Integer currentPage) { 
     	this.currentPage = currentPage; 
     }
 
@@ -58,5 +81,12 @@ public class PaginatedResponse<T> {
     public void setPageSize(int pageSize) { 
     	this.pageSize = pageSize; 
     }
-}
 
+    public String getNextCursor() {
+    	return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+    	this.nextCursor = nextCursor;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.dto;
 
 import com.example.entities.Product;
+import jakarta.json.bind.annotation.JsonbTransient;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -15,6 +16,10 @@ public class ProductResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // not part of the body; with updatedAt it makes the ETag (stock updates in SQL only move updatedAt)
+    @JsonbTransient
+    private Long version;
+
     public static ProductResponse fromEntity(Product product) {
         ProductResponse response = new ProductResponse();
         response.id = product.getId();
@@ -25,6 +30,7 @@ public class ProductResponse {
         response.stock = product.getStock();
         response.createdAt = product.getCreatedAt();
         response.updatedAt = product.getUpdatedAt();
+        response.version = product.getVersion();
         return response;
     }
 
@@ -84,6 +90,12 @@ public class ProductResponse {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
-}
-
 
+    @JsonbTransient
+    public Long getVersion() {
+        return version;
+    }
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
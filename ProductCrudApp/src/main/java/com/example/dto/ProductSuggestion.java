@@ -0,0 +1,34 @@
+package com.example.dto;
+
+/**
+ * One autocomplete entry (GET /api/products/suggest): just enough to show and link the product.
+ */
+public class ProductSuggestion {
+
+    private final Long id;
+    private final String name;
+    private final String productCode;
+
+    public ProductSuggestion(Long id, String name, String productCode) {
+        this.id = id;
+        this.name = name;
+        this.productCode = productCode;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getProductCode() {
+        return productCode;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductSuggestion{id=" + id + ", name=" + name + ", productCode=" + productCode + "}";
+    }
+}
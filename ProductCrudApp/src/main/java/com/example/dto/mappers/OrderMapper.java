@@ -18,6 +18,7 @@ public class OrderMapper {
 
         OrderResponse dto = new OrderResponse();
         dto.setId(order.getId());
+        dto.setVersion(order.getVersion());
         dto.setStatus(order.getStatus());
         dto.setOrderDate(order.getOrderDate());
         dto.setTotal(order.getTotal());
@@ -19,6 +19,7 @@ public class ProductMapper {
         response.setStock(product.getStock());
         response.setCreatedAt(product.getCreatedAt());
         response.setUpdatedAt(product.getUpdatedAt());
+        response.setVersion(product.getVersion());
         return response;
     }
 
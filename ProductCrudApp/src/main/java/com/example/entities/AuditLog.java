@@ -7,12 +7,17 @@ import java.time.LocalDateTime;
 @Table(name = "audit_logs")
 public class AuditLog {
 
+    public static final String ID_SEQUENCE = "audit_logs_id_seq";
+
+    // Sequence INCREMENT BY; shared with AuditIdAllocator so both hand out ids from the same blocks
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_logs_seq")
     @SequenceGenerator(
         name = "audit_logs_seq",
-        sequenceName = "audit_logs_id_seq", // matches your DB
-        allocationSize = 1                   // critical for Postgres sequences
+        sequenceName = ID_SEQUENCE,          // matches your DB
+        allocationSize = ID_ALLOCATION_SIZE  // must equal the sequence's INCREMENT BY
     )
     private Long id;
 
@@ -6,13 +6,20 @@ import jakarta.json.bind.annotation.JsonbTransient;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "cart")
+@Table(name = "cart", indexes = {
+    // expiry sweep: NEW carts past expiresAt
+    @Index(name = "idx_cart_status_expires_at", columnList = "status, expiresAt")
+})
 public class Cart {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // optimistic lock: concurrent edits fail with OptimisticLockException instead of overwriting each other
+    @Version
+    private Long version;
+
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonbTransient
     private List<CartItem> items = new ArrayList<>();
@@ -57,6 +64,10 @@ public class Cart {
     }
 
     // --- Getters & Setters ---
+    public Long getVersion() {
+        return version;
+    }
+
     public Long getId() {
         return id;
     }
@@ -7,13 +7,19 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "\"order\"") // quoting is safest
+@Table(name = "\"order\"", indexes = { // quoting is safest
+    // customer-scoped listing: WHERE customer_id = ? ORDER BY orderDate DESC, id DESC
+    @Index(name = "idx_order_customer_order_date", columnList = "customer_id, orderDate DESC, id DESC")
+})
 public class Order {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    private Long version;
+
     
     @Enumerated(EnumType.STRING)
     private OrderStatus status;
@@ -64,6 +70,10 @@ public class Order {
         item.setOrder(this);
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Long getId() {
         return id;
     }
@@ -5,7 +5,9 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments") // ✅ explicit table name
+@Table(name = "payments", indexes = { // ✅ explicit table name
+    @Index(name = "idx_payments_order_id", columnList = "order_id")
+})
 public class Payment {
 
     @Id
@@ -9,13 +9,21 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+@Cacheable
+// the GIN trigram index on lower(name) (?q= search and name LIKE filters) is created by com.example.search.TrigramIndexInstaller
+@Table(name = "products", indexes = {
+    // serves ORDER BY createdAt DESC, id DESC and the keyset seek in ProductDAO.findProductIdsAfter
+    @Index(name = "idx_products_created_at_id", columnList = "createdAt DESC, id DESC")
+})
 public class Product {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    private Long version;
+
     @NotBlank(message = "Product name must not be empty.")
     @Size(min = 3, max = 50, message = "Product name must be between 3 and 50 characters long")
     @Column(nullable = false)
@@ -68,6 +76,10 @@ public class Product {
     }
 
     // Getters and setters
+    public Long getVersion() {
+        return version;
+    }
+
     public Long getId() {
         return id;
     }
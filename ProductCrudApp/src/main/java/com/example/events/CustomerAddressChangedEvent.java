@@ -0,0 +1,22 @@
+package com.example.events;
+
+/**
+ * Fired (CDI event) whenever one of a customer's addresses is added, updated or deleted.
+ */
+public final class CustomerAddressChangedEvent {
+
+    private final Long customerId;
+
+    public CustomerAddressChangedEvent(Long customerId) {
+        this.customerId = customerId;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    @Override
+    public String toString() {
+        return "CustomerAddressChangedEvent{customerId=" + customerId + "}";
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.events;
+
+/**
+ * Fired (CDI event) whenever an order's representation changes: status, payments or shipment.
+ * Every such write also bumps the order's version, which GET /api/orders/{orderId} uses as its ETag.
+ */
+public final class OrderChangedEvent {
+
+    private final Long orderId;
+
+    public OrderChangedEvent(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public static OrderChangedEvent of(Long orderId) {
+        return new OrderChangedEvent(orderId);
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderChangedEvent{orderId=" + orderId + "}";
+    }
+}
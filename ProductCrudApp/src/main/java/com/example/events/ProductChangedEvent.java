@@ -0,0 +1,45 @@
+package com.example.events;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Fired (CDI event) whenever product rows are created, updated, deleted or have their stock changed.
+ * Observers that keep derived copies of the catalog use it to drop stale entries.
+ */
+public final class ProductChangedEvent {
+
+    private final Set<Long> productIds;
+    private final boolean stockReservation;
+
+    public ProductChangedEvent(Collection<Long> productIds) {
+        this(productIds, false);
+    }
+
+    private ProductChangedEvent(Collection<Long> productIds, boolean stockReservation) {
+        this.productIds = Set.copyOf(productIds);
+        this.stockReservation = stockReservation;
+    }
+
+    public static ProductChangedEvent of(Long productId) {
+        return new ProductChangedEvent(Set.of(productId));
+    }
+
+    /** Only stock went down, through the reservation engine (which already keeps its own ledger in step) */
+    public static ProductChangedEvent stockReserved(Collection<Long> productIds) {
+        return new ProductChangedEvent(productIds, true);
+    }
+
+    public boolean isStockReservation() {
+        return stockReservation;
+    }
+
+    public Set<Long> getProductIds() {
+        return productIds;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductChangedEvent{productIds=" + productIds + ", stockReservation=" + stockReservation + "}";
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.inventory;
+
+import jakarta.ejb.ApplicationException;
+
+/**
+ * A cart line asked for more units than the product has left.
+ * Thrown unwrapped from EJBs and rolls back the checkout transaction.
+ */
+@ApplicationException(rollback = true)
+public class InsufficientStockException extends IllegalArgumentException {
+	private static final long serialVersionUID = 1L;
+
+    private final Long productId;
+
+    public InsufficientStockException(Long productId, String message) {
+        super(message);
+        this.productId = productId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.inventory;
+
+import com.example.events.ProductChangedEvent;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory reservation ledger for hot SKUs.
+ *
+ * Products that see more than {@code stock.ledger.hot-threshold} checkouts in one TTL window are
+ * tracked here with a {@link StripedStock} seeded from the database. Checkouts take units from the
+ * ledger first, so once a hot product sells out further attempts are turned away without queuing
+ * on its row lock. The database update stays authoritative: the ledger may over-report (other nodes,
+ * a stale seed), in which case the conditional UPDATE rejects the line and the entry is forgotten.
+ * It must never under-report, which is why admin changes to a product drop its entry and every
+ * entry expires after the TTL.
+ */
+@ApplicationScoped
+public class StockLedger {
+
+    public enum Outcome { RESERVED, INSUFFICIENT, UNTRACKED }
+
+    @Inject
+    @ConfigProperty(name = "stock.ledger.hot-threshold", defaultValue = "20")
+    private int hotThreshold;
+
+    @Inject
+    @ConfigProperty(name = "stock.ledger.ttl-seconds", defaultValue = "30")
+    private long ttlSeconds;
+
+    @Inject
+    @ConfigProperty(name = "stock.ledger.stripes", defaultValue = "8")
+    private int stripes;
+
+    private final ConcurrentHashMap<Long, StripedStock> tracked = new ConcurrentHashMap<>();
+
+    // checkout attempts per product in the current window; cleared when the window rolls over
+    private final ConcurrentHashMap<Long, LongAdder> demand = new ConcurrentHashMap<>();
+    private volatile long windowStart = System.currentTimeMillis();
+
+    public StockLedger() {}
+
+    /** Standalone use outside CDI (tests, benchmarks) */
+    public StockLedger(int hotThreshold, long ttlSeconds, int stripes) {
+        this.hotThreshold = hotThreshold;
+        this.ttlSeconds = ttlSeconds;
+        this.stripes = stripes;
+    }
+
+    // -------------------------
+    // Reservations
+    // -------------------------
+    public Outcome tryReserve(Long productId, int qty) {
+        StripedStock stock = tracked.get(productId);
+        if (stock == null) return Outcome.UNTRACKED;
+
+        if (stock.isExpired(System.currentTimeMillis())) {
+            tracked.remove(productId, stock);
+            return Outcome.UNTRACKED;
+        }
+        return (stock.tryTake(qty) == StripedStock.Take.TAKEN) ? Outcome.RESERVED : Outcome.INSUFFICIENT;
+    }
+
+    /** Return units taken by {@link #tryReserve} whose transaction did not commit */
+    public void release(Long productId, int qty) {
+        StripedStock stock = tracked.get(productId);
+        if (stock != null) stock.put(qty);
+    }
+
+    // -------------------------
+    // Tracking
+    // -------------------------
+    /** Count one checkout of the product; true when it just became hot and should be seeded */
+    public boolean recordDemand(Long productId) {
+        long now = System.currentTimeMillis();
+        if (now - windowStart >= TimeUnit.SECONDS.toMillis(ttlSeconds)) {
+            windowStart = now;
+            demand.clear();
+        }
+
+        LongAdder counter = demand.computeIfAbsent(productId, id -> new LongAdder());
+        counter.increment();
+        return counter.sum() >= hotThreshold && !tracked.containsKey(productId);
+    }
+
+    /** Start tracking from the given stock level; false if another thread got there first */
+    public boolean track(Long productId, int stock) {
+        long expiresAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ttlSeconds);
+        return tracked.putIfAbsent(productId, new StripedStock(Math.max(0, stock), stripes, expiresAt)) == null;
+    }
+
+    public void forget(Collection<Long> productIds) {
+        for (Long id : productIds) {
+            tracked.remove(id);
+        }
+    }
+
+    public boolean isTracked(Long productId) {
+        return tracked.containsKey(productId);
+    }
+
+    /** Units the ledger believes are left, or -1 when the product is not tracked */
+    public int available(Long productId) {
+        StripedStock stock = tracked.get(productId);
+        return (stock != null) ? stock.available() : -1;
+    }
+
+    public int trackedCount() {
+        return tracked.size();
+    }
+
+    // -------------------------
+    // Invalidation
+    // -------------------------
+    void afterProductChanged(@Observes(during = TransactionPhase.AFTER_COMPLETION) ProductChangedEvent event) {
+        // admin edits, deletes and anything else may have changed stock behind the ledger's back
+        if (!event.isStockReservation()) {
+            forget(event.getProductIds());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.inventory;
+
+import com.example.dao.ProductDAO;
+
+import jakarta.annotation.Resource;
+import jakarta.ejb.Stateless;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Takes stock for a whole checkout without read-modify-write on the product entities.
+ *
+ * Hot products are first checked against the in-memory {@link StockLedger}, which turns away a
+ * sold-out SKU without touching the database. Every line then goes through one batched conditional
+ * UPDATE ({@link StockUpdateBatch}), which is the authoritative check. Ledger units are handed back
+ * if the surrounding transaction rolls back.
+ */
+@Stateless
+public class StockReservationService {
+
+    @Inject
+    private ProductDAO productDAO;
+
+    @Inject
+    private StockLedger ledger;
+
+    @Resource
+    private TransactionSynchronizationRegistry txRegistry;
+
+    /**
+     * Reserve {@code quantities} (product id -> units) in the current transaction.
+     *
+     * @throws InsufficientStockException naming the first product that is short; the transaction
+     *         is marked for rollback so lines already taken are undone
+     */
+    public void reserve(Map<Long, Integer> quantities) {
+        SortedMap<Long, Integer> lines = new TreeMap<>(quantities);
+
+        // 1. Ledger (hot SKUs only)
+        Map<Long, Integer> held = new HashMap<>();
+        List<Long> becameHot = new ArrayList<>();
+        for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+            Long productId = line.getKey();
+            switch (ledger.tryReserve(productId, line.getValue())) {
+                case RESERVED -> held.put(productId, line.getValue());
+                case INSUFFICIENT -> {
+                    releaseAll(held);
+                    throw insufficient(productId);
+                }
+                case UNTRACKED -> {
+                    if (ledger.recordDemand(productId)) becameHot.add(productId);
+                }
+            }
+        }
+
+        // 2. Database (authoritative, one round trip)
+        List<Long> rejected;
+        try {
+            rejected = productDAO.decrementStock(lines);
+        } catch (RuntimeException e) {
+            releaseAll(held);
+            throw e;
+        }
+
+        if (!rejected.isEmpty()) {
+            releaseAll(held);
+            // the ledger let these through, so its count is ahead of the table
+            ledger.forget(rejected);
+            throw insufficient(rejected.get(0));
+        }
+
+        // 3. Seed newly hot products from the level this transaction leaves behind
+        if (!becameHot.isEmpty()) {
+            for (Map.Entry<Long, Integer> level : productDAO.findStockLevels(becameHot).entrySet()) {
+                if (ledger.track(level.getKey(), level.getValue())) {
+                    // the seed already excludes our units: treat them as held so a rollback returns them
+                    held.put(level.getKey(), lines.get(level.getKey()));
+                }
+            }
+        }
+
+        releaseOnRollback(held);
+    }
+
+    // -------------------------
+    // Helpers
+    // -------------------------
+    private void releaseOnRollback(Map<Long, Integer> held) {
+        if (held.isEmpty() || txRegistry == null
+                || txRegistry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            return;
+        }
+
+        txRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {}
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != Status.STATUS_COMMITTED) {
+                    releaseAll(held);
+                }
+            }
+        });
+    }
+
+    private void releaseAll(Map<Long, Integer> held) {
+        held.forEach(ledger::release);
+    }
+
+    private static InsufficientStockException insufficient(Long productId) {
+        return new InsufficientStockException(productId, "Insufficient stock for product: " + productId);
+    }
+}
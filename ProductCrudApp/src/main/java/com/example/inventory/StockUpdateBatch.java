@@ -0,0 +1,51 @@
+package com.example.inventory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Conditional stock updates for all lines of a checkout, sent as one JDBC batch.
+ * The "stock >= ?" guard makes each decrement atomic in the database: no read-modify-write,
+ * no explicit lock, and a row can never go negative however many checkouts race on it.
+ */
+public final class StockUpdateBatch {
+
+    static final String DECREMENT_SQL =
+            "UPDATE products SET stock = stock - ?, updatedAt = CURRENT_TIMESTAMP WHERE id = ? AND stock >= ?";
+
+    private StockUpdateBatch() {}
+
+    /**
+     * Decrement every product by its quantity. Lines are applied in product-id order so two
+     * concurrent checkouts always lock rows in the same order (no deadlocks).
+     *
+     * @return ids whose row did not have enough stock (and was left unchanged); empty on full success.
+     *         The caller's transaction must roll back if this is not empty.
+     */
+    public static List<Long> decrement(Connection connection, SortedMap<Long, Integer> quantities) throws SQLException {
+        List<Long> insufficient = new ArrayList<>();
+        if (quantities.isEmpty()) return insufficient;
+
+        try (PreparedStatement ps = connection.prepareStatement(DECREMENT_SQL)) {
+            for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+                ps.setInt(1, line.getValue());
+                ps.setLong(2, line.getKey());
+                ps.setInt(3, line.getValue());
+                ps.addBatch();
+            }
+
+            int[] counts = ps.executeBatch();
+            int i = 0;
+            for (Long productId : quantities.keySet()) {
+                // SUCCESS_NO_INFO only comes from drivers that do not report counts; PostgreSQL and H2 do
+                if (counts[i++] == 0) insufficient.add(productId);
+            }
+        }
+        return insufficient;
+    }
+}
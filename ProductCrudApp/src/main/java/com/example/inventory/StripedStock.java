@@ -0,0 +1,88 @@
+package com.example.inventory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * In-memory stock counter for one product, split across stripes so concurrent checkouts
+ * of the same hot SKU CAS different cache lines instead of all spinning on one.
+ *
+ * A take is served from a single random stripe when that stripe holds enough units (the common case).
+ * Otherwise the taker drains every stripe under the rebalance lock, so it sees the exact remaining
+ * stock: it either takes its units and spreads the rest back, or knows for certain there are not enough.
+ * Units only ever come back through {@link #put}, which takes the same lock, so none can land in a
+ * stripe the drain has already passed.
+ */
+final class StripedStock {
+
+    enum Take { TAKEN, INSUFFICIENT }
+
+    /** 16 ints = 64 bytes, so neighbouring stripes never share a cache line */
+    private static final int PAD = 16;
+
+    private final AtomicIntegerArray cells;
+    private final int stripes;
+    private final long expiresAt;
+
+    StripedStock(int stock, int stripes, long expiresAt) {
+        this.stripes = stripes;
+        this.cells = new AtomicIntegerArray(stripes * PAD);
+        this.expiresAt = expiresAt;
+        spread(stock);
+    }
+
+    Take tryTake(int qty) {
+        int index = ThreadLocalRandom.current().nextInt(stripes) * PAD;
+        for (;;) {
+            int units = cells.get(index);
+            if (units < qty) break;
+            if (cells.compareAndSet(index, units, units - qty)) return Take.TAKEN;
+        }
+        return rebalanceAndTake(qty);
+    }
+
+    /** Give units back (reservation rolled back); rare, so it may wait for a running rebalance */
+    synchronized void put(int qty) {
+        cells.getAndAdd(ThreadLocalRandom.current().nextInt(stripes) * PAD, qty);
+    }
+
+    /** Sum of all stripes; only a snapshot while takes are in flight */
+    int available() {
+        int sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += cells.get(i * PAD);
+        }
+        return sum;
+    }
+
+    boolean isExpired(long now) {
+        return now >= expiresAt;
+    }
+
+    // -------------------------
+    // Slow path
+    // -------------------------
+    private synchronized Take rebalanceAndTake(int qty) {
+        // Only this lock moves units between stripes or adds any, so once drained the pool is the exact stock
+        int pool = 0;
+        for (int i = 0; i < stripes; i++) {
+            pool += cells.getAndSet(i * PAD, 0);
+        }
+
+        Take result = Take.INSUFFICIENT;
+        if (pool >= qty) {
+            pool -= qty;
+            result = Take.TAKEN;
+        }
+        spread(pool);
+        return result;
+    }
+
+    private void spread(int units) {
+        int share = units / stripes;
+        int remainder = units % stripes;
+        for (int i = 0; i < stripes; i++) {
+            cells.getAndAdd(i * PAD, share + (i < remainder ? 1 : 0));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.mappers;
+
+import com.example.concurrency.OptimisticConflictException;
+import com.example.dto.APIResponse;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+@Provider
+public class OptimisticConflictExceptionMapper implements ExceptionMapper<OptimisticConflictException> {
+
+    @Override
+    public Response toResponse(OptimisticConflictException exception) {
+        return Response.status(Response.Status.CONFLICT)
+                       .entity(new APIResponse<>(false, exception.getMessage(), null))
+                       .build();
+    }
+}
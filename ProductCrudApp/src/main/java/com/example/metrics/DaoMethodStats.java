@@ -0,0 +1,43 @@
+package com.example.metrics;
+
+/**
+ * Counters of one DAO method (exposed at GET /api/admin/dao).
+ */
+public class DaoMethodStats {
+
+    private final String method;
+    private final long calls;
+    private final long errors;
+    private final double totalMillis;
+    private final double maxMillis;
+    private final long rows;
+
+    public DaoMethodStats(String method, long calls, long errors, double totalMillis, double maxMillis, long rows) {
+        this.method = method;
+        this.calls = calls;
+        this.errors = errors;
+        this.totalMillis = totalMillis;
+        this.maxMillis = maxMillis;
+        this.rows = rows;
+    }
+
+    /** DAO class and method name, e.g. "ProductDAO.findPage" */
+    public String getMethod() { return method; }
+
+    public long getCalls() { return calls; }
+
+    /** Calls that ended with an exception */
+    public long getErrors() { return errors; }
+
+    /** Time spent in the method across all calls, including its SQL */
+    public double getTotalMillis() { return totalMillis; }
+
+    public double getAverageMillis() { return calls == 0 ? 0 : totalMillis / calls; }
+
+    public double getMaxMillis() { return maxMillis; }
+
+    /** Rows returned across all calls: list/array sizes, 0 or 1 for single results */
+    public long getRows() { return rows; }
+
+    public double getAverageRows() { return calls == 0 ? 0 : (double) rows / calls; }
+}
@@ -0,0 +1,78 @@
+package com.example.metrics;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Call count, total and max latency and rows returned per DAO method, fed by {@link DaoMetricsInterceptor}.
+ * Counters only grow; compare two readings of GET /api/admin/dao to see a window.
+ */
+@ApplicationScoped
+public class DaoMetrics {
+
+    private final Map<String, MethodCounters> methods = new ConcurrentHashMap<>();
+
+    private static final class MethodCounters {
+        final LongAdder calls = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        final LongAdder rows = new LongAdder();
+    }
+
+    public void record(Class<?> dao, Method method, long elapsedNanos, long rows, boolean failed) {
+        MethodCounters counters = methods.computeIfAbsent(name(dao, method), k -> new MethodCounters());
+        counters.calls.increment();
+        counters.totalNanos.add(elapsedNanos);
+        counters.maxNanos.accumulate(elapsedNanos);
+        counters.rows.add(rows);
+        if (failed) {
+            counters.errors.increment();
+        }
+    }
+
+    /** Every method seen so far, the most total time first */
+    public List<DaoMethodStats> stats() {
+        return methods.entrySet().stream()
+                .map(e -> new DaoMethodStats(e.getKey(),
+                        e.getValue().calls.sum(),
+                        e.getValue().errors.sum(),
+                        e.getValue().totalNanos.sum() / 1_000_000.0,
+                        e.getValue().maxNanos.get() / 1_000_000.0,
+                        e.getValue().rows.sum()))
+                .sorted(Comparator.comparingDouble(DaoMethodStats::getTotalMillis).reversed())
+                .toList();
+    }
+
+    /** Rows in a DAO result: collection, map or array size, 0 or 1 for an Optional or a single value */
+    static long rowsOf(Object result) {
+        if (result == null) return 0;
+        if (result instanceof Collection<?> collection) return collection.size();
+        if (result instanceof Map<?, ?> map) return map.size();
+        if (result instanceof Optional<?> optional) return optional.isPresent() ? 1 : 0;
+        if (result instanceof Stream<?>) return 0; // not consumed here
+        if (result.getClass().isArray()) return Array.getLength(result);
+        return 1;
+    }
+
+    // "ProductDAO.findPage", also when the target is a container subclass or an anonymous one
+    private static String name(Class<?> dao, Method method) {
+        Class<?> type = dao;
+        while (type.getSuperclass() != null
+                && (type.isAnonymousClass() || type.isSynthetic() || type.getName().contains("$$"))) {
+            type = type.getSuperclass();
+        }
+        return type.getSimpleName() + "." + method.getName();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.metrics;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+@DaoMonitored
+@Interceptor
+@Priority(Interceptor.Priority.LIBRARY_AFTER)
+public class DaoMetricsInterceptor {
+
+    @Inject
+    private DaoMetrics metrics;
+
+    @AroundInvoke
+    public Object time(InvocationContext ctx) throws Exception {
+        long start = System.nanoTime();
+        boolean failed = true;
+        Object result = null;
+        try {
+            result = ctx.proceed();
+            failed = false;
+            return result;
+        } finally {
+            metrics.record(ctx.getTarget().getClass(), ctx.getMethod(), System.nanoTime() - start,
+                    failed ? 0 : DaoMetrics.rowsOf(result), failed);
+        }
+    }
+}
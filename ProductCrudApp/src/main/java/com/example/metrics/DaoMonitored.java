@@ -0,0 +1,22 @@
+package com.example.metrics;
+
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Time every business method and count the rows it returns (see {@link DaoMetrics}).
+ * Declared on BaseDAO and inherited by every DAO.
+ */
+@Inherited
+@InterceptorBinding
+@Retention(RUNTIME)
+@Target({METHOD, TYPE})
+public @interface DaoMonitored {
+}
@@ -0,0 +1,83 @@
+package com.example.metrics;
+
+import java.util.List;
+
+/**
+ * State of the {@link SlowRequestProfiler} (exposed at GET /api/admin/profiler).
+ */
+public class ProfilerStats {
+
+    private final boolean enabled;
+    private final long slowThresholdMs;
+    private final long sampleIntervalMs;
+    private final int inFlight;
+    private final long slowRequests;
+    private final long samples;
+    private final int distinctStacks;
+    private final long droppedSamples;
+    private final double samplerMillis;
+    private final List<SlowRequestSummary> recent;
+
+    public ProfilerStats(boolean enabled, long slowThresholdMs, long sampleIntervalMs, int inFlight,
+                         long slowRequests, long samples, int distinctStacks, long droppedSamples,
+                         double samplerMillis, List<SlowRequestSummary> recent) {
+        this.enabled = enabled;
+        this.slowThresholdMs = slowThresholdMs;
+        this.sampleIntervalMs = sampleIntervalMs;
+        this.inFlight = inFlight;
+        this.slowRequests = slowRequests;
+        this.samples = samples;
+        this.distinctStacks = distinctStacks;
+        this.droppedSamples = droppedSamples;
+        this.samplerMillis = samplerMillis;
+        this.recent = recent;
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    public long getSlowThresholdMs() { return slowThresholdMs; }
+
+    public long getSampleIntervalMs() { return sampleIntervalMs; }
+
+    /** Requests being handled right now */
+    public int getInFlight() { return inFlight; }
+
+    /** Finished requests that were sampled at least once */
+    public long getSlowRequests() { return slowRequests; }
+
+    public long getSamples() { return samples; }
+
+    public int getDistinctStacks() { return distinctStacks; }
+
+    /** Samples left out of the aggregate because it already held profiler.max-stacks stacks */
+    public long getDroppedSamples() { return droppedSamples; }
+
+    /** Time the sampler thread has spent scanning and taking stacks */
+    public double getSamplerMillis() { return samplerMillis; }
+
+    /** Most recent slow requests first; their stacks are at /admin/profiler/collapsed?requestId= */
+    public List<SlowRequestSummary> getRecent() { return recent; }
+
+    public static class SlowRequestSummary {
+
+        private final String requestId;
+        private final String route;
+        private final long durationMillis;
+        private final int samples;
+
+        public SlowRequestSummary(String requestId, String route, long durationMillis, int samples) {
+            this.requestId = requestId;
+            this.route = route;
+            this.durationMillis = durationMillis;
+            this.samples = samples;
+        }
+
+        public String getRequestId() { return requestId; }
+
+        public String getRoute() { return route; }
+
+        public long getDurationMillis() { return durationMillis; }
+
+        public int getSamples() { return samples; }
+    }
+}
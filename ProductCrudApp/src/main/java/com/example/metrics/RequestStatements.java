@@ -0,0 +1,101 @@
+package com.example.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JDBC statements executed on behalf of the current request, tagged with its request id.
+ *
+ * {@link com.example.rest.RequestContextFilter} opens the request on its thread and closes it once the
+ * response is written; {@link StatementTraceListener} reports every statement in between. A request
+ * that ran more than the threshold gets its full statement list logged at WARN - usually an N+1.
+ * Statements outside a request (timers, the audit writer) are only counted in the totals.
+ */
+public final class RequestStatements {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestStatements.class);
+
+    /** Statements kept per request for the log; the count goes on beyond it */
+    static final int MAX_KEPT = 500;
+
+    private static final ThreadLocal<Current> CURRENT = new ThreadLocal<>();
+
+    private static final LongAdder statements = new LongAdder();
+    private static final LongAdder requestStatements = new LongAdder();
+    private static final LongAdder requests = new LongAdder();
+    private static final LongAdder requestsOverThreshold = new LongAdder();
+    private static final LongAccumulator maxPerRequest = new LongAccumulator(Math::max, 0);
+
+    private static final class Current {
+        final String requestId;
+        final List<String> sql = new ArrayList<>();
+        int count;
+
+        Current(String requestId) {
+            this.requestId = requestId;
+        }
+    }
+
+    private RequestStatements() {}
+
+    // -------------------------
+    // Request lifecycle
+    // -------------------------
+    public static void begin(String requestId) {
+        CURRENT.set(new Current(requestId));
+    }
+
+    /**
+     * Ends the request on this thread and returns its statement count (0 if none was open).
+     * Logs the statements when there were more than {@code logThreshold}.
+     */
+    public static int end(int logThreshold) {
+        Current current = CURRENT.get();
+        if (current == null) {
+            return 0;
+        }
+        CURRENT.remove();
+
+        requests.increment();
+        maxPerRequest.accumulate(current.count);
+        if (current.count > logThreshold) {
+            requestsOverThreshold.increment();
+            log.warn("requestId={} ran {} SQL statements (threshold {}):\n  {}{}",
+                    current.requestId, current.count, logThreshold,
+                    String.join("\n  ", current.sql),
+                    current.count > current.sql.size() ? "\n  ... " + (current.count - current.sql.size()) + " more" : "");
+        }
+        return current.count;
+    }
+
+    // -------------------------
+    // Called by the pool's trace listener
+    // -------------------------
+    static void executed(String sql) {
+        statements.increment();
+        Current current = CURRENT.get();
+        if (current != null) {
+            requestStatements.increment();
+            current.count++;
+            if (current.sql.size() < MAX_KEPT) {
+                current.sql.add(sql);
+            }
+        }
+    }
+
+    /** Statements run so far by the request on this thread, or 0 outside a request */
+    public static int count() {
+        Current current = CURRENT.get();
+        return current != null ? current.count : 0;
+    }
+
+    public static StatementStats stats() {
+        return new StatementStats(statements.sum(), requestStatements.sum(), requests.sum(),
+                requestsOverThreshold.sum(), maxPerRequest.get());
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.metrics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request latency and status counts per route (HTTP method + templated path), fed by
+ * {@link com.example.rest.RequestContextFilter} and exposed in Prometheus text format at GET /api/metrics.
+ *
+ * Each route records into an HdrHistogram {@link Recorder}: recording is wait-free, so request threads
+ * never contend with each other or with a scrape. A scrape swaps out the interval histogram and adds it
+ * to the route's cumulative one, from which the buckets, quantiles and max are read. Latencies are
+ * kept in microseconds; values above the highest trackable one are clamped to it.
+ */
+@ApplicationScoped
+public class RouteMetrics {
+
+    /** Route label for requests that matched no resource method (404s from JAX-RS itself) */
+    public static final String UNMATCHED = "UNMATCHED";
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.95, 0.99, 0.999};
+
+    @Inject
+    @ConfigProperty(name = "metrics.latency.highest-trackable-ms", defaultValue = "60000")
+    private long highestTrackableMillis;
+
+    @Inject
+    @ConfigProperty(name = "metrics.latency.significant-digits", defaultValue = "2")
+    private int significantDigits;
+
+    @Inject
+    @ConfigProperty(name = "metrics.latency.buckets-seconds",
+            defaultValue = "0.005,0.01,0.025,0.05,0.1,0.25,0.5,1,2.5,5,10")
+    private String bucketsSeconds;
+
+    private long highestTrackableMicros;
+    private double[] buckets;
+    private final Map<RouteKey, RouteLatency> routes = new ConcurrentHashMap<>();
+
+    public RouteMetrics() {}
+
+    /** Standalone use outside CDI (tests, benchmarks) */
+    public RouteMetrics(long highestTrackableMillis, int significantDigits, String bucketsSeconds) {
+        this.highestTrackableMillis = highestTrackableMillis;
+        this.significantDigits = significantDigits;
+        this.bucketsSeconds = bucketsSeconds;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        highestTrackableMicros = TimeUnit.MILLISECONDS.toMicros(highestTrackableMillis);
+        buckets = Arrays.stream(bucketsSeconds.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .mapToDouble(Double::parseDouble)
+                .sorted()
+                .toArray();
+    }
+
+    private record RouteKey(String method, String route) implements Comparable<RouteKey> {
+        @Override
+        public int compareTo(RouteKey other) {
+            int byRoute = route.compareTo(other.route);
+            return byRoute != 0 ? byRoute : method.compareTo(other.method);
+        }
+    }
+
+    private final class RouteLatency {
+        final Recorder recorder = new Recorder(highestTrackableMicros, significantDigits);
+        final Histogram cumulative = new Histogram(highestTrackableMicros, significantDigits);
+        final LongAdder sumMicros = new LongAdder();
+        final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        Histogram interval;
+
+        void record(int status, long micros) {
+            recorder.recordValue(micros);
+            sumMicros.add(micros);
+            statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+        }
+
+        /** Folds what was recorded since the last scrape into the cumulative histogram */
+        synchronized Histogram snapshot() {
+            interval = recorder.getIntervalHistogram(interval);
+            cumulative.add(interval);
+            return cumulative.copy();
+        }
+    }
+
+    // -------------------------
+    // Recording
+    // -------------------------
+    public void record(String method, String route, int status, long elapsedNanos) {
+        long micros = Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), 0), highestTrackableMicros);
+        routes.computeIfAbsent(new RouteKey(method, route), k -> new RouteLatency()).record(status, micros);
+    }
+
+    // -------------------------
+    // Prometheus text exposition (format 0.0.4)
+    // -------------------------
+    public String scrape() {
+        Map<RouteKey, Histogram> snapshots = new ConcurrentSkipListMap<>();
+        routes.forEach((key, latency) -> snapshots.put(key, latency.snapshot()));
+
+        StringBuilder out = new StringBuilder(1024 + snapshots.size() * 1024);
+
+        family(out, "http_server_request_duration_seconds", "histogram",
+                "Time from the request filter until the response is written, by route.");
+        snapshots.forEach((key, histogram) -> {
+            for (double le : buckets) {
+                long count = histogram.getCountBetweenValues(0, (long) (le * 1_000_000));
+                sample(out, "http_server_request_duration_seconds_bucket", key, "le", format(le), count);
+            }
+            sample(out, "http_server_request_duration_seconds_bucket", key, "le", "+Inf", histogram.getTotalCount());
+            sample(out, "http_server_request_duration_seconds_sum", key, null, null,
+                    seconds(routes.get(key).sumMicros.sum()));
+            sample(out, "http_server_request_duration_seconds_count", key, null, null, histogram.getTotalCount());
+        });
+
+        family(out, "http_server_request_duration_quantiles_seconds", "summary",
+                "Latency percentiles by route since startup, from the same HdrHistogram.");
+        snapshots.forEach((key, histogram) -> {
+            for (double quantile : QUANTILES) {
+                sample(out, "http_server_request_duration_quantiles_seconds", key, "quantile", format(quantile),
+                        seconds(histogram.getValueAtPercentile(quantile * 100)));
+            }
+            sample(out, "http_server_request_duration_quantiles_seconds_sum", key, null, null,
+                    seconds(routes.get(key).sumMicros.sum()));
+            sample(out, "http_server_request_duration_quantiles_seconds_count", key, null, null,
+                    histogram.getTotalCount());
+        });
+
+        family(out, "http_server_request_duration_max_seconds", "gauge",
+                "Slowest request by route since startup.");
+        snapshots.forEach((key, histogram) ->
+                sample(out, "http_server_request_duration_max_seconds", key, null, null,
+                        seconds(histogram.getTotalCount() == 0 ? 0 : histogram.getMaxValue())));
+
+        family(out, "http_server_responses_total", "counter", "Responses by route and status code.");
+        snapshots.keySet().forEach(key ->
+                new ConcurrentSkipListMap<>(routes.get(key).statuses).forEach((status, count) ->
+                        sample(out, "http_server_responses_total", key, "status", String.valueOf(status), count.sum())));
+
+        return out.toString();
+    }
+
+    private static void family(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, RouteKey key,
+                               String extraLabel, String extraValue, Object value) {
+        out.append(name)
+                .append("{method=\"").append(escape(key.method()))
+                .append("\",route=\"").append(escape(key.route())).append('"');
+        if (extraLabel != null) {
+            out.append(',').append(extraLabel).append("=\"").append(extraValue).append('"');
+        }
+        out.append("} ").append(value instanceof Double d ? format(d) : value).append('\n');
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static double seconds(long micros) {
+        return micros / 1_000_000.0;
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15
+                ? String.valueOf((long) value)
+                : Double.toString(value);
+    }
+}
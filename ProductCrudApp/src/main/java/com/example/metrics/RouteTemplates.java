@@ -0,0 +1,51 @@
+package com.example.metrics;
+
+import jakarta.ws.rs.Path;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Templated path of a resource method ("/carts/{cartId}/items"), built from its class and method
+ * {@link Path} annotations and cached per method. Used as the route label so that metrics stay
+ * bounded by the number of endpoints rather than the number of ids.
+ */
+public final class RouteTemplates {
+
+    private static final Pattern PARAM_REGEX = Pattern.compile("\\{\\s*(\\w[\\w.-]*)\\s*:[^}]*}");
+    private static final Pattern SLASHES = Pattern.compile("/{2,}");
+
+    private static final Map<Method, String> TEMPLATES = new ConcurrentHashMap<>();
+
+    private RouteTemplates() {}
+
+    public static String of(Class<?> resourceClass, Method resourceMethod) {
+        return TEMPLATES.computeIfAbsent(resourceMethod, m -> build(resourceClass, m));
+    }
+
+    private static String build(Class<?> resourceClass, Method resourceMethod) {
+        StringBuilder template = new StringBuilder();
+        // walk up in case the container hands over a proxy subclass
+        Path classPath = null;
+        for (Class<?> type = resourceClass; type != null && classPath == null; type = type.getSuperclass()) {
+            classPath = type.getAnnotation(Path.class);
+        }
+        if (classPath != null) {
+            template.append('/').append(classPath.value());
+        }
+        Path methodPath = resourceMethod.getAnnotation(Path.class);
+        if (methodPath != null) {
+            template.append('/').append(methodPath.value());
+        }
+
+        // {id: \d+} -> {id}, no doubled or trailing slashes
+        String route = PARAM_REGEX.matcher(template).replaceAll("{$1}");
+        route = SLASHES.matcher(route).replaceAll("/");
+        if (route.length() > 1 && route.endsWith("/")) {
+            route = route.substring(0, route.length() - 1);
+        }
+        return route.isEmpty() ? "/" : route;
+    }
+}
@@ -0,0 +1,303 @@
+package com.example.metrics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stack sampling for slow requests only.
+ *
+ * {@link com.example.rest.RequestContextFilter} registers each request's thread with its requestId and
+ * route when it starts and removes it when the response has been written, or when the servlet request
+ * ends without the entity being written ({@link com.example.rest.RequestScopeListener}), so a thread
+ * that moved on is never sampled for a finished request. A background thread wakes
+ * every sample interval and takes a stack of every registered thread whose request has been running
+ * longer than the threshold (one ThreadMXBean call for all of them). While no request is slow that
+ * tick only walks the in-flight map, so the cost is one map put and remove per request.
+ *
+ * Samples are kept as collapsed stacks ("route;frame;frame... count", root first) - the input of
+ * flamegraph.pl and speedscope - both per request, for the most recent slow requests, and summed
+ * over all of them. Frames are class.method without line numbers so that samples aggregate.
+ */
+@ApplicationScoped
+public class SlowRequestProfiler {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowRequestProfiler.class);
+
+    @Inject
+    @ConfigProperty(name = "profiler.enabled", defaultValue = "true")
+    private boolean enabled;
+
+    @Inject
+    @ConfigProperty(name = "profiler.slow-threshold-ms", defaultValue = "500")
+    private long slowThresholdMs;
+
+    @Inject
+    @ConfigProperty(name = "profiler.sample-interval-ms", defaultValue = "20")
+    private long sampleIntervalMs;
+
+    @Inject
+    @ConfigProperty(name = "profiler.max-depth", defaultValue = "128")
+    private int maxDepth;
+
+    @Inject
+    @ConfigProperty(name = "profiler.max-stacks", defaultValue = "10000")
+    private int maxStacks;
+
+    @Inject
+    @ConfigProperty(name = "profiler.retained-requests", defaultValue = "50")
+    private int retainedRequests;
+
+    @Resource
+    private ManagedThreadFactory threadFactory;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final Map<Thread, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    // aggregate over every slow request, bounded by maxStacks distinct stacks
+    private final Map<String, LongAdder> aggregate = new ConcurrentHashMap<>();
+    private final Deque<SlowRequest> recent = new ArrayDeque<>();
+
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder slowRequests = new LongAdder();
+    private final LongAdder droppedSamples = new LongAdder();
+    private final LongAdder samplerNanos = new LongAdder();
+
+    private long slowThresholdNanos;
+    private Thread worker;
+    private volatile boolean running;
+
+    /** One request being handled on a registered thread */
+    private static final class InFlight {
+        final String requestId;
+        final String route;
+        final long startNanos;
+        private Map<String, Integer> stacks; // touched by the sampler and by end(), under this lock
+        private int sampleCount;
+
+        InFlight(String requestId, String route, long startNanos) {
+            this.requestId = requestId;
+            this.route = route;
+            this.startNanos = startNanos;
+        }
+
+        synchronized void add(String stack) {
+            if (stacks == null) stacks = new HashMap<>();
+            stacks.merge(stack, 1, Integer::sum);
+            sampleCount++;
+        }
+
+        synchronized Map<String, Integer> drain() {
+            Map<String, Integer> drained = stacks;
+            stacks = null;
+            return drained;
+        }
+    }
+
+    /** A finished slow request and its samples */
+    private record SlowRequest(String requestId, String route, long durationMillis, int samples,
+                               Map<String, Integer> stacks) {}
+
+    public SlowRequestProfiler() {}
+
+    /** Standalone use outside CDI (tests); no background thread, drive it with {@link #sample(long)} */
+    public SlowRequestProfiler(long slowThresholdMs, int maxDepth, int maxStacks, int retainedRequests) {
+        this.enabled = true;
+        this.slowThresholdMs = slowThresholdMs;
+        this.maxDepth = maxDepth;
+        this.maxStacks = maxStacks;
+        this.retainedRequests = retainedRequests;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+    }
+
+    @PostConstruct
+    void start() {
+        slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        if (!enabled || threadFactory == null) {
+            return;
+        }
+        running = true;
+        worker = threadFactory.newThread(this::run);
+        worker.setName("slow-request-sampler");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    // -------------------------
+    // Request threads
+    // -------------------------
+    /** The current thread starts handling a request */
+    public void begin(String requestId, String route) {
+        if (enabled) {
+            inFlight.put(Thread.currentThread(), new InFlight(requestId, route, System.nanoTime()));
+        }
+    }
+
+    /** The current thread is done with its request; keeps the samples if it was slow enough to get any */
+    public void end() {
+        if (!enabled) {
+            return;
+        }
+        InFlight request = inFlight.remove(Thread.currentThread());
+        if (request == null) {
+            return;
+        }
+        Map<String, Integer> stacks = request.drain();
+        if (stacks == null) {
+            return;
+        }
+
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - request.startNanos);
+        int sampleCount = stacks.values().stream().mapToInt(Integer::intValue).sum();
+        slowRequests.increment();
+        stacks.forEach((stack, count) -> {
+            LongAdder total = aggregate.get(stack);
+            if (total == null && aggregate.size() < maxStacks) {
+                total = aggregate.computeIfAbsent(stack, s -> new LongAdder());
+            }
+            if (total != null) {
+                total.add(count);
+            } else {
+                droppedSamples.add(count);
+            }
+        });
+        synchronized (recent) {
+            recent.addFirst(new SlowRequest(request.requestId, request.route, durationMillis, sampleCount, stacks));
+            while (recent.size() > retainedRequests) {
+                recent.removeLast();
+            }
+        }
+        log.info("SLOW_REQUEST requestId={} route={} durationMs={} samples={}",
+                request.requestId, request.route, durationMillis, sampleCount);
+    }
+
+    // -------------------------
+    // Sampler
+    // -------------------------
+    private void run() {
+        while (running) {
+            try {
+                Thread.sleep(sampleIntervalMs);
+                sample(System.nanoTime());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("SLOW_REQUEST_SAMPLE_FAILED", e);
+            }
+        }
+    }
+
+    /** Takes one stack of every request that has been running longer than the threshold at {@code nowNanos} */
+    void sample(long nowNanos) {
+        long start = System.nanoTime();
+        List<InFlight> slow = null;
+        List<Long> ids = null;
+        for (Map.Entry<Thread, InFlight> entry : inFlight.entrySet()) {
+            if (nowNanos - entry.getValue().startNanos >= slowThresholdNanos) {
+                if (slow == null) {
+                    slow = new ArrayList<>();
+                    ids = new ArrayList<>();
+                }
+                slow.add(entry.getValue());
+                ids.add(entry.getKey().getId());
+            }
+        }
+        if (slow != null) {
+            ThreadInfo[] infos = threads.getThreadInfo(ids.stream().mapToLong(Long::longValue).toArray(), maxDepth);
+            for (int i = 0; i < infos.length; i++) {
+                if (infos[i] != null && infos[i].getStackTrace().length > 0) {
+                    slow.get(i).add(collapse(slow.get(i).route, infos[i].getStackTrace()));
+                    samples.increment();
+                }
+            }
+        }
+        samplerNanos.add(System.nanoTime() - start);
+    }
+
+    static String collapse(String route, StackTraceElement[] stack) {
+        StringBuilder collapsed = new StringBuilder(route.length() + stack.length * 48).append(route);
+        for (int i = stack.length - 1; i >= 0; i--) {
+            collapsed.append(';').append(stack[i].getClassName()).append('.').append(stack[i].getMethodName());
+        }
+        return collapsed.toString();
+    }
+
+    // -------------------------
+    // Results
+    // -------------------------
+    /** Collapsed stacks summed over every slow request since startup or the last reset */
+    public String collapsed() {
+        Map<String, Long> sorted = new TreeMap<>();
+        aggregate.forEach((stack, count) -> sorted.put(stack, count.sum()));
+        return format(sorted);
+    }
+
+    /** Collapsed stacks of one of the retained slow requests */
+    public Optional<String> collapsed(String requestId) {
+        synchronized (recent) {
+            return recent.stream()
+                    .filter(r -> r.requestId().equals(requestId))
+                    .findFirst()
+                    .map(r -> format(new TreeMap<>(r.stacks())));
+        }
+    }
+
+    private static String format(Map<String, ? extends Number> stacks) {
+        StringBuilder out = new StringBuilder();
+        stacks.forEach((stack, count) -> out.append(stack).append(' ').append(count).append('\n'));
+        return out.toString();
+    }
+
+    public ProfilerStats stats() {
+        List<ProfilerStats.SlowRequestSummary> summaries = new ArrayList<>();
+        synchronized (recent) {
+            for (SlowRequest r : recent) {
+                summaries.add(new ProfilerStats.SlowRequestSummary(r.requestId(), r.route(), r.durationMillis(), r.samples()));
+            }
+        }
+        return new ProfilerStats(enabled, slowThresholdMs, sampleIntervalMs, inFlight.size(), slowRequests.sum(),
+                samples.sum(), aggregate.size(), droppedSamples.sum(),
+                samplerNanos.sum() / 1_000_000.0, summaries);
+    }
+
+    public void reset() {
+        aggregate.clear();
+        synchronized (recent) {
+            recent.clear();
+        }
+        samples.reset();
+        slowRequests.reset();
+        droppedSamples.reset();
+        samplerNanos.reset();
+    }
+}
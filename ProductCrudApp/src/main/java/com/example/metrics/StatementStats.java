@@ -0,0 +1,35 @@
+package com.example.metrics;
+
+/**
+ * JDBC statement counters from {@link RequestStatements} (exposed at GET /api/admin/dao).
+ */
+public class StatementStats {
+
+    private final long statements;
+    private final long requestStatements;
+    private final long requests;
+    private final long requestsOverThreshold;
+    private final long maxPerRequest;
+
+    public StatementStats(long statements, long requestStatements, long requests,
+                          long requestsOverThreshold, long maxPerRequest) {
+        this.statements = statements;
+        this.requestStatements = requestStatements;
+        this.requests = requests;
+        this.requestsOverThreshold = requestsOverThreshold;
+        this.maxPerRequest = maxPerRequest;
+    }
+
+    /** Every statement through the jdbc/postgres pool, in a request or not */
+    public long getStatements() { return statements; }
+
+    /** Requests that finished, and how many statements they ran on average */
+    public long getRequests() { return requests; }
+
+    public double getAveragePerRequest() { return requests == 0 ? 0 : (double) requestStatements / requests; }
+
+    public long getMaxPerRequest() { return maxPerRequest; }
+
+    /** Requests whose statement list was logged */
+    public long getRequestsOverThreshold() { return requestsOverThreshold; }
+}
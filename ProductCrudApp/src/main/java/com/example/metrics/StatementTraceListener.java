@@ -0,0 +1,56 @@
+package com.example.metrics;
+
+import org.glassfish.api.jdbc.SQLTraceListener;
+import org.glassfish.api.jdbc.SQLTraceRecord;
+
+/**
+ * Reports every statement the jdbc/postgres pool executes to {@link RequestStatements}.
+ * Registered on the pool rather than wrapped around it, so ProductPU keeps jdbc/postgres as its
+ * JTA data source:
+ * <pre>
+ * asadmin set resources.jdbc-connection-pool.&lt;pool of jdbc/postgres&gt;.sql-trace-listeners=com.example.metrics.StatementTraceListener
+ * </pre>
+ * The pool calls it on the thread making the JDBC call, for every call on its connections and
+ * statements. A batch counts as one statement (one round trip). Trace records carry no link from a
+ * PreparedStatement back to its SQL, so an execute without SQL is labelled with the last statement
+ * prepared on the thread, which is the one EclipseLink executes.
+ */
+public class StatementTraceListener implements SQLTraceListener {
+
+    private static final ThreadLocal<Prepared> PREPARED = ThreadLocal.withInitial(Prepared::new);
+
+    private static final class Prepared {
+        String sql;
+        int batched;
+    }
+
+    @Override
+    public void sqlTrace(SQLTraceRecord record) {
+        String name = record.getMethodName();
+        if (name == null) return;
+
+        Prepared prepared = PREPARED.get();
+        switch (name) {
+            case "prepareStatement", "prepareCall" -> {
+                prepared.sql = firstString(record.getParams());
+                prepared.batched = 0;
+            }
+            case "addBatch" -> prepared.batched++;
+            case "clearBatch" -> prepared.batched = 0;
+            case "executeBatch", "executeLargeBatch" -> {
+                RequestStatements.executed("[batch of " + prepared.batched + "] "
+                        + (prepared.sql != null ? prepared.sql : ""));
+                prepared.batched = 0;
+            }
+            case "execute", "executeQuery", "executeUpdate", "executeLargeUpdate" -> {
+                String sql = firstString(record.getParams());
+                RequestStatements.executed(sql != null ? sql : prepared.sql);
+            }
+            default -> { }
+        }
+    }
+
+    private static String firstString(Object[] params) {
+        return (params != null && params.length > 0 && params[0] instanceof String s) ? s : null;
+    }
+}
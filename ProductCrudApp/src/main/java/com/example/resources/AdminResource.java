@@ -0,0 +1,204 @@
+package com.example.resources;
+
+import com.example.audit.AuditWriter;
+import com.example.audit.journal.AuditJournalReplayer;
+import com.example.cache.CacheStats;
+import com.example.carts.CartExpiryScheduler;
+import com.example.catalog.ProductCatalog;
+import com.example.cache.DefaultAddressCache;
+import com.example.cache.ProductCache;
+import com.example.cache.ProductJsonCache;
+import com.example.cache.ValidatorCache;
+import com.example.concurrency.ConflictRetrier;
+import com.example.dto.APIResponse;
+import com.example.metrics.DaoMetrics;
+import com.example.metrics.RequestStatements;
+import com.example.metrics.SlowRequestProfiler;
+import com.example.search.ProductSuggestIndex;
+import com.example.security.VerifiedTokenCache;
+
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Path("/admin")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@RolesAllowed({"ROLE_ADMIN"})
+public class AdminResource {
+
+    @Inject
+    private VerifiedTokenCache tokenCache;
+
+    @Inject
+    private ProductCache productCache;
+
+    @Inject
+    private ProductJsonCache productJsonCache;
+
+    @Inject
+    private DefaultAddressCache defaultAddressCache;
+
+    @Inject
+    private ValidatorCache validatorCache;
+
+    @Inject
+    private AuditWriter auditWriter;
+
+    @Inject
+    private AuditJournalReplayer auditJournal;
+
+    @Inject
+    private ConflictRetrier conflictRetrier;
+
+    @Inject
+    private CartExpiryScheduler cartExpiryScheduler;
+
+    @Inject
+    private DaoMetrics daoMetrics;
+
+    @Inject
+    private SlowRequestProfiler slowRequestProfiler;
+
+    @Inject
+    private ProductSuggestIndex productSuggestIndex;
+
+    @Inject
+    private ProductCatalog productCatalog;
+
+    // -------------------------
+    // CACHE STATISTICS
+    // Example: GET /admin/caches
+    // -------------------------
+    @GET
+    @Path("/caches")
+    public Response getCacheStats() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        stats.put("verifiedTokens", tokenCache.stats());
+        stats.put("products", productCache.stats());
+        stats.put("productJson", productJsonCache.stats());
+        stats.put("defaultShippingAddresses", defaultAddressCache.stats());
+        stats.put("productValidators", validatorCache.productStats());
+        stats.put("orderValidators", validatorCache.orderStats());
+
+        return Response.ok(new APIResponse<>(true, "Cache statistics", stats)).build();
+    }
+
+    // -------------------------
+    // AUDIT WRITER QUEUE
+    // Example: GET /admin/audit-writer
+    // -------------------------
+    @GET
+    @Path("/audit-writer")
+    public Response getAuditWriterStats() {
+        return Response.ok(new APIResponse<>(true, "Audit writer statistics", auditWriter.stats())).build();
+    }
+
+    // -------------------------
+    // AUDIT SPILL JOURNAL
+    // Example: GET /admin/audit-journal
+    // -------------------------
+    @GET
+    @Path("/audit-journal")
+    public Response getAuditJournalStats() {
+        return Response.ok(new APIResponse<>(true, "Audit journal statistics", auditJournal.stats())).build();
+    }
+
+    // -------------------------
+    // OPTIMISTIC-LOCK CONFLICTS
+    // Example: GET /admin/conflicts
+    // -------------------------
+    @GET
+    @Path("/conflicts")
+    public Response getConflictStats() {
+        return Response.ok(new APIResponse<>(true, "Optimistic-lock conflict statistics", conflictRetrier.stats())).build();
+    }
+
+    // -------------------------
+    // CART EXPIRY SWEEP
+    // Example: GET /admin/cart-expiry
+    // -------------------------
+    @GET
+    @Path("/cart-expiry")
+    public Response getCartExpiryStats() {
+        return Response.ok(new APIResponse<>(true, "Cart expiry statistics", cartExpiryScheduler.stats())).build();
+    }
+
+    // -------------------------
+    // DAO CALLS AND JDBC STATEMENTS
+    // Example: GET /admin/dao
+    // -------------------------
+    @GET
+    @Path("/dao")
+    public Response getDaoStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("statements", RequestStatements.stats());
+        stats.put("methods", daoMetrics.stats());
+
+        return Response.ok(new APIResponse<>(true, "DAO and statement statistics", stats)).build();
+    }
+
+    // -------------------------
+    // PRODUCT AUTOCOMPLETE INDEX
+    // Example: GET /admin/suggest-index
+    // -------------------------
+    @GET
+    @Path("/suggest-index")
+    public Response getSuggestIndexStats() {
+        return Response.ok(new APIResponse<>(true, "Product suggest index statistics", productSuggestIndex.stats())).build();
+    }
+
+    // -------------------------
+    // IN-MEMORY PRODUCT CATALOG
+    // Example: GET /admin/catalog
+    // -------------------------
+    @GET
+    @Path("/catalog")
+    public Response getCatalogStats() {
+        return Response.ok(new APIResponse<>(true, "Product catalog statistics", productCatalog.stats())).build();
+    }
+
+    // -------------------------
+    // SLOW REQUEST PROFILER
+    // Example: GET /admin/profiler
+    // -------------------------
+    @GET
+    @Path("/profiler")
+    public Response getProfilerStats() {
+        return Response.ok(new APIResponse<>(true, "Slow request profiler statistics", slowRequestProfiler.stats())).build();
+    }
+
+    // -------------------------
+    // SLOW REQUEST STACKS (collapsed, for flamegraph.pl / speedscope)
+    // Example: GET /admin/profiler/collapsed
+    // Example: GET /admin/profiler/collapsed?requestId=3f2c...
+    // -------------------------
+    @GET
+    @Path("/profiler/collapsed")
+    @Produces(MediaType.TEXT_PLAIN)
+    public Response getProfilerStacks(@QueryParam("requestId") String requestId) {
+        if (requestId == null || requestId.isBlank()) {
+            return Response.ok(slowRequestProfiler.collapsed()).build();
+        }
+        return slowRequestProfiler.collapsed(requestId.trim())
+                .map(stacks -> Response.ok(stacks).build())
+                .orElseGet(() -> Response.status(Response.Status.NOT_FOUND)
+                        .entity("No retained slow request " + requestId)
+                        .build());
+    }
+
+    // -------------------------
+    // RESET SLOW REQUEST PROFILER
+    // Example: DELETE /admin/profiler
+    // -------------------------
+    @DELETE
+    @Path("/profiler")
+    public Response resetProfiler() {
+        slowRequestProfiler.reset();
+        return Response.ok(new APIResponse<>(true, "Slow request profiler reset", null)).build();
+    }
+}
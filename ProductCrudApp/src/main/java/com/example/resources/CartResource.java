@@ -1,6 +1,7 @@
 package com.example.resources;
 
 import com.example.audit.Audited;
+import com.example.concurrency.RetryOnConflict;
 import com.example.dto.CartItemRequest;
 import com.example.dto.CartResponse;
 import com.example.dto.APIResponse;
@@ -60,6 +61,7 @@ public class CartResource {
     @Path("/{cartId}/items")
     @Audited(action = "ADD_PRODUCT_TO_CART")
     @RolesAllowed("ROLE_CUSTOMER")
+    @RetryOnConflict  // each attempt is a new CartService transaction on a fresh cart
     public Response addProduct(@PathParam("cartId") Long cartId,
                                @Valid CartItemRequest itemRequest,
                                @Context ContainerRequestContext ctx) {
@@ -102,6 +104,7 @@ public class CartResource {
     @Path("/{cartId}/items/{productId}/decrement")
     @Audited(action = "DECREMENT_PRODUCT_IN_CART")
     @RolesAllowed({"ROLE_CUSTOMER","ROLE_ADMIN"})
+    @RetryOnConflict
     public Response decrementProduct(@PathParam("cartId") Long cartId,
                                      @PathParam("productId") Long productId,
                                      @Context ContainerRequestContext ctx) {
@@ -0,0 +1,35 @@
+package com.example.resources;
+
+import com.example.metrics.RouteMetrics;
+
+import jakarta.annotation.security.PermitAll;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+/**
+ * Prometheus scrape endpoint. Plain text rather than APIResponse, since that is what the scraper reads,
+ * and open like /ping so a scraper needs no token.
+ */
+@Path("/metrics")
+@Tag(name = "Metrics", description = "Request latency and status counts per route")
+public class MetricsResource {
+
+    @Inject
+    private RouteMetrics routeMetrics;
+
+    // -------------------------
+    // PROMETHEUS SCRAPE
+    // Example: GET /metrics
+    // -------------------------
+    @GET
+    @PermitAll
+    @Produces("text/plain; version=0.0.4; charset=utf-8")
+    @Operation(summary = "Route metrics", description = "Latency histograms, percentiles and status counts in Prometheus text format")
+    public String scrape() {
+        return routeMetrics.scrape();
+    }
+}
@@ -1,17 +1,29 @@
 package com.example.resources;
 
+import com.example.cache.ValidatorCache;
 import com.example.dto.OrderResponse;
 import com.example.dto.UpdateStatusRequest;
 import com.example.entities.OrderStatus;
+import com.example.security.JwtTokenService;
 import com.example.services.OrderService;
 
 import jakarta.inject.Inject;
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.*;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import com.example.audit.Audited;
+import com.example.concurrency.ConflictRetrier;
+import com.example.concurrency.RetryOnConflict;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.annotation.security.RolesAllowed;
@@ -21,9 +33,24 @@ import jakarta.annotation.security.RolesAllowed;
 @Consumes(MediaType.APPLICATION_JSON)
 public class OrderResource {
 
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    // Thread-safe and expensive to build; shared by all export requests
+    private static final Jsonb JSONB = JsonbBuilder.create();
+
     @Inject
     private OrderService orderService;
 
+    @Inject
+    private ValidatorCache validators;
+
+    @Inject
+    private JwtTokenService jwtTokenService;
+
+    @Inject
+    @ConfigProperty(name = "orders.export.chunk-size", defaultValue = "500")
+    private int exportChunkSize;
+
     // -------------------------
     // GET ALL ORDERS
     // -------------------------
@@ -40,6 +67,41 @@ public class OrderResource {
         return Response.ok(orders).build();
     }
 
+    // -------------------------
+    // EXPORT ALL ORDERS (streaming)
+    // Example: GET /api/orders/export  ->  one OrderResponse JSON object per line
+    // -------------------------
+    @GET
+    @Path("/export")
+    @Produces(APPLICATION_NDJSON)
+    @Audited(action = "EXPORT_ORDERS")
+    @RolesAllowed({"ROLE_ADMIN"})
+    public Response exportOrders(@Context ContainerRequestContext requestContext) {
+        // Orders are fetched and written chunk by chunk while the response is sent,
+        // so only one chunk is ever held in memory regardless of the number of orders
+        StreamingOutput stream = output -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            Long afterId = null;
+            List<OrderResponse> chunk;
+            do {
+                chunk = orderService.getOrderExportChunk(afterId, exportChunkSize);
+                for (OrderResponse order : chunk) {
+                    writer.write(JSONB.toJson(order)); // toJson(obj, writer) would close the stream
+                    writer.write('\n');
+                }
+                writer.flush();
+                if (!chunk.isEmpty()) {
+                    afterId = chunk.get(chunk.size() - 1).getId();
+                }
+            } while (chunk.size() == exportChunkSize);
+        };
+
+        requestContext.setProperty("entityType", "Order");
+        requestContext.setProperty("auditPayload", "{ \"export\": \"ndjson\" }");
+
+        return Response.ok(stream, APPLICATION_NDJSON).build();
+    }
+
     // -------------------------
     // GET ORDER BY ID
     // -------------------------
@@ -48,16 +110,30 @@ public class OrderResource {
     @Audited(action = "VIEW_ORDER")
     @RolesAllowed({"ROLE_ADMIN", "ROLE_CUSTOMER"})
     public Response getOrderById(@PathParam("orderId") Long orderId,
+                                 @Context Request request,
                                  @Context ContainerRequestContext requestContext) {
         try {
-            OrderResponse order = orderService.getOrderDto(orderId);
+            // If-None-Match with the current tag: 304 without reading the order,
+            // once the caller is known to be allowed to see it (else the service refuses below)
+            ValidatorCache.OrderValidator known = validators.orderValidator(orderId);
+            if (known != null && (!jwtTokenService.isCustomer()
+                    || jwtTokenService.getCurrentUserId().equals(known.customerId()))) {
+                Response.ResponseBuilder notModified = request.evaluatePreconditions(new EntityTag(known.tag()));
+                if (notModified != null) {
+                    setViewAudit(requestContext, orderId);
+                    return notModified.build();
+                }
+            }
 
-            // Pass metadata to the audit filter
-            requestContext.setProperty("entityType", "Order");
-            requestContext.setProperty("entityId", orderId);
-            requestContext.setProperty("auditPayload", "{ \"orderId\": " + orderId + " }");
+            OrderResponse order = validators.loadOrder(orderId, orderService::getOrderDto);
+            setViewAudit(requestContext, orderId);
 
-            return Response.ok(order).build();
+            EntityTag tag = new EntityTag(ValidatorCache.tagOf(order));
+            Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+            if (notModified != null) {
+                return notModified.build();
+            }
+            return Response.ok(order).tag(tag).build();
         } catch (IllegalArgumentException e) {
             return Response.status(Response.Status.NOT_FOUND)
                            .entity(e.getMessage())
@@ -65,6 +141,13 @@ public class OrderResource {
         }
     }
 
+    // Pass metadata to the audit filter
+    private static void setViewAudit(ContainerRequestContext requestContext, Long orderId) {
+        requestContext.setProperty("entityType", "Order");
+        requestContext.setProperty("entityId", orderId);
+        requestContext.setProperty("auditPayload", "{ \"orderId\": " + orderId + " }");
+    }
+
     // -------------------------
     // CREATE ORDER FROM CART
     // -------------------------
@@ -99,6 +182,7 @@ public class OrderResource {
     @Path("/{orderId}/status")
     @Audited(action = "UPDATE_ORDER_STATUS")
     @RolesAllowed({"ROLE_CUSTOMER","ROLE_ADMIN"})
+    @RetryOnConflict
     public Response updateOrderStatus(@PathParam("orderId") Long orderId,
                                       UpdateStatusRequest request,
                                       @Context ContainerRequestContext requestContext) {
@@ -122,6 +206,12 @@ public class OrderResource {
             return Response.ok(updatedOrder).build();
         } catch (IllegalArgumentException e) {
             return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
+        } catch (RuntimeException e) {
+            // let @RetryOnConflict see optimistic-lock failures
+            if (ConflictRetrier.isConflict(e)) throw e;
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                           .entity("Unexpected error: " + e.getMessage())
+                           .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                            .entity("Unexpected error: " + e.getMessage())
@@ -137,13 +227,15 @@ public class OrderResource {
     @Audited(action = "LIST_ORDERS_BY_CUSTOMER")
     @RolesAllowed({"ROLE_ADMIN","ROLE_CUSTOMER"})
     public Response getOrdersByCustomer(@PathParam("customerId") Long customerId,
+                                        @QueryParam("page") @DefaultValue("1") int page,
+                                        @QueryParam("size") @DefaultValue("" + OrderService.DEFAULT_PAGE_SIZE) int size,
                                         @Context ContainerRequestContext requestContext) {
         try {
-            List<OrderResponse> orders = orderService.getOrdersByCustomerDto(customerId);
+            List<OrderResponse> orders = orderService.getOrdersByCustomerDto(customerId, page, size);
 
             requestContext.setProperty("entityType", "Order");
             requestContext.setProperty("auditPayload",
-                    "{ \"customerId\": " + customerId + ", \"count\": " + orders.size() + " }");
+                    "{ \"customerId\": " + customerId + ", \"page\": " + page + ", \"count\": " + orders.size() + " }");
 
             return Response.ok(orders).build();
         } catch (Exception e) {
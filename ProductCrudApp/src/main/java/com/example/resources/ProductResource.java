@@ -1,7 +1,10 @@
 package com.example.resources;
 
+import com.example.cache.ProductJsonCache;
+import com.example.cache.ValidatorCache;
 import com.example.dto.*;
 import com.example.services.ProductService;
+import com.example.search.ProductSuggestIndex;
 import com.example.services.AuditService;
 import com.example.audit.Audited;
 
@@ -14,6 +17,7 @@ import jakarta.ws.rs.container.ContainerRequestContext;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import jakarta.annotation.security.RolesAllowed;
 
@@ -29,6 +33,15 @@ public class ProductResource {
     @Inject
     private AuditService auditService;
 
+    @Inject
+    private ProductSuggestIndex suggestIndex;
+
+    @Inject
+    private ValidatorCache validators;
+
+    @Inject
+    private ProductJsonCache productJson;
+
     private static final String ENTITY_TYPE = "Product";
 
     @GET
@@ -38,21 +51,58 @@ public class ProductResource {
             @QueryParam("page") @DefaultValue("1") int page,
             @QueryParam("size") @DefaultValue("10") int size,
             @QueryParam("name") String nameFilter,
+            @QueryParam("q") String search,      // ranked name search (replaces name)
             @QueryParam("minPrice") BigDecimal minPrice,
             @QueryParam("maxPrice") BigDecimal maxPrice,
             @QueryParam("inStock") Boolean inStock,
+            @QueryParam("after") String after,   // nextCursor from the previous page (replaces page)
+            @QueryParam("count") String count,   // exact | estimate | none
+            @Context Request request,
             @Context ContainerRequestContext requestContext
     ) {
-        PaginatedResponse<ProductResponse> products =
-                productService.getProducts(page, size, nameFilter, minPrice, maxPrice, inStock);
+        // Malformed values are client errors (400), so parse them here rather than in the EJB
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        CountMode countMode = CountMode.fromString(count);
+        if (countMode == null) {
+            // cursor clients rarely need the total; offset clients keep the existing behaviour
+            countMode = (cursor != null) ? CountMode.NONE : CountMode.EXACT;
+        }
+
+        boolean searching = search != null && !search.isBlank();
+        if (searching && cursor != null) {
+            throw new IllegalArgumentException("Search results are ranked; page with 'page', not 'after'");
+        }
 
         String payload = String.format(
-                "{\"page\":%d,\"size\":%d,\"filter\":\"%s\",\"minPrice\":%s,\"maxPrice\":%s,\"inStock\":%s}",
-                page, size, nameFilter, minPrice, maxPrice, inStock
+                "{\"page\":%d,\"size\":%d,\"filter\":\"%s\",\"q\":%s,\"minPrice\":%s,\"maxPrice\":%s,\"inStock\":%s,\"after\":%s}",
+                page, size, nameFilter, searching ? "\"" + search + "\"" : null, minPrice, maxPrice, inStock,
+                (after != null) ? "\"" + after + "\"" : null
         );
         auditService.setAudit(requestContext, ENTITY_TYPE, "LIST_PRODUCTS", null, payload);
 
-        return Response.ok(new APIResponse<>(true, "Products fetched successfully", products)).build();
+        // taken before the listing is read, so a change made meanwhile yields a different tag next time
+        EntityTag tag = new EntityTag(validators.listingTag());
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+
+        PaginatedResponse<ProductResponse> products = searching
+                ? productService.searchProducts(search, page, size, minPrice, maxPrice, inStock, countMode)
+                : productService.getProducts(page, size, nameFilter, minPrice, maxPrice, inStock, cursor, countMode);
+        return Response.ok(new APIResponse<>(true, "Products fetched successfully", products)).tag(tag).build();
+    }
+
+    // Autocomplete from ProductSuggestIndex, no database access; not audited (one call per keystroke)
+    @GET
+    @Path("/suggest")
+    @RolesAllowed({"ROLE_CUSTOMER", "ROLE_ADMIN", "ROLE_SUPER"})  // all authenticated users
+    public Response suggestProducts(
+            @QueryParam("q") String query,
+            @QueryParam("limit") @DefaultValue("10") int limit
+    ) {
+        List<ProductSuggestion> suggestions = suggestIndex.suggest(query, Math.min(Math.max(limit, 1), 50));
+        return Response.ok(new APIResponse<>(true, "Product suggestions", suggestions)).build();
     }
 
     @GET
@@ -61,17 +111,34 @@ public class ProductResource {
     @RolesAllowed({"ROLE_CUSTOMER", "ROLE_ADMIN", "ROLE_SUPER"})  // all authenticated users
     public Response getProductById(
             @PathParam("id") Long id,
+            @Context Request request,
             @Context ContainerRequestContext requestContext
     ) {
-        ProductResponse product = productService.getProductById(id);
         auditService.setAudit(requestContext, ENTITY_TYPE, "VIEW_PRODUCT", id, "{}");
 
-        if (product == null) {
+        // If-None-Match with the current tag: 304 without reading the product
+        String known = validators.productTag(id);
+        Response.ResponseBuilder notModified = (known != null) ? request.evaluatePreconditions(new EntityTag(known)) : null;
+        if (notModified != null) {
+            return notModified.build();
+        }
+
+        // the body is written from cached UTF-8 bytes (JsonBytesWriter), serialized on the first request only
+        ProductJsonCache.Entry json = productJson.get(id, key -> {
+            ProductResponse product = validators.loadProduct(key, productService::getProductById);
+            return (product != null) ? new APIResponse<>(true, "Product retrieved successfully", product) : null;
+        });
+        if (json == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity(new APIResponse<>(false, "Product not found", null))
                     .build();
         }
-        return Response.ok(new APIResponse<>(true, "Product retrieved successfully", product)).build();
+        EntityTag tag = new EntityTag(json.tag());
+        notModified = request.evaluatePreconditions(tag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        return Response.ok(json.body()).tag(tag).build();
     }
 
     @POST
@@ -0,0 +1,31 @@
+package com.example.rest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A response body already serialized to UTF-8 JSON, written out as is by {@link JsonBytesWriter}.
+ * Instances are shared between requests (cached), so the bytes are never handed out for writing.
+ */
+public final class JsonBytes {
+
+    private final byte[] utf8;
+
+    public JsonBytes(byte[] utf8) {
+        this.utf8 = utf8;
+    }
+
+    public int length() {
+        return utf8.length;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(utf8);
+    }
+
+    @Override
+    public String toString() {
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.rest;
+
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/** Writes a {@link JsonBytes} entity straight to the response, bypassing JSON-B */
+@Provider
+@Produces(MediaType.APPLICATION_JSON)
+public class JsonBytesWriter implements MessageBodyWriter<JsonBytes> {
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return type == JsonBytes.class;
+    }
+
+    @Override
+    public long getSize(JsonBytes json, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return json.length();
+    }
+
+    @Override
+    public void writeTo(JsonBytes json, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        json.writeTo(entityStream);
+    }
+}
@@ -1,28 +1,67 @@
 package com.example.rest;
 
 import com.example.logging.LogKeys;
+import com.example.metrics.RequestStatements;
+import com.example.metrics.RouteMetrics;
+import com.example.metrics.RouteTemplates;
+import com.example.metrics.SlowRequestProfiler;
 import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.HttpMethod;
 import jakarta.ws.rs.Priorities;
 import jakarta.ws.rs.container.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
 import java.io.IOException;
+import java.lang.reflect.Method;
 import java.util.UUID;
 
+/**
+ * Request id / customer id MDC, REQUEST_START and REQUEST_END log lines, per-route latency,
+ * per-request JDBC statement tracking ({@link RequestStatements}) and slow-request stack sampling
+ * ({@link SlowRequestProfiler}). All three run from this request filter until the response entity has been written (the writer
+ * interceptor closes them, whether or not the write succeeds), or until the response filter when no entity will be
+ * written (none, or a HEAD request). {@link RequestScopeListener} closes what is left open when the write never starts.
+ */
 @Provider
 @Priority(Priorities.AUTHENTICATION)
-public class RequestContextFilter implements ContainerRequestFilter, ContainerResponseFilter {
+public class RequestContextFilter implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor {
 
     private static final Logger log = LoggerFactory.getLogger(RequestContextFilter.class);
 
     private static final String HDR_REQUEST_ID = "X-Request-Id";
     private static final String HDR_CUSTOMER_ID = "X-Customer-Id";
 
+    private static final String START_NANOS = RequestContextFilter.class.getName() + ".startNanos";
+    private static final String PENDING_SAMPLE = RequestContextFilter.class.getName() + ".pendingSample";
+
+    @Inject
+    private RouteMetrics routeMetrics;
+
+    @Inject
+    private SlowRequestProfiler profiler;
+
+    @Inject
+    @ConfigProperty(name = "db.statements.log-threshold", defaultValue = "50")
+    private int statementLogThreshold;
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    /** Recorded once the entity has been written */
+    private record PendingSample(String method, String route, int status, long startNanos) {}
+
     @Override
     public void filter(ContainerRequestContext requestContext) throws IOException {
+        requestContext.setProperty(START_NANOS, System.nanoTime());
+
         String reqId = headerOrGenerate(requestContext, HDR_REQUEST_ID);
         String customerId = headerOrDefault(requestContext, HDR_CUSTOMER_ID, "anonymous");
 
@@ -31,6 +70,8 @@ public class RequestContextFilter implements ContainerRequestFilter, ContainerRe
 
         requestContext.setProperty(LogKeys.REQUEST_ID, reqId);
         requestContext.setProperty(LogKeys.CUSTOMER_ID, customerId);
+        RequestStatements.begin(reqId);
+        profiler.begin(reqId, requestContext.getMethod() + " " + route());
 
         log.info("REQUEST_START {} {}", requestContext.getMethod(), requestContext.getUriInfo().getRequestUri());
     }
@@ -40,12 +81,57 @@ public class RequestContextFilter implements ContainerRequestFilter, ContainerRe
         Object reqId = requestContext.getProperty(LogKeys.REQUEST_ID);
         if (reqId != null) responseContext.getHeaders().putSingle(HDR_REQUEST_ID, reqId.toString());
 
-        log.info("REQUEST_END status={} path={}", responseContext.getStatus(), requestContext.getUriInfo().getPath());
+        Object start = requestContext.getProperty(START_NANOS);
+        if (start instanceof Long startNanos) {
+            PendingSample sample = new PendingSample(requestContext.getMethod(), route(),
+                    responseContext.getStatus(), startNanos);
+            if (responseContext.hasEntity() && !HttpMethod.HEAD.equals(requestContext.getMethod())) {
+                requestContext.setProperty(PENDING_SAMPLE, sample);
+            } else {
+                record(sample);
+            }
+        }
+
+        log.info("REQUEST_END status={} path={} statements={}", responseContext.getStatus(),
+                requestContext.getUriInfo().getPath(), RequestStatements.count());
 
         MDC.remove(LogKeys.REQUEST_ID);
         MDC.remove(LogKeys.CUSTOMER_ID);
     }
 
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        try {
+            context.proceed();
+        } finally {
+            Object pending = context.getProperty(PENDING_SAMPLE);
+            if (pending instanceof PendingSample sample) {
+                context.removeProperty(PENDING_SAMPLE);
+                record(sample);
+            } else {
+                closeScope(statementLogThreshold, profiler);
+            }
+        }
+    }
+
+    private void record(PendingSample sample) {
+        routeMetrics.record(sample.method(), sample.route(), sample.status(), System.nanoTime() - sample.startNanos());
+        closeScope(statementLogThreshold, profiler);
+    }
+
+    /** Ends the statement scope and the profiled request on this thread; nothing happens when neither is open */
+    static void closeScope(int statementLogThreshold, SlowRequestProfiler profiler) {
+        RequestStatements.end(statementLogThreshold);
+        profiler.end();
+    }
+
+    private String route() {
+        Method method = resourceInfo != null ? resourceInfo.getResourceMethod() : null;
+        return method != null
+                ? RouteTemplates.of(resourceInfo.getResourceClass(), method)
+                : RouteMetrics.UNMATCHED;
+    }
+
     private static String headerOrGenerate(ContainerRequestContext ctx, String name) {
         String h = ctx.getHeaderString(name);
         return (h == null || h.isBlank()) ? UUID.randomUUID().toString() : h.trim();
@@ -55,4 +141,4 @@ public class RequestContextFilter implements ContainerRequestFilter, ContainerRe
         String h = ctx.getHeaderString(name);
         return (h == null || h.isBlank()) ? def : h.trim();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,30 @@
+package com.example.rest;
+
+import com.example.metrics.SlowRequestProfiler;
+import jakarta.inject.Inject;
+import jakarta.servlet.ServletRequestEvent;
+import jakarta.servlet.ServletRequestListener;
+import jakarta.servlet.annotation.WebListener;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Last stop of every request on its thread: closes the statement scope and the profiled request
+ * {@link RequestContextFilter} opened when the response entity was never written (the client went away
+ * first, or something failed between the response filter and the writer interceptor). Otherwise the
+ * pooled thread would carry them into whatever it runs next.
+ */
+@WebListener
+public class RequestScopeListener implements ServletRequestListener {
+
+    @Inject
+    private SlowRequestProfiler profiler;
+
+    @Inject
+    @ConfigProperty(name = "db.statements.log-threshold", defaultValue = "50")
+    private int statementLogThreshold;
+
+    @Override
+    public void requestDestroyed(ServletRequestEvent event) {
+        RequestContextFilter.closeScope(statementLogThreshold, profiler);
+    }
+}
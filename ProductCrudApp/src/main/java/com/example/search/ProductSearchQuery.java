@@ -0,0 +1,139 @@
+package com.example.search;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Ranked product name search on PostgreSQL pg_trgm (GIN index from TrigramIndexInstaller).
+ *
+ * A product matches when the search terms are word-similar ({@code <%}) to its lower-cased name,
+ * which the trigram index serves, so there is no sequential scan however large the catalog.
+ * Word similarity compares the terms with the best-matching run of words, so partial words ("lapt")
+ * and small typos ("labtop") still match. Results are ordered by that similarity, then by id.
+ *
+ * Computing the similarity is what costs (the index only narrows the candidates), so at most
+ * {@code maxCandidates} matches are ranked and counted: a broad term gets the best of those, and a
+ * total that is a lower bound. Narrow terms - the usual case - are ranked in full.
+ *
+ * The similarity threshold is a session setting; it is set transaction-locally on the given
+ * connection before each query, so the connection must be in a transaction.
+ */
+@ApplicationScoped
+public class ProductSearchQuery {
+
+    static final String THRESHOLD_SQL = "SELECT set_config('pg_trgm.word_similarity_threshold', ?, true)";
+
+    @Inject
+    @ConfigProperty(name = "products.search.similarity-threshold", defaultValue = "0.4")
+    private double similarityThreshold;
+
+    @Inject
+    @ConfigProperty(name = "products.search.max-candidates", defaultValue = "2000")
+    private int maxCandidates;
+
+    public ProductSearchQuery() {}
+
+    /** Standalone use outside CDI (tests, benchmarks) */
+    public ProductSearchQuery(double similarityThreshold, int maxCandidates) {
+        this.similarityThreshold = similarityThreshold;
+        this.maxCandidates = maxCandidates;
+    }
+
+    /** Lower-cased terms with whitespace collapsed; empty when there is nothing to search for */
+    public static String normalize(String terms) {
+        if (terms == null) return "";
+        return terms.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Ids of one page of matching products, best match first.
+     *
+     * @param terms normalized search terms (see {@link #normalize})
+     */
+    public List<Long> findIds(Connection connection, String terms, BigDecimal minPrice, BigDecimal maxPrice,
+                              Boolean inStock, int offset, int limit) throws SQLException {
+        setThreshold(connection);
+
+        String sql = "SELECT c.id FROM (" + candidates("p.id, word_similarity(?, lower(p.name)) AS rank", inStock)
+                + ") c ORDER BY c.rank DESC, c.id DESC LIMIT ? OFFSET ?";
+
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            int index = 1;
+            ps.setString(index++, terms);
+            index = bindCandidates(ps, index, terms, minPrice, maxPrice);
+            ps.setInt(index++, limit);
+            ps.setInt(index, offset);
+
+            List<Long> ids = new ArrayList<>(limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * Number of matching products, at most {@link #getMaxCandidates()}; a count equal to the
+     * limit means "at least this many".
+     */
+    public long count(Connection connection, String terms, BigDecimal minPrice, BigDecimal maxPrice,
+                      Boolean inStock) throws SQLException {
+        setThreshold(connection);
+
+        String sql = "SELECT COUNT(*) FROM (" + candidates("1", inStock) + ") c";
+
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            bindCandidates(ps, 1, terms, minPrice, maxPrice);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    public int getMaxCandidates() {
+        return maxCandidates;
+    }
+
+    private void setThreshold(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(THRESHOLD_SQL)) {
+            ps.setString(1, Double.toString(similarityThreshold));
+            ps.executeQuery().close();
+        }
+    }
+
+    // -------------------------
+    // Candidate subquery
+    // -------------------------
+    private static String candidates(String select, Boolean inStock) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(select)
+                .append(" FROM products p WHERE ? <% lower(p.name)")
+                .append(" AND p.price >= COALESCE(?, p.price) AND p.price <= COALESCE(?, p.price)");
+        if (Boolean.TRUE.equals(inStock)) {
+            sql.append(" AND p.stock > 0");
+        }
+        return sql.append(" LIMIT ?").toString();
+    }
+
+    /** Binds the candidate subquery from {@code index}; returns the next parameter index */
+    private int bindCandidates(PreparedStatement ps, int index, String terms, BigDecimal minPrice, BigDecimal maxPrice)
+            throws SQLException {
+        ps.setString(index++, terms);
+        ps.setBigDecimal(index++, minPrice);
+        ps.setBigDecimal(index++, maxPrice);
+        ps.setInt(index++, maxCandidates);
+        return index;
+    }
+}
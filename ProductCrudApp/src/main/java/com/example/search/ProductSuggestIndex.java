@@ -0,0 +1,251 @@
+package com.example.search;
+
+import com.example.dao.ProductDAO;
+import com.example.dto.ProductSuggestion;
+import com.example.events.ProductChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Autocomplete over product names and codes, answered from memory (GET /api/products/suggest).
+ *
+ * The {@link SuggestIndex} itself is immutable. A background thread builds it from ProductDAO at
+ * startup and swaps it in with one volatile write; until then, and between rebuilds, products created,
+ * updated or deleted through ProductService (ProductChangedEvent, after commit) are collected for
+ * products.suggest.apply-delay-ms, re-read together by the same thread and kept in a small change map
+ * that overrides the index: changed products are skipped in the index and matched from the map
+ * instead. A rebuild is requested once the map holds products.suggest.rebuild-after-changes entries,
+ * and runs every products.suggest.rebuild-interval-minutes anyway, for changes made elsewhere.
+ * Changes older than the start of a rebuild are dropped from the map once its index is in place.
+ */
+@ApplicationScoped
+public class ProductSuggestIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSuggestIndex.class);
+
+    @Inject
+    private ProductDAO productDAO;
+
+    @Resource
+    private ManagedThreadFactory threadFactory;
+
+    @Inject
+    @ConfigProperty(name = "products.suggest.max-candidates", defaultValue = "500")
+    private int maxCandidates;
+
+    @Inject
+    @ConfigProperty(name = "products.suggest.apply-delay-ms", defaultValue = "200")
+    private long applyDelayMs;
+
+    @Inject
+    @ConfigProperty(name = "products.suggest.rebuild-after-changes", defaultValue = "1000")
+    private int rebuildAfterChanges;
+
+    @Inject
+    @ConfigProperty(name = "products.suggest.rebuild-interval-minutes", defaultValue = "60")
+    private long rebuildIntervalMinutes;
+
+    @Inject
+    @ConfigProperty(name = "products.suggest.rebuild-page-size", defaultValue = "10000")
+    private int rebuildPageSize;
+
+    private volatile SuggestIndex index = SuggestIndex.empty();
+
+    /** Product id -> its state after the change (null product: deleted) */
+    private final Map<Long, Change> changes = new ConcurrentHashMap<>();
+    private final AtomicLong changeSequence = new AtomicLong();
+
+    /** Ids of products changed since the last {@link #applyChanges()} */
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    private final Semaphore changesQueued = new Semaphore(0);
+    private Thread worker;
+    private volatile boolean running;
+
+    private volatile long rebuilds;
+    private volatile LocalDateTime lastRebuildAt;
+    private volatile long lastRebuildMillis;
+
+    private record Change(ProductSuggestion product, long sequence) {}
+
+    public ProductSuggestIndex() {}
+
+    /** Standalone use outside CDI (tests, benchmarks); rebuild with {@link #rebuild()}, apply with {@link #applyChanges()} */
+    public ProductSuggestIndex(ProductDAO productDAO, int maxCandidates, int rebuildAfterChanges, int rebuildPageSize) {
+        this.productDAO = productDAO;
+        this.maxCandidates = maxCandidates;
+        this.rebuildAfterChanges = rebuildAfterChanges;
+        this.rebuildPageSize = rebuildPageSize;
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        worker = threadFactory.newThread(this::run);
+        worker.setName("product-suggest-index");
+        worker.start();
+    }
+
+    /** Builds the index as soon as the application is up */
+    void onStartup(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        // nothing to do: observing the event is enough to create the bean
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // -------------------------
+    // Query (request threads)
+    // -------------------------
+    /** Up to {@code limit} products whose name or code matches every word of {@code query}, best first */
+    public List<ProductSuggestion> suggest(String query, int limit) {
+        List<String> words = SuggestIndex.queryWords(query);
+        if (words.isEmpty() || limit <= 0) return List.of();
+
+        List<SuggestIndex.Hit> hits;
+        if (changes.isEmpty()) {
+            hits = index.search(words, limit, maxCandidates, id -> false);
+        } else {
+            hits = new ArrayList<>(index.search(words, limit, maxCandidates, changes::containsKey));
+            for (Change change : changes.values()) {
+                if (change.product() == null) continue;
+                int score = SuggestIndex.score(change.product(), words);
+                if (score > 0) hits.add(new SuggestIndex.Hit(change.product(), score));
+            }
+            hits = SuggestIndex.top(hits, limit);
+        }
+
+        List<ProductSuggestion> suggestions = new ArrayList<>(hits.size());
+        for (SuggestIndex.Hit hit : hits) {
+            suggestions.add(hit.product());
+        }
+        return suggestions;
+    }
+
+    public SuggestIndexStats stats() {
+        SuggestIndex current = index;
+        return new SuggestIndexStats(current.size(), current.wordCount(), current.gramCount(),
+                current.estimatedBytes(), changes.size(), rebuilds, lastRebuildAt, lastRebuildMillis);
+    }
+
+    // -------------------------
+    // Changes
+    // -------------------------
+    void onProductChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) ProductChangedEvent event) {
+        // stock changes leave names and codes alone
+        if (event.isStockReservation()) return;
+
+        pending.addAll(event.getProductIds());
+        changesQueued.release();
+    }
+
+    /** Re-reads the changed products into the change map (the worker's job) */
+    public void applyChanges() {
+        if (pending.isEmpty()) return;
+
+        // removed before reading: a change committed after this point is queued again and read next time
+        Set<Long> batch = new HashSet<>(pending);
+        pending.removeAll(batch);
+
+        Map<Long, ProductSuggestion> current = new HashMap<>();
+        try {
+            for (ProductSuggestion product : productDAO.findSuggestions(batch)) {
+                current.put(product.getId(), product);
+            }
+        } catch (RuntimeException e) {
+            pending.addAll(batch);
+            throw e;
+        }
+        for (Long id : batch) {
+            changes.put(id, new Change(current.get(id), changeSequence.incrementAndGet()));
+        }
+    }
+
+    // -------------------------
+    // Rebuild (worker)
+    // -------------------------
+    private void run() {
+        long nextRebuild = System.nanoTime();
+        while (running) {
+            try {
+                if (System.nanoTime() - nextRebuild >= 0) {
+                    // set first: a failing build is retried at the next request or interval, not in a loop
+                    nextRebuild = System.nanoTime() + TimeUnit.MINUTES.toNanos(rebuildIntervalMinutes);
+                    rebuild();
+                }
+                if (changesQueued.tryAcquire(nextRebuild - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    // let a burst of writes be read in one query
+                    TimeUnit.MILLISECONDS.sleep(applyDelayMs);
+                    changesQueued.drainPermits();
+                    applyChanges();
+                    if (changes.size() >= rebuildAfterChanges) {
+                        nextRebuild = System.nanoTime();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // the index stays stale for the pending products until the next change or rebuild
+                log.error("PRODUCT_SUGGEST_UPDATE_FAILED pendingChanges={}", pending.size(), e);
+            }
+        }
+    }
+
+    /** Reads every product's name and code, then swaps the new index in (the worker's job; public for benchmarks) */
+    public void rebuild() {
+        long start = System.nanoTime();
+        // changes committed before this point are in what is read below
+        long covered = changeSequence.get();
+
+        List<ProductSuggestion> products = new ArrayList<>();
+        List<ProductSuggestion> page;
+        long afterId = 0;
+        do {
+            page = productDAO.findSuggestionsAfter(afterId, rebuildPageSize);
+            products.addAll(page);
+            if (!page.isEmpty()) afterId = page.get(page.size() - 1).getId();
+        } while (page.size() == rebuildPageSize);
+
+        index = SuggestIndex.build(products);
+        changes.values().removeIf(change -> change.sequence() <= covered);
+
+        lastRebuildMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        lastRebuildAt = LocalDateTime.now();
+        rebuilds++;
+        log.info("PRODUCT_SUGGEST_INDEX_REBUILT products={} words={} durationMs={}",
+                products.size(), index.wordCount(), lastRebuildMillis);
+    }
+}
@@ -0,0 +1,384 @@
+package com.example.search;
+
+import com.example.dto.ProductSuggestion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongPredicate;
+
+/**
+ * Immutable inverted index over product names and codes, for autocomplete.
+ *
+ * Names and codes are split into lower-case words ("SKU-12-B" also gives "sku12b"). Products are
+ * numbered in the order given; the sorted word list maps each word to an int[] of those numbers.
+ * Because the words are sorted, all words starting with a prefix are one contiguous range, and a
+ * product matches a prefix when one of its words (forward index, also int[]) falls in that range.
+ * Words are also indexed by their trigrams, so when prefixes find too few products, a query word of
+ * three or more characters also matches inside words ("phone" in "headphones").
+ *
+ * Every query word must match. A product scores 3 per exact word, 2 per prefix and 1 per infix match;
+ * ties go to the shorter name, then the lower id. The scan is driven by the query word with the fewest
+ * candidates, exact words first, and stops after {@code maxCandidates} matches.
+ */
+public final class SuggestIndex {
+
+    static final int EXACT = 3;
+    static final int PREFIX = 2;
+    static final int INFIX = 1;
+
+    private static final int GRAM = 3;
+    private static final int[] NONE = new int[0];
+
+    private static final SuggestIndex EMPTY = build(List.of());
+
+    private final ProductSuggestion[] products;
+    private final String[] words;          // sorted, distinct
+    private final int[][] postings;        // word -> ascending product numbers
+    private final long[] postingsBefore;   // word -> total postings of the words before it
+    private final int[][] productWords;    // product -> ascending word numbers
+    private final Map<String, int[]> grams; // trigram -> ascending word numbers
+
+    /** A product and its score for one query */
+    public record Hit(ProductSuggestion product, int score) {}
+
+    static final Comparator<Hit> RANKING = Comparator.comparingInt(Hit::score).reversed()
+            .thenComparingInt(hit -> hit.product().getName().length())
+            .thenComparingLong(hit -> hit.product().getId());
+
+    private SuggestIndex(ProductSuggestion[] products, String[] words, int[][] postings,
+                         int[][] productWords, Map<String, int[]> grams) {
+        this.products = products;
+        this.words = words;
+        this.postings = postings;
+        this.productWords = productWords;
+        this.grams = grams;
+        this.postingsBefore = new long[words.length + 1];
+        for (int w = 0; w < words.length; w++) {
+            postingsBefore[w + 1] = postingsBefore[w] + postings[w].length;
+        }
+    }
+
+    public static SuggestIndex empty() {
+        return EMPTY;
+    }
+
+    public static SuggestIndex build(Collection<ProductSuggestion> entries) {
+        ProductSuggestion[] products = entries.toArray(new ProductSuggestion[0]);
+
+        Map<String, IntList> byWord = new HashMap<>();
+        for (int p = 0; p < products.length; p++) {
+            for (String word : words(products[p])) {
+                byWord.computeIfAbsent(word, w -> new IntList()).add(p);
+            }
+        }
+
+        String[] words = byWord.keySet().toArray(new String[0]);
+        Arrays.sort(words);
+        int[][] postings = new int[words.length][];
+        int[] wordCounts = new int[products.length];
+        for (int w = 0; w < words.length; w++) {
+            postings[w] = byWord.get(words[w]).toArray();
+            for (int p : postings[w]) wordCounts[p]++;
+        }
+
+        // word numbers are visited in ascending order, so every product's list comes out sorted
+        int[][] productWords = new int[products.length][];
+        for (int p = 0; p < products.length; p++) {
+            productWords[p] = new int[wordCounts[p]];
+            wordCounts[p] = 0;
+        }
+        Map<String, IntList> byGram = new HashMap<>();
+        for (int w = 0; w < words.length; w++) {
+            for (int p : postings[w]) productWords[p][wordCounts[p]++] = w;
+            for (String gram : grams(words[w])) {
+                byGram.computeIfAbsent(gram, g -> new IntList()).add(w);
+            }
+        }
+        Map<String, int[]> grams = new HashMap<>(byGram.size() * 4 / 3 + 1);
+        byGram.forEach((gram, list) -> grams.put(gram, list.toArray()));
+
+        return new SuggestIndex(products, words, postings, productWords, grams);
+    }
+
+    // -------------------------
+    // Query
+    // -------------------------
+    /**
+     * Best {@code limit} products matching every word of {@code queryWords} (see {@link #queryWords}),
+     * skipping products whose id {@code excluded} accepts. Infix matches are only looked for when
+     * prefixes alone give fewer than {@code limit} products.
+     */
+    public List<Hit> search(List<String> queryWords, int limit, int maxCandidates, LongPredicate excluded) {
+        if (queryWords.isEmpty() || products.length == 0) return List.of();
+
+        List<Hit> hits = search(queryWords, false, limit, maxCandidates, excluded);
+        if (hits.size() < limit) {
+            hits = search(queryWords, true, limit, maxCandidates, excluded);
+        }
+        return hits;
+    }
+
+    private List<Hit> search(List<String> queryWords, boolean withInfix, int limit, int maxCandidates,
+                             LongPredicate excluded) {
+        WordMatch[] matches = new WordMatch[queryWords.size()];
+        WordMatch driver = null;
+        for (int i = 0; i < matches.length; i++) {
+            matches[i] = match(queryWords.get(i), withInfix, maxCandidates);
+            if (driver == null || matches[i].candidates < driver.candidates) driver = matches[i];
+        }
+        List<Hit> hits = new ArrayList<>();
+        if (driver.candidates == 0) return hits;
+
+        // the prefix range starts with the exact word, if any; infix words come last
+        for (int w = driver.from; w < driver.to && hits.size() < maxCandidates; w++) {
+            collect(w, driver, matches, maxCandidates, excluded, hits);
+        }
+        for (int i = 0; i < driver.infix.length && hits.size() < maxCandidates; i++) {
+            collect(driver.infix[i], driver, matches, maxCandidates, excluded, hits);
+        }
+        return top(hits, limit);
+    }
+
+    /** Scores the products of one of the driving word's matching words */
+    private void collect(int word, WordMatch driver, WordMatch[] matches, int maxCandidates,
+                         LongPredicate excluded, List<Hit> hits) {
+        for (int p : postings[word]) {
+            // a product with several matching words is taken under the first one only
+            if (driver.first(productWords[p]) != word || excluded.test(products[p].getId())) continue;
+
+            int score = 0;
+            for (WordMatch match : matches) {
+                int s = (match == driver) ? driver.score(word) : match.best(productWords[p]);
+                if (s == 0) {
+                    score = 0;
+                    break;
+                }
+                score += s;
+            }
+            if (score > 0) {
+                hits.add(new Hit(products[p], score));
+                if (hits.size() >= maxCandidates) return;
+            }
+        }
+    }
+
+    static List<Hit> top(List<Hit> hits, int limit) {
+        hits.sort(RANKING);
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    /** Score of an entry that is not in the index (recent changes); 0 when it does not match */
+    public static int score(ProductSuggestion product, List<String> queryWords) {
+        Set<String> productWords = words(product);
+        int score = 0;
+        for (String queryWord : queryWords) {
+            int best = 0;
+            for (String word : productWords) {
+                if (word.equals(queryWord)) {
+                    best = EXACT;
+                    break;
+                }
+                if (word.startsWith(queryWord)) best = Math.max(best, PREFIX);
+                else if (queryWord.length() >= GRAM && word.contains(queryWord)) best = Math.max(best, INFIX);
+            }
+            if (best == 0) return 0;
+            score += best;
+        }
+        return score;
+    }
+
+    /** Distinct lower-case words of a query */
+    public static List<String> queryWords(String query) {
+        if (query == null) return List.of();
+        return new ArrayList<>(split(query, new LinkedHashSet<>()));
+    }
+
+    /** How a query word matches: a range of words by prefix, and words containing it */
+    private final class WordMatch {
+        final int from;     // first word with the prefix
+        final int to;       // past the last one
+        final boolean exact;
+        final int[] infix;  // words containing it elsewhere than at the start, ascending
+        final long candidates;
+
+        WordMatch(int from, int to, boolean exact, int[] infix) {
+            this.from = from;
+            this.to = to;
+            this.exact = exact;
+            this.infix = infix;
+            long n = postingsBefore[to] - postingsBefore[from];
+            for (int w : infix) n += postings[w].length;
+            this.candidates = n;
+        }
+
+        int score(int word) {
+            if (word >= from && word < to) return (exact && word == from) ? EXACT : PREFIX;
+            return Arrays.binarySearch(infix, word) >= 0 ? INFIX : 0;
+        }
+
+        int best(int[] candidateWords) {
+            int best = 0;
+            for (int word : candidateWords) {
+                best = Math.max(best, score(word));
+                if (best == EXACT) break;
+            }
+            return best;
+        }
+
+        /** The product's matching word visited first: lowest in the prefix range, else lowest infix word */
+        int first(int[] candidateWords) {
+            int firstInfix = -1;
+            for (int word : candidateWords) {
+                if (word >= from && word < to) return word;
+                if (firstInfix < 0 && infix.length > 0 && Arrays.binarySearch(infix, word) >= 0) firstInfix = word;
+            }
+            return firstInfix;
+        }
+    }
+
+    private WordMatch match(String queryWord, boolean withInfix, int maxCandidates) {
+        int from = lowerBound(queryWord);
+        // words never contain U+FFFF, so this is the first word past the prefix
+        int to = lowerBound(queryWord + Character.MAX_VALUE);
+        boolean exact = from < to && words[from].equals(queryWord);
+        // a word with plenty of prefix matches ("sku") gains nothing from infix ones, which are costly to find
+        boolean infix = withInfix && postingsBefore[to] - postingsBefore[from] < maxCandidates;
+        return new WordMatch(from, to, exact, infix ? infix(queryWord, from, to) : NONE);
+    }
+
+    /** First word >= {@code key} */
+    private int lowerBound(String key) {
+        int i = Arrays.binarySearch(words, key);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    private int[] infix(String queryWord, int prefixFrom, int prefixTo) {
+        if (queryWord.length() < GRAM) return NONE;
+
+        List<int[]> lists = new ArrayList<>();
+        for (String gram : grams(queryWord)) {
+            int[] list = grams.get(gram);
+            if (list == null) return NONE;
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.length));
+
+        int[] candidates = lists.get(0);
+        for (int i = 1; i < lists.size() && candidates.length > 0; i++) {
+            candidates = intersect(candidates, lists.get(i));
+        }
+        IntList found = new IntList();
+        for (int w : candidates) {
+            if ((w < prefixFrom || w >= prefixTo) && words[w].contains(queryWord)) found.add(w);
+        }
+        return found.toArray();
+    }
+
+    // -------------------------
+    // Size
+    // -------------------------
+    public int size() {
+        return products.length;
+    }
+
+    public int wordCount() {
+        return words.length;
+    }
+
+    public int gramCount() {
+        return grams.size();
+    }
+
+    /**
+     * Rough heap size of the index structures (arrays, words, trigram map), not counting the
+     * ProductSuggestion entries themselves.
+     */
+    public long estimatedBytes() {
+        long bytes = 16L + 4L * products.length;
+        for (String word : words) bytes += 4 + 40 + word.length();
+        for (int[] list : postings) bytes += 4 + 16 + 4L * list.length;
+        bytes += 8L * postingsBefore.length;
+        for (int[] list : productWords) bytes += 4 + 16 + 4L * list.length;
+        bytes += 48L * grams.size();   // entry, key string and array headers
+        for (int[] list : grams.values()) bytes += 4L * list.length;
+        return bytes;
+    }
+
+    // -------------------------
+    // Words
+    // -------------------------
+    static Set<String> words(ProductSuggestion product) {
+        Set<String> words = new LinkedHashSet<>();
+        split(product.getName(), words);
+        String code = product.getProductCode();
+        if (code != null) {
+            split(code, words);
+            StringBuilder compact = new StringBuilder(code.length());
+            code.codePoints().filter(Character::isLetterOrDigit).forEach(compact::appendCodePoint);
+            if (compact.length() > 0) words.add(compact.toString().toLowerCase(Locale.ROOT));
+        }
+        return words;
+    }
+
+    private static Set<String> split(String text, Set<String> into) {
+        if (text == null) return into;
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                into.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return into;
+    }
+
+    private static Set<String> grams(String word) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= word.length(); i++) {
+            grams.add(word.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /** Growable int[] */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.search;
+
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot of the product autocomplete index (exposed at GET /api/admin/suggest-index).
+ */
+public class SuggestIndexStats {
+
+    private final int products;
+    private final int words;
+    private final int trigrams;
+    private final long estimatedBytes;
+    private final int pendingChanges;
+    private final long rebuilds;
+    private final LocalDateTime lastRebuildAt;
+    private final long lastRebuildMillis;
+
+    public SuggestIndexStats(int products, int words, int trigrams, long estimatedBytes, int pendingChanges,
+                             long rebuilds, LocalDateTime lastRebuildAt, long lastRebuildMillis) {
+        this.products = products;
+        this.words = words;
+        this.trigrams = trigrams;
+        this.estimatedBytes = estimatedBytes;
+        this.pendingChanges = pendingChanges;
+        this.rebuilds = rebuilds;
+        this.lastRebuildAt = lastRebuildAt;
+        this.lastRebuildMillis = lastRebuildMillis;
+    }
+
+    /** Products in the current index */
+    public int getProducts() { return products; }
+
+    public int getWords() { return words; }
+
+    public int getTrigrams() { return trigrams; }
+
+    /** Index structures only, without the names and codes themselves */
+    public long getEstimatedBytes() { return estimatedBytes; }
+
+    /** Products changed since the index was built, matched from the change map */
+    public int getPendingChanges() { return pendingChanges; }
+
+    public long getRebuilds() { return rebuilds; }
+
+    public LocalDateTime getLastRebuildAt() { return lastRebuildAt; }
+
+    public long getLastRebuildMillis() { return lastRebuildMillis; }
+}
@@ -9,6 +9,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.inject.Alternative;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.core.HttpHeaders;
 
 import com.nimbusds.jwt.SignedJWT;
@@ -26,11 +27,16 @@ import static jakarta.interceptor.Interceptor.Priority.APPLICATION;
 public class JwtAuthMechanism implements HttpAuthenticationMechanism {
 
     private RSAPublicKey publicKey;
+    private JWSVerifier verifier;
+
+    @Inject
+    private VerifiedTokenCache tokenCache;
 
     @PostConstruct
     private void init() {
         try {
             this.publicKey = KeyLoader.loadPublicKey("META-INF/jwt-public.pem");
+            this.verifier = new RSASSAVerifier(publicKey); // thread-safe, reused for every request
         } catch (Exception e) {
             throw new IllegalStateException("Could not load public key for JWT verification", e);
         }
@@ -48,56 +54,70 @@ public class JwtAuthMechanism implements HttpAuthenticationMechanism {
             String token = authHeader.substring(7);
 
             try {
-                SignedJWT jwt = SignedJWT.parse(token);
-                JWSVerifier verifier = new RSASSAVerifier(publicKey);
-
-                if (!jwt.verify(verifier)) {
-                    return context.responseUnauthorized();
+                // Same token seen before and not yet expired: skip the RS256 check
+                VerifiedToken verified = tokenCache.get(token);
+                if (verified == null) {
+                    verified = verify(token);
+                    if (verified == null) {
+                        return context.responseUnauthorized();
+                    }
+                    tokenCache.put(token, verified);
                 }
 
-                var claims = jwt.getJWTClaimsSet();
+                // Resolve the caller once; JwtTokenService reads it from the request
+                request.setAttribute(PrincipalSnapshot.REQUEST_ATTRIBUTE, verified.getPrincipal());
 
-                Date exp = claims.getExpirationTime();
-                if (exp == null || new Date().after(exp)) {
-                    return context.responseUnauthorized();
-                }
+                CredentialValidationResult result =
+                        new CredentialValidationResult(verified.getUsername(), verified.getGroups());
 
-                if (!"http://localhost:8080/issuer".equals(claims.getIssuer())) {
-                    return context.responseUnauthorized();
-                }
+                return context.notifyContainerAboutLogin(result);
 
-                String username = Optional.ofNullable((String) claims.getClaim("upn"))
-                                          .orElse(claims.getSubject());
+            } catch (Exception e) {
+                return context.responseUnauthorized();
+            }
+        }
 
-                Object groupsClaim = claims.getClaim("groups");
-                Set<String> groups = new HashSet<>();
-                if (groupsClaim instanceof List<?>) {
-                    for (Object g : (List<?>) groupsClaim) {
-                        String role = String.valueOf(g);
-                        groups.add(role);
+        return context.doNothing();
+    }
 
-                        if ("ROLE_SUPER".equals(role)) {
-                            groups.add("ROLE_ADMIN");
-                            groups.add("ROLE_CUSTOMER");
-                        }
-                    }
-                }
+    // -------------------------
+    // Full verification (cache miss)
+    // -------------------------
+    private VerifiedToken verify(String token) throws Exception {
+        SignedJWT jwt = SignedJWT.parse(token);
 
-                CredentialValidationResult result =
-                        new CredentialValidationResult(username, groups);
+        if (!jwt.verify(verifier)) {
+            return null;
+        }
 
-                System.out.println("=== JWT Authentication Debug ===");
-                System.out.println("Username: " + username);
-                System.out.println("Groups: " + groups);
-                System.out.println("================================");
+        var claims = jwt.getJWTClaimsSet();
 
-                return context.notifyContainerAboutLogin(result);
+        Date exp = claims.getExpirationTime();
+        if (exp == null || new Date().after(exp)) {
+            return null;
+        }
 
-            } catch (Exception e) {
-                return context.responseUnauthorized();
+        if (!"http://localhost:8080/issuer".equals(claims.getIssuer())) {
+            return null;
+        }
+
+        String username = Optional.ofNullable((String) claims.getClaim("upn"))
+                                  .orElse(claims.getSubject());
+
+        Object groupsClaim = claims.getClaim("groups");
+        Set<String> groups = new HashSet<>();
+        if (groupsClaim instanceof List<?>) {
+            for (Object g : (List<?>) groupsClaim) {
+                String role = String.valueOf(g);
+                groups.add(role);
+
+                if ("ROLE_SUPER".equals(role)) {
+                    groups.add("ROLE_ADMIN");
+                    groups.add("ROLE_CUSTOMER");
+                }
             }
         }
 
-        return context.doNothing();
+        return new VerifiedToken(PrincipalSnapshot.fromClaims(claims), username, groups, exp.getTime());
     }
-}
\ No newline at end of file
+}
@@ -6,106 +6,92 @@ import jakarta.inject.Inject;
 import jakarta.servlet.http.HttpServletRequest;
 
 import java.text.ParseException;
-import java.util.List;
 
+/**
+ * Request-scoped access to the current caller.
+ * The token is resolved at most once per request: normally {@link JwtAuthMechanism} has already
+ * stored a {@link PrincipalSnapshot} on the request, otherwise the header is parsed a single time here.
+ */
 @RequestScoped
 public class JwtTokenService {
 
     @Inject
     private HttpServletRequest request;
-    
+
+    private PrincipalSnapshot principal;
+    private String failureMessage;
+    private Exception failureCause;
+    private boolean resolved;
+
     //---------------------------
     //USER INFO
     //---------------------------
     public Long getCurrentUserId() {
-        try {
-            String authHeader = request.getHeader("Authorization");
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                throw new SecurityException("Missing Authorization header");
-            }
-
-            String token = authHeader.substring(7);
-            SignedJWT jwt = SignedJWT.parse(token);
-
-            // userId (preferred)
-            Object userIdClaim = jwt.getJWTClaimsSet().getClaim("userId");
-            if (userIdClaim != null) {
-                return Long.valueOf(userIdClaim.toString());
-            }
-
-            // sub (fallback)
-            String sub = jwt.getJWTClaimsSet().getSubject();
-            if (sub != null && !sub.isBlank()) {
-                return Long.valueOf(sub);
-            }
-
+        PrincipalSnapshot current = getPrincipal();
+        if (current == null) {
+            throw new SecurityException(failureMessage, failureCause);
+        }
+        if (current.getUserId() == null) {
             throw new SecurityException("JWT missing both userId and sub");
-
-        } catch (ParseException | NumberFormatException e) {
-            throw new SecurityException("Invalid JWT: " + e.getMessage(), e);
         }
+        return current.getUserId();
     }
 
     public String getUsername() {
-        try {
-            String authHeader = request.getHeader("Authorization");
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                return "unknown";
-            }
-
-            String token = authHeader.substring(7);
-            SignedJWT jwt = SignedJWT.parse(token);
-
-            // upn (preferred)
-            Object upn = jwt.getJWTClaimsSet().getClaim("upn");
-            if (upn != null) return upn.toString();
-
-            // fallback to sub
-            return jwt.getJWTClaimsSet().getSubject();
-
-        } catch (Exception e) {
-            return "unknown";
-        }
+        PrincipalSnapshot current = getPrincipal();
+        return (current != null) ? current.getUsername() : "unknown";
     }
-    
+
     //-------------------------------
     //ROLE HELPERS
     //-------------------------------
-    @SuppressWarnings("unchecked")
-    private List<String> getRoles() {
-        try {
-            SignedJWT jwt = parseToken();
-            Object claim = jwt.getJWTClaimsSet().getClaim("groups");
-            if (claim instanceof List) {
-                return (List<String>) claim;
-            }
-            return List.of();
-        } catch (Exception e) {
-            return List.of();
-        }
-    }
-    
     public boolean hasRole(String role) {
-        return getRoles().contains(role);
+        PrincipalSnapshot current = getPrincipal();
+        return current != null && current.hasRole(role);
     }
 
     public boolean isCustomer() {
-        return hasRole("ROLE_CUSTOMER");
+        PrincipalSnapshot current = getPrincipal();
+        return current != null && current.isCustomer();
     }
 
     public boolean isAdmin() {
-        return hasRole("ROLE_ADMIN");
+        PrincipalSnapshot current = getPrincipal();
+        return current != null && current.isAdmin();
+    }
+
+    /** The snapshot for this request, or null when no usable bearer token was sent */
+    public PrincipalSnapshot getPrincipal() {
+        if (!resolved) {
+            resolve();
+            resolved = true;
+        }
+        return principal;
     }
-    
+
     // --------------------------
-    // INTERNAL: Parse JWT
+    // INTERNAL: resolve once
     // --------------------------
-    private SignedJWT parseToken() throws ParseException {
+    private void resolve() {
+        Object attribute = request.getAttribute(PrincipalSnapshot.REQUEST_ATTRIBUTE);
+        if (attribute instanceof PrincipalSnapshot snapshot) {
+            principal = snapshot;
+            return;
+        }
+
+        // Fallback for requests that did not go through JwtAuthMechanism
         String authHeader = request.getHeader("Authorization");
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            throw new SecurityException("Missing or invalid Authorization header");
+            failureMessage = "Missing Authorization header";
+            return;
+        }
+
+        try {
+            String token = authHeader.substring(7);
+            principal = PrincipalSnapshot.fromClaims(SignedJWT.parse(token).getJWTClaimsSet());
+        } catch (ParseException e) {
+            failureMessage = "Invalid JWT: " + e.getMessage();
+            failureCause = e;
         }
-        String token = authHeader.substring(7);
-        return SignedJWT.parse(token);
     }
 }
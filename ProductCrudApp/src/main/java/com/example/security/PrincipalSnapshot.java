@@ -0,0 +1,139 @@
+package com.example.security;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable view of the caller behind a verified JWT.
+ * Built once per request by {@link JwtAuthMechanism} and read by {@link JwtTokenService},
+ * so services never have to re-read the Authorization header or re-parse the token.
+ */
+public final class PrincipalSnapshot {
+
+    /** Request attribute under which the authentication mechanism stores the snapshot */
+    public static final String REQUEST_ATTRIBUTE = PrincipalSnapshot.class.getName();
+
+    public static final String ROLE_CUSTOMER = "ROLE_CUSTOMER";
+    public static final String ROLE_ADMIN = "ROLE_ADMIN";
+    public static final String ROLE_SUPER = "ROLE_SUPER";
+
+    // Role bits (only the roles the application actually checks get a bit)
+    static final int CUSTOMER_BIT = 1;
+    static final int ADMIN_BIT = 1 << 1;
+    static final int SUPER_BIT = 1 << 2;
+
+    private final Long userId;
+    private final String username;
+    private final int roleBits;
+
+    public PrincipalSnapshot(Long userId, String username, int roleBits) {
+        this.userId = userId;
+        this.username = username;
+        this.roleBits = roleBits;
+    }
+
+    // -------------------------
+    // Factory
+    // -------------------------
+    /**
+     * Extract userId, username and roles from the token claims.
+     * Roles are taken exactly as they appear in the "groups" claim.
+     */
+    public static PrincipalSnapshot fromClaims(JWTClaimsSet claims) {
+        return new PrincipalSnapshot(
+                resolveUserId(claims),
+                resolveUsername(claims),
+                roleBits(claims.getClaim("groups"))
+        );
+    }
+
+    private static Long resolveUserId(JWTClaimsSet claims) {
+        try {
+            // userId (preferred)
+            Object userIdClaim = claims.getClaim("userId");
+            if (userIdClaim != null) {
+                return Long.valueOf(userIdClaim.toString());
+            }
+
+            // sub (fallback)
+            String sub = claims.getSubject();
+            if (sub != null && !sub.isBlank()) {
+                return Long.valueOf(sub);
+            }
+        } catch (NumberFormatException e) {
+            // treated the same as a missing id
+        }
+        return null;
+    }
+
+    private static String resolveUsername(JWTClaimsSet claims) {
+        // upn (preferred), fallback to sub
+        Object upn = claims.getClaim("upn");
+        return (upn != null) ? upn.toString() : claims.getSubject();
+    }
+
+    static int roleBits(Object groupsClaim) {
+        int bits = 0;
+        if (groupsClaim instanceof List<?>) {
+            for (Object g : (List<?>) groupsClaim) {
+                bits |= roleBit(String.valueOf(g));
+            }
+        }
+        return bits;
+    }
+
+    static int roleBit(String role) {
+        if (role == null) return 0;
+        return switch (role) {
+            case ROLE_CUSTOMER -> CUSTOMER_BIT;
+            case ROLE_ADMIN -> ADMIN_BIT;
+            case ROLE_SUPER -> SUPER_BIT;
+            default -> 0;
+        };
+    }
+
+    // -------------------------
+    // Accessors
+    // -------------------------
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public boolean hasRole(String role) {
+        int bit = roleBit(role);
+        return bit != 0 && (roleBits & bit) != 0;
+    }
+
+    public boolean isCustomer() {
+        return (roleBits & CUSTOMER_BIT) != 0;
+    }
+
+    public boolean isAdmin() {
+        return (roleBits & ADMIN_BIT) != 0;
+    }
+
+    public boolean isSuper() {
+        return (roleBits & SUPER_BIT) != 0;
+    }
+
+    /** Role names present in the token, in a fixed order */
+    public Set<String> getRoles() {
+        Set<String> roles = new LinkedHashSet<>();
+        if (isCustomer()) roles.add(ROLE_CUSTOMER);
+        if (isAdmin()) roles.add(ROLE_ADMIN);
+        if (isSuper()) roles.add(ROLE_SUPER);
+        return roles;
+    }
+
+    @Override
+    public String toString() {
+        return "PrincipalSnapshot{userId=" + userId + ", username=" + username + ", roles=" + getRoles() + "}";
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.security;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Result of a successful signature and claims check, kept by {@link VerifiedTokenCache}
+ * until the token's own expiration time.
+ */
+public final class VerifiedToken {
+
+    private final PrincipalSnapshot principal;
+    private final String username;
+    private final Set<String> groups;
+    private final long expiresAtMillis;
+
+    public VerifiedToken(PrincipalSnapshot principal, String username, Set<String> groups, long expiresAtMillis) {
+        this.principal = principal;
+        this.username = username;
+        this.groups = Collections.unmodifiableSet(groups);
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public PrincipalSnapshot getPrincipal() {
+        return principal;
+    }
+
+    /** Caller name handed to the container */
+    public String getUsername() {
+        return username;
+    }
+
+    /** Container groups, including the ROLE_SUPER expansion */
+    public Set<String> getGroups() {
+        return groups;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.security;
+
+import com.example.cache.BoundedCache;
+import com.example.cache.CacheStats;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Remembers bearer tokens that already passed RS256 verification, so a client re-sending the
+ * same token skips the signature check. Entries are keyed by a SHA-256 digest of the raw token
+ * (the token itself is never stored) and expire at the token's "exp" claim.
+ */
+@ApplicationScoped
+public class VerifiedTokenCache {
+
+    @Inject
+    @ConfigProperty(name = "jwt.cache.max-entries", defaultValue = "10000")
+    private int maxEntries;
+
+    private BoundedCache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache() {}
+
+    /** Standalone use outside CDI (tests, benchmarks) */
+    public VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        cache = new BoundedCache<>("verified-tokens", maxEntries);
+    }
+
+    /** Cached verification result, or null if the token is unknown or past its expiry */
+    public VerifiedToken get(String token) {
+        return cache.get(digest(token));
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        cache.put(digest(token), verified, verified.getExpiresAtMillis());
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    // -------------------------
+    // Key derivation
+    // -------------------------
+    static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package com.example.services;
 
+import com.example.audit.AuditRecord;
+import com.example.audit.AuditWriter;
 import com.example.dao.AuditLogDAO;
 import com.example.entities.AuditLog;
 import com.example.logging.LogKeys;
+import jakarta.annotation.Resource;
 import jakarta.ejb.Stateless;
 import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import org.slf4j.MDC;
 
@@ -17,13 +23,24 @@ public class AuditService {
     @Inject
     private AuditLogDAO auditLogDAO;
 
+    @Inject
+    private AuditWriter auditWriter;
+
+    @Resource
+    private TransactionSynchronizationRegistry txRegistry;
+
     public AuditService() {}
 
     // -------------------------
     // Record a new log entry
     // -------------------------
+    /**
+     * Queue an audit entry for the background {@link AuditWriter}.
+     * Inside a transaction the entry is only queued once that transaction commits,
+     * so rolled-back work never shows up in the audit log.
+     */
     public void record(String actor, String action, String entityType, Long entityId, String payload) {
-        AuditLog log = new AuditLog(
+        AuditRecord record = new AuditRecord(
                 actor,
                 action,
                 entityType,
@@ -32,8 +49,21 @@ public class AuditService {
                 LocalDateTime.now()
         );
 
-        System.out.println(">>> Persisting audit: " + log.getAction() + " for entityId=" + entityId);
-        auditLogDAO.save(log);
+        if (txRegistry != null && txRegistry.getTransactionStatus() == Status.STATUS_ACTIVE) {
+            txRegistry.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {}
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == Status.STATUS_COMMITTED) {
+                        auditWriter.submit(record);
+                    }
+                }
+            });
+        } else {
+            auditWriter.submit(record);
+        }
     }
 
     // -------------------------
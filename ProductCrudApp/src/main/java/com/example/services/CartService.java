@@ -1,5 +1,8 @@
 package com.example.services;
 
+import com.example.carts.CartExpiryMetrics;
+import com.example.carts.CartExpiryScheduler;
+import com.example.carts.CartExpiryService;
 import com.example.entities.Cart;
 import com.example.entities.CartItem;
 import com.example.entities.CartStatus;
@@ -12,8 +15,13 @@ import com.example.security.JwtTokenService;
 
 import jakarta.ejb.Schedule;
 import jakarta.ejb.Stateless;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -23,6 +31,8 @@ import java.util.Optional;
 @Stateless
 public class CartService {
 
+    private static final Logger log = LoggerFactory.getLogger(CartService.class);
+
     @Inject 
     private CartDAO cartDAO;
     
@@ -38,6 +48,19 @@ public class CartService {
     @Inject 
     private JwtTokenService jwtTokenService;
 
+    @Inject
+    private CartExpiryService cartExpiryService;
+
+    @Inject
+    private CartExpiryMetrics cartExpiryMetrics;
+
+    @Inject
+    private CartExpiryScheduler cartExpiryScheduler;
+
+    @Inject
+    @ConfigProperty(name = "carts.expiry.chunk-size", defaultValue = "500")
+    private int expiryChunkSize;
+
     private static final BigDecimal VAT_RATE = new BigDecimal("0.15");
 
     // =========================
@@ -55,7 +78,11 @@ public class CartService {
         if (customer == null) throw new IllegalArgumentException("Customer not found");
 
         Cart activeCart = cartDAO.findActiveCartByCustomerId(customerId);
-        if (activeCart != null) return activeCart;
+        if (activeCart != null) {
+            // may have been created on another node or before a restart
+            cartExpiryScheduler.register(activeCart);
+            return activeCart;
+        }
 
         Cart newCart = new Cart();
         newCart.setCustomer(customer);
@@ -66,8 +93,8 @@ public class CartService {
         newCart.setUpdatedAt(now);
         newCart.setExpiresAt(now.plusHours(2));
 
-        cartDAO.save(newCart);
-        cartDAO.getEntityManager().flush();
+        cartDAO.saveForId(newCart);
+        cartExpiryScheduler.register(newCart);
 
         auditService.record(
                 jwtTokenService.getUsername(),
@@ -114,7 +141,7 @@ public class CartService {
 
         cart.setUpdatedAt(LocalDateTime.now());
         cartDAO.update(cart);
-        cartDAO.getEntityManager().flush();
+        cartExpiryScheduler.register(cart);
 
         auditService.record(jwtTokenService.getUsername(), "ADD_PRODUCT_TO_CART", "Cart", cartId,
                 String.format("{\"productId\": %d, \"quantity\": %d}", productId, quantity));
@@ -135,7 +162,6 @@ public class CartService {
 
         cart.setUpdatedAt(LocalDateTime.now());
         cartDAO.update(cart);
-        cartDAO.getEntityManager().flush();
 
         auditService.record(jwtTokenService.getUsername(), "REMOVE_PRODUCT_FROM_CART", "Cart", cartId,
                 String.format("{\"productId\": %d}", productId));
@@ -156,7 +182,6 @@ public class CartService {
                 else cart.getItems().remove(item);
                 cart.setUpdatedAt(LocalDateTime.now());
                 cartDAO.update(cart);
-                cartDAO.getEntityManager().flush();
 
                 auditService.record(jwtTokenService.getUsername(), "DECREMENT_PRODUCT_IN_CART", "Cart", cartId,
                         String.format("{\"productId\": %d}", productId));
@@ -173,7 +198,6 @@ public class CartService {
         cart.getItems().clear();
         cart.setUpdatedAt(LocalDateTime.now());
         cartDAO.update(cart);
-        cartDAO.getEntityManager().flush();
 
         auditService.record(jwtTokenService.getUsername(), "CLEAR_CART", "Cart", cartId, "{}");
 
@@ -197,21 +221,29 @@ public class CartService {
     // =========================
     // Expiry handling (scheduled)
     // =========================
-    @Schedule(minute = "*/5", hour = "*", persistent = false)
-    @Transactional
+    // Safety net behind CartExpiryScheduler (carts only another node registered, failed rebuilds).
+    // Runs outside a transaction: every chunk commits on its own (CartExpiryService.expireChunk)
+    @Schedule(minute = "17", hour = "*", persistent = false)
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
     public void expireCarts() {
-        List<Cart> expired = cartDAO.findByStatusAndExpiresBefore(CartStatus.NEW, LocalDateTime.now());
-        if (expired.isEmpty()) return;
-
-        LocalDateTime now = LocalDateTime.now();
-        for (Cart cart : expired) {
-            cart.setStatus(CartStatus.EXPIRED);
-            cart.setUpdatedAt(now);
-
-            auditService.record("system", "EXPIRE_CART", "Cart", cart.getId(), "{}");
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+
+        int expired = 0;
+        int chunks = 0;
+        List<Long> ids;
+        do {
+            // fixed cutoff, so carts expiring while the sweep runs wait for the next one
+            ids = cartExpiryService.expireChunk(startedAt, expiryChunkSize);
+            expired += ids.size();
+            chunks++;
+        } while (!ids.isEmpty() && ids.size() >= expiryChunkSize);
+
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        cartExpiryMetrics.recordRun(startedAt, expired, chunks, durationMillis);
+        if (expired > 0) {
+            log.info("CART_EXPIRY_SWEEP_DONE expired={} chunks={} durationMs={}", expired, chunks, durationMillis);
         }
-        cartDAO.updateAll(expired);
-        cartDAO.getEntityManager().flush();
     }
 
     // =========================
@@ -7,9 +7,11 @@ import com.example.entities.Address;
 import com.example.entities.Customer;
 import com.example.dao.AddressDAO;
 import com.example.dao.CustomerDAO;
+import com.example.events.CustomerAddressChangedEvent;
 import com.example.security.JwtTokenService;
 
 import jakarta.ejb.Stateless;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import java.util.List;
@@ -23,6 +25,7 @@ public class CustomerAddressService {
     @Inject private CustomerAddressMapper mapper;
     @Inject private AuditService auditService;
     @Inject private JwtTokenService jwtService;
+    @Inject private Event<CustomerAddressChangedEvent> addressChanged;
 
     private static final String ENTITY_TYPE = "CustomerAddress";
 
@@ -41,8 +44,10 @@ public class CustomerAddressService {
             addressDAO.findByCustomer(customer).forEach(a -> a.setDefault(false));
         }
 
-        addressDAO.save(address);
-        addressDAO.getEntityManager().flush();
+        addressDAO.saveForId(address);
+        // Customer.addresses is the inverse side and is not updated here
+        customerDAO.evictFromSharedCache(customerId);
+        addressChanged.fire(new CustomerAddressChangedEvent(customerId));
 
         audit("ADD_ADDRESS", customerId, address.getId());
 
@@ -82,7 +87,7 @@ public class CustomerAddressService {
         }
 
         addressDAO.update(address);
-        addressDAO.getEntityManager().flush();
+        addressChanged.fire(new CustomerAddressChangedEvent(customerId));
 
         audit("UPDATE_ADDRESS", customerId, addressId);
 
@@ -100,7 +105,8 @@ public class CustomerAddressService {
         if (address == null || !address.getCustomer().getId().equals(customerId)) return false;
 
         addressDAO.delete(address);
-        addressDAO.getEntityManager().flush();
+        customerDAO.evictFromSharedCache(customerId);
+        addressChanged.fire(new CustomerAddressChangedEvent(customerId));
 
         audit("DELETE_ADDRESS", customerId, addressId);
 
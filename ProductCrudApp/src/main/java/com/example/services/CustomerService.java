@@ -55,8 +55,7 @@ public class CustomerService {
     public CustomerResponse createCustomer(CustomerRequest request) {
         // Customers are allowed to self-create
         Customer customer = CustomerMapper.toEntity(request);
-        customerDAO.save(customer);
-        customerDAO.getEntityManager().flush();
+        customerDAO.saveForId(customer);
 
         audit("CREATE_CUSTOMER", "Customer", customer.getId(),
                 String.format("{\"email\":\"%s\",\"firstName\":\"%s\",\"lastName\":\"%s\"}",
@@ -76,7 +75,6 @@ public class CustomerService {
 
         CustomerMapper.updateEntity(existing, request);
         customerDAO.update(existing);
-        customerDAO.getEntityManager().flush();
 
         audit("UPDATE_CUSTOMER", "Customer", existing.getId(),
                 String.format("{\"email\":\"%s\",\"firstName\":\"%s\",\"lastName\":\"%s\"}",
@@ -95,7 +93,6 @@ public class CustomerService {
         enforceAccess(existing.getId());
 
         customerDAO.delete(existing);
-        customerDAO.getEntityManager().flush();
 
         audit("DELETE_CUSTOMER", "Customer", id, "{}");
 
@@ -6,17 +6,24 @@ import com.example.dto.mappers.OrderMapper;
 import com.example.dto.mappers.PaymentMapper;
 import com.example.dto.mappers.OrderStatusHistoryMapper;
 import com.example.entities.*;
+import com.example.events.OrderChangedEvent;
+import com.example.events.ProductChangedEvent;
+import com.example.inventory.InsufficientStockException;
+import com.example.inventory.StockReservationService;
 import com.example.security.JwtTokenService;
 import com.example.security.exceptions.UnauthorizedAccessException;
 
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.ejb.Stateless;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Stateless
 public class OrderService {
@@ -42,8 +49,20 @@ public class OrderService {
     @Inject 
     private JwtTokenService jwtTokenService;
 
+    @Inject
+    private Event<ProductChangedEvent> productChanged;
+
+    @Inject
+    private Event<OrderChangedEvent> orderChanged;
+
+    @Inject
+    private StockReservationService stockReservationService;
+
     private static final BigDecimal VAT_RATE = new BigDecimal("0.15");
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
     // -------------------------
     // CREATE ORDER FROM CART
     // -------------------------
@@ -74,14 +93,13 @@ public class OrderService {
         order.setOrderDate(LocalDateTime.now());
 
         BigDecimal subtotal = BigDecimal.ZERO;
+        Map<Long, Product> products = new LinkedHashMap<>();
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
         for (CartItem ci : cart.getItems()) {
             Product product = productDAO.findById(Product.class, ci.getProduct().getId());
             if (product == null) throw new IllegalArgumentException("Product not found: " + ci.getProduct().getId());
-            if (product.getStock() < ci.getQuantity())
-                throw new IllegalArgumentException("Insufficient stock for product: " + product.getName());
-
-            product.setStock(product.getStock() - ci.getQuantity());
-            productDAO.update(product);
+            products.put(product.getId(), product);
+            quantities.merge(product.getId(), ci.getQuantity(), Integer::sum);
 
             OrderItem item = new OrderItem();
             item.setProduct(product);
@@ -93,6 +111,15 @@ public class OrderService {
             subtotal = subtotal.add(product.getPrice().multiply(BigDecimal.valueOf(ci.getQuantity())));
         }
 
+        // One conditional UPDATE batch for all lines instead of read-check-write per product
+        try {
+            stockReservationService.reserve(quantities);
+        } catch (InsufficientStockException e) {
+            Product shortProduct = products.get(e.getProductId());
+            throw new InsufficientStockException(e.getProductId(),
+                    "Insufficient stock for product: " + (shortProduct != null ? shortProduct.getName() : e.getProductId()));
+        }
+
         BigDecimal vatTotal = subtotal.multiply(VAT_RATE);
         BigDecimal total = subtotal.add(vatTotal);
 
@@ -109,13 +136,23 @@ public class OrderService {
         snapshot.setCountry(address.getCountry());
         order.setShippingAddress(snapshot);
 
-        orderDAO.save(order);
-        logStatusChange(order, null, OrderStatus.NEW);
+        // Only the order's IDENTITY id forces an early INSERT (its items go in the same batch);
+        // the history row and cart update wait for commit
+        orderDAO.deferFlushToCommit();
+        orderDAO.saveForId(order);
+        OrderStatusHistory created = logStatusChange(order, null, OrderStatus.NEW);
 
         cart.setStatus(CartStatus.CHECKED_OUT);
         cartDAO.update(cart);
 
-        return mapOrderToResponse(order);
+        // cached product snapshots carry the stock level
+        productChanged.fire(ProductChangedEvent.stockReserved(quantities.keySet()));
+
+        // a brand-new order has no payments and exactly one history entry: no need to query for them
+        OrderResponse response = OrderMapper.toDto(order);
+        response.setPayments(List.of());
+        response.setHistory(OrderStatusHistoryMapper.toDto(List.of(created)));
+        return response;
     }
 
     // -------------------------
@@ -124,7 +161,7 @@ public class OrderService {
     @Transactional
     @RolesAllowed("ROLE_CUSTOMER")
     public OrderResponse payOrder(Long orderId, BigDecimal amount, PaymentMethod method, String txnRef) {
-        Order order = orderDAO.findById(Order.class, orderId);
+        Order order = orderDAO.findByIdWithDetails(orderId);
         if (order == null) throw new IllegalArgumentException("Order not found");
 
         Long currentUserId = jwtTokenService.getCurrentUserId();
@@ -150,7 +187,9 @@ public class OrderService {
         } else {
             payment.setStatus(PaymentStatus.FAILED);
             paymentDAO.save(payment);
+            orderDAO.incrementVersion(order); // the order's payments list changed
         }
+        orderChanged.fire(OrderChangedEvent.of(orderId));
 
         return mapOrderToResponse(order);
     }
@@ -161,7 +200,7 @@ public class OrderService {
     @Transactional
     @RolesAllowed("ROLE_ADMIN")
     public OrderResponse updateStatusDto(Long orderId, OrderStatus newStatus) {
-        Order order = orderDAO.findById(Order.class, orderId);
+        Order order = orderDAO.findByIdWithDetails(orderId);
         if (order == null) throw new IllegalArgumentException("Order not found");
         if (!isValidTransition(order.getStatus(), newStatus))
             throw new IllegalStateException("Invalid transition: " + order.getStatus() + " -> " + newStatus);
@@ -170,6 +209,7 @@ public class OrderService {
         order.setStatus(newStatus);
         orderDAO.update(order);
         logStatusChange(order, oldStatus, newStatus);
+        orderChanged.fire(OrderChangedEvent.of(orderId));
 
         return mapOrderToResponse(order);
     }
@@ -179,7 +219,7 @@ public class OrderService {
     // -------------------------
     @RolesAllowed({"ROLE_ADMIN", "ROLE_CUSTOMER"})
     public OrderResponse getOrderDto(Long orderId) {
-        Order order = orderDAO.findById(Order.class, orderId);
+        Order order = orderDAO.findByIdWithDetails(orderId);
         if (order == null) throw new IllegalArgumentException("Order not found");
 
         if (jwtTokenService.isCustomer()) {
@@ -194,13 +234,24 @@ public class OrderService {
 
     @RolesAllowed("ROLE_ADMIN")
     public List<OrderResponse> getAllOrderDtos() {
-        return orderDAO.findAll(Order.class).stream()
-                .map(this::mapOrderToResponse)
-                .toList();
+        return mapOrdersToResponses(orderDAO.findPageWithDetails(0, Integer.MAX_VALUE, null));
     }
 
+    /**
+     * One chunk of the admin export, in id order. Each call runs in its own transaction, so the
+     * persistence context holding the chunk's entities is discarded as soon as it returns.
+     */
+    @RolesAllowed("ROLE_ADMIN")
+    public List<OrderResponse> getOrderExportChunk(Long afterId, int chunkSize) {
+        return mapOrdersToResponses(orderDAO.findAfterId(afterId, chunkSize));
+    }
+
+    /**
+     * One page of a customer's orders, newest first. Runs a fixed number of queries per page
+     * (orders, then payments and history for all of them) no matter how many orders it holds.
+     */
     @RolesAllowed({"ROLE_ADMIN", "ROLE_CUSTOMER"})
-    public List<OrderResponse> getOrdersByCustomerDto(Long customerId) {
+    public List<OrderResponse> getOrdersByCustomerDto(Long customerId, int page, int size) {
         if (jwtTokenService.isCustomer()) {
             Long currentUserId = jwtTokenService.getCurrentUserId();
             if (!customerId.equals(currentUserId)) {
@@ -208,10 +259,10 @@ public class OrderService {
             }
         }
 
-        return orderDAO.findAll(Order.class).stream()
-                .filter(o -> o.getCustomer() != null && o.getCustomer().getId().equals(customerId))
-                .map(this::mapOrderToResponse)
-                .toList();
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        int offset = Math.max(0, (page - 1) * pageSize);
+
+        return mapOrdersToResponses(orderDAO.findByCustomerId(customerId, offset, pageSize));
     }
 
     // -------------------------
@@ -226,14 +277,30 @@ public class OrderService {
         };
     }
 
-    private void logStatusChange(Order order, OrderStatus from, OrderStatus to) {
-        orderStatusHistoryDAO.save(new OrderStatusHistory(order, from, to));
+    private OrderStatusHistory logStatusChange(Order order, OrderStatus from, OrderStatus to) {
+        OrderStatusHistory entry = new OrderStatusHistory(order, from, to);
+        orderStatusHistoryDAO.save(entry);
+        return entry;
     }
 
+    // Orders should come from the OrderDAO *WithDetails queries, so mapping loads nothing lazily
     private OrderResponse mapOrderToResponse(Order order) {
-        OrderResponse dto = OrderMapper.toDto(order);
-        dto.setPayments(PaymentMapper.toDto(paymentDAO.findByOrder(order)));
-        dto.setHistory(OrderStatusHistoryMapper.toDto(orderStatusHistoryDAO.findByOrder(order)));
-        return dto;
+        return mapOrdersToResponses(List.of(order)).get(0);
+    }
+
+    // Payments and status history for the whole list in two IN-queries
+    private List<OrderResponse> mapOrdersToResponses(List<Order> orders) {
+        List<Long> orderIds = orders.stream().map(Order::getId).toList();
+        Map<Long, List<Payment>> payments = paymentDAO.findByOrderIds(orderIds);
+        Map<Long, List<OrderStatusHistory>> history = orderStatusHistoryDAO.findByOrderIds(orderIds);
+
+        return orders.stream()
+                .map(order -> {
+                    OrderResponse dto = OrderMapper.toDto(order);
+                    dto.setPayments(PaymentMapper.toDto(payments.getOrDefault(order.getId(), List.of())));
+                    dto.setHistory(OrderStatusHistoryMapper.toDto(history.getOrDefault(order.getId(), List.of())));
+                    return dto;
+                })
+                .toList();
     }
 }
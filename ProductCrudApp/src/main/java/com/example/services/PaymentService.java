@@ -7,9 +7,11 @@ import com.example.dto.OrderResponse;
 import com.example.dto.mappers.OrderMapper;
 import com.example.dto.mappers.PaymentMapper;
 import com.example.entities.*;
+import com.example.events.OrderChangedEvent;
 import com.example.security.JwtTokenService;
 
 import jakarta.ejb.Stateless;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 
@@ -32,6 +34,9 @@ public class PaymentService {
     @Inject
     private JwtTokenService jwtTokenService;
 
+    @Inject
+    private Event<OrderChangedEvent> orderChanged;
+
     // -------------------------
     // PAY ORDER
     // -------------------------
@@ -50,10 +55,11 @@ public class PaymentService {
             updateOrderStatus(order, OrderStatus.PAID);
         } else {
             payment.setStatus(PaymentStatus.FAILED);
+            orderDAO.incrementVersion(order); // the order's payments list changed
         }
 
         paymentDAO.save(payment);
-        paymentDAO.getEntityManager().flush(); // ensure persistence
+        orderChanged.fire(OrderChangedEvent.of(orderId));
 
         return mapOrderToResponse(order);
     }
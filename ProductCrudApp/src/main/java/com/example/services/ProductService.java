@@ -1,15 +1,25 @@
 package com.example.services;
 
+import com.example.cache.ProductCache;
+import com.example.catalog.CatalogColumns;
+import com.example.catalog.ProductCatalog;
 import com.example.dao.ProductDAO;
+import com.example.dto.CountMode;
+import com.example.dto.KeysetCursor;
 import com.example.dto.PaginatedResponse;
 import com.example.dto.ProductRequest;
 import com.example.dto.ProductResponse;
 import com.example.entities.Product;
+import com.example.events.ProductChangedEvent;
+import com.example.search.ProductSearchQuery;
 import com.example.security.JwtTokenService;
 
 import jakarta.ejb.Stateless;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,6 +35,15 @@ public class ProductService {
     @Inject
     private JwtTokenService jwtService;
 
+    @Inject
+    private ProductCache productCache;
+
+    @Inject
+    private ProductCatalog productCatalog;
+
+    @Inject
+    private Event<ProductChangedEvent> productChanged;
+
     // -------------------------
     // LIST PRODUCTS
     // -------------------------
@@ -35,19 +54,127 @@ public class ProductService {
             BigDecimal minPrice,
             BigDecimal maxPrice,
             Boolean inStock
+    ) {
+        return getProducts(page, size, nameFilter, minPrice, maxPrice, inStock, null, CountMode.EXACT);
+    }
+
+    /**
+     * Offset mode when {@code after} is null, keyset (cursor) mode otherwise.
+     * Both return a nextCursor when the page is full, so a client can switch to cursors after page one.
+     * Ids and totals come from the in-memory catalog (ProductCatalog) once it is built, from the database until then.
+     */
+    public PaginatedResponse<ProductResponse> getProducts(
+            int page,
+            int size,
+            String nameFilter,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Boolean inStock,
+            KeysetCursor after,
+            CountMode countMode
     ) {
         enforceAuthenticated();
 
         int offset = Math.max(0, (page - 1) * size);
-        List<Product> products = productDAO.findProducts(offset, size, nameFilter, minPrice, maxPrice, inStock);
+        CatalogColumns.Page fromMemory = productCatalog.select(
+                nameFilter, minPrice, maxPrice, inStock, after, offset, size, countMode != CountMode.NONE);
+        if (fromMemory != null) {
+            // the in-memory count is exact and cheap, so it is reported even when an estimate would do
+            PaginatedResponse<ProductResponse> response = page(fromMemory.ids(), page, size, after);
+            if (countMode != CountMode.NONE) {
+                response.setTotal(fromMemory.total(), false);
+            }
+            return response;
+        }
 
-        List<ProductResponse> dtoList = products.stream()
-                .map(ProductResponse::fromEntity)
-                .collect(Collectors.toList());
+        // Only ids come from the database; the rows themselves are served from the product cache
+        List<Long> ids;
+        if (after != null) {
+            ids = productDAO.findProductIdsAfter(after, size, nameFilter, minPrice, maxPrice, inStock);
+        } else {
+            ids = productDAO.findProductIds(offset, size, nameFilter, minPrice, maxPrice, inStock);
+        }
 
-        long totalItems = productDAO.countProducts(nameFilter, minPrice, maxPrice, inStock);
+        PaginatedResponse<ProductResponse> response = page(ids, page, size, after);
 
-        return new PaginatedResponse<>(dtoList, totalItems, page, size);
+        switch (countMode) {
+            case EXACT -> response.setTotal(productDAO.countProducts(nameFilter, minPrice, maxPrice, inStock), false);
+            case ESTIMATE -> setEstimatedTotal(response, nameFilter, minPrice, maxPrice, inStock);
+            case NONE -> { }
+        }
+        return response;
+    }
+
+    /**
+     * Ranked name search (pg_trgm), best match first. Offset pages only: a keyset cursor has no
+     * meaning for a ranking, so no nextCursor is returned. The total is exact unless it reaches the
+     * number of matches the search ranks at most; it is then flagged as estimated (a lower bound).
+     */
+    public PaginatedResponse<ProductResponse> searchProducts(
+            String terms,
+            int page,
+            int size,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Boolean inStock,
+            CountMode countMode
+    ) {
+        enforceAuthenticated();
+
+        String normalized = ProductSearchQuery.normalize(terms);
+        int offset = Math.max(0, (page - 1) * size);
+        List<Long> ids = productDAO.searchProductIds(normalized, offset, size, minPrice, maxPrice, inStock);
+
+        PaginatedResponse<ProductResponse> response =
+                new PaginatedResponse<>(productCache.getAll(ids, this::loadProducts), size, null);
+        response.setCurrentPage(page);
+
+        if (countMode != CountMode.NONE) {
+            long total = productDAO.countSearchResults(normalized, minPrice, maxPrice, inStock);
+            response.setTotal(total, total >= productDAO.maxSearchResults());
+        }
+        return response;
+    }
+
+    /** The products for one page of ids, with a nextCursor when the page is full */
+    private PaginatedResponse<ProductResponse> page(List<Long> ids, int page, int size, KeysetCursor after) {
+        List<ProductResponse> dtoList = productCache.getAll(ids, this::loadProducts);
+
+        String nextCursor = null;
+        if (ids.size() == size) {
+            // positioned on the page's last id, which may have been deleted since the ids were read
+            Long lastId = ids.get(ids.size() - 1);
+            ProductResponse last = dtoList.isEmpty() ? null : dtoList.get(dtoList.size() - 1);
+            LocalDateTime lastCreatedAt = (last != null && last.getId().equals(lastId))
+                    ? last.getCreatedAt()
+                    : productDAO.findCreatedAt(lastId);
+            if (lastCreatedAt != null) {
+                nextCursor = new KeysetCursor(lastCreatedAt, lastId).encode();
+            } else if (last != null) {
+                // gone, like every id after the last product found: seeking past that product skips the same rows
+                nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+            }
+        }
+
+        PaginatedResponse<ProductResponse> response = new PaginatedResponse<>(dtoList, size, nextCursor);
+        if (after == null) {
+            response.setCurrentPage(page);
+        }
+        return response;
+    }
+
+    private void setEstimatedTotal(PaginatedResponse<ProductResponse> response, String nameFilter,
+                                   BigDecimal minPrice, BigDecimal maxPrice, Boolean inStock) {
+        boolean unfiltered = (nameFilter == null || nameFilter.isEmpty())
+                && minPrice == null && maxPrice == null && !Boolean.TRUE.equals(inStock);
+
+        long estimate = unfiltered ? productDAO.estimateProductCount() : -1;
+        if (estimate >= 0) {
+            response.setTotal(estimate, true);
+        } else {
+            // filtered, or table never analyzed: the planner figure would be meaningless
+            response.setTotal(productDAO.countProducts(nameFilter, minPrice, maxPrice, inStock), false);
+        }
     }
 
     // -------------------------
@@ -56,8 +183,7 @@ public class ProductService {
     public ProductResponse getProductById(Long id) {
         enforceAuthenticated();
 
-        Product product = productDAO.findById(Product.class, id);
-        return (product != null) ? ProductResponse.fromEntity(product) : null;
+        return productCache.get(id, this::loadProduct);
     }
 
     // -------------------------
@@ -74,8 +200,8 @@ public class ProductService {
                 request.getStock()
         );
 
-        productDAO.save(product);
-        productDAO.getEntityManager().flush();
+        productDAO.saveForId(product);
+        productChanged.fire(ProductChangedEvent.of(product.getId()));
 
         audit("CREATE_PRODUCT", product.getId(),
                 String.format("{\"name\":\"%s\",\"price\":%s}", request.getName(), request.getPrice()));
@@ -97,7 +223,7 @@ public class ProductService {
         existing.setPrice(request.getPrice());
 
         productDAO.update(existing);
-        productDAO.getEntityManager().flush();
+        productChanged.fire(ProductChangedEvent.of(id));
 
         audit("UPDATE_PRODUCT", existing.getId(),
                 String.format("{\"name\":\"%s\",\"price\":%s}", request.getName(), request.getPrice()));
@@ -115,13 +241,27 @@ public class ProductService {
         if (existing == null) return false;
 
         productDAO.delete(existing);
-        productDAO.getEntityManager().flush();
+        productChanged.fire(ProductChangedEvent.of(id));
 
         audit("DELETE_PRODUCT", id, "{}");
 
         return true;
     }
 
+    // -------------------------
+    // Cache loaders
+    // -------------------------
+    private ProductResponse loadProduct(Long id) {
+        Product product = productDAO.findById(Product.class, id);
+        return (product != null) ? ProductResponse.fromEntity(product) : null;
+    }
+
+    private List<ProductResponse> loadProducts(Collection<Long> ids) {
+        return productDAO.findByIds(ids).stream()
+                .map(ProductResponse::fromEntity)
+                .collect(Collectors.toList());
+    }
+
     // -------------------------
     // Role enforcement
     // -------------------------
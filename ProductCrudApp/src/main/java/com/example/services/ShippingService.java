@@ -7,10 +7,12 @@ import com.example.dto.OrderResponse;
 import com.example.dto.mappers.OrderMapper;
 import com.example.dto.mappers.ShippingMapper;
 import com.example.entities.*;
+import com.example.events.OrderChangedEvent;
 import com.example.security.JwtTokenService;
 import com.example.security.exceptions.UnauthorizedAccessException;
 
 import jakarta.ejb.Stateless;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 
@@ -24,6 +26,7 @@ public class ShippingService {
     @Inject private OrderStatusHistoryDAO orderStatusHistoryDAO;
     @Inject private AuditService auditService;
     @Inject private JwtTokenService jwtTokenService;
+    @Inject private Event<OrderChangedEvent> orderChanged;
 
     // -------------------------
     // SHIP ORDER (Admin only)
@@ -34,6 +37,7 @@ public class ShippingService {
 
         Order order = fetchOrder(orderId);
         validateStatus(order, OrderStatus.PAID, "Only PAID orders can be shipped");
+        orderDAO.deferFlushToCommit();
 
         updateOrderStatus(order, OrderStatus.SHIPPED);
 
@@ -43,9 +47,9 @@ public class ShippingService {
         shipment.setShippedAt(LocalDateTime.now());
         shipment.setTrackingNumber("TRK-" + System.currentTimeMillis());
         shipmentDAO.save(shipment);
-        shipmentDAO.getEntityManager().flush();
 
         logStatusChange(order, OrderStatus.PAID, OrderStatus.SHIPPED);
+        orderChanged.fire(OrderChangedEvent.of(orderId));
 
         auditService.record(
                 jwtTokenService.getUsername(),
@@ -56,7 +60,8 @@ public class ShippingService {
                         carrier, shipment.getTrackingNumber())
         );
 
-        return mapOrderToResponse(order);
+        // built from the shipment in hand, so the three writes above go out together at commit
+        return mapOrderToResponse(order, shipment);
     }
 
     // -------------------------
@@ -71,14 +76,15 @@ public class ShippingService {
 
         Shipment shipment = shipmentDAO.findByOrder(order);
         if (shipment == null) throw new IllegalStateException("Shipment not found");
+        orderDAO.deferFlushToCommit();
 
         updateOrderStatus(order, OrderStatus.DELIVERED);
 
         shipment.setDeliveredAt(LocalDateTime.now());
         shipmentDAO.update(shipment);
-        shipmentDAO.getEntityManager().flush();
 
         logStatusChange(order, OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+        orderChanged.fire(OrderChangedEvent.of(orderId));
 
         auditService.record(
                 jwtTokenService.getUsername(),
@@ -89,14 +95,15 @@ public class ShippingService {
                         shipment.getId(), shipment.getDeliveredAt())
         );
 
-        return mapOrderToResponse(order);
+        return mapOrderToResponse(order, shipment);
     }
 
     // -------------------------
     // PRIVATE HELPERS
     // -------------------------
+    // items and products come with the order, since every response maps them
     private Order fetchOrder(Long orderId) {
-        Order order = orderDAO.findById(Order.class, orderId);
+        Order order = orderDAO.findByIdWithDetails(orderId);
         if (order == null) throw new IllegalArgumentException("Order not found");
         return order;
     }
@@ -108,17 +115,19 @@ public class ShippingService {
     private void updateOrderStatus(Order order, OrderStatus newStatus) {
         order.setStatus(newStatus);
         orderDAO.update(order);
-        orderDAO.getEntityManager().flush();
     }
 
     private void logStatusChange(Order order, OrderStatus from, OrderStatus to) {
         orderStatusHistoryDAO.save(new OrderStatusHistory(order, from, to));
-        orderStatusHistoryDAO.getEntityManager().flush();
     }
 
     private OrderResponse mapOrderToResponse(Order order) {
+        return mapOrderToResponse(order, shipmentDAO.findByOrder(order));
+    }
+
+    private OrderResponse mapOrderToResponse(Order order, Shipment shipment) {
         OrderResponse dto = OrderMapper.toDto(order);
-        dto.setShipment(ShippingMapper.toDto(shipmentDAO.findByOrder(order)));
+        dto.setShipment(ShippingMapper.toDto(shipment));
         return dto;
     }
 
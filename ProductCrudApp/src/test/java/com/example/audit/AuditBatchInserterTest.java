@@ -0,0 +1,32 @@
+package com.example.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AuditBatchInserterTest {
+
+    @Test
+    void testRecordWithoutEntityIdIsBoundAsNull() throws Exception {
+        AuditIdAllocator idAllocator = mock(AuditIdAllocator.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement ps = mock(PreparedStatement.class);
+        when(idAllocator.nextId(connection)).thenReturn(1L, 2L);
+        when(connection.prepareStatement(anyString())).thenReturn(ps);
+
+        new AuditBatchInserter(idAllocator).insert(connection, List.of(
+                new AuditRecord("alice", "LIST_PRODUCTS", "Product", null, "{}", LocalDateTime.now()),
+                new AuditRecord("alice", "VIEW_PRODUCT", "Product", 7L, null, LocalDateTime.now())));
+
+        verify(ps).setNull(5, Types.BIGINT);
+        verify(ps).setLong(5, 7L);
+        verify(ps).executeBatch();
+    }
+}
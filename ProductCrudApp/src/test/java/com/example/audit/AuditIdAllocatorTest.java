@@ -0,0 +1,42 @@
+package com.example.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AuditIdAllocatorTest {
+
+    /** Simulates a sequence with INCREMENT BY blockSize, starting at blockSize */
+    private static class FakeSequenceAllocator extends AuditIdAllocator {
+        private final int blockSize;
+        private long sequence;
+        int nextvalCalls;
+
+        FakeSequenceAllocator(int blockSize) {
+            super(blockSize);
+            this.blockSize = blockSize;
+        }
+
+        @Override
+        protected long fetchNextValue(Connection connection) {
+            nextvalCalls++;
+            sequence += blockSize;
+            return sequence;
+        }
+    }
+
+    @Test
+    void testOneNextvalPerBlock() throws Exception {
+        FakeSequenceAllocator allocator = new FakeSequenceAllocator(50);
+        Connection connection = mock(Connection.class);
+
+        for (long expected = 1; expected <= 120; expected++) {
+            assertEquals(expected, allocator.nextId(connection));
+        }
+
+        assertEquals(3, allocator.nextvalCalls);
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.audit.journal;
+
+import com.example.audit.AuditRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditJournalTest {
+
+    private static final int SEGMENT_BYTES = 1024;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testAppendAndReadBack() throws IOException {
+        try (AuditJournal journal = AuditJournal.open(dir, SEGMENT_BYTES)) {
+            journal.append(record(1L, "{\"qty\":2}"));
+            journal.append(record(2L, null));
+
+            AuditJournal.ReadResult result = journal.read(0, 10);
+
+            assertEquals(2, result.getRecords().size());
+            AuditRecord first = result.getRecords().get(0);
+            assertEquals("customer:7", first.getActor());
+            assertEquals("UPDATE", first.getAction());
+            assertEquals("Order", first.getEntityType());
+            assertEquals(1L, first.getEntityId());
+            assertEquals("{\"qty\":2}", first.getPayload());
+            assertEquals(LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123_456_789), first.getCreatedAt());
+            assertNull(result.getRecords().get(1).getPayload());
+            assertEquals(journal.writeOffset(), result.getNextOffset());
+        }
+    }
+
+    @Test
+    void testRollsOverToNewSegmentWhenFull() throws IOException {
+        try (AuditJournal journal = AuditJournal.open(dir, SEGMENT_BYTES)) {
+            for (long i = 0; i < 50; i++) {
+                journal.append(record(i, "payload-" + i));
+            }
+
+            assertTrue(journal.segmentCount() > 1);
+            List<AuditRecord> records = journal.read(0, 100).getRecords();
+            assertEquals(50, records.size());
+            assertEquals(49L, records.get(49).getEntityId());
+        }
+    }
+
+    @Test
+    void testResumesFromCommittedOffsetAfterReopen() throws IOException {
+        try (AuditJournal journal = AuditJournal.open(dir, SEGMENT_BYTES)) {
+            for (long i = 0; i < 5; i++) {
+                journal.append(record(i, null));
+            }
+            journal.commit(journal.read(0, 3).getNextOffset());
+        }
+
+        try (AuditJournal reopened = AuditJournal.open(dir, SEGMENT_BYTES)) {
+            List<AuditRecord> rest = reopened.read(reopened.committedOffset(), 10).getRecords();
+            assertEquals(List.of(3L, 4L), rest.stream().map(AuditRecord::getEntityId).toList());
+
+            // New appends continue after the recovered tail
+            reopened.append(record(5L, null));
+            assertEquals(3, reopened.read(reopened.committedOffset(), 10).getRecords().size());
+        }
+    }
+
+    @Test
+    void testCommitDeletesFullyConsumedSegments() throws IOException {
+        try (AuditJournal journal = AuditJournal.open(dir, SEGMENT_BYTES)) {
+            for (long i = 0; i < 50; i++) {
+                journal.append(record(i, "payload-" + i));
+            }
+            int before = segmentFiles();
+
+            journal.commit(journal.read(0, 100).getNextOffset());
+
+            assertEquals(1, journal.segmentCount());
+            assertTrue(segmentFiles() < before);
+            assertEquals(0, journal.pendingBytes());
+        }
+    }
+
+    @Test
+    void testCorruptRecordInSealedSegmentIsSkipped() throws IOException {
+        try (AuditJournal journal = AuditJournal.open(dir, SEGMENT_BYTES)) {
+            for (long i = 0; i < 50; i++) {
+                journal.append(record(i, "payload-" + i));
+            }
+        }
+
+        // Flip a payload byte of the very first record (oldest, sealed segment)
+        Path first = dir.resolve(String.format("%020d.seg", 0));
+        try (FileChannel channel = FileChannel.open(first, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            channel.read(b, AuditJournal.HEADER_BYTES);
+            b.flip();
+            b.put(0, (byte) (b.get(0) ^ 0xFF));
+            channel.write(b, AuditJournal.HEADER_BYTES);
+        }
+
+        try (AuditJournal journal = AuditJournal.open(dir, SEGMENT_BYTES)) {
+            List<AuditRecord> records = journal.read(0, 100).getRecords();
+
+            assertEquals(1, journal.corruptRecords());
+            assertFalse(records.isEmpty());
+            assertTrue(records.get(0).getEntityId() > 0); // rest of the damaged segment skipped
+            assertEquals(49L, records.get(records.size() - 1).getEntityId());
+        }
+    }
+
+    @Test
+    void testOversizedRecordIsRejected() throws IOException {
+        try (AuditJournal journal = AuditJournal.open(dir, SEGMENT_BYTES)) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> journal.append(record(1L, "x".repeat(SEGMENT_BYTES))));
+        }
+    }
+
+    // -------------------------
+    // Helpers
+    // -------------------------
+    private static AuditRecord record(Long entityId, String payload) {
+        return new AuditRecord("customer:7", "UPDATE", "Order", entityId, payload,
+                LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123_456_789));
+    }
+
+    private int segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return (int) files.filter(f -> f.toString().endsWith(".seg")).count();
+        }
+    }
+}
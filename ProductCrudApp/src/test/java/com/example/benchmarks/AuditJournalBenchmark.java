@@ -0,0 +1,95 @@
+package com.example.benchmarks;
+
+import com.example.audit.AuditRecord;
+import com.example.audit.journal.AuditJournal;
+import com.example.dao.AuditLogDAO;
+import com.example.entities.AuditLog;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Cost of durably accepting one audit record.
+ *
+ * journalAppend is the spill path: encode + CRC + copy into a memory-mapped segment.
+ * daoSave is what AuditService used to do per record: AuditLogDAO.save in its own
+ * transaction, here against EclipseLink + in-memory H2 (BenchmarkPU), so it is a lower
+ * bound for the real PostgreSQL round trip.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuditJournalBenchmark {
+
+    private static final int SEGMENT_BYTES = 64 * 1024 * 1024;
+
+    private Path directory;
+    private AuditJournal journal;
+
+    private EntityManagerFactory emf;
+    private EntityManager em;
+    private AuditLogDAO auditLogDAO;
+
+    private long sequence;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("audit-journal-bench");
+        journal = AuditJournal.open(directory, SEGMENT_BYTES);
+
+        emf = Persistence.createEntityManagerFactory("BenchmarkPU",
+                Map.of("eclipselink.persistencexml", "META-INF/benchmark-persistence.xml"));
+        em = emf.createEntityManager();
+        EntityManager entityManager = em;
+        auditLogDAO = new AuditLogDAO() {{
+            this.em = entityManager;
+        }};
+    }
+
+    /** Let the journal drop fully consumed segments so the temp dir does not grow without bound */
+    @Setup(Level.Iteration)
+    public void releaseSegments() throws IOException {
+        journal.commit(journal.writeOffset());
+        em.clear();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        journal.close();
+        em.close();
+        emf.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long journalAppend() throws IOException {
+        return journal.append(new AuditRecord("customer:42", "UPDATE", "Order", ++sequence,
+                "{\"status\":\"SHIPPED\"}", LocalDateTime.now()));
+    }
+
+    @Benchmark
+    public AuditLog daoSave() {
+        AuditLog log = new AuditLog("customer:42", "UPDATE", "Order", ++sequence,
+                "{\"status\":\"SHIPPED\"}", LocalDateTime.now());
+        em.getTransaction().begin();
+        auditLogDAO.save(log);
+        em.getTransaction().commit();
+        em.detach(log);
+        return log;
+    }
+}
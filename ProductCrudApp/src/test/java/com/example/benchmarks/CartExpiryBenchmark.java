@@ -0,0 +1,229 @@
+package com.example.benchmarks;
+
+import com.example.carts.CartExpiryWheel;
+import com.example.testsupport.CountingDriver;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database load of cart expiry with 1M active carts (plain JDBC over in-memory H2 through CountingDriver).
+ *
+ * Expiry deadlines are spread evenly over the 2h cart lifetime, so ~139 carts come due per second.
+ * One invocation simulates five minutes of wall-clock time:
+ * <ul>
+ *   <li>polling: the old five-minute sweep, all due carts at once in chunks of {@code chunkSize}
+ *       (SELECT due ids on the (status, expiresAt) index, then UPDATE them);</li>
+ *   <li>wheel: 300 one-second ticks of {@link CartExpiryWheel}, each one UPDATE of the ids that came due.</li>
+ * </ul>
+ * Both use the same guarded UPDATE; audit rows are left out since they are identical for both.
+ * Besides the time per five minutes, each iteration prints statements, rows per statement and
+ * the slowest single tick (the burst the database sees). Polling also leaves carts live for up
+ * to five minutes past expiresAt; the wheel for at most one tick.
+ * The wheel rebuild from the table (what a restart costs) is timed and printed once per iteration.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, batchSize = 4)
+@Measurement(iterations = 3, batchSize = 4)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class CartExpiryBenchmark {
+
+    private static final long SECOND = 1000;
+    private static final long CART_LIFETIME = 2 * 3600 * SECOND;
+    private static final long T0 = 1_700_000_000_000L;
+
+    @Param({"polling", "wheel"})
+    public String strategy;
+
+    @Param({"1000000"})
+    public int carts;
+
+    @Param({"500"})
+    public int chunkSize;
+
+    private Connection connection;
+    private CartExpiryWheel wheel;
+    private long clock;
+
+    // per iteration
+    private long statements;
+    private long expired;
+    private long maxTickNanos;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Class.forName(CountingDriver.class.getName());
+        connection = DriverManager.getConnection(
+                CountingDriver.PREFIX + "h2:mem:cart-expiry-bench;DB_CLOSE_DELAY=-1", "sa", "");
+        connection.setAutoCommit(false);
+
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS cart");
+            ddl.execute("CREATE TABLE cart (id BIGINT PRIMARY KEY, status VARCHAR(20) NOT NULL, " +
+                    "expiresAt TIMESTAMP NOT NULL, updatedAt TIMESTAMP NOT NULL, version BIGINT NOT NULL)");
+            ddl.execute("CREATE INDEX idx_cart_status_expires_at ON cart (status, expiresAt)");
+        }
+
+        Random random = new Random(7);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO cart (id, status, expiresAt, updatedAt, version) VALUES (?, 'NEW', ?, ?, 1)")) {
+            Timestamp created = new Timestamp(T0);
+            for (long id = 1; id <= carts; id++) {
+                insert.setLong(1, id);
+                insert.setTimestamp(2, new Timestamp(T0 + (long) (random.nextDouble() * CART_LIFETIME)));
+                insert.setTimestamp(3, created);
+                insert.addBatch();
+                if (id % 10_000 == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void reset() throws SQLException {
+        try (Statement reset = connection.createStatement()) {
+            reset.executeUpdate("UPDATE cart SET status = 'NEW' WHERE status <> 'NEW'");
+        }
+        connection.commit();
+        clock = T0;
+
+        if (strategy.equals("wheel")) {
+            long start = System.nanoTime();
+            wheel = rebuildWheel();
+            System.out.printf("%n  wheel rebuilt from %d carts in %d ms%n",
+                    wheel.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+
+        CountingDriver.reset();
+        statements = 0;
+        expired = 0;
+        maxTickNanos = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        statements = CountingDriver.roundTrips();
+        System.out.printf("%n  %s: %d carts expired, %d statements (%.1f rows each), slowest tick %.1f ms%n",
+                strategy, expired, statements, (double) expired / Math.max(1, statements), maxTickNanos / 1e6);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long fiveMinutes() throws SQLException {
+        long before = expired;
+        if (strategy.equals("polling")) {
+            clock += 300 * SECOND;
+            tick(this::sweep);
+        } else {
+            for (int second = 0; second < 300; second++) {
+                clock += SECOND;
+                tick(this::flushWheel);
+            }
+        }
+        return expired - before;
+    }
+
+    // -------------------------
+    // Strategies
+    // -------------------------
+    private void sweep() throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id FROM cart WHERE status = 'NEW' AND expiresAt < ? ORDER BY id LIMIT ?")) {
+            List<Long> ids;
+            do {
+                select.setTimestamp(1, new Timestamp(clock));
+                select.setInt(2, chunkSize);
+                ids = new ArrayList<>(chunkSize);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) ids.add(rs.getLong(1));
+                }
+                expire(ids);
+            } while (ids.size() == chunkSize);
+        }
+    }
+
+    private void flushWheel() throws SQLException {
+        List<Long> due;
+        while (!(due = wheel.pollDue(clock, chunkSize)).isEmpty()) {
+            expire(due);
+        }
+    }
+
+    // Same guard as CartDAO.expireByIds (H2 has no UPDATE ... RETURNING, so the count stands in for the ids)
+    private void expire(List<Long> ids) throws SQLException {
+        if (ids.isEmpty()) return;
+
+        StringBuilder sql = new StringBuilder(
+                "UPDATE cart SET status = 'EXPIRED', updatedAt = ?, version = version + 1 " +
+                "WHERE status = 'NEW' AND expiresAt <= ? AND id IN (");
+        for (int i = 0; i < ids.size(); i++) sql.append(i == 0 ? "?" : ", ?");
+        sql.append(")");
+
+        try (PreparedStatement update = connection.prepareStatement(sql.toString())) {
+            update.setTimestamp(1, new Timestamp(clock));
+            update.setTimestamp(2, new Timestamp(clock));
+            int position = 3;
+            for (Long id : ids) update.setLong(position++, id);
+            expired += update.executeUpdate();
+        }
+        connection.commit();
+    }
+
+    // -------------------------
+    // Helpers
+    // -------------------------
+    // Same paging as CartDAO.findActiveExpiries / CartExpiryScheduler.rebuild
+    private CartExpiryWheel rebuildWheel() throws SQLException {
+        CartExpiryWheel rebuilt = new CartExpiryWheel(SECOND, clock);
+        try (PreparedStatement page = connection.prepareStatement(
+                "SELECT id, expiresAt FROM cart WHERE status = 'NEW' AND expiresAt >= ? " +
+                "ORDER BY status, expiresAt LIMIT 10000")) {
+            Timestamp cursor = new Timestamp(0);
+            int rows;
+            do {
+                rows = 0;
+                page.setTimestamp(1, cursor);
+                try (ResultSet rs = page.executeQuery()) {
+                    while (rs.next()) {
+                        cursor = rs.getTimestamp(2);
+                        rebuilt.schedule(rs.getLong(1), cursor.getTime());
+                        rows++;
+                    }
+                }
+            } while (rows == 10_000);
+        }
+        connection.commit();
+        return rebuilt;
+    }
+
+    private void tick(SqlAction action) throws SQLException {
+        long start = System.nanoTime();
+        action.run();
+        maxTickNanos = Math.max(maxTickNanos, System.nanoTime() - start);
+    }
+
+    @FunctionalInterface
+    private interface SqlAction {
+        void run() throws SQLException;
+    }
+}
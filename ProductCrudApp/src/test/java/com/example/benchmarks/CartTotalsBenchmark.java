@@ -0,0 +1,49 @@
+package com.example.benchmarks;
+
+import com.example.entities.Cart;
+import com.example.entities.CartItem;
+import com.example.services.CartService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CartService.getTotal / getTotalWithVAT, recomputed from the lines on every cart view and at checkout.
+ * Prices have cents so the BigDecimal arithmetic is not all small-integer fast paths.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CartTotalsBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int lines;
+
+    private final CartService cartService = new CartService();
+    private Cart cart;
+
+    @Setup
+    public void setUp() {
+        cart = new Cart();
+        for (int i = 0; i < lines; i++) {
+            CartItem item = new CartItem(MapperBenchmark.product(i), 1 + i % 5);
+            item.getProduct().setPrice(new BigDecimal("9.99").add(BigDecimal.valueOf(i, 2)));
+            item.setCart(cart);
+            cart.getItems().add(item);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal total() {
+        return cartService.getTotal(cart);
+    }
+
+    @Benchmark
+    public BigDecimal totalWithVAT() {
+        return cartService.getTotalWithVAT(cart);
+    }
+}
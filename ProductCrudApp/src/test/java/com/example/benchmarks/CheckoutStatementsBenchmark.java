@@ -0,0 +1,221 @@
+package com.example.benchmarks;
+
+import com.example.dao.CartDAO;
+import com.example.dao.OrderDAO;
+import com.example.dao.OrderStatusHistoryDAO;
+import com.example.dao.ProductDAO;
+import com.example.entities.*;
+import com.example.testsupport.CountingDriver;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database round trips per checkout (CountingDriver over in-memory H2, BenchmarkPU).
+ *
+ * unitOfWork=false is the old write path: flush after every mutation, stock read-check-write
+ * per product, no JDBC batching. unitOfWork=true is the current one: stock taken with one
+ * conditional UPDATE batch, a single early flush for the order's IDENTITY id, the rest written
+ * at commit in JDBC batches. Compare the "roundTrips" and "batchedStatements" counters
+ * (totals over the iteration, not rates) against "checkouts"; the per-checkout figure is also
+ * printed at the end of each iteration.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CheckoutStatementsBenchmark {
+
+    @Param({"false", "true"})
+    public boolean unitOfWork;
+
+    @Param({"5"})
+    public int lines;
+
+    private EntityManagerFactory emf;
+    private Long customerId;
+    private final List<Long> productIds = new ArrayList<>();
+    private Long cartId;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long checkouts;
+        public long roundTrips;
+        public long batchedStatements;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            checkouts = 0;
+            roundTrips = 0;
+            batchedStatements = 0;
+        }
+
+        @TearDown(Level.Iteration)
+        public void report() {
+            if (checkouts > 0) {
+                System.out.printf("%n  round trips per checkout: %.1f (statements inside batches: %.1f)%n",
+                        (double) roundTrips / checkouts, (double) batchedStatements / checkouts);
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws ClassNotFoundException {
+        Class.forName(CountingDriver.class.getName());
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("eclipselink.persistencexml", "META-INF/benchmark-persistence.xml");
+        properties.put("jakarta.persistence.jdbc.driver", CountingDriver.class.getName());
+        properties.put("jakarta.persistence.jdbc.url",
+                CountingDriver.PREFIX + "h2:mem:checkout-" + unitOfWork + ";MODE=LEGACY;DB_CLOSE_DELAY=-1");
+        properties.put("eclipselink.jdbc.batch-writing", unitOfWork ? "JDBC" : "None");
+        properties.put("eclipselink.jdbc.batch-writing.size", "50");
+        emf = Persistence.createEntityManagerFactory("BenchmarkPU", properties);
+
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        Customer customer = new Customer("Bench", "Mark", "bench-" + unitOfWork + "@example.com", "0123456789");
+        em.persist(customer);
+        for (int i = 0; i < lines; i++) {
+            Product product = new Product("Product " + i, "Benchmark product", new BigDecimal("10.00"),
+                    "BENCH-" + unitOfWork + "-" + i, Integer.MAX_VALUE);
+            em.persist(product);
+        }
+        em.getTransaction().commit();
+        customerId = customer.getId();
+        em.createQuery("SELECT p.id FROM Product p ORDER BY p.id", Long.class).getResultList().forEach(productIds::add);
+        em.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        emf.close();
+    }
+
+    /** A fresh cart per checkout, created outside the measured call */
+    @Setup(Level.Invocation)
+    public void createCart() {
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        Cart cart = new Cart();
+        cart.setCustomer(em.find(Customer.class, customerId));
+        cart.setStatus(CartStatus.NEW);
+        for (Long productId : productIds) {
+            CartItem item = new CartItem(em.find(Product.class, productId), 1);
+            item.setCart(cart);
+            cart.getItems().add(item);
+        }
+        em.persist(cart);
+        em.getTransaction().commit();
+        em.close();
+        cartId = cart.getId();
+    }
+
+    @Benchmark
+    public Long checkout(Counters counters) {
+        long roundTrips = CountingDriver.roundTrips();
+        long batched = CountingDriver.batchedStatements();
+
+        Long orderId = unitOfWork ? checkoutUnitOfWork() : checkoutFlushEach();
+
+        counters.checkouts++;
+        counters.roundTrips += CountingDriver.roundTrips() - roundTrips;
+        counters.batchedStatements += CountingDriver.batchedStatements() - batched;
+        return orderId;
+    }
+
+    // -------------------------
+    // Write paths
+    // -------------------------
+    private Long checkoutFlushEach() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            Cart cart = em.find(Cart.class, cartId);
+            Order order = newOrder(cart);
+            for (CartItem ci : cart.getItems()) {
+                Product product = em.find(Product.class, ci.getProduct().getId());
+                if (product.getStock() < ci.getQuantity()) throw new IllegalStateException("out of stock");
+                product.setStock(product.getStock() - ci.getQuantity());
+                em.merge(product);
+                em.flush();
+                order.addItem(newItem(order, product, ci.getQuantity()));
+            }
+            em.persist(order);
+            em.flush();
+            em.persist(new OrderStatusHistory(order, null, OrderStatus.NEW));
+            em.flush();
+            cart.setStatus(CartStatus.CHECKED_OUT);
+            em.merge(cart);
+            em.flush();
+            em.getTransaction().commit();
+            return order.getId();
+        } finally {
+            em.close();
+        }
+    }
+
+    private Long checkoutUnitOfWork() {
+        EntityManager entityManager = emf.createEntityManager();
+        ProductDAO productDAO = new ProductDAO() {{ this.em = entityManager; }};
+        OrderDAO orderDAO = new OrderDAO() {{ this.em = entityManager; }};
+        OrderStatusHistoryDAO historyDAO = new OrderStatusHistoryDAO() {{ this.em = entityManager; }};
+        CartDAO cartDAO = new CartDAO() {{ this.em = entityManager; }};
+        try {
+            entityManager.getTransaction().begin();
+            Cart cart = cartDAO.findById(Cart.class, cartId);
+            Order order = newOrder(cart);
+            SortedMap<Long, Integer> quantities = new TreeMap<>();
+            for (CartItem ci : cart.getItems()) {
+                Product product = productDAO.findById(Product.class, ci.getProduct().getId());
+                quantities.merge(product.getId(), ci.getQuantity(), Integer::sum);
+                order.addItem(newItem(order, product, ci.getQuantity()));
+            }
+            if (!productDAO.decrementStock(quantities).isEmpty()) throw new IllegalStateException("out of stock");
+
+            orderDAO.deferFlushToCommit();
+            orderDAO.saveForId(order);
+            historyDAO.save(new OrderStatusHistory(order, null, OrderStatus.NEW));
+            cart.setStatus(CartStatus.CHECKED_OUT);
+            cartDAO.update(cart);
+            entityManager.getTransaction().commit();
+            return order.getId();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private static Order newOrder(Cart cart) {
+        Order order = new Order();
+        order.setCart(cart);
+        order.setCustomer(cart.getCustomer());
+        order.setStatus(OrderStatus.NEW);
+        order.setOrderDate(LocalDateTime.now());
+        order.setSubtotal(BigDecimal.ZERO);
+        order.setVatTotal(BigDecimal.ZERO);
+        order.setTotal(BigDecimal.ZERO);
+        return order;
+    }
+
+    private static OrderItem newItem(Order order, Product product, int quantity) {
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        item.setUnitPrice(product.getPrice());
+        item.setOrder(order);
+        return item;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.benchmarks;
+
+import com.example.security.PrincipalSnapshot;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of answering the identity questions a single CartService.addProduct call asks
+ * (isAdmin, hasRole(ROLE_SUPER), isCustomer, getCurrentUserId, getUsername).
+ *
+ * perCallParsing mirrors the old JwtTokenService, which parsed the header on every call.
+ * snapshotBuiltOnce parses once and answers everything from a PrincipalSnapshot.
+ * snapshotReads is the per-request cost once JwtAuthMechanism has already built the snapshot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtPrincipalBenchmark {
+
+    private String authHeader;
+    private PrincipalSnapshot snapshot;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("42")
+                .claim("userId", 42L)
+                .claim("upn", "alice")
+                .claim("groups", List.of("ROLE_CUSTOMER"))
+                .issuer("http://localhost:8080/issuer")
+                .audience("myapp")
+                .expirationTime(new Date(System.currentTimeMillis() + 3600_000))
+                .issueTime(new Date())
+                .build();
+
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).build(), claims);
+        jwt.sign(new RSASSASigner(keyPair.getPrivate()));
+
+        authHeader = "Bearer " + jwt.serialize();
+        snapshot = PrincipalSnapshot.fromClaims(SignedJWT.parse(authHeader.substring(7)).getJWTClaimsSet());
+    }
+
+    @Benchmark
+    public void perCallParsing(Blackhole bh) throws Exception {
+        bh.consume(legacyRoles().contains("ROLE_ADMIN"));
+        bh.consume(legacyRoles().contains("ROLE_SUPER"));
+        bh.consume(legacyRoles().contains("ROLE_CUSTOMER"));
+        bh.consume(legacyUserId());
+        bh.consume(legacyUsername());
+    }
+
+    @Benchmark
+    public void snapshotBuiltOnce(Blackhole bh) throws Exception {
+        PrincipalSnapshot principal =
+                PrincipalSnapshot.fromClaims(SignedJWT.parse(authHeader.substring(7)).getJWTClaimsSet());
+        answer(principal, bh);
+    }
+
+    @Benchmark
+    public void snapshotReads(Blackhole bh) {
+        answer(snapshot, bh);
+    }
+
+    private static void answer(PrincipalSnapshot principal, Blackhole bh) {
+        bh.consume(principal.isAdmin());
+        bh.consume(principal.hasRole("ROLE_SUPER"));
+        bh.consume(principal.isCustomer());
+        bh.consume(principal.getUserId());
+        bh.consume(principal.getUsername());
+    }
+
+    // -------------------------
+    // Old JwtTokenService behaviour: one parse per question
+    // -------------------------
+    private List<?> legacyRoles() throws Exception {
+        Object claim = SignedJWT.parse(authHeader.substring(7)).getJWTClaimsSet().getClaim("groups");
+        return (claim instanceof List<?> list) ? list : List.of();
+    }
+
+    private Long legacyUserId() throws Exception {
+        Object userId = SignedJWT.parse(authHeader.substring(7)).getJWTClaimsSet().getClaim("userId");
+        return Long.valueOf(userId.toString());
+    }
+
+    private String legacyUsername() throws Exception {
+        Object upn = SignedJWT.parse(authHeader.substring(7)).getJWTClaimsSet().getClaim("upn");
+        return upn.toString();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.benchmarks;
+
+import com.example.security.JwtTokenService;
+import com.example.security.PrincipalSnapshot;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import jakarta.servlet.http.HttpServletRequest;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtTokenService role checks as services make them, against a stub request.
+ * <ul>
+ *   <li>roleChecks: isAdmin, hasRole(ROLE_SUPER), isCustomer on a service that has already
+ *       resolved its principal - the cost of every check after the first in a request;</li>
+ *   <li>firstRequestChecks: the same checks on a fresh (request-scoped) instance that picks up the
+ *       snapshot JwtAuthMechanism left on the request;</li>
+ *   <li>headerFallback: a fresh instance whose request has only the Authorization header, so the
+ *       token is parsed once (not verified - that is JwtVerificationBenchmark).</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtRoleCheckBenchmark {
+
+    private static final Field REQUEST_FIELD;
+
+    static {
+        try {
+            REQUEST_FIELD = JwtTokenService.class.getDeclaredField("request");
+            REQUEST_FIELD.setAccessible(true);
+        } catch (NoSuchFieldException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private HttpServletRequest authenticatedRequest;
+    private HttpServletRequest headerOnlyRequest;
+    private JwtTokenService resolved;
+
+    @Setup
+    public void setUp() throws Exception {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("42")
+                .claim("userId", 42L)
+                .claim("upn", "alice")
+                .claim("groups", List.of(PrincipalSnapshot.ROLE_CUSTOMER))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.HS256).build(), claims);
+        jwt.sign(new MACSigner(new byte[32]));
+
+        authenticatedRequest = request(PrincipalSnapshot.fromClaims(claims), null);
+        headerOnlyRequest = request(null, "Bearer " + jwt.serialize());
+
+        resolved = service(authenticatedRequest);
+        resolved.getPrincipal();
+    }
+
+    @Benchmark
+    public void roleChecks(Blackhole bh) {
+        checks(resolved, bh);
+    }
+
+    @Benchmark
+    public void firstRequestChecks(Blackhole bh) throws IllegalAccessException {
+        checks(service(authenticatedRequest), bh);
+    }
+
+    @Benchmark
+    public void headerFallback(Blackhole bh) throws IllegalAccessException {
+        checks(service(headerOnlyRequest), bh);
+    }
+
+    private static void checks(JwtTokenService tokens, Blackhole bh) {
+        bh.consume(tokens.isAdmin());
+        bh.consume(tokens.hasRole(PrincipalSnapshot.ROLE_SUPER));
+        bh.consume(tokens.isCustomer());
+    }
+
+    private static JwtTokenService service(HttpServletRequest request) throws IllegalAccessException {
+        JwtTokenService tokens = new JwtTokenService();
+        REQUEST_FIELD.set(tokens, request);
+        return tokens;
+    }
+
+    /** Only the two calls JwtTokenService makes are answered */
+    private static HttpServletRequest request(PrincipalSnapshot snapshot, String authorization) {
+        return (HttpServletRequest) Proxy.newProxyInstance(
+                HttpServletRequest.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getAttribute" -> PrincipalSnapshot.REQUEST_ATTRIBUTE.equals(args[0]) ? snapshot : null;
+                    case "getHeader" -> "Authorization".equalsIgnoreCase((String) args[0]) ? authorization : null;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.benchmarks;
+
+import com.example.security.PrincipalSnapshot;
+import com.example.security.VerifiedToken;
+import com.example.security.VerifiedTokenCache;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU spent authenticating one request carrying a bearer token.
+ *
+ * fullVerification is what JwtAuthMechanism did for every request: build a verifier,
+ * parse and RS256-verify the token. cachedVerification is the path for a token that
+ * was already verified: SHA-256 digest plus a VerifiedTokenCache lookup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+
+    private RSAPublicKey publicKey;
+    private String token;
+    private VerifiedTokenCache cache;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        publicKey = (RSAPublicKey) keyPair.getPublic();
+
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("42")
+                .claim("userId", 42L)
+                .claim("upn", "alice")
+                .claim("groups", List.of("ROLE_CUSTOMER"))
+                .issuer("http://localhost:8080/issuer")
+                .audience("myapp")
+                .expirationTime(new Date(System.currentTimeMillis() + 3600_000))
+                .issueTime(new Date())
+                .build();
+
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).build(), claims);
+        jwt.sign(new RSASSASigner(keyPair.getPrivate()));
+        token = jwt.serialize();
+
+        cache = new VerifiedTokenCache(10_000);
+        cache.put(token, new VerifiedToken(PrincipalSnapshot.fromClaims(claims), "alice",
+                Set.of("ROLE_CUSTOMER"), claims.getExpirationTime().getTime()));
+    }
+
+    @Benchmark
+    public JWTClaimsSet fullVerification() throws Exception {
+        SignedJWT jwt = SignedJWT.parse(token);
+        JWSVerifier verifier = new RSASSAVerifier(publicKey);
+        if (!jwt.verify(verifier)) throw new IllegalStateException("signature check failed");
+        return jwt.getJWTClaimsSet();
+    }
+
+    @Benchmark
+    public VerifiedToken cachedVerification() {
+        VerifiedToken verified = cache.get(token);
+        if (verified == null) throw new IllegalStateException("expected a cache hit");
+        return verified;
+    }
+}
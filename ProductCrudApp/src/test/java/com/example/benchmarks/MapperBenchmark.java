@@ -0,0 +1,88 @@
+package com.example.benchmarks;
+
+import com.example.dto.OrderResponse;
+import com.example.dto.ProductResponse;
+import com.example.dto.mappers.OrderMapper;
+import com.example.entities.AddressSnapshot;
+import com.example.entities.Customer;
+import com.example.entities.Order;
+import com.example.entities.OrderItem;
+import com.example.entities.OrderStatus;
+import com.example.entities.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping done on every order and product response, on detached entities
+ * (no persistence context involved):
+ * <ul>
+ *   <li>orderToDto: OrderMapper.toDto of an order with {@code items} lines and a shipping address;</li>
+ *   <li>productFromEntity: ProductResponse.fromEntity of one product.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private final Product product = product(0);
+
+    /** The order is its own state so that only orderToDto is parameterized by its size */
+    @State(Scope.Benchmark)
+    public static class OrderState {
+
+        @Param({"1", "10", "50"})
+        public int items;
+
+        private Order order;
+
+        @Setup
+        public void setUp() {
+            Customer customer = new Customer("Bench", "Mark", "mapper@example.com", "0123456789");
+            customer.setId(1L);
+
+            AddressSnapshot shipping = new AddressSnapshot();
+            shipping.setLine1("1 Main St");
+            shipping.setCity("Maseru");
+            shipping.setPostalCode("100");
+            shipping.setCountry("LS");
+
+            order = new Order();
+            order.setId(1L);
+            order.setStatus(OrderStatus.NEW);
+            order.setOrderDate(LocalDateTime.now());
+            order.setCustomer(customer);
+            order.setShippingAddress(shipping);
+            BigDecimal total = BigDecimal.ZERO;
+            for (int i = 0; i < items; i++) {
+                Product line = product(i);
+                order.getItems().add(new OrderItem(order, line, 2, line.getPrice()));
+                total = total.add(line.getPrice().multiply(BigDecimal.valueOf(2)));
+            }
+            order.setTotal(total);
+        }
+    }
+
+    @Benchmark
+    public OrderResponse orderToDto(OrderState state) {
+        return OrderMapper.toDto(state.order);
+    }
+
+    @Benchmark
+    public ProductResponse productFromEntity() {
+        return ProductResponse.fromEntity(product);
+    }
+
+    static Product product(int i) {
+        Product product = new Product("Product " + i, "Benchmark product " + i,
+                new BigDecimal("19.99"), "BENCH-" + i, 100);
+        product.setId((long) i + 1);
+        return product;
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.benchmarks;
+
+import com.example.catalog.CatalogRow;
+import com.example.catalog.ProductCatalog;
+import com.example.dao.ProductDAO;
+import com.example.search.TrigramIndexInstaller;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The first page (20 ids) and the total of GET /api/products with listing filters, on PostgreSQL
+ * (the statements ProductDAO.findProductIds and countProducts run) and from the in-memory catalog:
+ * <ul>
+ *   <li>sql: both statements, idx_products_created_at_id and the name trigram index in place;</li>
+ *   <li>memory: ProductCatalog.select with the default parallel threshold (parallel count at 1M);</li>
+ *   <li>memorySequential: the same on the calling thread only.</li>
+ * </ul>
+ * Filters: none; price (10-15, about 1% of the catalog); priceInStock (the same, stock > 0);
+ * name ("lamp", about 1/64 of the names).
+ * Needs a PostgreSQL with pg_trgm available: -Dcatalog.jdbc.url (default
+ * jdbc:postgresql://localhost:5432/userdb), -Dcatalog.jdbc.user, -Dcatalog.jdbc.password.
+ * Products are generated once into schema catalog_bench_{products} and reused by later runs;
+ * the snapshot is loaded from the same table through ProductCatalog.rebuild.
+ * Not in the default benchmarks include; run with -Djmh.include=ProductCatalogBenchmark.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@State(Scope.Thread)
+public class ProductCatalogBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"100000", "1000000"})
+    public int products;
+
+    @Param({"none", "price", "priceInStock", "name"})
+    public String filter;
+
+    private Connection connection;
+    private ProductCatalog catalog;
+    private ProductCatalog sequentialCatalog;
+
+    private String nameFilter;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Boolean inStock;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("catalog.jdbc.url", "jdbc:postgresql://localhost:5432/userdb"),
+                System.getProperty("catalog.jdbc.user", "postgres"),
+                System.getProperty("catalog.jdbc.password", ""));
+
+        String schema = "catalog_bench_" + products;
+        try (Statement st = connection.createStatement()) {
+            // before search_path points at the benchmark schema, so the extension lands in public
+            st.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            st.execute("CREATE SCHEMA IF NOT EXISTS " + schema);
+            st.execute("SET search_path TO " + schema + ", public");
+            st.execute("CREATE TABLE IF NOT EXISTS products (id BIGSERIAL PRIMARY KEY, name VARCHAR(255) NOT NULL,"
+                    + " price NUMERIC(10, 2) NOT NULL, stock INT NOT NULL, createdat TIMESTAMP NOT NULL)");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_products_created_at_id ON products (createdat DESC, id DESC)");
+            if (rowCount(st) != products) {
+                seed(st);
+            }
+            // what TrigramIndexInstaller runs at application startup
+            st.execute(TrigramIndexInstaller.CREATE_EXTENSION_SQL);
+            st.execute(TrigramIndexInstaller.CREATE_INDEX_SQL);
+            st.execute("ANALYZE products");
+        }
+
+        switch (filter) {
+            case "price" -> { minPrice = new BigDecimal("10"); maxPrice = new BigDecimal("15"); }
+            case "priceInStock" -> { minPrice = new BigDecimal("10"); maxPrice = new BigDecimal("15"); inStock = true; }
+            case "name" -> nameFilter = "lamp";
+            default -> { }
+        }
+
+        ProductDAO jdbcDAO = new ProductDAO() {
+            @Override
+            public List<CatalogRow> findCatalogRowsAfter(long afterId, int limit) {
+                return catalogRows(afterId, limit);
+            }
+        };
+        catalog = new ProductCatalog(jdbcDAO, 10_000, 250_000);
+        catalog.rebuild();
+        sequentialCatalog = new ProductCatalog(jdbcDAO, 10_000, Integer.MAX_VALUE);
+        sequentialCatalog.rebuild();
+        System.out.printf("%n  snapshot of %d products: %.1f MB of columns%n",
+                catalog.stats().getProducts(), catalog.stats().getEstimatedBytes() / 1e6);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void sql(Blackhole blackhole) throws SQLException {
+        String where = where();
+        try (PreparedStatement page = connection.prepareStatement(
+                "SELECT p.id FROM products p" + where + " ORDER BY p.createdat DESC, p.id DESC LIMIT ?");
+             PreparedStatement count = connection.prepareStatement("SELECT COUNT(p.id) FROM products p" + where)) {
+            page.setInt(bind(page), PAGE_SIZE);
+            blackhole.consume(ids(page));
+            bind(count);
+            blackhole.consume(ids(count));
+        }
+    }
+
+    @Benchmark
+    public Object memory() {
+        return catalog.select(nameFilter, minPrice, maxPrice, inStock, null, 0, PAGE_SIZE, true);
+    }
+
+    @Benchmark
+    public Object memorySequential() {
+        return sequentialCatalog.select(nameFilter, minPrice, maxPrice, inStock, null, 0, PAGE_SIZE, true);
+    }
+
+    /** ProductDAO.appendFilters, in SQL */
+    private String where() {
+        StringBuilder where = new StringBuilder(" WHERE 1=1");
+        if (nameFilter != null) where.append(" AND LOWER(p.name) LIKE ?");
+        if (minPrice != null) where.append(" AND p.price >= ?");
+        if (maxPrice != null) where.append(" AND p.price <= ?");
+        if (Boolean.TRUE.equals(inStock)) where.append(" AND p.stock > 0");
+        return where.toString();
+    }
+
+    /** Binds the filter values; returns the next parameter index */
+    private int bind(PreparedStatement ps) throws SQLException {
+        int index = 1;
+        if (nameFilter != null) ps.setString(index++, "%" + nameFilter + "%");
+        if (minPrice != null) ps.setBigDecimal(index++, minPrice);
+        if (maxPrice != null) ps.setBigDecimal(index++, maxPrice);
+        return index;
+    }
+
+    private static List<Long> ids(PreparedStatement ps) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    // -------------------------
+    // Catalog
+    // -------------------------
+    private List<CatalogRow> catalogRows(long afterId, int limit) {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT id, name, price, stock, createdat FROM products WHERE id > ? ORDER BY id LIMIT ?")) {
+            ps.setLong(1, afterId);
+            ps.setInt(2, limit);
+            List<CatalogRow> rows = new ArrayList<>(limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new CatalogRow(rs.getLong(1), rs.getString(2), rs.getBigDecimal(3), rs.getInt(4),
+                            rs.getTimestamp(5).toLocalDateTime()));
+                }
+            }
+            return rows;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long rowCount(Statement st) throws SQLException {
+        try (ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM products")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /** Names like "Portable Lamp 1234", prices 1.00-500.99, every 40th product sold out */
+    private void seed(Statement st) throws SQLException {
+        st.execute("TRUNCATE products");
+        st.execute("INSERT INTO products (name, price, stock, createdat)"
+                + " SELECT initcap(w.adjective[1 + i % 8]) || ' ' || initcap(w.noun[1 + (i / 8) % 64]) || ' ' || i,"
+                + "    1 + (i::bigint * 7919 % 500) + (i % 100) / 100.0, i % 40, TIMESTAMP '2024-01-01' + i * INTERVAL '1 second'"
+                + " FROM generate_series(1, " + products + ") i, (SELECT"
+                + "    ARRAY['wireless','compact','portable','ergonomic','smart','classic','digital','rugged'] AS adjective,"
+                + "    ARRAY['laptop','mouse','keyboard','lamp','monitor','speaker','charger','headset','camera',"
+                + "          'router','tablet','printer','stand','cable','desk','chair','backpack','bottle','kettle',"
+                + "          'blender','toaster','heater','fan','drill','hammer','wrench','ladder','tent','lantern',"
+                + "          'jacket','boots','gloves','watch','wallet','umbrella','pillow','blanket','mirror','clock',"
+                + "          'shelf','sofa','rug','curtain','vase','candle','frame','notebook','pen','stapler','scanner',"
+                + "          'projector','microphone','tripod','drone','scooter','helmet','bicycle','skateboard',"
+                + "          'guitar','piano','violin','drum','easel','telescope'] AS noun) w");
+    }
+}
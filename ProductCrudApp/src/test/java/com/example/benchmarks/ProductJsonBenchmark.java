@@ -0,0 +1,88 @@
+package com.example.benchmarks;
+
+import com.example.cache.ProductCache;
+import com.example.cache.ProductJsonCache;
+import com.example.dto.APIResponse;
+import com.example.dto.ProductResponse;
+import com.example.rest.JsonBytesWriter;
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The body of GET /api/products/{id} once the product is cached, written into a reused buffer
+ * (the container's output stream):
+ * <ul>
+ *   <li>jsonb: the snapshot from ProductCache, wrapped in a new APIResponse and serialized by JSON-B,
+ *       as the JAX-RS provider does it;</li>
+ *   <li>cachedBytes: the UTF-8 body from ProductJsonCache, copied out by JsonBytesWriter.</li>
+ * </ul>
+ * Requests cycle over {@code products} ids, all cached. Run with -prof gc for the allocation per request.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProductJsonBenchmark {
+
+    @Param({"1000"})
+    public int products;
+
+    private Jsonb jsonb;
+    private ProductCache productCache;
+    private ProductJsonCache productJsonCache;
+    private final JsonBytesWriter writer = new JsonBytesWriter();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(4 * 1024);
+    private long next;
+
+    @Setup
+    public void setUp() {
+        jsonb = JsonbBuilder.create();
+        productCache = new ProductCache(products, 600);
+        productJsonCache = new ProductJsonCache(products, 600);
+        for (long id = 1; id <= products; id++) {
+            productCache.get(id, ProductJsonBenchmark::load);
+            productJsonCache.get(id, key -> new APIResponse<>(true, "Product retrieved successfully", load(key)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        jsonb.close();
+    }
+
+    private static ProductResponse load(Long id) {
+        ProductResponse product = ProductResponse.fromEntity(MapperBenchmark.product((int) (id - 1)));
+        product.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(id));
+        product.setUpdatedAt(product.getCreatedAt());
+        return product;
+    }
+
+    private Long nextId() {
+        next = (next % products) + 1;
+        return next;
+    }
+
+    @Benchmark
+    public int jsonb() {
+        ProductResponse product = productCache.get(nextId(), ProductJsonBenchmark::load);
+        out.reset();
+        jsonb.toJson(new APIResponse<>(true, "Product retrieved successfully", product), out);
+        return out.size();
+    }
+
+    @Benchmark
+    public int cachedBytes() throws IOException {
+        ProductJsonCache.Entry entry = productJsonCache.get(nextId(), key -> null);
+        out.reset();
+        writer.writeTo(entry.body(), null, null, null, null, null, out);
+        return out.size();
+    }
+}
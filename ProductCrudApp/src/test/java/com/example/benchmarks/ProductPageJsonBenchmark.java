@@ -0,0 +1,69 @@
+package com.example.benchmarks;
+
+import com.example.dto.APIResponse;
+import com.example.dto.PaginatedResponse;
+import com.example.dto.ProductResponse;
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON-B serialization of a product listing response, APIResponse&lt;PaginatedResponse&lt;ProductResponse&gt;&gt;,
+ * with Yasson (the implementation GlassFish ships) and one shared Jsonb instance, as the JAX-RS
+ * provider keeps it.
+ * <ul>
+ *   <li>toJsonString: the whole page as a String;</li>
+ *   <li>toJsonStream: into a reused byte stream, closer to what the container writes.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductPageJsonBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private Jsonb jsonb;
+    private APIResponse<PaginatedResponse<ProductResponse>> response;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+
+    @Setup
+    public void setUp() {
+        jsonb = JsonbBuilder.create();
+        List<ProductResponse> items = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            ProductResponse product = ProductResponse.fromEntity(MapperBenchmark.product(i));
+            product.setCreatedAt(LocalDateTime.now());
+            items.add(product);
+        }
+        response = new APIResponse<>(true, "Products retrieved",
+                new PaginatedResponse<>(items, 1_000, 1, pageSize));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        jsonb.close();
+    }
+
+    @Benchmark
+    public String toJsonString() {
+        return jsonb.toJson(response);
+    }
+
+    @Benchmark
+    public int toJsonStream() {
+        out.reset();
+        jsonb.toJson(response, out);
+        return out.size();
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.benchmarks;
+
+import com.example.search.ProductSearchQuery;
+import com.example.search.TrigramIndexInstaller;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page (20 ids) plus the total, as GET /api/products does, for a catalog search on PostgreSQL:
+ * <ul>
+ *   <li>likeSeqScan: the name filter before the trigram index - LOWER(name) LIKE '%terms%' with
+ *       bitmap scans disabled, which is the only way a GIN index can be used;</li>
+ *   <li>likeTrigramIndex: the same name filter served by idx_products_name_trgm;</li>
+ *   <li>rankedSearch: ProductSearchQuery (?q=) with the default settings.</li>
+ * </ul>
+ * Each noun is in about 1/64 of the names and each adjective in 1/24, so "lamp" ranks every match
+ * while "wirel" hits the candidate limit; "labtop" only matches through similarity.
+ * Needs a PostgreSQL with the pg_trgm extension available: -Dsearch.jdbc.url (default
+ * jdbc:postgresql://localhost:5432/userdb), -Dsearch.jdbc.user, -Dsearch.jdbc.password.
+ * Products are generated once into schema search_bench_{products} and reused by later runs.
+ * Not in the default benchmarks include; run with -Djmh.include=ProductSearchBenchmark.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ProductSearchBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final String LIKE_PAGE_SQL =
+            "SELECT p.id FROM products p WHERE LOWER(p.name) LIKE ? ORDER BY p.createdat DESC, p.id DESC LIMIT ?";
+    private static final String LIKE_COUNT_SQL = "SELECT COUNT(*) FROM products p WHERE LOWER(p.name) LIKE ?";
+
+    @Param({"1000000"})
+    public int products;
+
+    // a whole word, a word prefix, a typo
+    @Param({"lamp", "wirel", "labtop"})
+    public String terms;
+
+    private final ProductSearchQuery searchQuery = new ProductSearchQuery(0.4, 2000);
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("search.jdbc.url", "jdbc:postgresql://localhost:5432/userdb"),
+                System.getProperty("search.jdbc.user", "postgres"),
+                System.getProperty("search.jdbc.password", ""));
+
+        String schema = "search_bench_" + products;
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE SCHEMA IF NOT EXISTS " + schema);
+            st.execute("SET search_path TO " + schema + ", public");
+            st.execute("CREATE TABLE IF NOT EXISTS products (id BIGSERIAL PRIMARY KEY, name VARCHAR(255) NOT NULL,"
+                    + " description VARCHAR(255) NOT NULL, price NUMERIC(10, 2) NOT NULL, stock INT NOT NULL,"
+                    + " createdat TIMESTAMP NOT NULL)");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_products_created_at_id ON products (createdat DESC, id DESC)");
+            if (rowCount(st) != products) {
+                seed(st);
+            }
+            // what TrigramIndexInstaller runs at application startup
+            st.execute(TrigramIndexInstaller.CREATE_EXTENSION_SQL);
+            st.execute(TrigramIndexInstaller.CREATE_INDEX_SQL);
+            st.execute("ANALYZE products");
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void likeSeqScan(Blackhole blackhole) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("SET LOCAL enable_bitmapscan = off");
+        }
+        like(blackhole);
+    }
+
+    @Benchmark
+    public void likeTrigramIndex(Blackhole blackhole) throws SQLException {
+        like(blackhole);
+    }
+
+    @Benchmark
+    public void rankedSearch(Blackhole blackhole) throws SQLException {
+        try {
+            blackhole.consume(searchQuery.findIds(connection, terms, null, null, null, 0, PAGE_SIZE));
+            blackhole.consume(searchQuery.count(connection, terms, null, null, null));
+        } finally {
+            connection.rollback();
+        }
+    }
+
+    private void like(Blackhole blackhole) throws SQLException {
+        String pattern = "%" + terms + "%";
+        try (PreparedStatement page = connection.prepareStatement(LIKE_PAGE_SQL);
+             PreparedStatement count = connection.prepareStatement(LIKE_COUNT_SQL)) {
+            page.setString(1, pattern);
+            page.setInt(2, PAGE_SIZE);
+            blackhole.consume(ids(page));
+            count.setString(1, pattern);
+            blackhole.consume(ids(count));
+        } finally {
+            connection.rollback();
+        }
+    }
+
+    private static List<Long> ids(PreparedStatement ps) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    // -------------------------
+    // Catalog
+    // -------------------------
+    private long rowCount(Statement st) throws SQLException {
+        try (ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM products")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /** Names like "Wireless Lamp Pro 1234" from a small vocabulary */
+    private void seed(Statement st) throws SQLException {
+        st.execute("TRUNCATE products");
+        st.execute("INSERT INTO products (name, description, price, stock, createdat)"
+                + " SELECT initcap(w.adjective[1 + i % 24]) || ' ' || initcap(w.noun[1 + (i / 24) % 64])"
+                + "        || ' ' || w.suffix[1 + (i / 1536) % 6] || ' ' || i,"
+                + "    'A ' || w.adjective[1 + (i / 7) % 24] || ' ' || w.noun[1 + (i / 5) % 64] || ' for home and office',"
+                + "    1 + (i % 500), i % 40, TIMESTAMP '2024-01-01' + i * INTERVAL '1 second'"
+                + " FROM generate_series(1, " + products + ") i, (SELECT"
+                + "    ARRAY['wireless','compact','portable','ergonomic','smart','classic','digital','heavy',"
+                + "          'silent','foldable','rugged','premium','modular','vintage','outdoor','adjustable',"
+                + "          'magnetic','solar','bamboo','leather','steel','glass','cordless','waterproof'] AS adjective,"
+                + "    ARRAY['laptop','mouse','keyboard','lamp','monitor','speaker','charger','headset','camera',"
+                + "          'router','tablet','printer','stand','cable','desk','chair','backpack','bottle','kettle',"
+                + "          'blender','toaster','heater','fan','drill','hammer','wrench','ladder','tent','lantern',"
+                + "          'jacket','boots','gloves','watch','wallet','umbrella','pillow','blanket','mirror','clock',"
+                + "          'shelf','sofa','rug','curtain','vase','candle','frame','notebook','pen','stapler','scanner',"
+                + "          'projector','microphone','tripod','drone','scooter','helmet','bicycle','skateboard',"
+                + "          'guitar','piano','violin','drum','easel','telescope'] AS noun,"
+                + "    ARRAY['pro','mini','max','plus','lite','x'] AS suffix) w");
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.benchmarks;
+
+import com.example.dao.ProductDAO;
+import com.example.dto.ProductSuggestion;
+import com.example.search.ProductSuggestIndex;
+import com.example.search.SuggestIndexStats;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /api/products/suggest without HTTP: ProductSuggestIndex.suggest over a generated catalog,
+ * with no pending changes. Queries: one letter (stops at the candidate cap), a word prefix,
+ * two words, a product code prefix and an infix ("scope" in "telescope").
+ *
+ * Memory: after building, the heap taken by the index structures (measured after GC, the names and
+ * codes excluded since the catalog already holds them) and SuggestIndex's own estimate are printed
+ * once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ProductSuggestBenchmark {
+
+    private static final String[] ADJECTIVES = {"wireless", "compact", "portable", "ergonomic", "smart",
+            "classic", "digital", "heavy", "silent", "foldable", "rugged", "premium", "modular", "vintage",
+            "outdoor", "adjustable", "magnetic", "solar", "bamboo", "leather", "steel", "glass", "cordless",
+            "waterproof"};
+    private static final String[] NOUNS = {"laptop", "mouse", "keyboard", "lamp", "monitor", "speaker",
+            "charger", "headset", "camera", "router", "tablet", "printer", "stand", "cable", "desk", "chair",
+            "backpack", "bottle", "kettle", "blender", "toaster", "heater", "fan", "drill", "hammer", "wrench",
+            "ladder", "tent", "lantern", "jacket", "boots", "gloves", "watch", "wallet", "umbrella", "pillow",
+            "blanket", "mirror", "clock", "shelf", "sofa", "rug", "curtain", "vase", "candle", "frame",
+            "notebook", "pen", "stapler", "scanner", "projector", "microphone", "tripod", "drone", "scooter",
+            "helmet", "bicycle", "skateboard", "guitar", "piano", "violin", "drum", "easel", "telescope"};
+    private static final String[] SUFFIXES = {"Pro", "Mini", "Max", "Plus", "Lite", "X"};
+
+    @Param({"100000", "1000000"})
+    public int products;
+
+    @Param({"l", "lam", "wireless lam", "sku-12345", "scope"})
+    public String query;
+
+    private ProductSuggestIndex suggestIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<ProductSuggestion> catalog = catalog(products);
+        ProductDAO productDAO = new ProductDAO() {
+            @Override
+            public List<ProductSuggestion> findSuggestionsAfter(long afterId, int limit) {
+                // ids are 1..products
+                return catalog.subList((int) Math.min(afterId, catalog.size()),
+                        (int) Math.min(afterId + limit, catalog.size()));
+            }
+        };
+        suggestIndex = new ProductSuggestIndex(productDAO, 500, 1000, 10_000);
+
+        long before = usedHeapAfterGc();
+        suggestIndex.rebuild();
+        long after = usedHeapAfterGc();
+
+        SuggestIndexStats stats = suggestIndex.stats();
+        System.out.printf("%n  index over %d products: %d words, %d trigrams, heap %.1f MB (estimate %.1f MB)%n",
+                stats.getProducts(), stats.getWords(), stats.getTrigrams(),
+                (after - before) / 1e6, stats.getEstimatedBytes() / 1e6);
+    }
+
+    @Benchmark
+    public List<ProductSuggestion> suggest() {
+        return suggestIndex.suggest(query, 10);
+    }
+
+    static List<ProductSuggestion> catalog(int size) {
+        List<ProductSuggestion> catalog = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            String adjective = ADJECTIVES[i % ADJECTIVES.length];
+            String noun = NOUNS[(i / ADJECTIVES.length) % NOUNS.length];
+            String name = Character.toUpperCase(adjective.charAt(0)) + adjective.substring(1) + " "
+                    + Character.toUpperCase(noun.charAt(0)) + noun.substring(1) + " "
+                    + SUFFIXES[(i / 1536) % SUFFIXES.length] + " " + i;
+            catalog.add(new ProductSuggestion((long) i, name, "SKU-" + i));
+        }
+        return catalog;
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.benchmarks;
+
+import com.example.cache.DefaultAddressCache;
+import com.example.dao.AddressDAO;
+import com.example.entities.Address;
+import com.example.entities.AddressType;
+import com.example.entities.Customer;
+import com.example.entities.Product;
+import com.example.testsupport.CountingDriver;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Reads of the reference-like entities with and without the shared cache (CountingDriver over
+ * in-memory H2, BenchmarkPU). Every operation uses a fresh EntityManager, like a request.
+ *
+ * sharedCache=NONE reads everything from the database (and bypasses DefaultAddressCache);
+ * ENABLE_SELECTIVE is the ProductPU setting. After warmup all rows are cached, so the figures
+ * are for a hot cache:
+ * <ul>
+ *   <li>findProduct: one em.find of a random product;</li>
+ *   <li>checkoutReads: what checkout reads besides the cart - the customer, the default
+ *       shipping address and {@code lines} products.</li>
+ * </ul>
+ * "roundTrips" is a total over the iteration; per operation it is printed at the end of each iteration.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SharedCacheBenchmark {
+
+    @Param({"NONE", "ENABLE_SELECTIVE"})
+    public String sharedCache;
+
+    @Param({"1000"})
+    public int products;
+
+    @Param({"5"})
+    public int lines;
+
+    private EntityManagerFactory emf;
+    private DefaultAddressCache defaultAddressCache;
+    private final List<Long> productIds = new ArrayList<>();
+    private final List<Long> customerIds = new ArrayList<>();
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long reads;
+        public long roundTrips;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            reads = 0;
+            roundTrips = 0;
+        }
+
+        @TearDown(Level.Iteration)
+        public void report() {
+            if (reads > 0) {
+                System.out.printf("%n  round trips per operation: %.2f%n", (double) roundTrips / reads);
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws ClassNotFoundException {
+        Class.forName(CountingDriver.class.getName());
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("eclipselink.persistencexml", "META-INF/benchmark-persistence.xml");
+        properties.put("jakarta.persistence.jdbc.driver", CountingDriver.class.getName());
+        properties.put("jakarta.persistence.jdbc.url",
+                CountingDriver.PREFIX + "h2:mem:shared-cache-" + sharedCache + ";MODE=LEGACY;DB_CLOSE_DELAY=-1");
+        properties.put("jakarta.persistence.sharedCache.mode", sharedCache);
+        emf = Persistence.createEntityManagerFactory("BenchmarkPU", properties);
+
+        if (sharedCache.equals("NONE")) {
+            defaultAddressCache = new DefaultAddressCache(1, 1) {
+                @Override
+                public Long get(Long customerId, Function<Long, Long> loader) {
+                    return loader.apply(customerId);
+                }
+            };
+        } else {
+            defaultAddressCache = new DefaultAddressCache(10_000, 300);
+        }
+
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < products; i++) {
+            Product product = new Product("Product " + i, "Benchmark product", new BigDecimal("10.00"),
+                    "CACHE-" + sharedCache + "-" + i, 100);
+            em.persist(product);
+        }
+        for (int i = 0; i < 100; i++) {
+            Customer customer = new Customer("Bench", "Mark", "cache-" + i + "@example.com", "0123456789");
+            em.persist(customer);
+            Address address = new Address(customer, i + " Main St", "Maseru", "100", "LS", AddressType.SHIPPING);
+            address.setDefault(true);
+            em.persist(address);
+        }
+        em.getTransaction().commit();
+        em.createQuery("SELECT p.id FROM Product p ORDER BY p.id", Long.class).getResultList().forEach(productIds::add);
+        em.createQuery("SELECT c.id FROM Customer c ORDER BY c.id", Long.class).getResultList().forEach(customerIds::add);
+        em.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        emf.close();
+    }
+
+    @Benchmark
+    public Product findProduct(Counters counters) {
+        long before = CountingDriver.roundTrips();
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.find(Product.class, randomId(productIds));
+        } finally {
+            em.close();
+            counters.reads++;
+            counters.roundTrips += CountingDriver.roundTrips() - before;
+        }
+    }
+
+    @Benchmark
+    public void checkoutReads(Counters counters, Blackhole blackhole) {
+        long before = CountingDriver.roundTrips();
+        EntityManager context = emf.createEntityManager();
+        try {
+            Customer customer = context.find(Customer.class, randomId(customerIds));
+            DefaultAddressCache cache = defaultAddressCache;
+            AddressDAO addressDAO = new AddressDAO() {{ this.em = context; this.defaultAddressCache = cache; }};
+            blackhole.consume(addressDAO.findDefaultShippingByCustomer(customer));
+            for (int i = 0; i < lines; i++) {
+                blackhole.consume(context.find(Product.class, randomId(productIds)));
+            }
+        } finally {
+            context.close();
+            counters.reads++;
+            counters.roundTrips += CountingDriver.roundTrips() - before;
+        }
+    }
+
+    private static Long randomId(List<Long> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+}
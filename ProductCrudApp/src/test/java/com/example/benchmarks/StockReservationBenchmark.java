@@ -0,0 +1,62 @@
+package com.example.benchmarks;
+
+import com.example.inventory.StockLedger;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Eight threads checking out the same hot SKU one unit at a time.
+ *
+ * stripedLedger is StockLedger (StripedStock underneath); singleAtomic is the same
+ * check-and-decrement as one CAS loop on a single counter; lockedCounter uses a monitor,
+ * which is roughly what a row lock serializes in the database.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class StockReservationBenchmark {
+
+    private static final Long PRODUCT_ID = 1L;
+    private static final int STOCK = Integer.MAX_VALUE / 2; // never sells out within an iteration
+
+    private StockLedger ledger;
+    private AtomicInteger single;
+    private int locked;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        ledger = new StockLedger(1, 3600, 16);
+        ledger.track(PRODUCT_ID, STOCK);
+        single = new AtomicInteger(STOCK);
+        locked = STOCK;
+    }
+
+    @Benchmark
+    public StockLedger.Outcome stripedLedger() {
+        return ledger.tryReserve(PRODUCT_ID, 1);
+    }
+
+    @Benchmark
+    public boolean singleAtomic() {
+        for (;;) {
+            int units = single.get();
+            if (units < 1) return false;
+            if (single.compareAndSet(units, units - 1)) return true;
+        }
+    }
+
+    @Benchmark
+    public boolean lockedCounter() {
+        synchronized (this) {
+            if (locked < 1) return false;
+            locked--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedCacheTest {
+
+    @Test
+    void testEvictsLeastRecentlyUsedBeyondCapacity() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 1); // single segment
+
+        cache.put(1, "one");
+        cache.put(2, "two");
+
+        assertNull(cache.get(1));
+        assertEquals("two", cache.get(2));
+        assertEquals(1, cache.stats().getEvictions());
+    }
+
+    @Test
+    void testAccessOrderKeepsRecentlyReadEntries() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 2);
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.put(i, "v" + i);
+        }
+
+        assertTrue(cache.size() <= 2);
+        assertTrue(cache.stats().getEvictions() >= 998);
+    }
+
+    @Test
+    void testExpiredEntriesAreMisses() {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 10);
+        cache.put("token", "claims", 1_000L);
+
+        assertEquals("claims", cache.get("token", 999L));
+        assertNull(cache.get("token", 1_000L));
+
+        CacheStats stats = cache.stats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getExpirations());
+        assertEquals(0, stats.getSize());
+    }
+
+    @Test
+    void testGetOrLoadCallsLoaderOnlyOnMiss() {
+        BoundedCache<Long, String> cache = new BoundedCache<>("test", 10);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals("p1", cache.getOrLoad(1L, id -> { calls.incrementAndGet(); return "p" + id; }));
+        assertEquals("p1", cache.getOrLoad(1L, id -> { calls.incrementAndGet(); return "p" + id; }));
+        assertNull(cache.getOrLoad(2L, id -> null));
+
+        assertEquals(1, calls.get());
+        assertEquals(2, cache.stats().getLoads());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testInvalidate() {
+        BoundedCache<Long, String> cache = new BoundedCache<>("test", 10);
+        cache.put(1L, "a");
+        cache.put(2L, "b");
+
+        cache.invalidate(1L);
+        assertNull(cache.get(1L));
+        assertEquals("b", cache.get(2L));
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testLoadRacingWithInvalidationIsNotCached() {
+        BoundedCache<Long, String> cache = new BoundedCache<>("test", 10);
+
+        String loaded = cache.getOrLoad(1L, id -> {
+            cache.invalidate(id); // a writer commits while the old row is being read
+            return "stale";
+        });
+
+        assertEquals("stale", loaded);
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void testGetAllOrLoadFetchesOnlyMissesInOneCall() {
+        BoundedCache<Long, String> cache = new BoundedCache<>("test", 10);
+        cache.put(1L, "one");
+        AtomicInteger loaderCalls = new AtomicInteger();
+
+        Map<Long, String> result = cache.getAllOrLoad(List.of(1L, 2L, 3L), missing -> {
+            loaderCalls.incrementAndGet();
+            assertEquals(List.of(2L, 3L), missing);
+            return Map.of(2L, "two"); // 3 does not exist
+        }, 0);
+
+        assertEquals(Map.of(1L, "one", 2L, "two"), result);
+        assertEquals(1, loaderCalls.get());
+        assertEquals("two", cache.get(2L));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.cache;
+
+import com.example.dto.APIResponse;
+import com.example.dto.ProductResponse;
+import com.example.events.ProductChangedEvent;
+import com.example.rest.JsonBytesWriter;
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductJsonCacheTest {
+
+    private final ProductJsonCache cache = new ProductJsonCache(100, 600);
+
+    private static APIResponse<ProductResponse> response(long id, String name) {
+        ProductResponse product = new ProductResponse();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(new BigDecimal("19.90"));
+        product.setStock(4);
+        product.setUpdatedAt(LocalDateTime.of(2024, 5, 1, 9, 30));
+        product.setVersion(3L);
+        return new APIResponse<>(true, "Product retrieved successfully", product);
+    }
+
+    @Test
+    void testBytesAreWhatJsonbWouldWrite() throws Exception {
+        APIResponse<ProductResponse> response = response(7, "Desk Lamp – €");
+        ProductJsonCache.Entry entry = cache.get(7L, id -> response);
+
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        new JsonBytesWriter().writeTo(entry.body(), null, null, null, null, null, written);
+
+        try (Jsonb jsonb = JsonbBuilder.create()) {
+            assertEquals(jsonb.toJson(response), written.toString(StandardCharsets.UTF_8));
+        }
+        assertFalse(entry.body().toString().contains("version"));
+        assertEquals(ValidatorCache.tagOf(response.getData()), entry.tag());
+    }
+
+    @Test
+    void testServedFromCacheUntilTheProductChanges() {
+        AtomicInteger loads = new AtomicInteger();
+
+        ProductJsonCache.Entry first = cache.get(7L, id -> { loads.incrementAndGet(); return response(id, "Lamp"); });
+        assertSame(first, cache.get(7L, id -> { loads.incrementAndGet(); return response(id, "Lamp"); }));
+        assertEquals(1, loads.get());
+
+        cache.afterProductChanged(ProductChangedEvent.of(7L));
+        ProductJsonCache.Entry renamed = cache.get(7L, id -> { loads.incrementAndGet(); return response(id, "Light"); });
+        assertEquals(2, loads.get());
+        assertTrue(renamed.body().toString().contains("\"Light\""));
+    }
+
+    @Test
+    void testMissingProductIsNotCached() {
+        assertNull(cache.get(8L, id -> null));
+        assertEquals(0, cache.stats().getSize());
+    }
+}
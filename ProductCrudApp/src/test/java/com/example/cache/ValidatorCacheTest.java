@@ -0,0 +1,116 @@
+package com.example.cache;
+
+import com.example.catalog.ProductCatalog;
+import com.example.dto.OrderResponse;
+import com.example.dto.ProductResponse;
+import com.example.events.OrderChangedEvent;
+import com.example.events.ProductChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ValidatorCacheTest {
+
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2024, 5, 1, 9, 30, 0, 123_456_000);
+
+    @Mock
+    private ProductCatalog productCatalog;
+
+    private ValidatorCache validators;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        validators = new ValidatorCache(productCatalog, 100, 600);
+    }
+
+    private static ProductResponse product(long id, long version, LocalDateTime updatedAt) {
+        ProductResponse product = new ProductResponse();
+        product.setId(id);
+        product.setVersion(version);
+        product.setUpdatedAt(updatedAt);
+        return product;
+    }
+
+    private static OrderResponse order(long id, long version, long customerId) {
+        OrderResponse order = new OrderResponse();
+        order.setId(id);
+        order.setVersion(version);
+        order.setCustomerId(customerId);
+        return order;
+    }
+
+    @Test
+    void testProductTagIsKnownUntilTheProductChanges() {
+        ProductResponse lamp = product(7, 2, UPDATED);
+        assertNull(validators.productTag(7L));
+
+        assertSame(lamp, validators.loadProduct(7L, id -> lamp));
+        assertEquals(ValidatorCache.tagOf(lamp), validators.productTag(7L));
+
+        validators.onProductChanged(ProductChangedEvent.of(7L));
+        assertNull(validators.productTag(7L));
+    }
+
+    @Test
+    void testStockUpdateInSqlChangesTheProductTag() {
+        // StockUpdateBatch moves updatedAt but not the version
+        String before = ValidatorCache.tagOf(product(7, 2, UPDATED));
+        String after = ValidatorCache.tagOf(product(7, 2, UPDATED.plusNanos(1_000)));
+
+        assertNotEquals(before, after);
+    }
+
+    @Test
+    void testTagLoadedAcrossAChangeIsNotCached() {
+        ProductResponse stale = product(7, 2, UPDATED);
+
+        ProductResponse returned = validators.loadProduct(7L, id -> {
+            validators.afterProductChanged(ProductChangedEvent.of(7L)); // commit while reading
+            return stale;
+        });
+
+        assertSame(stale, returned);
+        assertNull(validators.productTag(7L));
+    }
+
+    @Test
+    void testMissingProductIsNotCached() {
+        assertNull(validators.loadProduct(8L, id -> null));
+        assertNull(validators.productTag(8L));
+    }
+
+    @Test
+    void testListingTagFollowsChangesAndSnapshots() {
+        String initial = validators.listingTag();
+        assertEquals(initial, validators.listingTag());
+
+        validators.onProductChanged(ProductChangedEvent.stockReserved(Set.of(1L, 2L)));
+        String changed = validators.listingTag();
+        assertNotEquals(initial, changed);
+
+        // the catalog publishes the change a little later
+        when(productCatalog.generation()).thenReturn(5L);
+        assertNotEquals(changed, validators.listingTag());
+    }
+
+    @Test
+    void testOrderValidatorKeepsTheOwner() {
+        OrderResponse order = order(11, 3, 42);
+        validators.loadOrder(11L, id -> order);
+
+        ValidatorCache.OrderValidator known = validators.orderValidator(11L);
+        assertEquals(ValidatorCache.tagOf(order), known.tag());
+        assertEquals(42L, known.customerId());
+
+        validators.afterOrderChanged(OrderChangedEvent.of(11L));
+        assertNull(validators.orderValidator(11L));
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.carts;
+
+import com.example.audit.AuditRecord;
+import com.example.dao.AuditLogDAO;
+import com.example.dao.CartDAO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CartExpiryServiceTest {
+
+    @InjectMocks
+    private CartExpiryService cartExpiryService;
+
+    @Mock private CartDAO cartDAO;
+    @Mock private AuditLogDAO auditLogDAO;
+
+    @Captor
+    private ArgumentCaptor<List<AuditRecord>> records;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testChunkAuditsEveryExpiredCartInOneBatch() {
+        LocalDateTime cutoff = LocalDateTime.now();
+        when(cartDAO.expireChunk(cutoff, 100)).thenReturn(List.of(7L, 9L));
+
+        List<Long> ids = cartExpiryService.expireChunk(cutoff, 100);
+
+        assertEquals(List.of(7L, 9L), ids);
+        verify(auditLogDAO, times(1)).insertBatch(records.capture());
+        assertEquals(List.of(7L, 9L), records.getValue().stream().map(AuditRecord::getEntityId).toList());
+        AuditRecord first = records.getValue().get(0);
+        assertEquals("system", first.getActor());
+        assertEquals("EXPIRE_CART", first.getAction());
+        assertEquals("Cart", first.getEntityType());
+        assertEquals("{}", first.getPayload());
+    }
+}
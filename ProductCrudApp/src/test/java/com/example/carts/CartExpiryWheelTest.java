@@ -0,0 +1,87 @@
+package com.example.carts;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CartExpiryWheelTest {
+
+    private static final long TICK = 1000;
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void testCartIsDueOnlyOnceItsDeadlinePasses() {
+        CartExpiryWheel wheel = new CartExpiryWheel(TICK, START);
+        wheel.schedule(1L, START + 5_000);
+
+        assertTrue(wheel.pollDue(START + 4_999, 10).isEmpty());
+        assertEquals(List.of(1L), wheel.pollDue(START + 5_000, 10));
+        assertTrue(wheel.pollDue(START + 6_000, 10).isEmpty());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testDeadlinesOnHigherLevelsCascadeDownOnTime() {
+        CartExpiryWheel wheel = new CartExpiryWheel(TICK, START);
+        long twoHours = 2 * 3600 * TICK;    // level 2
+        long tenDays = 10 * 24 * 3600 * TICK; // level 3
+        wheel.schedule(1L, START + twoHours);
+        wheel.schedule(2L, START + tenDays);
+
+        assertTrue(wheel.pollDue(START + twoHours - TICK, 10).isEmpty());
+        assertEquals(List.of(1L), wheel.pollDue(START + twoHours, 10));
+        assertTrue(wheel.pollDue(START + tenDays - TICK, 10).isEmpty());
+        assertEquals(List.of(2L), wheel.pollDue(START + tenDays, 10));
+    }
+
+    @Test
+    void testRescheduleMovesAndCancelRemoves() {
+        CartExpiryWheel wheel = new CartExpiryWheel(TICK, START);
+        wheel.schedule(1L, START + 3_000);
+        wheel.schedule(1L, START + 90_000);
+        wheel.schedule(2L, START + 3_000);
+        assertTrue(wheel.cancel(2L));
+
+        assertTrue(wheel.pollDue(START + 89_000, 10).isEmpty());
+        assertEquals(List.of(1L), wheel.pollDue(START + 90_000, 10));
+        assertFalse(wheel.cancel(1L));
+    }
+
+    @Test
+    void testPastDeadlineIsDueImmediatelyAndBatchesAreBounded() {
+        CartExpiryWheel wheel = new CartExpiryWheel(TICK, START);
+        for (long id = 1; id <= 5; id++) {
+            wheel.schedule(id, START - 60_000);
+        }
+
+        assertEquals(List.of(1L, 2L), wheel.pollDue(START, 2));
+        assertEquals(List.of(3L, 4L), wheel.pollDue(START, 2));
+        assertEquals(List.of(5L), wheel.pollDue(START, 2));
+    }
+
+    @Test
+    void testRandomDeadlinesAreNeverEarlyAndAtMostOneTickLate() {
+        CartExpiryWheel wheel = new CartExpiryWheel(TICK, START);
+        Random random = new Random(42);
+        long[] deadlines = new long[2_000];
+        for (int id = 0; id < deadlines.length; id++) {
+            deadlines[id] = START + (long) (random.nextDouble() * 3 * 24 * 3600 * TICK);
+            wheel.schedule(id, deadlines[id]);
+        }
+
+        List<Long> seen = new ArrayList<>();
+        for (long now = START; now <= START + 3 * 24 * 3600 * TICK + TICK; now += 7 * TICK) {
+            for (Long id : wheel.pollDue(now, Integer.MAX_VALUE)) {
+                long deadline = deadlines[id.intValue()];
+                assertTrue(deadline <= now, "early: " + id);
+                assertTrue(now - deadline < 8 * TICK, "late: " + id);
+                seen.add(id);
+            }
+        }
+        assertEquals(deadlines.length, seen.size());
+    }
+}
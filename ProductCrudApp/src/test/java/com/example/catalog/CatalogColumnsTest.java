@@ -0,0 +1,175 @@
+package com.example.catalog;
+
+import com.example.dto.KeysetCursor;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogColumnsTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final String[] WORDS = {"lamp", "desk", "mouse", "cable", "chair"};
+
+    /** Several chunks, with many products sharing a createdAt so the id tie-break matters */
+    private static List<CatalogRow> catalog(int size, long seed) {
+        Random random = new Random(seed);
+        List<CatalogRow> rows = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            rows.add(new CatalogRow(i,
+                    WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i,
+                    BigDecimal.valueOf(100 + random.nextInt(50_000), 2),
+                    random.nextInt(4) == 0 ? 0 : random.nextInt(100),
+                    START.plusSeconds(random.nextInt(size / 3))));
+        }
+        return rows;
+    }
+
+    /** What the SQL listing returns: matches in (createdAt DESC, id DESC) order */
+    private static List<Long> expected(List<CatalogRow> rows, Predicate<CatalogRow> filter) {
+        return rows.stream()
+                .filter(filter)
+                .sorted(Comparator.comparing(CatalogRow::createdAt).thenComparing(CatalogRow::id).reversed())
+                .map(CatalogRow::id)
+                .toList();
+    }
+
+    private static Predicate<CatalogRow> filter(String name, BigDecimal minPrice, BigDecimal maxPrice, boolean inStock) {
+        return row -> (name == null || row.name().toLowerCase().contains(name.toLowerCase()))
+                && (minPrice == null || row.price().compareTo(minPrice) >= 0)
+                && (maxPrice == null || row.price().compareTo(maxPrice) <= 0)
+                && (!inStock || row.stock() > 0);
+    }
+
+    @Test
+    void testOffsetPagesAndTotalsMatchSql() {
+        List<CatalogRow> rows = catalog(20_000, 1);
+        CatalogColumns columns = CatalogColumns.build(rows);
+
+        Object[][] filters = {
+                {null, null, null, false},
+                {"LAMP", null, null, false},
+                {null, new BigDecimal("100.005"), new BigDecimal("150"), true},
+                {"desk m", new BigDecimal("20"), null, true},
+                {"nothing", null, null, false},
+        };
+        for (Object[] f : filters) {
+            CatalogColumns.Filter filter = CatalogColumns.Filter.of(
+                    (String) f[0], (BigDecimal) f[1], (BigDecimal) f[2], (Boolean) f[3]);
+            List<Long> all = expected(rows, filter((String) f[0], (BigDecimal) f[1], (BigDecimal) f[2], (Boolean) f[3]));
+
+            for (int offset : new int[] {0, 15, 4090, 9_000, all.size() - 3, all.size() + 10}) {
+                List<Long> want = all.subList(Math.min(Math.max(offset, 0), all.size()),
+                        Math.min(Math.max(offset, 0) + 20, all.size()));
+                for (boolean parallel : new boolean[] {false, true}) {
+                    CatalogColumns.Page page = columns.select(filter, 0, Math.max(offset, 0), 20, true, parallel);
+                    assertEquals(want, page.ids(), "filter " + Arrays.toString(f) + " offset " + offset);
+                    assertEquals(all.size(), page.total());
+                }
+                CatalogColumns.Page uncounted = columns.select(filter, 0, Math.max(offset, 0), 20, false, false);
+                assertEquals(want, uncounted.ids());
+                assertEquals(-1, uncounted.total());
+            }
+        }
+    }
+
+    @Test
+    void testCursorPagesWalkTheWholeListing() {
+        List<CatalogRow> rows = catalog(10_000, 2);
+        Map<Long, CatalogRow> byId = new HashMap<>();
+        rows.forEach(row -> byId.put(row.id(), row));
+        CatalogColumns columns = CatalogColumns.build(rows);
+        CatalogColumns.Filter filter = CatalogColumns.Filter.of("chair", null, new BigDecimal("300"), true);
+
+        List<Long> walked = new ArrayList<>();
+        KeysetCursor after = null;
+        while (true) {
+            int from = (after != null) ? columns.startAfter(after) : 0;
+            CatalogColumns.Page page = columns.select(filter, from, 0, 50, true, false);
+            walked.addAll(page.ids());
+            if (page.ids().size() < 50) break;
+            CatalogRow last = byId.get(page.ids().get(page.ids().size() - 1));
+            after = new KeysetCursor(last.createdAt(), last.id());
+        }
+
+        List<Long> all = expected(rows, filter("chair", null, new BigDecimal("300"), true));
+        assertEquals(all, walked);
+    }
+
+    @Test
+    void testChangesMatchAFreshBuild() {
+        List<CatalogRow> rows = new ArrayList<>(catalog(9_000, 3));
+        CatalogColumns columns = CatalogColumns.build(rows);
+
+        // in place: new price, stock and name
+        CatalogRow renamed = new CatalogRow(10, "Glass vase", new BigDecimal("7.50"), 0, rows.get(9).createdAt());
+        rows.set(9, renamed);
+        CatalogColumns updated = columns.apply(List.of(renamed), List.of());
+
+        // rows move: one deleted, one created
+        CatalogRow created = new CatalogRow(9_001, "Vase stand", new BigDecimal("12.00"), 4, START.plusDays(1));
+        rows.remove(99);
+        rows.add(created);
+        CatalogColumns merged = updated.apply(List.of(created), List.of(100L));
+
+        // stock only
+        rows.set(0, new CatalogRow(1, rows.get(0).name(), rows.get(0).price(), 0, rows.get(0).createdAt()));
+        CatalogColumns restocked = merged.withStock(Map.of(1L, 0, 424_242L, 5));
+
+        CatalogColumns.Filter vases = CatalogColumns.Filter.of("vase", null, null, null);
+        assertEquals(List.of(9_001L, 10L), restocked.select(vases, 0, 0, 10, true, false).ids());
+
+        CatalogColumns fresh = CatalogColumns.build(rows);
+        for (CatalogColumns.Filter filter : List.of(
+                CatalogColumns.Filter.of(null, null, null, true),
+                CatalogColumns.Filter.of(null, new BigDecimal("5"), new BigDecimal("60"), false))) {
+            assertEquals(fresh.select(filter, 0, 0, 10_000, true, false), restocked.select(filter, 0, 0, 10_000, true, false));
+        }
+        assertEquals(9_000, restocked.size());
+
+        // the earlier snapshots are untouched
+        assertEquals(List.of(), columns.select(vases, 0, 0, 10, true, false).ids());
+        assertTrue(columns.select(CatalogColumns.Filter.of(" 100", null, null, null), 0, 0, 100, false, false)
+                .ids().contains(100L));
+    }
+
+    @Test
+    void testPriceBoundsInMinorUnits() {
+        CatalogColumns columns = CatalogColumns.build(List.of(
+                new CatalogRow(1, "Pen", new BigDecimal("9.99"), 1, START),
+                new CatalogRow(2, "Pad", new BigDecimal("10.00"), 1, START),
+                new CatalogRow(3, "Ink", new BigDecimal("10.01"), 1, START)));
+
+        assertEquals(List.of(2L), columns.select(
+                CatalogColumns.Filter.of(null, new BigDecimal("9.995"), new BigDecimal("10.009"), null),
+                0, 0, 10, true, false).ids());
+        assertEquals(List.of(3L, 2L, 1L), columns.select(
+                CatalogColumns.Filter.of(null, new BigDecimal("-1E30"), new BigDecimal("1E30"), null),
+                0, 0, 10, true, false).ids());
+    }
+
+    @Test
+    void testNameFilterStaysWithinOneName() {
+        CatalogColumns columns = CatalogColumns.build(List.of(
+                new CatalogRow(1, "Lamp lamp", BigDecimal.ONE, 1, START),
+                new CatalogRow(2, "Desk", BigDecimal.ONE, 1, START)));
+
+        assertEquals(List.of(1L), columns.select(CatalogColumns.Filter.of("LAMP", null, null, null),
+                0, 0, 10, true, false).ids());
+        // the names are stored end to end; a match may not run from one into the next
+        assertEquals(List.of(), columns.select(CatalogColumns.Filter.of("mp\nde", null, null, null),
+                0, 0, 10, true, false).ids());
+        assertEquals(List.of(), columns.select(CatalogColumns.Filter.of("skla", null, null, null),
+                0, 0, 10, true, false).ids());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.catalog;
+
+import com.example.dao.ProductDAO;
+import com.example.dto.KeysetCursor;
+import com.example.events.ProductChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProductCatalogTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Mock
+    private ProductDAO productDAO;
+
+    private ProductCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        catalog = new ProductCatalog(productDAO, 2, 1_000);
+
+        // three products over two pages
+        when(productDAO.findCatalogRowsAfter(0L, 2)).thenReturn(List.of(
+                new CatalogRow(1, "Desk Lamp", new BigDecimal("20.00"), 5, DAY),
+                new CatalogRow(2, "Floor Lamp", new BigDecimal("60.00"), 0, DAY.plusHours(1))));
+        when(productDAO.findCatalogRowsAfter(2L, 2)).thenReturn(List.of(
+                new CatalogRow(3, "Wireless Mouse", new BigDecimal("25.00"), 8, DAY.plusHours(2))));
+    }
+
+    private List<Long> ids(String name, Boolean inStock) {
+        return catalog.select(name, null, null, inStock, null, 0, 10, false).ids();
+    }
+
+    @Test
+    void testNoSnapshotUntilBuilt() {
+        assertNull(catalog.select(null, null, null, null, null, 0, 10, true));
+        assertFalse(catalog.stats().isReady());
+
+        catalog.rebuild();
+
+        CatalogColumns.Page page = catalog.select(null, new BigDecimal("21"), null, null, null, 0, 10, true);
+        assertEquals(List.of(3L, 2L), page.ids());
+        assertEquals(2, page.total());
+        assertTrue(catalog.stats().isReady());
+        assertEquals(3, catalog.stats().getProducts());
+    }
+
+    @Test
+    void testCursorPage() {
+        catalog.rebuild();
+
+        KeysetCursor afterMouse = new KeysetCursor(DAY.plusHours(2), 3L);
+        CatalogColumns.Page page = catalog.select("lamp", null, null, null, afterMouse, 99, 10, true);
+
+        // the cursor replaces the offset; the total still covers every match
+        assertEquals(List.of(2L, 1L), page.ids());
+        assertEquals(2, page.total());
+    }
+
+    @Test
+    void testChangesArePublishedTogether() {
+        catalog.rebuild();
+
+        // 1 renamed, 3 deleted, 4 created; 2 sold out through checkout
+        when(productDAO.findCatalogRows(Set.of(1L, 3L, 4L))).thenReturn(List.of(
+                new CatalogRow(1, "Desk Light", new BigDecimal("20.00"), 5, DAY),
+                new CatalogRow(4, "Lamp Shade", new BigDecimal("9.00"), 2, DAY.plusHours(3))));
+        when(productDAO.findStockLevels(anyCollection())).thenReturn(Map.of(2L, 0));
+        catalog.onProductChanged(new ProductChangedEvent(Set.of(1L, 3L)));
+        catalog.onProductChanged(ProductChangedEvent.stockReserved(Set.of(2L)));
+        catalog.onProductChanged(new ProductChangedEvent(Set.of(4L)));
+
+        // nothing visible until the batch is applied
+        assertEquals(List.of(2L, 1L), ids("lamp", null));
+        assertEquals(4, catalog.stats().getPendingChanges());
+
+        catalog.applyChanges();
+
+        assertEquals(List.of(4L, 2L), ids("lamp", null));
+        assertEquals(List.of(4L, 1L), ids(null, true));
+        assertEquals(0, catalog.stats().getPendingChanges());
+        assertEquals(1, catalog.stats().getUpdates());
+        verify(productDAO).findStockLevels(List.of(2L));
+    }
+
+    @Test
+    void testFailedUpdateKeepsChangesPending() {
+        catalog.rebuild();
+        when(productDAO.findCatalogRows(anyCollection())).thenThrow(new IllegalStateException("database down"));
+        catalog.onProductChanged(new ProductChangedEvent(Set.of(1L)));
+
+        assertThrows(IllegalStateException.class, catalog::applyChanges);
+
+        assertEquals(1, catalog.stats().getPendingChanges());
+        assertEquals(List.of(2L, 1L), ids("lamp", null));
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.concurrency;
+
+import com.example.entities.Cart;
+import com.example.entities.CartItem;
+import com.example.entities.CartStatus;
+import com.example.entities.Customer;
+import com.example.entities.Product;
+import jakarta.ejb.EJBException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.Persistence;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConflictRetrierTest {
+
+    private static EntityManagerFactory emf;
+
+    @BeforeAll
+    static void setUp() {
+        emf = Persistence.createEntityManagerFactory("BenchmarkPU",
+                Map.of("eclipselink.persistencexml", "META-INF/benchmark-persistence.xml"));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        emf.close();
+    }
+
+    @Test
+    void testRetriesWrappedConflictUntilSuccess() throws Exception {
+        ConflictRetrier retrier = new ConflictRetrier();
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = retrier.call(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new EJBException(new OptimisticLockException("stale"));
+            }
+            return "ok";
+        }, 4, 1);
+
+        assertEquals("ok", result);
+        ConflictStats stats = retrier.stats();
+        assertEquals(2, stats.getConflicts());
+        assertEquals(2, stats.getRetries());
+        assertEquals(1, stats.getRecovered());
+        assertEquals(0, stats.getExhausted());
+    }
+
+    @Test
+    void testGivesUpAfterMaxAttemptsAndDoesNotRetryOtherErrors() {
+        ConflictRetrier retrier = new ConflictRetrier();
+
+        assertThrows(OptimisticConflictException.class, () -> retrier.call(() -> {
+            throw new OptimisticLockException("stale");
+        }, 3, 1));
+        assertEquals(1, retrier.stats().getExhausted());
+
+        AtomicInteger calls = new AtomicInteger();
+        assertThrows(IllegalArgumentException.class, () -> retrier.call(() -> {
+            calls.incrementAndGet();
+            throw new IllegalArgumentException("Cart not found");
+        }, 3, 1));
+        assertEquals(1, calls.get());
+    }
+
+    /** Many writers incrementing the same cart line: versioning detects every lost update, retries repair them */
+    @Test
+    void testContendedCartUpdatesAreNotLost() throws Exception {
+        Long cartId = createCart();
+        ConflictRetrier retrier = new ConflictRetrier();
+        int threads = 8;
+        int perThread = 25;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger failures = new AtomicInteger();
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        retrier.call(() -> incrementQuantity(cartId), 50, 1);
+                    }
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+
+        assertEquals(0, failures.get());
+        EntityManager em = emf.createEntityManager();
+        try {
+            Cart cart = em.find(Cart.class, cartId);
+            assertEquals(1 + threads * perThread, cart.getItems().get(0).getQuantity());
+        } finally {
+            em.close();
+        }
+        assertTrue(retrier.stats().getConflicts() > 0, "expected contention on a single cart");
+    }
+
+    // -------------------------
+    // Helpers
+    // -------------------------
+    /** What CartService.addProduct does to an existing line, in its own transaction */
+    private static Void incrementQuantity(Long cartId) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            Cart cart = em.find(Cart.class, cartId);
+            CartItem item = cart.getItems().get(0);
+            item.setQuantity(item.getQuantity() + 1);
+            cart.setUpdatedAt(LocalDateTime.now());
+            em.getTransaction().commit();
+            return null;
+        } finally {
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            em.close();
+        }
+    }
+
+    private static Long createCart() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            Customer customer = new Customer("Jane", "Doe", "jane-" + System.nanoTime() + "@example.com", "0123456789");
+            em.persist(customer);
+            Product product = new Product("Keyboard", "Mechanical keyboard", new BigDecimal("49.99"),
+                    "KB-" + System.nanoTime(), 1000);
+            em.persist(product);
+
+            Cart cart = new Cart();
+            cart.setCustomer(customer);
+            cart.setStatus(CartStatus.NEW);
+            CartItem item = new CartItem(product, 1);
+            item.setCart(cart);
+            cart.getItems().add(item);
+            em.persist(cart);
+            em.getTransaction().commit();
+            return cart.getId();
+        } finally {
+            em.close();
+        }
+    }
+}
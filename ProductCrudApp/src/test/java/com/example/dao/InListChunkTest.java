@@ -0,0 +1,119 @@
+package com.example.dao;
+
+import com.example.testsupport.CountingDriver;
+import com.example.entities.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Order-id lookups (GET /api/orders maps every order) split long id lists over several IN queries,
+ * so no statement goes past PostgreSQL's bind parameter limit. BenchmarkPU over H2.
+ */
+class InListChunkTest {
+
+    private static EntityManagerFactory emf;
+    private static Long orderId;
+
+    @BeforeAll
+    static void createData() throws ClassNotFoundException {
+        Class.forName(CountingDriver.class.getName());
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("eclipselink.persistencexml", "META-INF/benchmark-persistence.xml");
+        properties.put("jakarta.persistence.jdbc.driver", CountingDriver.class.getName());
+        properties.put("jakarta.persistence.jdbc.url",
+                CountingDriver.PREFIX + "h2:mem:in-list-chunks;MODE=LEGACY;DB_CLOSE_DELAY=-1");
+        emf = Persistence.createEntityManagerFactory("BenchmarkPU", properties);
+
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        Customer customer = new Customer("In", "List", "in-list@example.com", "0123456789");
+        em.persist(customer);
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setStatus(OrderStatus.PAID);
+        order.setTotal(new BigDecimal("20.00"));
+        order.setOrderDate(LocalDateTime.now());
+        em.persist(order);
+        for (int i = 0; i < 2; i++) {
+            Payment payment = new Payment();
+            payment.setOrder(order);
+            payment.setAmount(new BigDecimal("10.00"));
+            payment.setMethod(PaymentMethod.CARD);
+            payment.setStatus(PaymentStatus.SUCCEEDED);
+            payment.setCreatedAt(LocalDateTime.now().plusSeconds(i));
+            em.persist(payment);
+        }
+        em.persist(new OrderStatusHistory(order, OrderStatus.NEW, OrderStatus.PAID));
+        em.getTransaction().commit();
+        em.close();
+
+        orderId = order.getId();
+    }
+
+    @AfterAll
+    static void closeFactory() {
+        emf.close();
+    }
+
+    /** 2500 ids with the real order in the last chunk */
+    private static List<Long> manyIds() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1_000_000; ids.size() < 2_499; id++) ids.add(id);
+        ids.add(orderId);
+        return ids;
+    }
+
+    @Test
+    void testPaymentsOfManyOrders() {
+        EntityManager context = emf.createEntityManager();
+        try {
+            PaymentDAO dao = new PaymentDAO() {{ this.em = context; }};
+            emf.getCache().evictAll();
+            long before = CountingDriver.roundTrips();
+            dao.findByOrderIds(List.of(orderId));
+            long single = CountingDriver.roundTrips() - before;
+            context.clear();
+            emf.getCache().evictAll();
+
+            before = CountingDriver.roundTrips();
+            Map<Long, List<Payment>> byOrder = dao.findByOrderIds(manyIds());
+
+            // the same reads as for one id (payments, plus their order), with two more IN queries
+            assertEquals(single + 2, CountingDriver.roundTrips() - before, "one query per 1000 ids");
+            assertEquals(List.of(orderId), List.copyOf(byOrder.keySet()));
+            List<Payment> payments = byOrder.get(orderId);
+            assertEquals(2, payments.size());
+            assertTrue(payments.get(0).getCreatedAt().isAfter(payments.get(1).getCreatedAt()));
+        } finally {
+            context.close();
+        }
+    }
+
+    @Test
+    void testHistoryOfManyOrders() {
+        EntityManager context = emf.createEntityManager();
+        try {
+            OrderStatusHistoryDAO dao = new OrderStatusHistoryDAO() {{ this.em = context; }};
+
+            Map<Long, List<OrderStatusHistory>> byOrder = dao.findByOrderIds(manyIds());
+
+            assertEquals(1, byOrder.get(orderId).size());
+            assertEquals(1, byOrder.size());
+        } finally {
+            context.close();
+        }
+    }
+}
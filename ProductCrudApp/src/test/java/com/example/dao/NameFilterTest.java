@@ -0,0 +1,83 @@
+package com.example.dao;
+
+import com.example.catalog.CatalogColumns;
+import com.example.entities.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The name= filter is a plain substring both in SQL (before the catalog is built, or with it disabled)
+ * and in the in-memory catalog: LIKE wildcards typed by the client match only themselves.
+ * BenchmarkPU over H2.
+ */
+class NameFilterTest {
+
+    private static final String[] NAMES = {
+            "a_b lamp", "axb lamp", "50% off", "500 off", "back\\slash", "backslash", "Desk LAMP"};
+
+    private static EntityManagerFactory emf;
+
+    @BeforeAll
+    static void createData() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("eclipselink.persistencexml", "META-INF/benchmark-persistence.xml");
+        properties.put("jakarta.persistence.jdbc.url", "jdbc:h2:mem:name-filter;MODE=LEGACY;DB_CLOSE_DELAY=-1");
+        emf = Persistence.createEntityManagerFactory("BenchmarkPU", properties);
+
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < NAMES.length; i++) {
+            em.persist(new Product(NAMES[i], "Name filter product", new BigDecimal("9.99"), "NAME-" + i, 1));
+        }
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    @AfterAll
+    static void closeFactory() {
+        emf.close();
+    }
+
+    @Test
+    void testSqlAndCatalogAgreeOnWildcards() {
+        EntityManager context = emf.createEntityManager();
+        try {
+            ProductDAO dao = new ProductDAO() {{ this.em = context; }};
+            CatalogColumns columns = CatalogColumns.build(dao.findCatalogRowsAfter(0, 100));
+
+            for (String name : new String[]{"a_b", "50%", "\\", "_", "%", "lamp"}) {
+                List<Long> fromSql = dao.findProductIds(0, 100, name, null, null, null);
+                long totalFromSql = dao.countProducts(name, null, null, null);
+                CatalogColumns.Page fromMemory = columns.select(
+                        CatalogColumns.Filter.of(name, null, null, null), 0, 0, 100, true, false);
+
+                assertEquals(fromMemory.ids(), fromSql, name);
+                assertEquals(fromMemory.total(), totalFromSql, name);
+            }
+
+            assertEquals(List.of("a_b lamp"), names(dao, "a_b"));
+            assertEquals(List.of("50% off"), names(dao, "50%"));
+            assertEquals(List.of("back\\slash"), names(dao, "\\"));
+            assertEquals(3, dao.countProducts("LAMP", null, null, null));
+        } finally {
+            context.close();
+        }
+    }
+
+    private static List<String> names(ProductDAO dao, String nameFilter) {
+        return dao.findByIds(dao.findProductIds(0, 100, nameFilter, null, null, null)).stream()
+                .map(Product::getName)
+                .toList();
+    }
+}
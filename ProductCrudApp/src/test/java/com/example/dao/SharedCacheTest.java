@@ -0,0 +1,206 @@
+package com.example.dao;
+
+import com.example.testsupport.CountingDriver;
+import com.example.cache.DefaultAddressCache;
+import com.example.entities.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Shared-cache configuration (ENABLE_SELECTIVE, cache-mappings.xml) and the default-address lookup
+ * checked against statements counted at the JDBC driver, with BenchmarkPU over H2.
+ * Each read runs in its own EntityManager, like a request.
+ */
+class SharedCacheTest {
+
+    private static EntityManagerFactory emf;
+    private static Long customerId;
+    private static Long productId;
+    private static Long shippingAddressId;
+
+    private DefaultAddressCache defaultAddressCache;
+
+    @BeforeAll
+    static void createData() throws ClassNotFoundException {
+        Class.forName(CountingDriver.class.getName());
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("eclipselink.persistencexml", "META-INF/benchmark-persistence.xml");
+        properties.put("jakarta.persistence.jdbc.driver", CountingDriver.class.getName());
+        properties.put("jakarta.persistence.jdbc.url",
+                CountingDriver.PREFIX + "h2:mem:shared-cache;MODE=LEGACY;DB_CLOSE_DELAY=-1");
+        emf = Persistence.createEntityManagerFactory("BenchmarkPU", properties);
+
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        Customer customer = new Customer("Shared", "Cache", "shared-cache@example.com", "0123456789");
+        em.persist(customer);
+        Product product = new Product("Cached product", "Shared cache product", new BigDecimal("10.00"), "SC-1", 10);
+        em.persist(product);
+        Address shipping = new Address(customer, "1 Main St", "Maseru", "100", "LS", AddressType.SHIPPING);
+        shipping.setDefault(true);
+        em.persist(shipping);
+        em.getTransaction().commit();
+        em.close();
+
+        customerId = customer.getId();
+        productId = product.getId();
+        shippingAddressId = shipping.getId();
+    }
+
+    @AfterAll
+    static void closeFactory() {
+        emf.close();
+    }
+
+    @BeforeEach
+    void clearCache() {
+        emf.getCache().evictAll();
+        defaultAddressCache = new DefaultAddressCache(100, 60);
+    }
+
+    // -------------------------
+    // Entity regions
+    // -------------------------
+    @Test
+    void testCacheableEntitiesAreReadOnce() {
+        assertStatements(2, context -> {
+            context.find(Product.class, productId);
+            return context.find(Customer.class, customerId);
+        });
+        assertStatements(0, context -> {
+            context.find(Product.class, productId);
+            return context.find(Customer.class, customerId);
+        });
+
+        assertTrue(emf.getCache().contains(Product.class, productId));
+        assertTrue(emf.getCache().contains(Customer.class, customerId));
+    }
+
+    @Test
+    void testOtherEntitiesAreNotCached() {
+        Long cartId = inTransaction(context -> {
+            Cart cart = new Cart();
+            cart.setCustomer(context.find(Customer.class, customerId));
+            cart.setStatus(CartStatus.NEW);
+            context.persist(cart);
+            context.flush();
+            return cart.getId();
+        });
+
+        assertFalse(emf.getCache().contains(Cart.class, cartId));
+        assertStatements(1, context -> context.find(Cart.class, cartId));
+        assertStatements(1, context -> context.find(Cart.class, cartId));
+    }
+
+    @Test
+    void testCommittedUpdateIsMergedIntoCache() {
+        inTransaction(context -> {
+            context.find(Product.class, productId).setPrice(new BigDecimal("12.50"));
+            return null;
+        });
+
+        Product product = assertStatements(0, context -> context.find(Product.class, productId));
+        assertEquals(0, new BigDecimal("12.50").compareTo(product.getPrice()));
+    }
+
+    @Test
+    void testEvictFromSharedCache() {
+        assertStatements(1, context -> context.find(Product.class, productId));
+
+        withContext(context -> {
+            new ProductDAO() {{ this.em = context; }}.evictFromSharedCache(productId);
+            return null;
+        });
+
+        assertStatements(1, context -> context.find(Product.class, productId));
+    }
+
+    // -------------------------
+    // Default shipping address lookup
+    // -------------------------
+    @Test
+    void testDefaultShippingAddressIsReadOnce() {
+        // id query, address, its customer (no weaving outside the container, so LAZY to-one loads eagerly)
+        assertStatements(3, this::findDefaultShipping);
+        Optional<Address> cached = assertStatements(0, this::findDefaultShipping);
+
+        assertEquals(shippingAddressId, cached.orElseThrow().getId());
+    }
+
+    @Test
+    void testAddressChangeInvalidatesDefaultShippingAddress() {
+        assertStatements(3, this::findDefaultShipping);
+
+        Long newDefaultId = inTransaction(context -> {
+            context.find(Address.class, shippingAddressId).setDefault(false);
+            Address address = new Address(context.find(Customer.class, customerId),
+                    "2 Main St", "Maseru", "100", "LS", AddressType.SHIPPING);
+            address.setDefault(true);
+            context.persist(address);
+            context.flush();
+            return address.getId();
+        });
+        // what CustomerAddressChangedEvent does after commit
+        defaultAddressCache.invalidate(customerId);
+
+        // id query only: the new address was put in the shared cache at commit
+        Optional<Address> reloaded = assertStatements(1, this::findDefaultShipping);
+        assertEquals(newDefaultId, reloaded.orElseThrow().getId());
+
+        // restore for the other tests
+        inTransaction(context -> {
+            context.remove(context.find(Address.class, newDefaultId));
+            context.find(Address.class, shippingAddressId).setDefault(true);
+            return null;
+        });
+    }
+
+    // -------------------------
+    // Harness
+    // -------------------------
+    private Optional<Address> findDefaultShipping(EntityManager context) {
+        Customer customer = new Customer();
+        customer.setId(customerId);
+        DefaultAddressCache cache = defaultAddressCache;
+        return new AddressDAO() {{ this.em = context; this.defaultAddressCache = cache; }}
+                .findDefaultShippingByCustomer(customer);
+    }
+
+    private static <T> T assertStatements(int expected, Function<EntityManager, T> read) {
+        long before = CountingDriver.roundTrips();
+        T result = withContext(read);
+        assertEquals(expected, CountingDriver.roundTrips() - before, "SQL statements executed");
+        return result;
+    }
+
+    private static <T> T withContext(Function<EntityManager, T> work) {
+        EntityManager context = emf.createEntityManager();
+        try {
+            return work.apply(context);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static <T> T inTransaction(Function<EntityManager, T> work) {
+        return withContext(context -> {
+            context.getTransaction().begin();
+            T result = work.apply(context);
+            context.getTransaction().commit();
+            return result;
+        });
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockLedgerTest {
+
+    @Test
+    void testConcurrentTakesNeverOversell() throws InterruptedException {
+        StockLedger ledger = new StockLedger(1, 60, 8);
+        ledger.track(1L, 1000);
+
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        runConcurrently(16, 200, () -> {
+            switch (ledger.tryReserve(1L, 3)) {
+                case RESERVED -> reserved.addAndGet(3);
+                case INSUFFICIENT -> rejected.incrementAndGet();
+                case UNTRACKED -> fail("product should be tracked");
+            }
+        });
+
+        // 3200 requests of 3 units against 1000: exactly 333 succeed, 1 unit is left over
+        assertEquals(999, reserved.get());
+        assertEquals(1, ledger.available(1L));
+        assertEquals(16 * 200 - 333, rejected.get());
+    }
+
+    @Test
+    void testReleaseReturnsUnits() {
+        StockLedger ledger = new StockLedger(1, 60, 4);
+        ledger.track(1L, 5);
+
+        assertEquals(StockLedger.Outcome.RESERVED, ledger.tryReserve(1L, 5));
+        assertEquals(StockLedger.Outcome.INSUFFICIENT, ledger.tryReserve(1L, 1));
+
+        ledger.release(1L, 2);
+
+        assertEquals(StockLedger.Outcome.RESERVED, ledger.tryReserve(1L, 2));
+    }
+
+    @Test
+    void testTakesRacingReleasesNeverUnderReport() throws InterruptedException {
+        // 8 units, and each of 8 workers holds at most one: every take has a unit to find,
+        // often only through the slow path while other workers are putting theirs back
+        StockLedger ledger = new StockLedger(1, 60, 16);
+        ledger.track(1L, 8);
+
+        AtomicInteger rejected = new AtomicInteger();
+        runConcurrently(8, 20_000, () -> {
+            if (ledger.tryReserve(1L, 1) == StockLedger.Outcome.RESERVED) {
+                ledger.release(1L, 1);
+            } else {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertEquals(0, rejected.get());
+        assertEquals(8, ledger.available(1L));
+    }
+
+    @Test
+    void testBecomesHotAfterThresholdAndForgetDropsTracking() {
+        StockLedger ledger = new StockLedger(3, 60, 4);
+
+        assertFalse(ledger.recordDemand(7L));
+        assertFalse(ledger.recordDemand(7L));
+        assertTrue(ledger.recordDemand(7L));
+        assertEquals(StockLedger.Outcome.UNTRACKED, ledger.tryReserve(7L, 1));
+
+        assertTrue(ledger.track(7L, 10));
+        assertFalse(ledger.track(7L, 99)); // first seed wins
+        assertFalse(ledger.recordDemand(7L));
+
+        ledger.forget(List.of(7L));
+        assertFalse(ledger.isTracked(7L));
+    }
+
+    static void runConcurrently(int threads, int perThread, Runnable task) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) task.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.inventory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Runs the real SQL against in-memory H2 */
+class StockUpdateBatchTest {
+
+    private static final String URL = "jdbc:h2:mem:stock-batch;DB_CLOSE_DELAY=-1";
+
+    private Connection admin;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        admin = DriverManager.getConnection(URL);
+        try (Statement st = admin.createStatement()) {
+            st.execute("CREATE TABLE products (id BIGINT PRIMARY KEY, stock INT NOT NULL, updatedAt TIMESTAMP)");
+            st.execute("INSERT INTO products (id, stock) VALUES (1, 10), (2, 1), (3, 500)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement st = admin.createStatement()) {
+            st.execute("DROP TABLE products");
+        }
+        admin.close();
+    }
+
+    @Test
+    void testDecrementReportsShortLinesAndLeavesThemUntouched() throws SQLException {
+        TreeMap<Long, Integer> lines = new TreeMap<>();
+        lines.put(1L, 4);
+        lines.put(2L, 2);
+
+        List<Long> insufficient = StockUpdateBatch.decrement(admin, lines);
+
+        assertEquals(List.of(2L), insufficient);
+        assertEquals(6, stock(1L));
+        assertEquals(1, stock(2L));
+    }
+
+    @Test
+    void testConcurrentCheckoutsNeverOversell() throws Exception {
+        AtomicInteger sold = new AtomicInteger();
+        StockLedgerTest.runConcurrently(8, 100, () -> {
+            try (Connection c = DriverManager.getConnection(URL)) {
+                c.setAutoCommit(false);
+                TreeMap<Long, Integer> lines = new TreeMap<>();
+                lines.put(1L, 1);
+                lines.put(3L, 1);
+                if (StockUpdateBatch.decrement(c, lines).isEmpty()) {
+                    c.commit();
+                    sold.incrementAndGet();
+                } else {
+                    c.rollback(); // product 1 ran out: product 3 must be given back
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertEquals(10, sold.get());
+        assertEquals(0, stock(1L));
+        assertEquals(490, stock(3L));
+    }
+
+    private int stock(long id) throws SQLException {
+        try (Statement st = admin.createStatement();
+             ResultSet rs = st.executeQuery("SELECT stock FROM products WHERE id = " + id)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint response times for a load run, one HdrHistogram per endpoint (nanoseconds,
+ * 3 significant digits) plus an error count. Safe to record into from any number of virtual users.
+ *
+ * The histograms are written as one tagged interval per endpoint in the HdrHistogram log format,
+ * so runs can be compared or re-plotted later (HistogramLogProcessor -tag GET_/products ...).
+ * Spaces in endpoint names become underscores in the tags.
+ */
+public class LatencyRecorder {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentSkipListMap<>();
+    private volatile long startMillis;
+    private volatile long endMillis;
+
+    private static final class Endpoint {
+        final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+        final LongAdder errors = new LongAdder();
+    }
+
+    /** Per-endpoint figures for the measured window */
+    public record EndpointStats(String endpoint, long count, long errors, double throughputPerSecond,
+                                double p50Millis, double p95Millis, double p99Millis, double maxMillis) {}
+
+    // -------------------------
+    // Recording
+    // -------------------------
+    public void start() {
+        startMillis = System.currentTimeMillis();
+        endMillis = 0;
+    }
+
+    public void stop() {
+        endMillis = System.currentTimeMillis();
+    }
+
+    /** A completed call that started at {@code startNanos} (System.nanoTime) */
+    public void record(String endpoint, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        endpoint(endpoint).histogram.recordValue(Math.min(elapsed, HIGHEST_TRACKABLE_NANOS));
+    }
+
+    /** A call that failed or returned an unexpected status; its time is recorded too */
+    public void recordError(String endpoint, long startNanos) {
+        record(endpoint, startNanos);
+        endpoint(endpoint).errors.increment();
+    }
+
+    private Endpoint endpoint(String name) {
+        return endpoints.computeIfAbsent(name, n -> new Endpoint());
+    }
+
+    // -------------------------
+    // Results
+    // -------------------------
+    public List<EndpointStats> stats() {
+        double seconds = Math.max(1, elapsedMillis()) / 1000.0;
+        List<EndpointStats> stats = new ArrayList<>();
+        endpoints.forEach((name, endpoint) -> {
+            Histogram histogram = endpoint.histogram;
+            stats.add(new EndpointStats(name,
+                    histogram.getTotalCount(),
+                    endpoint.errors.sum(),
+                    histogram.getTotalCount() / seconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(95)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getMaxValue())));
+        });
+        return stats;
+    }
+
+    public long totalCount() {
+        return endpoints.values().stream().mapToLong(e -> e.histogram.getTotalCount()).sum();
+    }
+
+    public long totalErrors() {
+        return endpoints.values().stream().mapToLong(e -> e.errors.sum()).sum();
+    }
+
+    public void printReport(PrintStream out) {
+        out.printf(Locale.ROOT, "%-36s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (EndpointStats s : stats()) {
+            out.printf(Locale.ROOT, "%-36s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    s.endpoint(), s.count(), s.errors(), s.throughputPerSecond(),
+                    s.p50Millis(), s.p95Millis(), s.p99Millis(), s.maxMillis());
+        }
+        out.printf(Locale.ROOT, "%-36s %9d %7d %9.1f%n", "total", totalCount(), totalErrors(),
+                totalCount() / (Math.max(1, elapsedMillis()) / 1000.0));
+    }
+
+    /** Writes every endpoint's histogram, tagged with the endpoint name, to an .hlog file */
+    public void writeLog(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            HistogramLogWriter writer = new HistogramLogWriter(out);
+            writer.outputLogFormatVersion();
+            writer.outputStartTime(startMillis);
+            writer.setBaseTime(startMillis);
+            writer.outputLegend();
+            long end = endMillis != 0 ? endMillis : System.currentTimeMillis();
+            endpoints.forEach((name, endpoint) -> {
+                Histogram copy = endpoint.histogram.copy();
+                copy.setTag(name.replace(' ', '_'));
+                copy.setStartTimeStamp(startMillis);
+                copy.setEndTimeStamp(end);
+                writer.outputIntervalHistogram(copy);
+            });
+        }
+    }
+
+    private long elapsedMillis() {
+        return (endMillis != 0 ? endMillis : System.currentTimeMillis()) - startMillis;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
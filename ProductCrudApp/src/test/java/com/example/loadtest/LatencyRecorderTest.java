@@ -0,0 +1,92 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.EncodableHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyRecorderTest {
+
+    @Test
+    void testPercentilesPerEndpoint() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.start();
+        for (int ms = 1; ms <= 100; ms++) {
+            recorder.record("GET /products", System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+        recorder.recordError("POST /carts", System.nanoTime());
+        recorder.stop();
+
+        List<LatencyRecorder.EndpointStats> stats = recorder.stats();
+        assertEquals(2, stats.size());
+
+        LatencyRecorder.EndpointStats products = stats.get(0);
+        assertEquals("GET /products", products.endpoint());
+        assertEquals(100, products.count());
+        assertEquals(0, products.errors());
+        assertEquals(50, products.p50Millis(), 1);
+        assertEquals(95, products.p95Millis(), 1);
+        assertEquals(99, products.p99Millis(), 1);
+
+        LatencyRecorder.EndpointStats carts = stats.get(1);
+        assertEquals(1, carts.count());
+        assertEquals(1, carts.errors());
+        assertEquals(101, recorder.totalCount());
+        assertEquals(1, recorder.totalErrors());
+    }
+
+    @Test
+    void testReportListsEveryEndpoint() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.start();
+        recorder.record("GET /products", System.nanoTime());
+        recorder.record("POST /orders/from-cart/{cartId}", System.nanoTime());
+        recorder.stop();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recorder.printReport(new PrintStream(out));
+        String report = out.toString();
+
+        assertTrue(report.contains("p99 ms"));
+        assertTrue(report.contains("GET /products"));
+        assertTrue(report.contains("POST /orders/from-cart/{cartId}"));
+        assertTrue(report.contains("total"));
+    }
+
+    @Test
+    void testLogHasOneTaggedHistogramPerEndpoint(@TempDir Path dir) throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.start();
+        recorder.record("GET /products", System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(5));
+        recorder.record("GET /products", System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(7));
+        recorder.record("POST /payments/{orderId}/pay", System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(20));
+        recorder.stop();
+
+        Path file = dir.resolve("latency.hlog");
+        recorder.writeLog(file);
+
+        Map<String, Histogram> read = new HashMap<>();
+        try (HistogramLogReader reader = new HistogramLogReader(file.toFile())) {
+            EncodableHistogram histogram;
+            while ((histogram = reader.nextIntervalHistogram()) != null) {
+                read.put(histogram.getTag(), (Histogram) histogram);
+            }
+        }
+
+        assertEquals(2, read.size());
+        assertEquals(2, read.get("GET_/products").getTotalCount());
+        assertEquals(1, read.get("POST_/payments/{orderId}/pay").getTotalCount());
+        assertTrue(read.get("POST_/payments/{orderId}/pay").getMaxValue() >= TimeUnit.MILLISECONDS.toNanos(20));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.loadtest;
+
+import org.h2.tools.Server;
+
+import java.sql.SQLException;
+
+/**
+ * In-process stand-in for the Postgres database, for load runs on a machine without one:
+ * H2 speaking the PostgreSQL wire protocol, so the WAR keeps using the PostgreSQL driver and
+ * EclipseLink's PostgreSQL platform. Start it, then point the jdbc/postgres pool at
+ *
+ *   jdbc:postgresql://localhost:{port}/mem:userdb;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;NON_KEYWORDS=ORDER,VALUE
+ *
+ * (user sa, password sa) and deploy; ProductPU creates the schema. The data lives only as long as this
+ * process. Timings against it say nothing about Postgres itself - use a real one for numbers that matter.
+ *
+ *   java -cp target/test-classes:{test classpath} com.example.loadtest.StandInDatabase [port]
+ */
+public final class StandInDatabase {
+
+    public static final int DEFAULT_PORT = 55432;
+
+    private StandInDatabase() {}
+
+    public static Server start(int port) throws SQLException {
+        return Server.createPgServer("-pgPort", String.valueOf(port), "-ifNotExists").start();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        Server server = start(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        System.out.println("PostgreSQL stand-in listening on " + server.getURL() + " (Ctrl+C to stop)");
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.metrics;
+
+import com.example.dao.ProductDAO;
+import jakarta.interceptor.InvocationContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DaoMetricsTest {
+
+    @Spy
+    private DaoMetrics metrics = new DaoMetrics();
+
+    @InjectMocks
+    private DaoMetricsInterceptor interceptor;
+
+    @Mock
+    private InvocationContext ctx;
+
+    private Method findAll;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        findAll = ProductDAO.class.getMethod("findAll");
+        when(ctx.getMethod()).thenReturn(findAll);
+        when(ctx.getTarget()).thenReturn(new ProductDAO());
+    }
+
+    @Test
+    void testInterceptorRecordsCallsRowsAndTime() throws Exception {
+        when(ctx.proceed()).thenReturn(List.of("a", "b", "c"));
+
+        assertEquals(List.of("a", "b", "c"), interceptor.time(ctx));
+        interceptor.time(ctx);
+
+        DaoMethodStats stats = metrics.stats().get(0);
+        assertEquals("ProductDAO.findAll", stats.getMethod());
+        assertEquals(2, stats.getCalls());
+        assertEquals(6, stats.getRows());
+        assertEquals(3.0, stats.getAverageRows());
+        assertEquals(0, stats.getErrors());
+        assertTrue(stats.getMaxMillis() <= stats.getTotalMillis());
+    }
+
+    @Test
+    void testFailedCallCountsAsErrorAndRethrows() throws Exception {
+        when(ctx.proceed()).thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, () -> interceptor.time(ctx));
+
+        DaoMethodStats stats = metrics.stats().get(0);
+        assertEquals(1, stats.getCalls());
+        assertEquals(1, stats.getErrors());
+        assertEquals(0, stats.getRows());
+    }
+
+    @Test
+    void testStatsOrderedByTotalTime() {
+        metrics.record(ProductDAO.class, findAll, 1_000_000, 1, false);
+        metrics.record(ProductDAO.class, findAll, 1_000_000, 1, false);
+        metrics.record(String.class, findAll, 50_000_000, 1, false);
+
+        List<DaoMethodStats> stats = metrics.stats();
+        assertEquals("String.findAll", stats.get(0).getMethod());
+        assertEquals(50.0, stats.get(0).getMaxMillis(), 0.001);
+        assertEquals(2, stats.get(1).getCalls());
+        assertEquals(1.0, stats.get(1).getAverageMillis(), 0.001);
+    }
+
+    @Test
+    void testSubclassesAreNamedAfterTheDao() {
+        metrics.record(new ProductDAO() {}.getClass(), findAll, 1, 0, false);
+
+        assertEquals("ProductDAO.findAll", metrics.stats().get(0).getMethod());
+    }
+
+    @Test
+    void testRowsOfResults() {
+        assertEquals(0, DaoMetrics.rowsOf(null));
+        assertEquals(2, DaoMetrics.rowsOf(List.of(1, 2)));
+        assertEquals(1, DaoMetrics.rowsOf(Map.of("k", "v")));
+        assertEquals(1, DaoMetrics.rowsOf(Optional.of("x")));
+        assertEquals(0, DaoMetrics.rowsOf(Optional.empty()));
+        assertEquals(3, DaoMetrics.rowsOf(new long[3]));
+        assertEquals(1, DaoMetrics.rowsOf(42L));
+    }
+}
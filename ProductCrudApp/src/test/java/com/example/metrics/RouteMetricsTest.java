@@ -0,0 +1,182 @@
+package com.example.metrics;
+
+import com.example.resources.CartResource;
+import com.example.resources.MetricsResource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteMetricsTest {
+
+    private RouteMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new RouteMetrics(60_000, 2, "0.01, 0.1,1");
+    }
+
+    // -------------------------
+    // Prometheus output
+    // -------------------------
+    @Test
+    void testHistogramBucketsAreCumulative() {
+        metrics.record("GET", "/products", 200, ms(5));
+        metrics.record("GET", "/products", 200, ms(50));
+        metrics.record("GET", "/products", 200, ms(500));
+        metrics.record("GET", "/products", 200, ms(5000));
+
+        String text = metrics.scrape();
+
+        assertLine(text, "http_server_request_duration_seconds_bucket{method=\"GET\",route=\"/products\",le=\"0.01\"} 1");
+        assertLine(text, "http_server_request_duration_seconds_bucket{method=\"GET\",route=\"/products\",le=\"0.1\"} 2");
+        assertLine(text, "http_server_request_duration_seconds_bucket{method=\"GET\",route=\"/products\",le=\"1\"} 3");
+        assertLine(text, "http_server_request_duration_seconds_bucket{method=\"GET\",route=\"/products\",le=\"+Inf\"} 4");
+        assertLine(text, "http_server_request_duration_seconds_count{method=\"GET\",route=\"/products\"} 4");
+        assertLine(text, "http_server_request_duration_seconds_sum{method=\"GET\",route=\"/products\"} 5.555");
+    }
+
+    @Test
+    void testQuantilesAndMax() {
+        for (int i = 1; i <= 1000; i++) {
+            metrics.record("POST", "/orders/from-cart/{cartId}", 201, ms(i));
+        }
+
+        String text = metrics.scrape();
+
+        assertEquals(0.5, value(text, "http_server_request_duration_quantiles_seconds{method=\"POST\",route=\"/orders/from-cart/{cartId}\",quantile=\"0.5\"}"), 0.01);
+        assertEquals(0.99, value(text, "http_server_request_duration_quantiles_seconds{method=\"POST\",route=\"/orders/from-cart/{cartId}\",quantile=\"0.99\"}"), 0.01);
+        assertEquals(1.0, value(text, "http_server_request_duration_max_seconds{method=\"POST\",route=\"/orders/from-cart/{cartId}\"}"), 0.01);
+    }
+
+    @Test
+    void testStatusCountersPerRoute() {
+        metrics.record("GET", "/carts/{cartId}", 200, ms(1));
+        metrics.record("GET", "/carts/{cartId}", 200, ms(1));
+        metrics.record("GET", "/carts/{cartId}", 404, ms(1));
+        metrics.record("DELETE", "/carts/{cartId}/items/{productId}", 403, ms(1));
+
+        String text = metrics.scrape();
+
+        assertLine(text, "http_server_responses_total{method=\"GET\",route=\"/carts/{cartId}\",status=\"200\"} 2");
+        assertLine(text, "http_server_responses_total{method=\"GET\",route=\"/carts/{cartId}\",status=\"404\"} 1");
+        assertLine(text, "http_server_responses_total{method=\"DELETE\",route=\"/carts/{cartId}/items/{productId}\",status=\"403\"} 1");
+    }
+
+    @Test
+    void testEveryFamilyIsDeclaredOnce() {
+        metrics.record("GET", "/ping", 200, ms(1));
+
+        String text = metrics.scrape();
+
+        for (String family : List.of("http_server_request_duration_seconds histogram",
+                "http_server_request_duration_quantiles_seconds summary",
+                "http_server_request_duration_max_seconds gauge",
+                "http_server_responses_total counter")) {
+            assertEquals(1, text.split("# TYPE " + family + "\n", -1).length - 1, family);
+        }
+        assertTrue(text.endsWith("\n"));
+    }
+
+    @Test
+    void testScrapesAccumulate() {
+        metrics.record("GET", "/products", 200, ms(5));
+        metrics.scrape();
+        metrics.record("GET", "/products", 200, ms(5));
+
+        assertLine(metrics.scrape(), "http_server_request_duration_seconds_count{method=\"GET\",route=\"/products\"} 2");
+    }
+
+    @Test
+    void testLatencyAboveHighestTrackableIsClamped() {
+        metrics.record("GET", "/orders/export", 200, TimeUnit.MINUTES.toNanos(5));
+
+        String text = metrics.scrape();
+
+        assertLine(text, "http_server_request_duration_seconds_count{method=\"GET\",route=\"/orders/export\"} 1");
+        assertEquals(60, value(text, "http_server_request_duration_max_seconds{method=\"GET\",route=\"/orders/export\"}"), 1);
+    }
+
+    @Test
+    void testConcurrentRecording() throws Exception {
+        int threads = 8;
+        int perThread = 10_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    metrics.record("GET", "/products", 200, ms(1));
+                    if (i % 1000 == 0) {
+                        metrics.scrape();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertLine(metrics.scrape(),
+                "http_server_request_duration_seconds_count{method=\"GET\",route=\"/products\"} " + threads * perThread);
+    }
+
+    @Test
+    void testLabelValuesAreEscaped() {
+        metrics.record("GET", "/odd\"route\\", 200, ms(1));
+
+        assertTrue(metrics.scrape().contains("route=\"/odd\\\"route\\\\\""));
+    }
+
+    // -------------------------
+    // Route templates
+    // -------------------------
+    @Test
+    void testRouteTemplateJoinsClassAndMethodPaths() throws NoSuchMethodException {
+        assertEquals("/carts/{cartId}/items", RouteTemplates.of(CartResource.class,
+                CartResource.class.getMethod("addProduct", Long.class,
+                        com.example.dto.CartItemRequest.class, jakarta.ws.rs.container.ContainerRequestContext.class)));
+        assertEquals("/metrics", RouteTemplates.of(MetricsResource.class, MetricsResource.class.getMethod("scrape")));
+    }
+
+    @Test
+    void testRouteTemplateDropsParameterRegexAndExtraSlashes() throws NoSuchMethodException {
+        assertEquals("/things/{id}/parts", RouteTemplates.of(Things.class, Things.class.getMethod("parts", long.class)));
+    }
+
+    @jakarta.ws.rs.Path("/things/")
+    static class Things {
+        @jakarta.ws.rs.Path("/{id: \\d+}/parts/")
+        public String parts(long id) {
+            return "";
+        }
+    }
+
+    // -------------------------
+    // Helpers
+    // -------------------------
+    private static long ms(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private static void assertLine(String text, String line) {
+        assertTrue(Arrays.asList(text.split("\n")).contains(line), () -> "missing line: " + line + "\n" + text);
+    }
+
+    private static double value(String text, String series) {
+        return Arrays.stream(text.split("\n"))
+                .filter(l -> l.startsWith(series + " "))
+                .mapToDouble(l -> Double.parseDouble(l.substring(series.length() + 1)))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("missing series: " + series + "\n" + text));
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowRequestProfilerTest {
+
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(10);
+
+    private final SlowRequestProfiler profiler = new SlowRequestProfiler(1000, 64, 100, 2);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private Thread handler;
+
+    @AfterEach
+    void releaseHandler() throws InterruptedException {
+        release.countDown();
+        if (handler != null) handler.join(5000);
+    }
+
+    @Test
+    void testSlowRequestStacksAreCollapsedUnderItsRoute() throws Exception {
+        startRequest("req-1", "GET /products/{id}");
+
+        profiler.sample(System.nanoTime() + SLOW);
+        profiler.sample(System.nanoTime() + SLOW);
+        finishRequest();
+
+        String collapsed = profiler.collapsed();
+        assertTrue(collapsed.startsWith("GET /products/{id};java.lang.Thread.run;"), collapsed);
+        assertTrue(collapsed.contains(getClass().getName() + ".handleSlowly;"), collapsed);
+        assertTrue(collapsed.trim().endsWith(" 2"), collapsed);
+        assertEquals(collapsed, profiler.collapsed("req-1").orElseThrow());
+
+        ProfilerStats stats = profiler.stats();
+        assertEquals(1, stats.getSlowRequests());
+        assertEquals(2, stats.getSamples());
+        assertEquals(0, stats.getInFlight());
+        assertEquals("req-1", stats.getRecent().get(0).getRequestId());
+        assertEquals(2, stats.getRecent().get(0).getSamples());
+    }
+
+    @Test
+    void testFastRequestsAreNotSampled() throws Exception {
+        startRequest("req-fast", "GET /ping");
+
+        profiler.sample(System.nanoTime());
+        assertEquals(1, profiler.stats().getInFlight());
+        finishRequest();
+
+        ProfilerStats stats = profiler.stats();
+        assertEquals(0, stats.getSamples());
+        assertEquals(0, stats.getSlowRequests());
+        assertTrue(stats.getRecent().isEmpty());
+        assertEquals("", profiler.collapsed());
+        assertTrue(profiler.collapsed("req-fast").isEmpty());
+    }
+
+    @Test
+    void testOnlyMostRecentSlowRequestsAreRetained() {
+        for (int i = 1; i <= 3; i++) {
+            profiler.begin("req-" + i, "GET /orders");
+            profiler.sample(System.nanoTime() + SLOW);
+            profiler.end();
+        }
+
+        assertEquals(3, profiler.stats().getSlowRequests());
+        assertEquals(2, profiler.stats().getRecent().size());
+        assertEquals("req-3", profiler.stats().getRecent().get(0).getRequestId());
+        assertTrue(profiler.collapsed("req-1").isEmpty());
+        assertTrue(profiler.collapsed("req-2").isPresent());
+    }
+
+    @Test
+    void testAggregateKeepsAtMostMaxStacks() {
+        SlowRequestProfiler small = new SlowRequestProfiler(1000, 64, 1, 10);
+        small.begin("req-1", "GET /a");
+        small.sample(System.nanoTime() + SLOW);
+        small.end();
+        small.begin("req-2", "GET /b");
+        small.sample(System.nanoTime() + SLOW);
+        small.end();
+
+        assertEquals(1, small.stats().getDistinctStacks());
+        assertEquals(1, small.stats().getDroppedSamples());
+        assertTrue(small.collapsed().startsWith("GET /a;"));
+        // still complete per request
+        assertTrue(small.collapsed("req-2").orElseThrow().startsWith("GET /b;"));
+    }
+
+    @Test
+    void testReset() {
+        profiler.begin("req-1", "GET /orders");
+        profiler.sample(System.nanoTime() + SLOW);
+        profiler.end();
+
+        profiler.reset();
+
+        assertEquals(0, profiler.stats().getSamples());
+        assertEquals("", profiler.collapsed());
+        assertTrue(profiler.stats().getRecent().isEmpty());
+    }
+
+    @Test
+    void testCollapseIsRootFirst() {
+        StackTraceElement[] stack = {
+                new StackTraceElement("com.example.dao.OrderDAO", "findAll", "OrderDAO.java", 10),
+                new StackTraceElement("com.example.services.OrderService", "list", "OrderService.java", 20)
+        };
+
+        assertEquals("GET /orders;com.example.services.OrderService.list;com.example.dao.OrderDAO.findAll",
+                SlowRequestProfiler.collapse("GET /orders", stack));
+    }
+
+    // -------------------------
+    // Harness
+    // -------------------------
+    private void startRequest(String requestId, String route) throws InterruptedException {
+        handler = new Thread(() -> {
+            profiler.begin(requestId, route);
+            try {
+                handleSlowly();
+            } finally {
+                profiler.end();
+            }
+        });
+        handler.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        // sample it parked in release.await(), not on its way there
+        while (handler.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private void handleSlowly() {
+        started.countDown();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void finishRequest() throws InterruptedException {
+        release.countDown();
+        handler.join(5000);
+        handler = null;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.metrics;
+
+import org.glassfish.api.jdbc.SQLTraceRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The trace records the pool hands over for plain, prepared and batched statements.
+ */
+class StatementTraceListenerTest {
+
+    private final StatementTraceListener listener = new StatementTraceListener();
+
+    @AfterEach
+    void closeRequest() {
+        RequestStatements.end(Integer.MAX_VALUE);
+    }
+
+    private void trace(String className, String methodName, Object... params) {
+        SQLTraceRecord record = new SQLTraceRecord();
+        record.setClassName(className);
+        record.setMethodName(methodName);
+        record.setParams(params);
+        listener.sqlTrace(record);
+    }
+
+    @Test
+    void testStatementsCountedPerRequest() {
+        RequestStatements.begin("req-1");
+        trace("java.sql.Connection", "createStatement");
+        trace("java.sql.Statement", "execute", "SELECT 1");
+        trace("java.sql.Connection", "prepareStatement", "SELECT ID FROM PRODUCT WHERE ID = ?");
+        trace("java.sql.PreparedStatement", "setLong", 1, 7L);
+        trace("java.sql.PreparedStatement", "executeQuery");
+        trace("java.sql.PreparedStatement", "executeQuery");
+        trace("java.sql.ResultSet", "next");
+
+        assertEquals(3, RequestStatements.count());
+        assertEquals(3, RequestStatements.end(10));
+        assertEquals(0, RequestStatements.count());
+    }
+
+    @Test
+    void testBatchIsOneStatement() {
+        RequestStatements.begin("req-batch");
+        trace("java.sql.Connection", "prepareStatement", "INSERT INTO AUDIT_LOG VALUES (?, ?)");
+        for (int i = 0; i < 5; i++) {
+            trace("java.sql.PreparedStatement", "addBatch");
+        }
+        trace("java.sql.PreparedStatement", "executeBatch");
+
+        assertEquals(1, RequestStatements.count());
+    }
+
+    @Test
+    void testOverThresholdIsCounted() {
+        long before = RequestStatements.stats().getRequestsOverThreshold();
+
+        RequestStatements.begin("req-chatty");
+        for (int i = 0; i < 3; i++) {
+            trace("java.sql.Statement", "execute", "SELECT " + i);
+        }
+        assertEquals(3, RequestStatements.end(2));
+
+        StatementStats stats = RequestStatements.stats();
+        assertEquals(before + 1, stats.getRequestsOverThreshold());
+        assertTrue(stats.getMaxPerRequest() >= 3);
+    }
+
+    @Test
+    void testStatementsOutsideRequestOnlyInTotals() {
+        long before = RequestStatements.stats().getStatements();
+
+        trace("java.sql.Statement", "executeUpdate", "DELETE FROM CART WHERE ID = 1");
+
+        assertEquals(0, RequestStatements.count());
+        assertEquals(before + 1, RequestStatements.stats().getStatements());
+    }
+
+    @Test
+    void testOtherCallsAreNotStatements() {
+        RequestStatements.begin("req-other");
+        trace("java.sql.Connection", "setAutoCommit", false);
+        trace("java.sql.Connection", "commit");
+        trace("java.sql.Statement", "getResultSet");
+        trace("java.sql.Statement", "close");
+
+        assertEquals(0, RequestStatements.count());
+    }
+}
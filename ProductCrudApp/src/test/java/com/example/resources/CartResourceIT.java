@@ -3,19 +3,11 @@ package com.example.resources;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
 
-import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.Matchers.*;
 
-public class CartResourceIT {
-
-    private static final String BASE_URI = "http://localhost:8080/ProductCrudApp/api";
-
-    @BeforeAll
-    public static void setup() {
-        RestAssured.baseURI = BASE_URI;
-    }
+public class CartResourceIT extends RestAssuredIT {
 
     @Test
     public void testCreateCart() {
@@ -0,0 +1,226 @@
+package com.example.resources;
+
+import com.example.loadtest.LatencyRecorder;
+import com.example.security.JwtIssuer;
+import io.restassured.path.json.config.JsonPathConfig;
+import io.restassured.response.Response;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * End-to-end load run against a deployed WAR (local Postgres, or com.example.loadtest.StandInDatabase).
+ *
+ * Seeds products, customers and one default shipping address per customer through the API, then runs
+ * virtual users that each loop over sessions: list a product page, view a product and - for
+ * load.checkout-ratio of the sessions - create a cart, add 1-3 items, check out and pay.
+ * Each virtual user owns its own customers, so users do not compete for the same cart.
+ * Latency per endpoint (client-side, includes RestAssured overhead) and throughput are printed and
+ * written as an HdrHistogram log; the run fails when more than load.max-error-rate of calls fail.
+ *
+ * Settings (-D system properties):
+ * <ul>
+ *   <li>load.jwt.private-key - PEM key matching the deployed mp.jwt public key (the test is skipped without it)</li>
+ *   <li>load.users - concurrent virtual users (50)</li>
+ *   <li>load.warmup-seconds / load.duration-seconds - unrecorded warmup, then the measured run (10 / 60)</li>
+ *   <li>load.products / load.customers - rows to seed (200 / 100, at least one customer per user)</li>
+ *   <li>load.checkout-ratio - share of sessions that check out (0.3)</li>
+ *   <li>load.max-error-rate - allowed share of failed calls (0.01)</li>
+ *   <li>load.output - histogram log (target/loadtest/latency.hlog)</li>
+ * </ul>
+ */
+public class CheckoutLoadIT extends RestAssuredIT {
+
+    private static final String PRIVATE_KEY = System.getProperty("load.jwt.private-key");
+    private static final int USERS = Integer.getInteger("load.users", 50);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup-seconds", 10);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration-seconds", 60);
+    private static final int PRODUCTS = Integer.getInteger("load.products", 200);
+    private static final int CUSTOMERS = Math.max(USERS, Integer.getInteger("load.customers", 100));
+    private static final double CHECKOUT_RATIO = Double.parseDouble(System.getProperty("load.checkout-ratio", "0.3"));
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("load.max-error-rate", "0.01"));
+    private static final Path OUTPUT = Path.of(System.getProperty("load.output", "target/loadtest/latency.hlog"));
+
+    private static final int PAGE_SIZE = 20;
+    private static final JsonPathConfig BIG_DECIMALS =
+            new JsonPathConfig(JsonPathConfig.NumberReturnType.BIG_DECIMAL);
+
+    private final List<Long> productIds = new ArrayList<>();
+    private final List<SeededCustomer> customers = new ArrayList<>();
+    private final AtomicReference<LatencyRecorder> recorder = new AtomicReference<>(new LatencyRecorder());
+
+    private record SeededCustomer(long id, String token) {}
+
+    @Test
+    public void testCheckoutUnderLoad() throws Exception {
+        assumeTrue(PRIVATE_KEY != null, "set -Dload.jwt.private-key to run the load test");
+        seed();
+
+        ExecutorService users = Executors.newFixedThreadPool(USERS);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS + DURATION_SECONDS);
+        for (int i = 0; i < USERS; i++) {
+            List<SeededCustomer> own = new ArrayList<>();
+            for (int c = i; c < customers.size(); c += USERS) {
+                own.add(customers.get(c));
+            }
+            users.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    session(own.get(ThreadLocalRandom.current().nextInt(own.size())));
+                }
+            });
+        }
+
+        // warmup results are dropped with the first recorder
+        TimeUnit.SECONDS.sleep(WARMUP_SECONDS);
+        LatencyRecorder measured = new LatencyRecorder();
+        measured.start();
+        recorder.set(measured);
+
+        users.shutdown();
+        users.awaitTermination(DURATION_SECONDS + 60L, TimeUnit.SECONDS);
+        measured.stop();
+
+        System.out.printf("%nLoad run: %d users, %d s, %d products, %d customers, checkout ratio %.2f%n",
+                USERS, DURATION_SECONDS, PRODUCTS, CUSTOMERS, CHECKOUT_RATIO);
+        measured.printReport(System.out);
+        measured.writeLog(OUTPUT);
+        System.out.println("Histograms written to " + OUTPUT.toAbsolutePath());
+
+        assertTrue(measured.totalCount() > 0, "no calls completed");
+        double errorRate = (double) measured.totalErrors() / measured.totalCount();
+        assertTrue(errorRate <= MAX_ERROR_RATE,
+                String.format("error rate %.4f above %.4f", errorRate, MAX_ERROR_RATE));
+    }
+
+    // -------------------------
+    // Virtual user session
+    // -------------------------
+    private void session(SeededCustomer customer) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String token = customer.token();
+
+        int pages = Math.max(1, PRODUCTS / PAGE_SIZE);
+        if (call("GET /products", 200, () -> as(token)
+                .queryParam("page", 1 + random.nextInt(pages))
+                .queryParam("size", PAGE_SIZE)
+                .get("/products")) == null) {
+            return;
+        }
+        if (call("GET /products/{id}", 200, () -> as(token).get("/products/" + randomProduct())) == null) {
+            return;
+        }
+        if (random.nextDouble() >= CHECKOUT_RATIO) {
+            return;
+        }
+
+        Response cart = call("POST /carts/customer/{customerId}", 201,
+                () -> as(token).post("/carts/customer/" + customer.id()));
+        if (cart == null) {
+            return;
+        }
+        long cartId = ((Number) cart.path("data.id")).longValue();
+
+        int lines = 1 + random.nextInt(3);
+        for (int i = 0; i < lines; i++) {
+            Map<String, Object> item = Map.of("productId", randomProduct(), "quantity", 1 + random.nextInt(2));
+            if (call("POST /carts/{cartId}/items", 200,
+                    () -> as(token).body(item).post("/carts/" + cartId + "/items")) == null) {
+                return;
+            }
+        }
+
+        Response order = call("POST /orders/from-cart/{cartId}", 201,
+                () -> as(token).post("/orders/from-cart/" + cartId));
+        if (order == null) {
+            return;
+        }
+        long orderId = ((Number) order.path("id")).longValue();
+        BigDecimal total = order.jsonPath(BIG_DECIMALS).get("total");
+
+        Map<String, Object> payment = Map.of("amount", total, "method", "CARD",
+                "txnRef", "LT-" + UUID.randomUUID());
+        call("POST /payments/{orderId}/pay", 200,
+                () -> as(token).body(payment).post("/payments/" + orderId + "/pay"));
+    }
+
+    /** Times one call; null (and an error) when it throws or answers with another status */
+    private Response call(String endpoint, int expectedStatus, Supplier<Response> request) {
+        LatencyRecorder current = recorder.get();
+        long start = System.nanoTime();
+        try {
+            Response response = request.get();
+            if (response.statusCode() != expectedStatus) {
+                current.recordError(endpoint, start);
+                return null;
+            }
+            current.record(endpoint, start);
+            return response;
+        } catch (RuntimeException e) {
+            current.recordError(endpoint, start);
+            return null;
+        }
+    }
+
+    private long randomProduct() {
+        return productIds.get(ThreadLocalRandom.current().nextInt(productIds.size()));
+    }
+
+    // -------------------------
+    // Seeding
+    // -------------------------
+    private void seed() throws Exception {
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        String admin = JwtIssuer.issueToken(1L, "loadtest-admin", List.of("ROLE_ADMIN"), PRIVATE_KEY);
+        String selfRegistration = JwtIssuer.issueToken(0L, "loadtest", List.of("ROLE_CUSTOMER"), PRIVATE_KEY);
+
+        for (int i = 0; i < PRODUCTS; i++) {
+            Map<String, Object> product = Map.of(
+                    "name", "Load product " + i,
+                    "description", "Seeded by CheckoutLoadIT",
+                    "price", new BigDecimal("9.99").add(BigDecimal.valueOf(i % 100)),
+                    "productCode", "LT" + run + "-" + i,
+                    "stock", 1_000_000);
+            productIds.add(created(as(admin).body(product).post("/products")));
+        }
+
+        for (int i = 0; i < CUSTOMERS; i++) {
+            Map<String, Object> customer = Map.of(
+                    "firstName", "Load",
+                    "lastName", "User" + i,
+                    "email", "load-" + run + "-" + i + "@example.com",
+                    "phone", "0123456789");
+            long customerId = created(as(selfRegistration).body(customer).post("/customers"));
+            String token = JwtIssuer.issueToken(customerId, "load-" + i, List.of("ROLE_CUSTOMER"), PRIVATE_KEY);
+
+            Map<String, Object> address = Map.of(
+                    "line1", i + " Main St",
+                    "city", "Maseru",
+                    "postalCode", "100",
+                    "country", "LS",
+                    "type", "SHIPPING",
+                    "default", true);
+            created(as(token).body(address).post("/customers/" + customerId + "/addresses"));
+            customers.add(new SeededCustomer(customerId, token));
+        }
+    }
+
+    private static long created(Response response) {
+        response.then().statusCode(201);
+        return ((Number) response.path("data.id")).longValue();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.resources;
+
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+
+import org.junit.jupiter.api.BeforeAll;
+
+/**
+ * RestAssured setup shared by the tests that run against a deployed WAR.
+ * The base URI can be pointed elsewhere with -Dit.baseUri=...
+ */
+public abstract class RestAssuredIT {
+
+    protected static final String BASE_URI =
+            System.getProperty("it.baseUri", "http://localhost:8080/ProductCrudApp/api");
+
+    @BeforeAll
+    public static void setup() {
+        RestAssured.baseURI = BASE_URI;
+    }
+
+    /** JSON in and out, with the caller's bearer token */
+    protected static RequestSpecification as(String token) {
+        return RestAssured.given()
+                .contentType(ContentType.JSON)
+                .accept(ContentType.JSON)
+                .header("Authorization", "Bearer " + token);
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.rest;
+
+import com.example.metrics.RequestStatements;
+import com.example.metrics.RouteMetrics;
+import com.example.metrics.SlowRequestProfiler;
+import com.example.resources.PingResource;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RequestContextFilterTest {
+
+    @InjectMocks
+    private RequestContextFilter filter;
+
+    @InjectMocks
+    private RequestScopeListener scopeListener;
+
+    @Mock
+    private RouteMetrics routeMetrics;
+
+    @Mock
+    private SlowRequestProfiler profiler;
+
+    @Mock
+    private ResourceInfo resourceInfo;
+
+    @Mock
+    private ContainerRequestContext request;
+
+    @Mock
+    private ContainerResponseContext response;
+
+    @Mock
+    private WriterInterceptorContext writer;
+
+    private final Map<String, Object> properties = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+
+        // request and writer share the request's properties, as in a container
+        doAnswer(i -> properties.put(i.getArgument(0), i.getArgument(1))).when(request).setProperty(anyString(), any());
+        when(request.getProperty(anyString())).thenAnswer(i -> properties.get(i.<String>getArgument(0)));
+        when(writer.getProperty(anyString())).thenAnswer(i -> properties.get(i.<String>getArgument(0)));
+        doAnswer(i -> properties.remove(i.<String>getArgument(0))).when(writer).removeProperty(anyString());
+
+        UriInfo uriInfo = mock(UriInfo.class);
+        when(uriInfo.getRequestUri()).thenReturn(URI.create("http://localhost/api/ping"));
+        when(uriInfo.getPath()).thenReturn("/ping");
+        when(request.getUriInfo()).thenReturn(uriInfo);
+        when(request.getMethod()).thenReturn("GET");
+        when(response.getHeaders()).thenReturn(new MultivaluedHashMap<>());
+
+        doReturn(PingResource.class).when(resourceInfo).getResourceClass();
+        when(resourceInfo.getResourceMethod()).thenReturn(PingResource.class.getMethod("ping"));
+    }
+
+    @Test
+    void testLatencyRecordedAfterEntityIsWritten() throws Exception {
+        when(response.getStatus()).thenReturn(200);
+        when(response.hasEntity()).thenReturn(true);
+
+        filter.filter(request);
+        filter.filter(request, response);
+        verify(routeMetrics, never()).record(anyString(), anyString(), anyInt(), anyLong());
+
+        filter.aroundWriteTo(writer);
+
+        verify(writer).proceed();
+        verify(routeMetrics).record(eq("GET"), eq("/ping"), eq(200), longThat(n -> n >= 0));
+    }
+
+    @Test
+    void testLatencyRecordedInResponseFilterWithoutEntity() throws Exception {
+        when(response.getStatus()).thenReturn(204);
+        when(response.hasEntity()).thenReturn(false);
+
+        filter.filter(request);
+        filter.filter(request, response);
+
+        verify(routeMetrics).record(eq("GET"), eq("/ping"), eq(204), anyLong());
+    }
+
+    @Test
+    void testLatencyRecordedEvenWhenWritingFails() throws Exception {
+        when(response.getStatus()).thenReturn(200);
+        when(response.hasEntity()).thenReturn(true);
+        doThrow(new java.io.IOException("client went away")).when(writer).proceed();
+
+        filter.filter(request);
+        filter.filter(request, response);
+
+        assertThrows(java.io.IOException.class, () -> filter.aroundWriteTo(writer));
+        verify(routeMetrics, times(1)).record(eq("GET"), eq("/ping"), eq(200), anyLong());
+    }
+
+    @Test
+    void testHeadRequestRecordedInResponseFilter() throws Exception {
+        when(request.getMethod()).thenReturn("HEAD");
+        when(response.getStatus()).thenReturn(200);
+        when(response.hasEntity()).thenReturn(true);
+        long requests = RequestStatements.stats().getRequests();
+
+        filter.filter(request);
+        filter.filter(request, response);
+
+        // the entity of a HEAD response is never written
+        verify(routeMetrics).record(eq("HEAD"), eq("/ping"), eq(200), anyLong());
+        verify(profiler).end();
+        assertEquals(requests + 1, RequestStatements.stats().getRequests());
+    }
+
+    @Test
+    void testScopeClosedWhenWritingFails() throws Exception {
+        when(response.getStatus()).thenReturn(200);
+        when(response.hasEntity()).thenReturn(true);
+        doThrow(new java.io.IOException("client went away")).when(writer).proceed();
+        long requests = RequestStatements.stats().getRequests();
+
+        filter.filter(request);
+        filter.filter(request, response);
+        assertThrows(java.io.IOException.class, () -> filter.aroundWriteTo(writer));
+
+        verify(profiler).end();
+        assertEquals(requests + 1, RequestStatements.stats().getRequests());
+    }
+
+    @Test
+    void testScopeClosedByListenerWhenEntityIsNeverWritten() throws Exception {
+        when(response.getStatus()).thenReturn(200);
+        when(response.hasEntity()).thenReturn(true);
+        long requests = RequestStatements.stats().getRequests();
+
+        filter.filter(request);
+        filter.filter(request, response);
+        verify(profiler, never()).end();
+
+        scopeListener.requestDestroyed(null);
+
+        verify(profiler).end();
+        assertEquals(requests + 1, RequestStatements.stats().getRequests());
+    }
+
+    @Test
+    void testUnmatchedRequestsShareOneRoute() throws Exception {
+        when(resourceInfo.getResourceMethod()).thenReturn(null);
+        when(response.getStatus()).thenReturn(404);
+        when(response.hasEntity()).thenReturn(false);
+
+        filter.filter(request);
+        filter.filter(request, response);
+
+        verify(routeMetrics).record(eq("GET"), eq(RouteMetrics.UNMATCHED), eq(404), anyLong());
+    }
+
+    @Test
+    void testProfilerFollowsRequestUntilEntityIsWritten() throws Exception {
+        when(request.getHeaderString("X-Request-Id")).thenReturn("abc-123");
+        when(response.getStatus()).thenReturn(200);
+        when(response.hasEntity()).thenReturn(true);
+
+        filter.filter(request);
+        verify(profiler).begin("abc-123", "GET /ping");
+
+        filter.filter(request, response);
+        verify(profiler, never()).end();
+
+        filter.aroundWriteTo(writer);
+        verify(profiler).end();
+    }
+
+    @Test
+    void testRequestIdEchoed() throws Exception {
+        when(request.getHeaderString("X-Request-Id")).thenReturn("abc-123");
+        MultivaluedHashMap<String, Object> headers = new MultivaluedHashMap<>();
+        when(response.getHeaders()).thenReturn(headers);
+
+        filter.filter(request);
+        filter.filter(request, response);
+
+        assertEquals("abc-123", headers.getFirst("X-Request-Id"));
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.search;
+
+import com.example.dao.ProductDAO;
+import com.example.dto.ProductSuggestion;
+import com.example.events.ProductChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProductSuggestIndexTest {
+
+    @Mock
+    private ProductDAO productDAO;
+
+    private ProductSuggestIndex suggestIndex;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        suggestIndex = new ProductSuggestIndex(productDAO, 100, 3, 2);
+
+        // three products over two pages
+        when(productDAO.findSuggestionsAfter(0L, 2)).thenReturn(List.of(
+                new ProductSuggestion(1L, "Desk Lamp", "LMP-1"),
+                new ProductSuggestion(2L, "Floor Lamp", "LMP-2")));
+        when(productDAO.findSuggestionsAfter(2L, 2)).thenReturn(List.of(
+                new ProductSuggestion(3L, "Wireless Mouse", "SKU-3")));
+        suggestIndex.rebuild();
+    }
+
+    @Test
+    void testRebuildReadsEveryPage() {
+        assertEquals(List.of(1L, 2L), ids("lamp"));
+        assertEquals(List.of(3L), ids("mou"));
+        assertEquals(3, suggestIndex.stats().getProducts());
+        assertEquals(1, suggestIndex.stats().getRebuilds());
+    }
+
+    @Test
+    void testChangesOverrideIndexUntilNextRebuild() {
+        // 2 renamed, 1 deleted, 4 created
+        when(productDAO.findSuggestions(Set.of(1L, 2L, 4L))).thenReturn(List.of(
+                new ProductSuggestion(2L, "Floor Light", "LMP-2"),
+                new ProductSuggestion(4L, "Lamp", "LMP-4")));
+        suggestIndex.onProductChanged(new ProductChangedEvent(Set.of(1L, 2L, 4L)));
+        suggestIndex.applyChanges();
+
+        assertEquals(List.of(4L), ids("lamp"));
+        assertEquals(List.of(2L), ids("light"));
+        assertEquals(3, suggestIndex.stats().getPendingChanges());
+
+        when(productDAO.findSuggestionsAfter(0L, 2)).thenReturn(List.of(
+                new ProductSuggestion(2L, "Floor Light", "LMP-2"),
+                new ProductSuggestion(3L, "Wireless Mouse", "SKU-3")));
+        when(productDAO.findSuggestionsAfter(3L, 2)).thenReturn(List.of(
+                new ProductSuggestion(4L, "Lamp", "LMP-4")));
+        suggestIndex.rebuild();
+
+        assertEquals(0, suggestIndex.stats().getPendingChanges());
+        assertEquals(List.of(4L), ids("lamp"));
+        assertEquals(List.of(2L), ids("light"));
+    }
+
+    @Test
+    void testStockReservationsAreIgnored() {
+        suggestIndex.onProductChanged(ProductChangedEvent.stockReserved(Set.of(1L)));
+        suggestIndex.applyChanges();
+
+        verify(productDAO, never()).findSuggestions(any());
+        assertEquals(0, suggestIndex.stats().getPendingChanges());
+    }
+
+    @Test
+    void testChangesAreReadOnlyWhenApplied() {
+        suggestIndex.onProductChanged(ProductChangedEvent.of(1L));
+
+        verify(productDAO, never()).findSuggestions(any());
+        assertEquals(List.of(1L, 2L), ids("lamp"));
+    }
+
+    @Test
+    void testFailedLookupKeepsIndexAsIsAndRetries() {
+        when(productDAO.findSuggestions(any())).thenThrow(new RuntimeException("db down"));
+        suggestIndex.onProductChanged(ProductChangedEvent.of(1L));
+
+        assertThrows(RuntimeException.class, suggestIndex::applyChanges);
+        assertEquals(List.of(1L, 2L), ids("lamp"));
+
+        // still pending: read again by the next apply
+        doReturn(List.of()).when(productDAO).findSuggestions(Set.of(1L));
+        suggestIndex.applyChanges();
+        assertEquals(List.of(2L), ids("lamp"));
+    }
+
+    @Test
+    void testLimit() {
+        assertEquals(1, suggestIndex.suggest("lamp", 1).size());
+        assertTrue(suggestIndex.suggest("lamp", 0).isEmpty());
+        assertTrue(suggestIndex.suggest(null, 5).isEmpty());
+    }
+
+    private List<Long> ids(String query) {
+        return suggestIndex.suggest(query, 10).stream().map(ProductSuggestion::getId).toList();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.search;
+
+import com.example.dto.ProductSuggestion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuggestIndexTest {
+
+    private final SuggestIndex index = SuggestIndex.build(List.of(
+            new ProductSuggestion(1L, "Wireless Mouse", "SKU-100"),
+            new ProductSuggestion(2L, "Wireless Headphones", "SKU-101"),
+            new ProductSuggestion(3L, "Desk Lamp", "LMP-7"),
+            new ProductSuggestion(4L, "Lamp", "LMP-8"),
+            new ProductSuggestion(5L, "Lampshade Linen", "LMP-9"),
+            new ProductSuggestion(6L, "Mouse Pad", "SKU-102")));
+
+    @Test
+    void testPrefixMatchesRankExactWordsAndShortNamesFirst() {
+        assertEquals(List.of(4L, 3L, 5L), ids("lamp"));
+        assertEquals(List.of(4L, 3L, 5L), ids("la"));
+    }
+
+    @Test
+    void testEveryQueryWordMustMatch() {
+        assertEquals(List.of(1L), ids("wireless mou"));
+        assertEquals(List.of(1L), ids("MOUSE  wire"));
+        assertTrue(ids("wireless lamp").isEmpty());
+    }
+
+    @Test
+    void testProductCodesMatchByPartAndCompactForm() {
+        // all prefix matches on both words: shortest name first
+        assertEquals(List.of(6L, 1L, 2L), ids("sku-10"));
+        assertEquals(List.of(2L), ids("sku101"));
+        assertEquals(List.of(5L), ids("lmp 9"));
+    }
+
+    @Test
+    void testInfixMatchesWhenPrefixesFindTooFew() {
+        assertEquals(List.of(2L), ids("phones"));
+        // "shade" only inside "lampshade"
+        assertEquals(List.of(5L), ids("shade"));
+        // two-letter words are prefix-only
+        assertTrue(ids("ad").isEmpty());
+    }
+
+    @Test
+    void testLimitAndCandidateCap() {
+        assertEquals(List.of(4L), ids("lamp", 1, 100));
+        // the scan stops after two matches, so the best of those two is returned
+        assertEquals(2, index.search(SuggestIndex.queryWords("l"), 10, 2, id -> false).size());
+    }
+
+    @Test
+    void testExcludedProductsAreSkipped() {
+        List<SuggestIndex.Hit> hits = index.search(SuggestIndex.queryWords("lamp"), 10, 100, id -> id == 4L);
+        assertEquals(List.of(3L, 5L), hits.stream().map(h -> h.product().getId()).toList());
+    }
+
+    @Test
+    void testScoreOfEntryOutsideIndexMatchesIndexScore() {
+        ProductSuggestion lamp = new ProductSuggestion(9L, "Desk Lamp", "LMP-7");
+        List<String> words = SuggestIndex.queryWords("desk la");
+
+        int indexed = index.search(words, 1, 100, id -> false).get(0).score();
+        assertEquals(indexed, SuggestIndex.score(lamp, words));
+        assertEquals(0, SuggestIndex.score(lamp, SuggestIndex.queryWords("mouse")));
+    }
+
+    @Test
+    void testEmptyQueriesAndEmptyIndex() {
+        assertTrue(ids("  ").isEmpty());
+        assertTrue(ids("zzz").isEmpty());
+        assertTrue(SuggestIndex.empty().search(List.of("lamp"), 10, 100, id -> false).isEmpty());
+        assertTrue(index.estimatedBytes() > 0);
+    }
+
+    private List<Long> ids(String query) {
+        return ids(query, 10, 100);
+    }
+
+    private List<Long> ids(String query, int limit, int maxCandidates) {
+        return index.search(SuggestIndex.queryWords(query), limit, maxCandidates, id -> false).stream()
+                .map(hit -> hit.product().getId())
+                .toList();
+    }
+}
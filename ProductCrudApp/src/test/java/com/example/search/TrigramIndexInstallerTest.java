@@ -0,0 +1,62 @@
+package com.example.search;
+
+import com.example.loadtest.StandInDatabase;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+
+import java.net.ServerSocket;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The installer against the load test's H2 stand-in, reached through the PostgreSQL driver as the
+ * application reaches it: no pg_trgm there, so nothing is created and startup goes on.
+ */
+class TrigramIndexInstallerTest {
+
+    private static Server server;
+    private static PGSimpleDataSource dataSource;
+
+    @BeforeAll
+    static void startStandIn() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        server = StandInDatabase.start(port);
+
+        dataSource = new PGSimpleDataSource();
+        dataSource.setUrl("jdbc:postgresql://localhost:" + port
+                + "/mem:trigram-installer;DB_CLOSE_DELAY=-1;MODE=PostgreSQL");
+        dataSource.setUser("sa");
+        dataSource.setPassword("sa");
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE products (id BIGINT PRIMARY KEY, name VARCHAR(255))");
+        }
+    }
+
+    @AfterAll
+    static void stopStandIn() {
+        server.stop();
+    }
+
+    @Test
+    void testSkippedWithoutTrigramSupport() throws Exception {
+        assertFalse(new TrigramIndexInstaller(dataSource).install());
+
+        // the connection and the table are still usable
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM products")) {
+            assertTrue(rs.next());
+            assertEquals(0, rs.getLong(1));
+        }
+    }
+}
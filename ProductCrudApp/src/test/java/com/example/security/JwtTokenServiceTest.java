@@ -0,0 +1,61 @@
+package com.example.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtTokenServiceTest {
+
+    @InjectMocks
+    private JwtTokenService jwtTokenService;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testSnapshotFromMechanism_NeverReadsHeader() {
+        PrincipalSnapshot snapshot = new PrincipalSnapshot(42L, "alice", PrincipalSnapshot.roleBit("ROLE_CUSTOMER"));
+        when(request.getAttribute(PrincipalSnapshot.REQUEST_ATTRIBUTE)).thenReturn(snapshot);
+
+        assertTrue(jwtTokenService.isCustomer());
+        assertFalse(jwtTokenService.isAdmin());
+        assertFalse(jwtTokenService.hasRole("ROLE_SUPER"));
+        assertEquals(42L, jwtTokenService.getCurrentUserId());
+        assertEquals("alice", jwtTokenService.getUsername());
+
+        verify(request, times(1)).getAttribute(PrincipalSnapshot.REQUEST_ATTRIBUTE);
+        verify(request, never()).getHeader(anyString());
+    }
+
+    @Test
+    void testMissingHeader_ThrowsOnUserIdAndDefaultsElsewhere() {
+        when(request.getHeader("Authorization")).thenReturn(null);
+
+        assertThrows(SecurityException.class, () -> jwtTokenService.getCurrentUserId());
+        assertEquals("unknown", jwtTokenService.getUsername());
+        assertFalse(jwtTokenService.isAdmin());
+        assertFalse(jwtTokenService.isCustomer());
+
+        verify(request, times(1)).getHeader("Authorization");
+    }
+
+    @Test
+    void testRoleBits_IgnoreUnknownRoles() {
+        int bits = PrincipalSnapshot.roleBits(java.util.List.of("ROLE_ADMIN", "ROLE_SUPER", "ROLE_OTHER"));
+        PrincipalSnapshot snapshot = new PrincipalSnapshot(1L, "bossman", bits);
+
+        assertTrue(snapshot.isAdmin());
+        assertTrue(snapshot.hasRole("ROLE_SUPER"));
+        assertFalse(snapshot.isCustomer());
+        assertFalse(snapshot.hasRole("ROLE_OTHER"));
+    }
+}
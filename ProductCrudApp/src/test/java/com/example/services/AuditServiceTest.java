@@ -1,7 +1,12 @@
 package com.example.services;
 
+import com.example.audit.AuditRecord;
+import com.example.audit.AuditWriter;
 import com.example.dao.AuditLogDAO;
 import com.example.entities.AuditLog;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -15,11 +20,13 @@ import static org.mockito.Mockito.*;
 class AuditServiceTest {
 
     private AuditLogDAO dao;
+    private AuditWriter writer;
     private AuditService service;
 
     @BeforeEach
     void setUp() {
         dao = mock(AuditLogDAO.class);
+        writer = mock(AuditWriter.class);
 
         // Use no-arg constructor (EJB style)
         service = new AuditService();
@@ -30,27 +37,38 @@ class AuditServiceTest {
             var field = AuditService.class.getDeclaredField("auditLogDAO");
             field.setAccessible(true);
             field.set(service, dao);
+
+            var writerField = AuditService.class.getDeclaredField("auditWriter");
+            writerField.setAccessible(true);
+            writerField.set(service, writer);
         } catch (Exception e) {
-            throw new RuntimeException("Failed to inject mock DAO into AuditService", e);
+            throw new RuntimeException("Failed to inject mocks into AuditService", e);
         }
     }
 
+    private void injectTxRegistry(TransactionSynchronizationRegistry registry) throws Exception {
+        var field = AuditService.class.getDeclaredField("txRegistry");
+        field.setAccessible(true);
+        field.set(service, registry);
+    }
+
     @Test
-    void testRecordCreatesAuditLog() {
+    void testRecordQueuesAuditRecord() {
         service.record("system", "AUTO_CANCEL", "Order", 99L, "{ \"reason\": \"timeout\" }");
 
-        ArgumentCaptor<AuditLog> captor = ArgumentCaptor.forClass(AuditLog.class);
-        verify(dao).save(captor.capture());
+        ArgumentCaptor<AuditRecord> captor = ArgumentCaptor.forClass(AuditRecord.class);
+        verify(writer).submit(captor.capture());
+        verify(dao, never()).save(any());
 
-        AuditLog log = captor.getValue();
+        AuditRecord log = captor.getValue();
 
-        assertAll("AuditLog fields",
+        assertAll("AuditRecord fields",
             () -> assertEquals("system", log.getActor()),
             () -> assertEquals("AUTO_CANCEL", log.getAction()),
             () -> assertEquals("Order", log.getEntityType()),
             () -> assertEquals(99L, log.getEntityId()),
             () -> assertTrue(log.getPayload().contains("timeout")),
-            () -> assertNotNull(log.getAt())
+            () -> assertNotNull(log.getCreatedAt())
         );
     }
 
@@ -58,13 +76,44 @@ class AuditServiceTest {
     void testRecordAllowsNullPayload() {
         service.record("user:42", "CREATE", "Cart", 1L, null);
 
-        ArgumentCaptor<AuditLog> captor = ArgumentCaptor.forClass(AuditLog.class);
-        verify(dao).save(captor.capture());
+        ArgumentCaptor<AuditRecord> captor = ArgumentCaptor.forClass(AuditRecord.class);
+        verify(writer).submit(captor.capture());
 
-        AuditLog log = captor.getValue();
+        AuditRecord log = captor.getValue();
         assertNull(log.getPayload(), "Payload should be allowed to be null");
     }
 
+    @Test
+    void testRecordInsideTransaction_QueuedOnlyAfterCommit() throws Exception {
+        TransactionSynchronizationRegistry registry = mock(TransactionSynchronizationRegistry.class);
+        when(registry.getTransactionStatus()).thenReturn(Status.STATUS_ACTIVE);
+        injectTxRegistry(registry);
+
+        service.record("alice", "ADD_PRODUCT_TO_CART", "Cart", 7L, "{}");
+
+        ArgumentCaptor<Synchronization> sync = ArgumentCaptor.forClass(Synchronization.class);
+        verify(registry).registerInterposedSynchronization(sync.capture());
+        verify(writer, never()).submit(any());
+
+        sync.getValue().afterCompletion(Status.STATUS_COMMITTED);
+        verify(writer).submit(any(AuditRecord.class));
+    }
+
+    @Test
+    void testRecordInsideTransaction_DiscardedOnRollback() throws Exception {
+        TransactionSynchronizationRegistry registry = mock(TransactionSynchronizationRegistry.class);
+        when(registry.getTransactionStatus()).thenReturn(Status.STATUS_ACTIVE);
+        injectTxRegistry(registry);
+
+        service.record("alice", "ADD_PRODUCT_TO_CART", "Cart", 7L, "{}");
+
+        ArgumentCaptor<Synchronization> sync = ArgumentCaptor.forClass(Synchronization.class);
+        verify(registry).registerInterposedSynchronization(sync.capture());
+
+        sync.getValue().afterCompletion(Status.STATUS_ROLLEDBACK);
+        verify(writer, never()).submit(any());
+    }
+
     @Test
     void testGetLogsDelegatesToDao() {
         AuditLog mockLog = mock(AuditLog.class);
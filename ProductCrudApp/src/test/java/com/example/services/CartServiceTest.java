@@ -1,5 +1,8 @@
 package com.example.services;
 
+import com.example.carts.CartExpiryMetrics;
+import com.example.carts.CartExpiryScheduler;
+import com.example.carts.CartExpiryService;
 import com.example.dao.CartDAO;
 import com.example.dao.CustomerDAO;
 import com.example.dao.ProductDAO;
@@ -11,6 +14,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 
+import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -31,6 +35,9 @@ class CartServiceTest {
     @Mock private SecurityContext securityContext;
     @Mock private JsonWebToken jwt;
     @Mock private EntityManager entityManager;
+    @Mock private CartExpiryService cartExpiryService;
+    @Mock private CartExpiryMetrics cartExpiryMetrics;
+    @Mock private CartExpiryScheduler cartExpiryScheduler;
 
     private Customer customer;
     private Product product;
@@ -82,8 +89,8 @@ class CartServiceTest {
         Cart result = cartService.getOrCreateActiveCart(1L);
 
         assertEquals(CartStatus.NEW, result.getStatus());
-        verify(cartDAO).save(any());
-        verify(entityManager).flush();
+        verify(cartDAO).saveForId(any());
+        verify(cartExpiryScheduler).register(result);
         verify(auditService).record(eq("system"), eq("CREATE_CART"), eq("Cart"), any(), contains("\"customerId\": 1"));
     }
 
@@ -122,6 +129,7 @@ class CartServiceTest {
 
         assertEquals(1, result.getItems().size());
         assertEquals(2, result.getItems().get(0).getQuantity());
+        verify(cartExpiryScheduler).register(cart);
         verify(auditService).record(eq("system"), eq("ADD_PRODUCT_TO_CART"), eq("Cart"), eq(200L), anyString());
     }
 
@@ -240,17 +248,33 @@ class CartServiceTest {
     // expireCarts
     // -------------------------
     @Test
-    void testExpireCarts() {
-        cart.setExpiresAt(LocalDateTime.now().minusMinutes(10));
-        List<Cart> expired = List.of(cart);
+    void testExpireCartsWorksThroughChunksUntilOneComesBackShort() throws Exception {
+        setExpiryChunkSize(2);
+        when(cartExpiryService.expireChunk(any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(200L, 201L))
+                .thenReturn(List.of(202L));
 
-        when(cartDAO.findByStatusAndExpiresBefore(eq(CartStatus.NEW), any(LocalDateTime.class)))
-                .thenReturn(expired);
+        cartService.expireCarts();
+
+        verify(cartExpiryService, times(2)).expireChunk(any(LocalDateTime.class), eq(2));
+        verify(cartExpiryMetrics).recordRun(any(LocalDateTime.class), eq(3), eq(2), anyLong());
+    }
+
+    @Test
+    void testExpireCartsWithNothingDueRecordsEmptyRun() throws Exception {
+        setExpiryChunkSize(500);
+        when(cartExpiryService.expireChunk(any(LocalDateTime.class), eq(500))).thenReturn(List.of());
 
         cartService.expireCarts();
 
-        assertEquals(CartStatus.EXPIRED, cart.getStatus());
-        verify(cartDAO).updateAll(expired);
-        verify(auditService).record(eq("system"), eq("EXPIRE_CART"), eq("Cart"), eq(200L), eq("{}"));
+        verify(cartExpiryService, times(1)).expireChunk(any(LocalDateTime.class), eq(500));
+        verify(cartExpiryMetrics).recordRun(any(LocalDateTime.class), eq(0), eq(1), anyLong());
+        verifyNoInteractions(auditService);
+    }
+
+    private void setExpiryChunkSize(int size) throws Exception {
+        Field field = CartService.class.getDeclaredField("expiryChunkSize");
+        field.setAccessible(true);
+        field.set(cartService, size);
     }
 }
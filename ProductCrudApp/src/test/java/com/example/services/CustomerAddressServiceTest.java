@@ -8,6 +8,8 @@ import com.example.dto.mappers.CustomerAddressMapper;
 import com.example.entities.Address;
 import com.example.entities.AddressType;
 import com.example.entities.Customer;
+import com.example.events.CustomerAddressChangedEvent;
+import jakarta.enterprise.event.Event;
 import jakarta.persistence.EntityManager;
 import jakarta.ws.rs.core.SecurityContext;
 import org.eclipse.microprofile.jwt.JsonWebToken;
@@ -32,6 +34,7 @@ class CustomerAddressServiceTest {
     @Mock private SecurityContext securityContext;
     @Mock private JsonWebToken jwt;
     @Mock private EntityManager entityManager;
+    @Mock private Event<CustomerAddressChangedEvent> addressChanged;
 
     private Customer customer;
     private Address existingAddress;
@@ -92,6 +95,8 @@ class CustomerAddressServiceTest {
         assertEquals("123 Main St", result.getLine1());
         verify(addressDAO).save(newAddress);
         verify(entityManager).flush();
+        verify(customerDAO).evictFromSharedCache(1L);
+        verify(addressChanged).fire(any(CustomerAddressChangedEvent.class));
         verify(auditService).record(eq("system"), eq("ADD_ADDRESS"), eq("CustomerAddress"), any(), contains("\"customerId\": 1"));
     }
 
@@ -202,6 +207,8 @@ class CustomerAddressServiceTest {
         assertTrue(deleted);
         verify(addressDAO).delete(existingAddress);
         verify(entityManager).flush();
+        verify(customerDAO).evictFromSharedCache(1L);
+        verify(addressChanged).fire(any(CustomerAddressChangedEvent.class));
         verify(auditService).record(eq("system"), eq("DELETE_ADDRESS"), eq("CustomerAddress"), eq(100L), contains("\"customerId\": 1"));
     }
 
@@ -130,13 +130,13 @@ class CustomerServiceTest {
             Customer c = invocation.getArgument(0);
             c.setId(10L); // simulate DB-generated ID
             return null;
-        }).when(customerDAO).save(any(Customer.class));
+        }).when(customerDAO).saveForId(any(Customer.class));
 
         CustomerResponse response = customerService.createCustomer(request);
 
         assertNotNull(response);
         assertEquals("Alice", response.getFirstName());
-        verify(customerDAO).save(any(Customer.class));
+        verify(customerDAO).saveForId(any(Customer.class));
         verify(auditService).record(eq("system"), eq("CREATE_CUSTOMER"), eq("Customer"), eq(10L), contains("alice@example.com"));
     }
 
@@ -0,0 +1,180 @@
+package com.example.services;
+
+import com.example.testsupport.CountingDriver;
+import com.example.dao.OrderDAO;
+import com.example.dao.OrderStatusHistoryDAO;
+import com.example.dao.PaymentDAO;
+import com.example.dto.OrderResponse;
+import com.example.entities.*;
+import com.example.security.JwtTokenService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * SQL statements per order read endpoint, counted at the JDBC driver (CountingDriver over H2,
+ * BenchmarkPU) with a cold shared cache. The budgets must not depend on how many orders, items
+ * or payments are returned; a lazy association touched while mapping shows up as a failure here.
+ */
+class OrderServiceQueryCountTest {
+
+    private static final int ORDERS = 4;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    private static EntityManagerFactory emf;
+    private static Long customerId;
+    private static Long firstOrderId;
+
+    private EntityManager entityManager;
+    private OrderService orderService;
+
+    @BeforeAll
+    static void createData() throws ClassNotFoundException {
+        Class.forName(CountingDriver.class.getName());
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("eclipselink.persistencexml", "META-INF/benchmark-persistence.xml");
+        properties.put("jakarta.persistence.jdbc.driver", CountingDriver.class.getName());
+        properties.put("jakarta.persistence.jdbc.url",
+                CountingDriver.PREFIX + "h2:mem:order-query-count;MODE=LEGACY;DB_CLOSE_DELAY=-1");
+        emf = Persistence.createEntityManagerFactory("BenchmarkPU", properties);
+
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        Customer customer = new Customer("Query", "Count", "query-count@example.com", "0123456789");
+        em.persist(customer);
+
+        Product[] products = new Product[ITEMS_PER_ORDER];
+        for (int i = 0; i < products.length; i++) {
+            products[i] = new Product("Product " + i, "Query count product", new BigDecimal("10.00"), "QC-" + i, 100);
+            em.persist(products[i]);
+        }
+
+        for (int o = 0; o < ORDERS; o++) {
+            Cart cart = new Cart();
+            cart.setCustomer(customer);
+            cart.setStatus(CartStatus.CHECKED_OUT);
+            em.persist(cart);
+
+            Order order = new Order();
+            order.setCart(cart);
+            order.setCustomer(customer);
+            order.setStatus(OrderStatus.PAID);
+            order.setOrderDate(LocalDateTime.now().minusMinutes(o));
+            order.setSubtotal(new BigDecimal("30.00"));
+            order.setVatTotal(new BigDecimal("4.50"));
+            order.setTotal(new BigDecimal("34.50"));
+            for (Product product : products) {
+                order.addItem(new OrderItem(order, product, 1, product.getPrice()));
+            }
+            em.persist(order);
+            em.persist(new Payment(order, PaymentMethod.CARD, new BigDecimal("10.00"), PaymentStatus.FAILED, "t-" + o));
+            em.persist(new Payment(order, PaymentMethod.CARD, order.getTotal(), PaymentStatus.SUCCEEDED, "s-" + o));
+            em.persist(new OrderStatusHistory(order, null, OrderStatus.NEW));
+            em.persist(new OrderStatusHistory(order, OrderStatus.NEW, OrderStatus.PAID));
+            em.flush();
+            if (firstOrderId == null) firstOrderId = order.getId();
+        }
+        em.getTransaction().commit();
+        customerId = customer.getId();
+        em.close();
+    }
+
+    @AfterAll
+    static void closeFactory() {
+        emf.close();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // worst case: nothing in the shared cache, fresh persistence context
+        emf.getCache().evictAll();
+        EntityManager context = emf.createEntityManager();
+        entityManager = context;
+
+        JwtTokenService jwt = mock(JwtTokenService.class);
+        when(jwt.isCustomer()).thenReturn(false);
+
+        orderService = new OrderService();
+        inject("orderDAO", new OrderDAO() {{ this.em = context; }});
+        inject("paymentDAO", new PaymentDAO() {{ this.em = context; }});
+        inject("orderStatusHistoryDAO", new OrderStatusHistoryDAO() {{ this.em = context; }});
+        inject("jwtTokenService", jwt);
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManager.close();
+    }
+
+    // -------------------------
+    // Budgets per endpoint
+    // -------------------------
+    @Test
+    void testGetOrderById() {
+        // order + customer + cart + items + products joined, payments, history
+        OrderResponse order = assertStatements(3, () -> orderService.getOrderDto(firstOrderId));
+
+        assertEquals(ITEMS_PER_ORDER, order.getItems().size());
+        assertEquals(2, order.getPayments().size());
+        assertEquals(2, order.getHistory().size());
+    }
+
+    @Test
+    void testGetOrdersByCustomer() {
+        // orders (+ customer, cart), items, products, payments, history
+        List<OrderResponse> orders = assertStatements(5, () -> orderService.getOrdersByCustomerDto(customerId, 1, 50));
+
+        assertEquals(ORDERS, orders.size());
+        assertTrue(orders.stream().allMatch(o -> o.getItems().size() == ITEMS_PER_ORDER));
+    }
+
+    @Test
+    void testGetAllOrders() {
+        List<OrderResponse> orders = assertStatements(5, () -> orderService.getAllOrderDtos());
+
+        assertEquals(ORDERS, orders.size());
+        assertTrue(orders.stream().allMatch(o -> o.getPayments().size() == 2));
+    }
+
+    @Test
+    void testExportChunk() {
+        List<OrderResponse> chunk = assertStatements(5, () -> orderService.getOrderExportChunk(null, ORDERS));
+
+        assertEquals(ORDERS, chunk.size());
+        assertTrue(chunk.stream().allMatch(o -> o.getHistory().size() == 2));
+    }
+
+    // -------------------------
+    // Harness
+    // -------------------------
+    private static <T> T assertStatements(int expected, Supplier<T> call) {
+        long before = CountingDriver.roundTrips();
+        T result = call.get();
+        long statements = CountingDriver.roundTrips() - before;
+
+        assertEquals(expected, statements, "SQL statements executed");
+        return result;
+    }
+
+    private void inject(String fieldName, Object value) throws Exception {
+        Field field = OrderService.class.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(orderService, value);
+    }
+}
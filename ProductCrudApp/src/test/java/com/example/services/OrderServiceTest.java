@@ -7,16 +7,25 @@ import com.example.entities.AddressType;
 import com.example.entities.CartStatus;
 import com.example.entities.OrderStatus;
 import com.example.entities.PaymentMethod;
+import com.example.events.OrderChangedEvent;
+import com.example.events.ProductChangedEvent;
+import com.example.inventory.InsufficientStockException;
+import com.example.inventory.StockReservationService;
+import com.example.security.JwtTokenService;
+import com.example.security.exceptions.UnauthorizedAccessException;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 
+import jakarta.enterprise.event.Event;
 import jakarta.ws.rs.core.SecurityContext;
 import org.eclipse.microprofile.jwt.JsonWebToken;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,6 +42,10 @@ class OrderServiceTest {
     @Mock private AddressDAO addressDAO;
     @Mock private PaymentDAO paymentDAO;
     @Mock private OrderStatusHistoryDAO orderStatusHistoryDAO;
+    @Mock private JwtTokenService jwtTokenService;
+    @Mock private Event<ProductChangedEvent> productChanged;
+    @Mock private Event<OrderChangedEvent> orderChanged;
+    @Mock private StockReservationService stockReservationService;
 
     @Mock private JsonWebToken jwt;
     @Mock private SecurityContext securityContext;
@@ -89,22 +102,40 @@ class OrderServiceTest {
         when(cartDAO.findById(Cart.class, 1L)).thenReturn(cart);
         when(productDAO.findById(Product.class, 10L)).thenReturn(product);
         when(addressDAO.findDefaultShippingByCustomer(customer)).thenReturn(Optional.of(defaultAddress));
-        doNothing().when(orderDAO).save(any(Order.class));
+        when(jwtTokenService.getCurrentUserId()).thenReturn(1L);
+        doNothing().when(orderDAO).saveForId(any(Order.class));
         doNothing().when(cartDAO).update(cart);
-        doNothing().when(productDAO).update(product);
         doNothing().when(orderStatusHistoryDAO).save(any(OrderStatusHistory.class));
 
         OrderResponse response = orderService.createOrderFromCartDto(1L);
 
         assertNotNull(response);
         assertEquals(CartStatus.CHECKED_OUT, cart.getStatus());
-        assertEquals(3, product.getStock());
         assertNotNull(response.getShippingAddress());
         assertEquals("123 Main St", response.getShippingAddress().getLine1());
 
-        verify(orderDAO).save(any(Order.class));
+        verify(orderDAO).saveForId(any(Order.class));
         verify(cartDAO).update(cart);
-        verify(productDAO).update(product);
+        // stock is taken by the reservation engine, not by updating the entity
+        verify(stockReservationService).reserve(Map.of(10L, 2));
+        verify(productDAO, never()).update(product);
+    }
+
+    @Test
+    void testCreateOrderFromCart_InsufficientStock_NamesProduct() {
+        when(cartDAO.findById(Cart.class, 1L)).thenReturn(cart);
+        when(productDAO.findById(Product.class, 10L)).thenReturn(product);
+        when(addressDAO.findDefaultShippingByCustomer(customer)).thenReturn(Optional.of(defaultAddress));
+        when(jwtTokenService.getCurrentUserId()).thenReturn(1L);
+        doThrow(new InsufficientStockException(10L, "Insufficient stock for product: 10"))
+                .when(stockReservationService).reserve(anyMap());
+
+        InsufficientStockException ex = assertThrows(InsufficientStockException.class,
+                () -> orderService.createOrderFromCartDto(1L));
+
+        assertEquals("Insufficient stock for product: Laptop", ex.getMessage());
+        assertEquals(CartStatus.NEW, cart.getStatus());
+        verify(orderDAO, never()).saveForId(any(Order.class));
     }
 
     @Test
@@ -128,7 +159,7 @@ class OrderServiceTest {
         order.setStatus(OrderStatus.NEW);
         order.setCustomer(customer);
 
-        when(orderDAO.findById(Order.class, 1L)).thenReturn(order);
+        when(orderDAO.findByIdWithDetails(1L)).thenReturn(order);
         doNothing().when(paymentDAO).save(any(Payment.class));
         doNothing().when(orderDAO).update(order);
         doNothing().when(orderStatusHistoryDAO).save(any(OrderStatusHistory.class));
@@ -149,7 +180,7 @@ class OrderServiceTest {
         order.setStatus(OrderStatus.NEW);
         order.setCustomer(customer);
 
-        when(orderDAO.findById(Order.class, 1L)).thenReturn(order);
+        when(orderDAO.findByIdWithDetails(1L)).thenReturn(order);
         doNothing().when(paymentDAO).save(any(Payment.class));
         when(securityContext.isUserInRole("ROLE_CUSTOMER")).thenReturn(true);
 
@@ -157,6 +188,9 @@ class OrderServiceTest {
 
         assertEquals(OrderStatus.NEW, order.getStatus());
         verify(paymentDAO).save(any(Payment.class));
+        // the status stays, but the payments list changed: the order's version (its ETag) must move
+        verify(orderDAO).incrementVersion(order);
+        verify(orderChanged).fire(any(OrderChangedEvent.class));
     }
 
     @Test
@@ -165,7 +199,7 @@ class OrderServiceTest {
         order.setId(1L);
         order.setStatus(OrderStatus.PAID);
 
-        when(orderDAO.findById(Order.class, 1L)).thenReturn(order);
+        when(orderDAO.findByIdWithDetails(1L)).thenReturn(order);
         doNothing().when(orderStatusHistoryDAO).save(any(OrderStatusHistory.class));
 
         OrderResponse response = orderService.updateStatusDto(1L, OrderStatus.SHIPPED);
@@ -177,18 +211,53 @@ class OrderServiceTest {
 
     @Test
     void testGetOrdersByCustomerDto_OwnershipEnforced() {
+        when(jwtTokenService.isCustomer()).thenReturn(true);
+        when(jwtTokenService.getCurrentUserId()).thenReturn(customer.getId());
+
+        assertThrows(UnauthorizedAccessException.class, () -> orderService.getOrdersByCustomerDto(2L, 1, 10));
+        verify(orderDAO, never()).findByCustomerId(anyLong(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testGetOrdersByCustomerDto_PagedWithBatchedLookups() {
         Order order1 = new Order(); order1.setId(1L); order1.setCustomer(customer);
         Order order2 = new Order(); order2.setId(2L); order2.setCustomer(customer);
-        Customer other = new Customer("Jane", "Doe", "jane@example.com", "9999999999");
-        other.setId(2L);
-        Order order3 = new Order(); order3.setId(3L); order3.setCustomer(other);
 
-        when(orderDAO.findAll(Order.class)).thenReturn(Arrays.asList(order1, order2, order3));
+        Payment payment = new Payment();
+        payment.setOrder(order2);
+        payment.setAmount(new BigDecimal("10.00"));
+        payment.setStatus(PaymentStatus.SUCCEEDED);
 
-        var responses = orderService.getOrdersByCustomerDto(customer.getId());
+        when(jwtTokenService.isCustomer()).thenReturn(true);
+        when(jwtTokenService.getCurrentUserId()).thenReturn(customer.getId());
+        when(orderDAO.findByCustomerId(customer.getId(), 10, 10)).thenReturn(Arrays.asList(order1, order2));
+        when(paymentDAO.findByOrderIds(List.of(1L, 2L))).thenReturn(Map.of(2L, List.of(payment)));
+        when(orderStatusHistoryDAO.findByOrderIds(List.of(1L, 2L))).thenReturn(Map.of());
+
+        var responses = orderService.getOrdersByCustomerDto(customer.getId(), 2, 10);
 
         assertEquals(2, responses.size());
         assertTrue(responses.stream().allMatch(r -> r.getCustomerId().equals(customer.getId())));
+        assertTrue(responses.get(0).getPayments().isEmpty());
+        assertEquals(1, responses.get(1).getPayments().size());
+
+        // no per-order lookups
+        verify(paymentDAO, never()).findByOrder(any());
+        verify(orderStatusHistoryDAO, never()).findByOrder(any());
     }
-}
 
+    @Test
+    void testGetOrderExportChunk_ContinuesAfterLastId() {
+        Order order5 = new Order(); order5.setId(5L); order5.setCustomer(customer);
+        Order order6 = new Order(); order6.setId(6L); order6.setCustomer(customer);
+
+        when(orderDAO.findAfterId(4L, 2)).thenReturn(Arrays.asList(order5, order6));
+        when(paymentDAO.findByOrderIds(List.of(5L, 6L))).thenReturn(Map.of());
+        when(orderStatusHistoryDAO.findByOrderIds(List.of(5L, 6L))).thenReturn(Map.of());
+
+        var chunk = orderService.getOrderExportChunk(4L, 2);
+
+        assertEquals(List.of(5L, 6L), chunk.stream().map(OrderResponse::getId).toList());
+        verify(orderDAO, never()).findPageWithDetails(anyInt(), anyInt(), any());
+    }
+}
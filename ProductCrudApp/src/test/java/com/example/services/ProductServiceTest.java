@@ -1,19 +1,29 @@
 package com.example.services;
 
+import com.example.cache.ProductCache;
+import com.example.catalog.CatalogColumns;
+import com.example.catalog.ProductCatalog;
 import com.example.dao.ProductDAO;
+import com.example.dto.CountMode;
+import com.example.dto.KeysetCursor;
 import com.example.dto.PaginatedResponse;
 import com.example.dto.ProductRequest;
 import com.example.dto.ProductResponse;
 import com.example.entities.Product;
+import com.example.events.ProductChangedEvent;
+import com.example.security.JwtTokenService;
 
+import jakarta.enterprise.event.Event;
 import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -32,21 +42,38 @@ class ProductServiceTest {
     @Mock
     private EntityManager entityManager;
 
+    @Mock
+    private JwtTokenService jwtService;
+
+    @Mock
+    private ProductCatalog productCatalog;  // no snapshot: listings come from productDAO
+
+    @Mock
+    private Event<ProductChangedEvent> productChanged;
+
+    @Spy
+    private ProductCache productCache = new ProductCache(100, 60);
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
         when(productDAO.getEntityManager()).thenReturn(entityManager);
         doNothing().when(entityManager).flush();
+        when(jwtService.isAdmin()).thenReturn(true);
+        when(jwtService.getUsername()).thenReturn("system");
     }
 
     @Test
     void testGetProducts_withFilters() {
         Product p1 = new Product("Laptop", "High-end laptop", new BigDecimal("1200.00"), "SKU123", 10);
+        p1.setId(1L);
         Product p2 = new Product("Mouse", "Wireless mouse", new BigDecimal("25.00"), "SKU124", 50);
-        List<Product> products = Arrays.asList(p1, p2);
+        p2.setId(2L);
+        List<Product> products = Arrays.asList(p2, p1); // IN-query order is arbitrary
 
-        when(productDAO.findProducts(0, 10, "Lap", new BigDecimal("1000"), new BigDecimal("1300"), true))
-                .thenReturn(products);
+        when(productDAO.findProductIds(0, 10, "Lap", new BigDecimal("1000"), new BigDecimal("1300"), true))
+                .thenReturn(List.of(1L, 2L));
+        when(productDAO.findByIds(List.of(1L, 2L))).thenReturn(products);
         when(productDAO.countProducts("Lap", new BigDecimal("1000"), new BigDecimal("1300"), true))
                 .thenReturn(2L);
 
@@ -54,14 +81,103 @@ class ProductServiceTest {
                 productService.getProducts(1, 10, "Lap", new BigDecimal("1000"), new BigDecimal("1300"), true);
 
         assertNotNull(response);
-        assertEquals(2, response.getItems().size());
+        assertEquals(List.of(1L, 2L), response.getItems().stream().map(ProductResponse::getId).toList());
         assertEquals(2, response.getTotalItems());
         assertEquals(1, response.getCurrentPage());
 
-        verify(productDAO).findProducts(0, 10, "Lap", new BigDecimal("1000"), new BigDecimal("1300"), true);
+        verify(productDAO).findProductIds(0, 10, "Lap", new BigDecimal("1000"), new BigDecimal("1300"), true);
         verify(productDAO).countProducts("Lap", new BigDecimal("1000"), new BigDecimal("1300"), true);
     }
 
+    @Test
+    void testGetProducts_fromInMemoryCatalog() {
+        Product p1 = new Product("Laptop", "High-end laptop", new BigDecimal("1200.00"), "SKU123", 10);
+        p1.setId(1L);
+        p1.setCreatedAt(LocalDateTime.of(2024, 1, 1, 9, 0));
+        Product p2 = new Product("Laptop bag", "Padded bag", new BigDecimal("45.00"), "SKU126", 3);
+        p2.setId(2L);
+        p2.setCreatedAt(LocalDateTime.of(2024, 1, 2, 9, 0));
+
+        when(productCatalog.select("Lap", null, null, true, null, 2, 2, true))
+                .thenReturn(new CatalogColumns.Page(List.of(2L, 1L), 7));
+        when(productDAO.findByIds(List.of(2L, 1L))).thenReturn(List.of(p1, p2));
+
+        PaginatedResponse<ProductResponse> response =
+                productService.getProducts(2, 2, "Lap", null, null, true, null, CountMode.ESTIMATE);
+
+        assertEquals(List.of(2L, 1L), response.getItems().stream().map(ProductResponse::getId).toList());
+        assertEquals(7, response.getTotalItems());
+        assertNull(response.getTotalEstimated());
+        assertNotNull(response.getNextCursor());
+        verify(productDAO, never()).findProductIds(anyInt(), anyInt(), any(), any(), any(), any());
+        verify(productDAO, never()).countProducts(any(), any(), any(), any());
+    }
+
+    @Test
+    void testGetProducts_cursorFromLastIdWhenItsProductIsGone() {
+        Product p1 = new Product("Laptop", "High-end laptop", new BigDecimal("1200.00"), "SKU123", 10);
+        p1.setId(1L);
+        p1.setCreatedAt(LocalDateTime.of(2024, 1, 2, 9, 0));
+        LocalDateTime secondCreatedAt = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+        // product 2 is deleted after the id query but still read back with its createdAt
+        when(productDAO.findProductIds(0, 2, null, null, null, null)).thenReturn(List.of(1L, 2L));
+        when(productDAO.findByIds(List.of(1L, 2L))).thenReturn(List.of(p1));
+        when(productDAO.findCreatedAt(2L)).thenReturn(secondCreatedAt);
+
+        PaginatedResponse<ProductResponse> response =
+                productService.getProducts(1, 2, null, null, null, null, null, CountMode.NONE);
+
+        assertEquals(List.of(1L), response.getItems().stream().map(ProductResponse::getId).toList());
+        KeysetCursor next = KeysetCursor.decode(response.getNextCursor());
+        assertEquals(2L, next.getId());
+        assertEquals(secondCreatedAt, next.getCreatedAt());
+    }
+
+    @Test
+    void testSearchProducts_keepsRankOrder() {
+        Product laptop = new Product("Laptop", "High-end laptop", new BigDecimal("1200.00"), "SKU123", 10);
+        laptop.setId(1L);
+        Product stand = new Product("Laptop stand", "Aluminium stand", new BigDecimal("40.00"), "SKU125", 5);
+        stand.setId(3L);
+
+        when(productDAO.searchProductIds("labtop stand", 10, 10, null, null, true)).thenReturn(List.of(3L, 1L));
+        when(productDAO.findByIds(List.of(3L, 1L))).thenReturn(List.of(laptop, stand));
+        when(productDAO.countSearchResults("labtop stand", null, null, true)).thenReturn(12L);
+        when(productDAO.maxSearchResults()).thenReturn(2000);
+
+        PaginatedResponse<ProductResponse> response =
+                productService.searchProducts("  Labtop   STAND ", 2, 10, null, null, true, CountMode.EXACT);
+
+        assertEquals(List.of(3L, 1L), response.getItems().stream().map(ProductResponse::getId).toList());
+        assertEquals(2, response.getCurrentPage());
+        assertEquals(12, response.getTotalItems());
+        assertNull(response.getTotalEstimated());
+        assertNull(response.getNextCursor());
+    }
+
+    @Test
+    void testSearchProducts_totalAtCandidateLimitIsEstimated() {
+        when(productDAO.searchProductIds("lamp", 0, 10, null, null, null)).thenReturn(List.of());
+        when(productDAO.countSearchResults("lamp", null, null, null)).thenReturn(2000L);
+        when(productDAO.maxSearchResults()).thenReturn(2000);
+
+        PaginatedResponse<ProductResponse> response =
+                productService.searchProducts("lamp", 1, 10, null, null, null, CountMode.ESTIMATE);
+
+        assertEquals(2000, response.getTotalItems());
+        assertEquals(Boolean.TRUE, response.getTotalEstimated());
+    }
+
+    @Test
+    void testSearchProducts_noCount() {
+        when(productDAO.searchProductIds("lamp", 0, 10, null, null, null)).thenReturn(List.of());
+
+        productService.searchProducts("lamp", 1, 10, null, null, null, CountMode.NONE);
+
+        verify(productDAO, never()).countSearchResults(any(), any(), any(), any());
+    }
+
     @Test
     void testGetProductById_found() {
         Product product = new Product("Laptop", "High-end laptop", new BigDecimal("1200.00"), "SKU123", 10);
@@ -73,6 +189,21 @@ class ProductServiceTest {
         assertEquals("Laptop", response.getName());
     }
 
+    @Test
+    void testGetProductById_servedFromCacheUntilChanged() {
+        Product product = new Product("Laptop", "High-end laptop", new BigDecimal("1200.00"), "SKU123", 10);
+        product.setId(1L);
+        when(productDAO.findById(Product.class, 1L)).thenReturn(product);
+
+        productService.getProductById(1L);
+        productService.getProductById(1L);
+        verify(productDAO, times(1)).findById(Product.class, 1L);
+
+        productCache.invalidate(List.of(1L));
+        productService.getProductById(1L);
+        verify(productDAO, times(2)).findById(Product.class, 1L);
+    }
+
     @Test
     void testGetProductById_notFound() {
         when(productDAO.findById(Product.class, 1L)).thenReturn(null);
@@ -89,7 +220,7 @@ class ProductServiceTest {
             Product p = invocation.getArgument(0);
             p.setId(101L);
             return null;
-        }).when(productDAO).save(any(Product.class));
+        }).when(productDAO).saveForId(any(Product.class));
 
         ProductResponse response = productService.createProduct(request);
 
@@ -97,7 +228,7 @@ class ProductServiceTest {
         assertEquals(101L, response.getId());
         assertEquals("Laptop", response.getName());
 
-        verify(productDAO).save(any(Product.class));
+        verify(productDAO).saveForId(any(Product.class));
         verify(auditService).record(
                 eq("system"), eq("CREATE_PRODUCT"), eq("Product"), eq(101L), contains("Laptop")
         );
@@ -117,6 +248,7 @@ class ProductServiceTest {
         assertEquals("Updated description", response.getDescription());
 
         verify(productDAO).update(existing);
+        verify(productChanged).fire(argThat(e -> e.getProductIds().equals(Set.of(50L))));
         verify(auditService).record(eq("system"), eq("UPDATE_PRODUCT"), eq("Product"), eq(50L), contains("Laptop"));
     }
 
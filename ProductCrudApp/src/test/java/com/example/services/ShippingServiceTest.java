@@ -5,6 +5,8 @@ import com.example.dao.OrderStatusHistoryDAO;
 import com.example.dao.ShipmentDAO;
 import com.example.dto.OrderResponse;
 import com.example.entities.*;
+import com.example.events.OrderChangedEvent;
+import jakarta.enterprise.event.Event;
 import jakarta.ws.rs.ForbiddenException;
 import jakarta.persistence.EntityManager;
 import org.eclipse.microprofile.jwt.JsonWebToken;
@@ -29,6 +31,7 @@ class ShippingServiceTest {
     @Mock private ShipmentDAO shipmentDAO;
     @Mock private OrderStatusHistoryDAO orderStatusHistoryDAO;
     @Mock private AuditService auditService;
+    @Mock private Event<OrderChangedEvent> orderChanged;
 
     @Mock private EntityManager orderEm;
     @Mock private EntityManager shipmentEm;
@@ -83,7 +86,7 @@ class ShippingServiceTest {
 
     @Test
     void testShipOrder_Success() {
-        when(orderDAO.findById(Order.class, 1L)).thenReturn(paidOrder);
+        when(orderDAO.findByIdWithDetails(1L)).thenReturn(paidOrder);
         doNothing().when(shipmentDAO).save(any(Shipment.class));
 
         OrderResponse response = shippingService.shipOrder(1L, "DHL");
@@ -103,7 +106,7 @@ class ShippingServiceTest {
         other.setId(2L);
         paidOrder.setCustomer(other);
 
-        when(orderDAO.findById(Order.class, 1L)).thenReturn(paidOrder);
+        when(orderDAO.findByIdWithDetails(1L)).thenReturn(paidOrder);
 
         // Expect SecurityException instead of ForbiddenException
         SecurityException ex = assertThrows(SecurityException.class,
@@ -118,7 +121,7 @@ class ShippingServiceTest {
         newOrder.setId(99L);
         newOrder.setStatus(OrderStatus.NEW);
         newOrder.setCustomer(customer);
-        when(orderDAO.findById(Order.class, 99L)).thenReturn(newOrder);
+        when(orderDAO.findByIdWithDetails(99L)).thenReturn(newOrder);
 
         IllegalStateException ex = assertThrows(IllegalStateException.class,
                 () -> shippingService.shipOrder(99L, "FedEx"));
@@ -128,7 +131,7 @@ class ShippingServiceTest {
 
     @Test
     void testDeliverOrder_Success() {
-        when(orderDAO.findById(Order.class, 2L)).thenReturn(shippedOrder);
+        when(orderDAO.findByIdWithDetails(2L)).thenReturn(shippedOrder);
         when(shipmentDAO.findByOrder(shippedOrder)).thenReturn(shipment);
         doNothing().when(shipmentDAO).update(any(Shipment.class));
 
@@ -146,7 +149,7 @@ class ShippingServiceTest {
 
     @Test
     void testDeliverOrder_InvalidStatus() {
-        when(orderDAO.findById(Order.class, 1L)).thenReturn(paidOrder);
+        when(orderDAO.findByIdWithDetails(1L)).thenReturn(paidOrder);
 
         IllegalStateException ex = assertThrows(IllegalStateException.class,
                 () -> shippingService.deliverOrder(1L));
@@ -156,7 +159,7 @@ class ShippingServiceTest {
 
     @Test
     void testDeliverOrder_ShipmentNotFound() {
-        when(orderDAO.findById(Order.class, 2L)).thenReturn(shippedOrder);
+        when(orderDAO.findByIdWithDetails(2L)).thenReturn(shippedOrder);
         when(shipmentDAO.findByOrder(shippedOrder)).thenReturn(null);
 
         IllegalStateException ex = assertThrows(IllegalStateException.class,
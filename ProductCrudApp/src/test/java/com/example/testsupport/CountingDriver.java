@@ -0,0 +1,120 @@
+package com.example.testsupport;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * JDBC driver that wraps another one and counts database round trips.
+ * URL: {@code jdbc:counting:<delegate url without "jdbc:">}, e.g. {@code jdbc:counting:h2:mem:bench}.
+ *
+ * A round trip is one execute / executeQuery / executeUpdate / executeBatch call, so a JDBC batch
+ * of 50 INSERTs counts once; {@link #batchedStatements()} counts the statements inside batches.
+ * Shared by the statement-count tests and the JMH benchmarks.
+ */
+public final class CountingDriver implements Driver {
+
+    public static final String PREFIX = "jdbc:counting:";
+
+    private static final Set<String> EXECUTES = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private static final LongAdder ROUND_TRIPS = new LongAdder();
+    private static final LongAdder BATCHED = new LongAdder();
+
+    static {
+        try {
+            DriverManager.registerDriver(new CountingDriver());
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public static long roundTrips() {
+        return ROUND_TRIPS.sum();
+    }
+
+    public static long batchedStatements() {
+        return BATCHED.sum();
+    }
+
+    public static void reset() {
+        ROUND_TRIPS.reset();
+        BATCHED.reset();
+    }
+
+    // -------------------------
+    // Driver
+    // -------------------------
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) return null;
+        Connection delegate = DriverManager.getConnection("jdbc:" + url.substring(PREFIX.length()), info);
+        return wrap(delegate, Connection.class);
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(PREFIX);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() { return 1; }
+
+    @Override
+    public int getMinorVersion() { return 0; }
+
+    @Override
+    public boolean jdbcCompliant() { return false; }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    // -------------------------
+    // Proxies
+    // -------------------------
+    @SuppressWarnings("unchecked")
+    private static <T> T wrap(T delegate, Class<T> type) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            String name = method.getName();
+            if (EXECUTES.contains(name)) ROUND_TRIPS.increment();
+            if (name.equals("addBatch")) BATCHED.increment();
+
+            Object result = invoke(method, delegate, args);
+
+            // statements handed out by the connection are counted too
+            if (result instanceof Statement statement && !(result instanceof Proxy)) {
+                return wrap(statement, (Class<Statement>) method.getReturnType());
+            }
+            return result;
+        };
+        return (T) Proxy.newProxyInstance(CountingDriver.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}